@@ -14,6 +14,9 @@ public class BoardroomBookingApplication {
             SpringApplication.run(BoardroomBookingApplication.class, args);
             System.out.println("Boardroom Booking Platform started successfully!");
             System.out.println("Access the application at: http://localhost:8000");
+        } catch (SpringApplication.AbandonedRunException e) {
+            // Ends the run on purpose, e.g. once AOT processing has the bean definitions it needs
+            throw e;
         } catch (Exception e) {
             System.err.println("Failed to start Boardroom Booking Platform: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,71 @@
+package com.example.booking.config;
+
+import com.example.booking.listener.AuditJournalEventListener;
+import com.example.booking.listener.ClusterChangeLogEventListener;
+import com.example.booking.listener.RoomChangeEventListener;
+import com.example.booking.service.AuditJournalService;
+import com.example.booking.service.ClusterChangeLog;
+import com.example.booking.service.RoomChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the application's Hibernate event listeners, which react to every flushed
+ * entity change regardless of which service or repository issued it.
+ */
+@Configuration
+public class HibernateListenerConfig {
+
+    @Bean
+    public SmartInitializingSingleton roomChangeListenerRegistrar(EntityManagerFactory entityManagerFactory,
+                                                                  RoomChangeTracker roomChangeTracker) {
+        return () -> {
+            RoomChangeEventListener listener = new RoomChangeEventListener(roomChangeTracker);
+            EventListenerRegistry registry = eventListenerRegistry(entityManagerFactory);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton auditJournalListenerRegistrar(EntityManagerFactory entityManagerFactory,
+                                                                    AuditJournalService auditJournalService) {
+        return () -> {
+            if (!auditJournalService.isEnabled()) {
+                return;
+            }
+            AuditJournalEventListener listener = new AuditJournalEventListener(auditJournalService);
+            EventListenerRegistry registry = eventListenerRegistry(entityManagerFactory);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton clusterChangeLogListenerRegistrar(EntityManagerFactory entityManagerFactory,
+                                                                        ClusterChangeLog clusterChangeLog) {
+        return () -> {
+            if (!clusterChangeLog.isEnabled()) {
+                return;
+            }
+            ClusterChangeLogEventListener listener = new ClusterChangeLogEventListener(clusterChangeLog);
+            EventListenerRegistry registry = eventListenerRegistry(entityManagerFactory);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        };
+    }
+
+    static EventListenerRegistry eventListenerRegistry(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+    }
+}
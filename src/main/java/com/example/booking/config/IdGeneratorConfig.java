@@ -0,0 +1,37 @@
+package com.example.booking.config;
+
+import com.example.booking.id.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Passes this node's {@code app.id.node-id} to the id generator of the entities. Every
+ * node sharing the database needs its own, between 0 and 1023. The same node id marks
+ * this node's rows in the cluster change log and its replica heartbeat.
+ *
+ * A single node may leave it unset and use node 0. With the change log or the read
+ * replica enabled, several nodes are expected, so startup fails unless it is set.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final String[] CLUSTER_SETTINGS = {
+            "app.cluster.change-log.enabled", "app.datasource.replica.enabled"};
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorPropertiesCustomizer(Environment environment,
+                                                                         @Value("${app.id.node-id:0}") int nodeId) {
+        if (!environment.containsProperty(TimeOrderedIdGenerator.NODE_ID_SETTING)) {
+            for (String setting : CLUSTER_SETTINGS) {
+                if (environment.getProperty(setting, Boolean.class, false)) {
+                    throw new IllegalStateException(setting + " is set, so every node needs its own "
+                            + TimeOrderedIdGenerator.NODE_ID_SETTING);
+                }
+            }
+        }
+        return properties -> properties.put(TimeOrderedIdGenerator.NODE_ID_SETTING, nodeId);
+    }
+}
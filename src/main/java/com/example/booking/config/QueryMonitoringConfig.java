@@ -0,0 +1,47 @@
+package com.example.booking.config;
+
+import com.example.booking.monitoring.EntityLoadCountingListener;
+import com.example.booking.monitoring.QueryBudgetFilter;
+import com.example.booking.monitoring.QueryCountingStatementInspector;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires the SQL statement and entity load counters into Hibernate and installs the
+ * per-request query budget filter.
+ */
+@Configuration
+public class QueryMonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCountingRegistrar(EntityManagerFactory entityManagerFactory) {
+        return () -> HibernateListenerConfig.eventListenerRegistry(entityManagerFactory)
+                .appendListeners(EventType.POST_LOAD, new EntityLoadCountingListener());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            @Value("${app.query-budget.max-statements:20}") int maxStatements,
+            @Value("${app.query-budget.max-entity-loads:200}") int maxEntityLoads) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(maxStatements, maxEntityLoads));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
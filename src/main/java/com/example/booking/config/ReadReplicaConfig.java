@@ -0,0 +1,85 @@
+package com.example.booking.config;
+
+import com.example.booking.datasource.ReadWriteRoutingDataSource;
+import com.example.booking.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits reads from writes, enabled with {@code app.datasource.replica.enabled}.
+ *
+ * The primary pool is configured by the usual {@code spring.datasource.*} properties and
+ * the replica pool by {@code app.datasource.replica.*}. The application's data source
+ * routes read-only transactions to the replica as long as it keeps up, see
+ * {@link ReadWriteRoutingDataSource}. Replication itself is left to the database.
+ *
+ * Pointing the replica URL at a second, unreplicated database does not exercise the
+ * replica locally: the schema is only created on the primary, and the replica never sees
+ * a heartbeat, so it counts as lagging and gets no reads. Outside a real replication
+ * setup, something must copy the primary's {@code replica_heartbeat} rows to the replica,
+ * as {@code ReadWriteRoutingDataSourceTest} does.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${app.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String driverClassName) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password);
+        if (!driverClassName.isEmpty()) {
+            builder.driverClassName(driverClassName);
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.id.node-id:0}") String nodeId,
+                                               @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, nodeId, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor,
+                meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.booking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the nightly integrity audit.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
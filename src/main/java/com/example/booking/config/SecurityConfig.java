@@ -0,0 +1,36 @@
+package com.example.booking.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Same defaults as Spring Boot's own filter chain, except that the REST API under
+ * {@code /api} is exempt from CSRF tokens: its clients authenticate with HTTP Basic
+ * and retry with idempotency keys rather than browser sessions. Approving bookings is
+ * reserved to administrators; whether a caller may act on a particular booking is
+ * checked by {@link com.example.booking.service.BookingService}.
+ */
+@Configuration
+public class SecurityConfig {
+
+    /**
+     * Roles of administrators: the configured admin account and global admin users
+     */
+    public static final String[] ADMIN_ROLES = {"ADMIN", "GLOBAL_ADMIN"};
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .authorizeHttpRequests(requests -> requests
+                        .requestMatchers(HttpMethod.POST, "/api/bookings/*/approve").hasAnyRole(ADMIN_ROLES)
+                        .anyRequest().authenticated())
+                .csrf(csrf -> csrf.ignoringRequestMatchers("/api/**"))
+                .formLogin(Customizer.withDefaults())
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+}
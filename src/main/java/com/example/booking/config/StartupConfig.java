@@ -0,0 +1,37 @@
+package com.example.booking.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps beans that must run without being asked eager when
+ * {@code spring.main.lazy-initialization} is on, as in the {@code fast-startup} profile:
+ * scheduled jobs, lifecycle beans, and registrars hooking listeners into Hibernate would
+ * otherwise never be created. Everything else is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundWorkLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null &&
+                (SmartInitializingSingleton.class.isAssignableFrom(beanType) ||
+                        SmartLifecycle.class.isAssignableFrom(beanType) ||
+                        hasScheduledMethod(beanType));
+    }
+
+    private static boolean hasScheduledMethod(Class<?> beanType) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> scheduled.set(true),
+                method -> !scheduled.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return scheduled.get();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.booking.controller;
+
+import com.example.booking.config.SecurityConfig;
+import com.example.booking.dto.BookingRequest;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.dto.StoredResponse;
+import com.example.booking.entity.User;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.service.BookingService;
+import com.example.booking.service.IdempotencyService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Booking create, cancel, approve and check-in over HTTP, acting as the authenticated
+ * user: bookings are made for the caller, and only administrators may book for another
+ * user or approve bookings.
+ *
+ * Each endpoint accepts an optional {@code Idempotency-Key} header. A retry with the same
+ * key returns the original status and body with an {@code Idempotent-Replayed: true}
+ * header instead of running the operation again.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingApiController {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final UserRepository userRepository;
+
+    public BookingApiController(BookingService bookingService, IdempotencyService idempotencyService,
+                                UserRepository userRepository) {
+        this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
+        this.userRepository = userRepository;
+    }
+
+    @PostMapping
+    public ResponseEntity<String> createBooking(@Valid @RequestBody BookingRequest request,
+                                                @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key,
+                                                Authentication principal) {
+        Long userId = bookerId(request.getUserId(), principal);
+        String scope = scope(principal, "create");
+        // Derived from the key, so a retry after a lost response finds the booking it created
+        String reference = key != null
+                ? UUID.nameUUIDFromBytes((scope + ":" + key).getBytes(StandardCharsets.UTF_8)).toString()
+                : null;
+        return toResponse(idempotencyService.execute(scope, key, request, () -> ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(BookingResponse.from(bookingService.createBooking(userId, request.getBoardroomId(),
+                        request.getBookingDate(), request.getStartTime(), request.getEndTime(), request.getPurpose(),
+                        request.getAttendeeCount(), reference)))));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<String> cancelBooking(@PathVariable Long id,
+                                                @RequestBody(required = false) Map<String, String> body,
+                                                @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key,
+                                                Authentication principal) {
+        String reason = body != null ? body.get("reason") : null;
+        return toResponse(idempotencyService.execute(scope(principal, "cancel"), key, Arrays.asList(id, reason),
+                () -> ResponseEntity.ok(BookingResponse.from(
+                        bookingService.cancelBooking(id, reason, principal.getName(), isAdmin(principal))))));
+    }
+
+    @PostMapping("/{id}/approve")
+    public ResponseEntity<String> approveBooking(@PathVariable Long id,
+                                                 @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key,
+                                                 Principal principal) {
+        return toResponse(idempotencyService.execute(scope(principal, "approve"), key, id,
+                () -> ResponseEntity.ok(BookingResponse.from(bookingService.approveBooking(id, principal.getName())))));
+    }
+
+    @PostMapping("/{id}/check-in")
+    public ResponseEntity<String> checkIn(@PathVariable Long id,
+                                          @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key,
+                                          Authentication principal) {
+        return toResponse(idempotencyService.execute(scope(principal, "check-in"), key, id,
+                () -> ResponseEntity.ok(BookingResponse.from(
+                        bookingService.checkIn(id, principal.getName(), isAdmin(principal))))));
+    }
+
+    /**
+     * The booker of a new booking: the caller, or the requested user if the caller is an administrator
+     */
+    private Long bookerId(Long requestedUserId, Authentication principal) {
+        if (requestedUserId != null && isAdmin(principal)) {
+            return requestedUserId;
+        }
+        User caller = userRepository.findByUsernameIgnoreCase(principal.getName())
+                .orElseThrow(() -> new AccessDeniedException("No user account for " + principal.getName()));
+        if (requestedUserId != null && !requestedUserId.equals(caller.getId())) {
+            throw new AccessDeniedException("Only an administrator can book for another user");
+        }
+        return caller.getId();
+    }
+
+    private static boolean isAdmin(Authentication principal) {
+        Set<String> roles = Arrays.stream(SecurityConfig.ADMIN_ROLES).map(role -> "ROLE_" + role)
+                .collect(Collectors.toSet());
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch(roles::contains);
+    }
+
+    private static String scope(Principal principal, String operation) {
+        return principal.getName() + ":" + operation;
+    }
+
+    private static ResponseEntity<String> toResponse(StoredResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatus())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (response.isReplayed()) {
+            builder.header(REPLAYED_HEADER, "true");
+        }
+        return builder.body(response.getBody());
+    }
+}
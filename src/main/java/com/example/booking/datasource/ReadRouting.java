@@ -0,0 +1,50 @@
+package com.example.booking.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets code that must see the latest committed data keep its reads on the primary,
+ * even inside read-only transactions that would otherwise go to the replica. Typical
+ * callers fill caches keyed by a change version, where a stale replica read would be
+ * cached as current.
+ *
+ * The choice is made when a transaction first uses its connection, so a transaction
+ * that already read from the replica keeps doing so.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Run the action with every connection it opens taken from the primary
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * Run the action with every connection it opens taken from the primary
+     */
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Whether the current thread is inside {@link #onPrimary}
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+}
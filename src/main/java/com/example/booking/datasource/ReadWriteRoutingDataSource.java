@@ -0,0 +1,87 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * A read-only transaction still uses the primary when the replica is behind by more than
+ * the allowed lag, when the caller asked for the primary through {@link ReadRouting}, or
+ * when the authenticated user committed a write the replica has not replayed yet. The
+ * latter gives every user read-your-writes: right after booking, their own booking list
+ * comes from the primary until the replica has caught up.
+ *
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so the connection is chosen once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryCounter = Counter.builder("booking.datasource.connections").tag("target", PRIMARY)
+                .register(meterRegistry);
+        this.replicaCounter = Counter.builder("booking.datasource.connections").tag("target", REPLICA)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinOnCommit(user);
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        if (ReadRouting.isPrimaryRequired() || !lagMonitor.canRead(user)) {
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        replicaCounter.increment();
+        return REPLICA;
+    }
+
+    private void pinOnCommit(String user) {
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive() ||
+                TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagMonitor.pin(user);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() &&
+                !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how far the replica is behind the primary, and remembers which users wrote
+ * something the replica has not replayed yet.
+ *
+ * Every run writes the current time to this node's row of the {@code replica_heartbeat}
+ * table on the primary, then reads the row back from the replica. The value read is the
+ * latest moment up to which the replica is known to be complete; the lag is the time
+ * since then, so it includes up to one heartbeat interval even for a replica that is
+ * fully caught up. A replica that cannot be queried counts as infinitely behind.
+ *
+ * A user's write pins their reads to the primary until the replica has replayed a
+ * heartbeat written after it. Pins are kept in memory on the node that took the write:
+ * read-your-writes holds for requests served by the same node, so a cluster needs
+ * sticky sessions to extend it to every request of the user.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String UPDATE_SQL = "UPDATE replica_heartbeat SET beat_millis = ? WHERE node_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO replica_heartbeat (node_id, beat_millis) VALUES (?, ?)";
+    private static final String SELECT_SQL = "SELECT beat_millis FROM replica_heartbeat WHERE node_id = ?";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String nodeId;
+    private final long maxLagMillis;
+
+    private final Map<String, Long> pinnedSince = new ConcurrentHashMap<>();
+    private volatile long replicatedUpTo;
+    private volatile boolean reachable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, String nodeId, long maxLagMillis,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.nodeId = nodeId;
+        this.maxLagMillis = maxLagMillis;
+
+        Gauge.builder("booking.datasource.replica.lag", this,
+                        monitor -> monitor.reachable ? monitor.getLagMillis() : Double.NaN)
+                .description("How far the replica is known to be behind the primary")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("booking.datasource.replica.pinned-users", pinnedSince, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Write a heartbeat to the primary and read back how far the replica got
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:250}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_SQL, now, nodeId) == 0) {
+                primary.update(INSERT_SQL, nodeId, now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot write replica heartbeat: {}", e.getMessage());
+        }
+
+        try {
+            List<Long> beats = replica.queryForList(SELECT_SQL, Long.class, nodeId);
+            replicatedUpTo = beats.isEmpty() ? 0L : beats.get(0);
+            if (!reachable) {
+                reachable = true;
+                log.info("Replica reachable, {} ms behind", getLagMillis());
+            }
+        } catch (RuntimeException e) {
+            if (reachable) {
+                log.warn("Replica unreachable, reading from the primary: {}", e.getMessage());
+                reachable = false;
+            }
+        }
+
+        long upTo = replicatedUpTo;
+        pinnedSince.values().removeIf(since -> since < upTo);
+    }
+
+    /**
+     * Whether a read for the user (or for nobody in particular when {@code null}) may go
+     * to the replica
+     */
+    public boolean canRead(String user) {
+        if (!reachable || getLagMillis() > maxLagMillis) {
+            return false;
+        }
+        if (user != null) {
+            Long since = pinnedSince.get(user);
+            return since == null || since < replicatedUpTo;
+        }
+        return true;
+    }
+
+    /**
+     * Keep the user's reads on the primary until the replica has replayed their last write
+     */
+    public void pin(String user) {
+        pinnedSince.put(user, System.currentTimeMillis());
+    }
+
+    /**
+     * Time since the last moment the replica is known to be complete up to
+     */
+    public long getLagMillis() {
+        return reachable ? Math.max(0, System.currentTimeMillis() - replicatedUpTo) : Long.MAX_VALUE;
+    }
+}
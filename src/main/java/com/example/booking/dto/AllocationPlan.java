@@ -0,0 +1,93 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Result of allocating rooms to the pending bookings of a date range, either as a preview
+ * or as approved in one transaction.
+ */
+public class AllocationPlan {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final List<RoomAssignment> assignments;
+    private final List<Long> unplacedBookingIds;
+    private final boolean approved;
+    private final long elapsedMillis;
+
+    public AllocationPlan(LocalDate startDate, LocalDate endDate, List<RoomAssignment> assignments,
+                          List<Long> unplacedBookingIds, boolean approved, long elapsedMillis) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.assignments = assignments;
+        this.unplacedBookingIds = unplacedBookingIds;
+        this.approved = approved;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public List<RoomAssignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Pending bookings for which no room is free; they stay pending
+     */
+    public List<Long> getUnplacedBookingIds() {
+        return unplacedBookingIds;
+    }
+
+    public boolean isApproved() {
+        return approved;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Helper methods
+    public int getPlacedCount() {
+        return assignments.size();
+    }
+
+    public long getMovedCount() {
+        return assignments.stream().filter(RoomAssignment::isMoved).count();
+    }
+
+    /**
+     * Seats left empty had every placed booking kept the room it asked for
+     */
+    public int getRequestedEmptySeats() {
+        return assignments.stream().mapToInt(a -> a.getRequestedCapacity() - a.getAttendeeCount()).sum();
+    }
+
+    /**
+     * Seats left empty in the assigned rooms
+     */
+    public int getAssignedEmptySeats() {
+        return assignments.stream().mapToInt(RoomAssignment::getEmptySeats).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AllocationPlan{" +
+                "startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", placed=" + getPlacedCount() +
+                ", moved=" + getMovedCount() +
+                ", unplaced=" + unplacedBookingIds.size() +
+                ", emptySeats=" + getRequestedEmptySeats() + "->" + getAssignedEmptySeats() +
+                ", approved=" + approved +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
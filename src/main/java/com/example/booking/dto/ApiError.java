@@ -0,0 +1,38 @@
+package com.example.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Error body of the REST API.
+ */
+public class ApiError {
+
+    private final int status;
+    private final String error;
+    private final String message;
+    private final LocalDateTime timestamp;
+
+    public ApiError(int status, String error, String message) {
+        this.status = status;
+        this.error = error;
+        this.message = message;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.booking.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One entry of the audit journal: who changed which entity, when, and the changed
+ * properties with their values before and after. Values are rendered as text;
+ * associations appear as the id of the associated entity.
+ */
+public class AuditRecord {
+
+    private final long sequence;
+    private final Instant timestamp;
+    private final EntityType entityType;
+    private final Operation operation;
+    private final Long entityId;
+    private final String actor;
+    private final List<Change> changes;
+
+    public AuditRecord(long sequence, Instant timestamp, EntityType entityType, Operation operation,
+                       Long entityId, String actor, List<Change> changes) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.entityType = entityType;
+        this.operation = operation;
+        this.entityId = entityId;
+        this.actor = actor;
+        this.changes = List.copyOf(changes);
+    }
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditRecord{" +
+                "sequence=" + sequence +
+                ", timestamp=" + timestamp +
+                ", entityType=" + entityType +
+                ", operation=" + operation +
+                ", entityId=" + entityId +
+                ", actor='" + actor + '\'' +
+                ", changes=" + changes.size() +
+                '}';
+    }
+
+    /**
+     * A property value before and after the change; {@code null} where the property
+     * was unset, or the entity did not exist
+     */
+    public record Change(String property, String before, String after) {
+    }
+
+    /**
+     * Audited entities. Booking details and slot notes are separate rows, linked from
+     * their owner's {@code details} and {@code notes} properties.
+     */
+    public enum EntityType {
+        BOOKING,
+        BOOKING_DETAILS,
+        AVAILABILITY_SLOT,
+        AVAILABILITY_SLOT_NOTES,
+        BOARDROOM_ADMIN
+    }
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of a blocked availability slot joined with its boardroom, used
+ * by the admin dashboard.
+ */
+public class BlockedSlotSummary {
+
+    private final Long id;
+    private final Long boardroomId;
+    private final String boardroomName;
+    private final String boardroomLocation;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final String blockedBy;
+
+    public BlockedSlotSummary(Long id, Long boardroomId, String boardroomName, String boardroomLocation,
+                              LocalDate date, LocalTime startTime, LocalTime endTime, String blockedBy) {
+        this.id = id;
+        this.boardroomId = boardroomId;
+        this.boardroomName = boardroomName;
+        this.boardroomLocation = boardroomLocation;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.blockedBy = blockedBy;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public String getBoardroomName() {
+        return boardroomName;
+    }
+
+    public String getBoardroomLocation() {
+        return boardroomLocation;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public String getBlockedBy() {
+        return blockedBy;
+    }
+
+    // Helper methods
+    public String getBoardroomDisplayName() {
+        return boardroomName + " (" + boardroomLocation + ")";
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of an analytics query over the booking history store. Occupancy relates the
+ * booked minutes inside the bookable day to the bookable minutes of every included room
+ * on every included day.
+ */
+public class BookingHistoryAggregate {
+
+    private final long bookings;
+    private final long bookedMinutes;
+    private final long attendees;
+    private final long roomDays;
+    private final int bookableMinutesPerDay;
+    private final LocalDateTime exportedAt;
+    private final long scanTimeMillis;
+
+    public BookingHistoryAggregate(long bookings, long bookedMinutes, long attendees, long roomDays,
+                                   int bookableMinutesPerDay, LocalDateTime exportedAt, long scanTimeMillis) {
+        this.bookings = bookings;
+        this.bookedMinutes = bookedMinutes;
+        this.attendees = attendees;
+        this.roomDays = roomDays;
+        this.bookableMinutesPerDay = bookableMinutesPerDay;
+        this.exportedAt = exportedAt;
+        this.scanTimeMillis = scanTimeMillis;
+    }
+
+    // Getters
+    public long getBookings() {
+        return bookings;
+    }
+
+    /**
+     * Booked minutes inside the bookable day
+     */
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+
+    public long getAttendees() {
+        return attendees;
+    }
+
+    /**
+     * Included rooms times included days
+     */
+    public long getRoomDays() {
+        return roomDays;
+    }
+
+    /**
+     * Share of the bookable time that was booked, between 0 and 1
+     */
+    public double getOccupancy() {
+        long bookable = roomDays * bookableMinutesPerDay;
+        return bookable > 0 ? (double) bookedMinutes / bookable : 0.0;
+    }
+
+    public double getAverageAttendees() {
+        return bookings > 0 ? (double) attendees / bookings : 0.0;
+    }
+
+    /**
+     * When the history the result is computed from was exported
+     */
+    public LocalDateTime getExportedAt() {
+        return exportedAt;
+    }
+
+    public long getScanTimeMillis() {
+        return scanTimeMillis;
+    }
+}
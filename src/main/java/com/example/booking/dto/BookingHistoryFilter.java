@@ -0,0 +1,89 @@
+package com.example.booking.dto;
+
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.RoomCapacityType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Which bookings an analytics query aggregates: a date range, and optionally rooms, a
+ * capacity type, days of the week and statuses. Without statuses, bookings that held
+ * their room count: confirmed, in progress and completed.
+ */
+public class BookingHistoryFilter {
+
+    private static final Set<BookingStatus> OCCUPYING =
+            EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED);
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private Set<Long> boardroomIds;
+    private RoomCapacityType capacityType;
+    private Set<DayOfWeek> daysOfWeek;
+    private Set<BookingStatus> statuses = OCCUPYING;
+
+    public BookingHistoryFilter(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("A date range ending on or after its start is required");
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public BookingHistoryFilter boardrooms(Set<Long> boardroomIds) {
+        this.boardroomIds = Set.copyOf(boardroomIds);
+        return this;
+    }
+
+    public BookingHistoryFilter capacityType(RoomCapacityType capacityType) {
+        this.capacityType = capacityType;
+        return this;
+    }
+
+    public BookingHistoryFilter daysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek.isEmpty() ? null : EnumSet.copyOf(daysOfWeek);
+        return this;
+    }
+
+    public BookingHistoryFilter statuses(Set<BookingStatus> statuses) {
+        this.statuses = statuses.isEmpty() ? OCCUPYING : EnumSet.copyOf(statuses);
+        return this;
+    }
+
+    // Getters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Rooms to include, or {@code null} for all
+     */
+    public Set<Long> getBoardroomIds() {
+        return boardroomIds;
+    }
+
+    /**
+     * Capacity type of the rooms to include, or {@code null} for all
+     */
+    public RoomCapacityType getCapacityType() {
+        return capacityType;
+    }
+
+    /**
+     * Days of the week to include, or {@code null} for all
+     */
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public Set<BookingStatus> getStatuses() {
+        return statuses;
+    }
+}
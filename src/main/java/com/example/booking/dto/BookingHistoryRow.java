@@ -0,0 +1,54 @@
+package com.example.booking.dto;
+
+import com.example.booking.enums.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One booking as exported to the analytics history store
+ */
+public class BookingHistoryRow {
+
+    private final Long boardroomId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final BookingStatus status;
+    private final Integer attendeeCount;
+
+    public BookingHistoryRow(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                             BookingStatus status, Integer attendeeCount) {
+        this.boardroomId = boardroomId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.attendeeCount = attendeeCount;
+    }
+
+    // Getters
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Tentative, in-memory reservation of a time range that keeps other users from taking
+ * it while the holder fills in the booking form.
+ */
+public class BookingHold {
+
+    private final String id;
+    private final Long boardroomId;
+    private final Long userId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime expiresAt;
+
+    public BookingHold(String id, Long boardroomId, Long userId, LocalDate date, LocalTime startTime,
+                       LocalTime endTime, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.boardroomId = boardroomId;
+        this.userId = userId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    // Helper methods
+    public boolean isExpired(LocalDateTime now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+        return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingHold{" +
+                "id='" + id + '\'' +
+                ", boardroomId=" + boardroomId +
+                ", userId=" + userId +
+                ", date=" + date +
+                ", timeSlot=" + getTimeSlot() +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
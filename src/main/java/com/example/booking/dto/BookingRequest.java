@@ -0,0 +1,93 @@
+package com.example.booking.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Body of a booking creation request.
+ */
+public class BookingRequest {
+
+    @NotNull(message = "Boardroom is required")
+    private Long boardroomId;
+
+    // Only administrators may book for someone else; everyone else books as themselves
+    private Long userId;
+
+    @NotNull(message = "Booking date is required")
+    private LocalDate bookingDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @NotBlank(message = "Purpose is required")
+    private String purpose;
+
+    @NotNull(message = "Attendee count is required")
+    @Min(value = 1, message = "Attendee count must be at least 1")
+    private Integer attendeeCount;
+
+    // Getters and Setters
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public void setBoardroomId(Long boardroomId) {
+        this.boardroomId = boardroomId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public void setAttendeeCount(Integer attendeeCount) {
+        this.attendeeCount = attendeeCount;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.booking.dto;
+
+import com.example.booking.entity.Booking;
+import com.example.booking.enums.BookingStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Booking as returned by the REST API.
+ *
+ * Ids are written as JSON strings: time-ordered ids exceed 2^53, beyond which JavaScript
+ * numbers lose precision. Requests may send them as strings or numbers.
+ */
+public class BookingResponse {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final Long id;
+    private final String reference;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final Long boardroomId;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final Long userId;
+    private final LocalDate bookingDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Integer attendeeCount;
+    private final BookingStatus status;
+    private final String approvedBy;
+    private final LocalDateTime createdAt;
+
+    public BookingResponse(Long id, String reference, Long boardroomId, Long userId, LocalDate bookingDate,
+                           LocalTime startTime, LocalTime endTime, Integer attendeeCount, BookingStatus status,
+                           String approvedBy, LocalDateTime createdAt) {
+        this.id = id;
+        this.reference = reference;
+        this.boardroomId = boardroomId;
+        this.userId = userId;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.attendeeCount = attendeeCount;
+        this.status = status;
+        this.approvedBy = approvedBy;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Uses only the ids of the boardroom and user, so lazy associations are not loaded
+     */
+    public static BookingResponse from(Booking booking) {
+        return new BookingResponse(booking.getId(), booking.getReference(), booking.getBoardroom().getId(),
+                booking.getUser().getId(), booking.getBookingDate(), booking.getStartTime(), booking.getEndTime(),
+                booking.getAttendeeCount(), booking.getStatus(), booking.getApprovedBy(), booking.getCreatedAt());
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public String getApprovedBy() {
+        return approvedBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
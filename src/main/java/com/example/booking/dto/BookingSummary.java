@@ -0,0 +1,120 @@
+package com.example.booking.dto;
+
+import com.example.booking.enums.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of a booking row joined with its boardroom and user, used by
+ * list and dashboard views. Built directly by JPQL constructor expressions so a whole
+ * page costs a single query and no entity is put into the persistence context.
+ */
+public class BookingSummary {
+
+    private final Long id;
+    private final Long boardroomId;
+    private final String boardroomName;
+    private final String boardroomLocation;
+    private final Long userId;
+    private final String userFullName;
+    private final LocalDate bookingDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Integer attendeeCount;
+    private final BookingStatus status;
+    private final LocalDateTime createdAt;
+
+    public BookingSummary(Long id, Long boardroomId, String boardroomName, String boardroomLocation,
+                          Long userId, String userFullName, LocalDate bookingDate, LocalTime startTime,
+                          LocalTime endTime, Integer attendeeCount, BookingStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.boardroomId = boardroomId;
+        this.boardroomName = boardroomName;
+        this.boardroomLocation = boardroomLocation;
+        this.userId = userId;
+        this.userFullName = userFullName;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.attendeeCount = attendeeCount;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public String getBoardroomName() {
+        return boardroomName;
+    }
+
+    public String getBoardroomLocation() {
+        return boardroomLocation;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserFullName() {
+        return userFullName;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    // Helper methods
+    public String getBoardroomDisplayName() {
+        return boardroomName + " (" + boardroomLocation + ")";
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    public String getStatusDisplayName() {
+        return status != null ? status.getDisplayName() : "Unknown";
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSummary{" +
+                "id=" + id +
+                ", boardroomId=" + boardroomId +
+                ", userId=" + userId +
+                ", bookingDate=" + bookingDate +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", status=" + status +
+                '}';
+    }
+}
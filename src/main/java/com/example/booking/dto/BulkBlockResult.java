@@ -0,0 +1,58 @@
+package com.example.booking.dto;
+
+/**
+ * Outcome of a bulk block or unblock: how many availability slot rows were written.
+ */
+public class BulkBlockResult {
+
+    private final int boardroomCount;
+    private final int dayCount;
+    private final int insertedSlots;
+    private final int updatedSlots;
+    private final int deletedSlots;
+
+    public BulkBlockResult(int boardroomCount, int dayCount, int insertedSlots, int updatedSlots, int deletedSlots) {
+        this.boardroomCount = boardroomCount;
+        this.dayCount = dayCount;
+        this.insertedSlots = insertedSlots;
+        this.updatedSlots = updatedSlots;
+        this.deletedSlots = deletedSlots;
+    }
+
+    // Getters
+    public int getBoardroomCount() {
+        return boardroomCount;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public int getInsertedSlots() {
+        return insertedSlots;
+    }
+
+    public int getUpdatedSlots() {
+        return updatedSlots;
+    }
+
+    public int getDeletedSlots() {
+        return deletedSlots;
+    }
+
+    // Helper methods
+    public int getTotalChanges() {
+        return insertedSlots + updatedSlots + deletedSlots;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkBlockResult{" +
+                "boardroomCount=" + boardroomCount +
+                ", dayCount=" + dayCount +
+                ", insertedSlots=" + insertedSlots +
+                ", updatedSlots=" + updatedSlots +
+                ", deletedSlots=" + deletedSlots +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One cell of a boardroom's month calendar grid.
+ */
+public class CalendarDay {
+
+    private final LocalDate date;
+    private final boolean inMonth;
+    private final List<BookingSummary> bookings;
+    private final List<String> blockedSlots;
+
+    public CalendarDay(LocalDate date, boolean inMonth, List<BookingSummary> bookings, List<String> blockedSlots) {
+        this.date = date;
+        this.inMonth = inMonth;
+        this.bookings = bookings;
+        this.blockedSlots = blockedSlots;
+    }
+
+    // Getters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isInMonth() {
+        return inMonth;
+    }
+
+    public List<BookingSummary> getBookings() {
+        return bookings;
+    }
+
+    public List<String> getBlockedSlots() {
+        return blockedSlots;
+    }
+
+    // Helper methods
+    public int getDayOfMonth() {
+        return date.getDayOfMonth();
+    }
+
+    public int getBookingCount() {
+        return bookings.size();
+    }
+
+    public boolean isBlocked() {
+        return !blockedSlots.isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of an availability slot for a room calendar, including the
+ * blocked reason from the slot notes. Calendar reads are shared between concurrent
+ * callers, so they hand out this immutable row rather than managed entities.
+ */
+public class CalendarSlot {
+
+    private final Long id;
+    private final Long boardroomId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean available;
+    private final String blockedBy;
+    private final String blockedReason;
+
+    public CalendarSlot(Long id, Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                        boolean available, String blockedBy, String blockedReason) {
+        this.id = id;
+        this.boardroomId = boardroomId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.available = available;
+        this.blockedBy = blockedBy;
+        this.blockedReason = blockedReason;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public String getBlockedBy() {
+        return blockedBy;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    // Helper methods
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    public String getAvailabilityStatus() {
+        return available ? "Available" : "Blocked";
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarSlot{" +
+                "id=" + id +
+                ", boardroomId=" + boardroomId +
+                ", date=" + date +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", available=" + available +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.booking.dto;
+
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.RoomCapacityType;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable point-in-time view of everything the admin dashboard shows. Counter maps
+ * contain every enum constant, with zero for values that have no rows.
+ */
+public class DashboardSnapshot {
+
+    private final Map<BookingStatus, Long> bookingsByStatus;
+    private final Map<RoomCapacityType, Long> activeBoardroomsByCapacityType;
+    private final Map<User.UserRole, Long> activeUsersByRole;
+    private final List<BookingSummary> todaysBookings;
+    private final List<BlockedSlotSummary> todaysBlockedSlots;
+    private final List<BookingSummary> pendingBookings;
+    private final LocalDateTime generatedAt;
+    private final long buildTimeMillis;
+
+    public DashboardSnapshot(Map<BookingStatus, Long> bookingsByStatus,
+                             Map<RoomCapacityType, Long> activeBoardroomsByCapacityType,
+                             Map<User.UserRole, Long> activeUsersByRole,
+                             List<BookingSummary> todaysBookings,
+                             List<BlockedSlotSummary> todaysBlockedSlots,
+                             List<BookingSummary> pendingBookings,
+                             LocalDateTime generatedAt,
+                             long buildTimeMillis) {
+        this.bookingsByStatus = Collections.unmodifiableMap(bookingsByStatus);
+        this.activeBoardroomsByCapacityType = Collections.unmodifiableMap(activeBoardroomsByCapacityType);
+        this.activeUsersByRole = Collections.unmodifiableMap(activeUsersByRole);
+        this.todaysBookings = List.copyOf(todaysBookings);
+        this.todaysBlockedSlots = List.copyOf(todaysBlockedSlots);
+        this.pendingBookings = List.copyOf(pendingBookings);
+        this.generatedAt = generatedAt;
+        this.buildTimeMillis = buildTimeMillis;
+    }
+
+    // Getters
+    public Map<BookingStatus, Long> getBookingsByStatus() {
+        return bookingsByStatus;
+    }
+
+    public Map<RoomCapacityType, Long> getActiveBoardroomsByCapacityType() {
+        return activeBoardroomsByCapacityType;
+    }
+
+    public Map<User.UserRole, Long> getActiveUsersByRole() {
+        return activeUsersByRole;
+    }
+
+    public List<BookingSummary> getTodaysBookings() {
+        return todaysBookings;
+    }
+
+    public List<BlockedSlotSummary> getTodaysBlockedSlots() {
+        return todaysBlockedSlots;
+    }
+
+    public List<BookingSummary> getPendingBookings() {
+        return pendingBookings;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public long getBuildTimeMillis() {
+        return buildTimeMillis;
+    }
+
+    // Helper methods
+    public long getTotalBookings() {
+        return bookingsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getTotalActiveBoardrooms() {
+        return activeBoardroomsByCapacityType.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getTotalActiveUsers() {
+        return activeUsersByRole.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getBookingCount(BookingStatus status) {
+        return bookingsByStatus.getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.booking.dto;
+
+/**
+ * Outcome of deactivating or purging a user or a boardroom: how many rows of each kind
+ * were changed, and how long it took.
+ */
+public class DeactivationResult {
+
+    private final String entity;
+    private final Long entityId;
+    private final boolean purged;
+    private final int cancelledBookings;
+    private final int deletedBookings;
+    private final int deletedSlots;
+    private final int deletedBlockRules;
+    private final int waitlistEntries;
+    private final int adminAssignments;
+    private final long elapsedMillis;
+
+    public DeactivationResult(String entity, Long entityId, boolean purged, int cancelledBookings,
+                              int deletedBookings, int deletedSlots, int deletedBlockRules, int waitlistEntries,
+                              int adminAssignments, long elapsedMillis) {
+        this.entity = entity;
+        this.entityId = entityId;
+        this.purged = purged;
+        this.cancelledBookings = cancelledBookings;
+        this.deletedBookings = deletedBookings;
+        this.deletedSlots = deletedSlots;
+        this.deletedBlockRules = deletedBlockRules;
+        this.waitlistEntries = waitlistEntries;
+        this.adminAssignments = adminAssignments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public String getEntity() {
+        return entity;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public boolean isPurged() {
+        return purged;
+    }
+
+    public int getCancelledBookings() {
+        return cancelledBookings;
+    }
+
+    public int getDeletedBookings() {
+        return deletedBookings;
+    }
+
+    public int getDeletedSlots() {
+        return deletedSlots;
+    }
+
+    public int getDeletedBlockRules() {
+        return deletedBlockRules;
+    }
+
+    /**
+     * Waitlist entries withdrawn by a deactivation or deleted by a purge
+     */
+    public int getWaitlistEntries() {
+        return waitlistEntries;
+    }
+
+    /**
+     * Admin assignments deactivated by a deactivation or deleted by a purge
+     */
+    public int getAdminAssignments() {
+        return adminAssignments;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Helper methods
+    /**
+     * Rows changed, counting the user or boardroom row itself
+     */
+    public int getTotalRows() {
+        return cancelledBookings + deletedBookings + deletedSlots + deletedBlockRules + waitlistEntries +
+                adminAssignments + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "DeactivationResult{" +
+                "entity=" + entity +
+                ", entityId=" + entityId +
+                ", purged=" + purged +
+                ", cancelledBookings=" + cancelledBookings +
+                ", deletedBookings=" + deletedBookings +
+                ", deletedSlots=" + deletedSlots +
+                ", deletedBlockRules=" + deletedBlockRules +
+                ", waitlistEntries=" + waitlistEntries +
+                ", adminAssignments=" + adminAssignments +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Two rows of the same room and date whose time ranges overlap.
+ */
+public class IntegrityConflict {
+
+    public enum ConflictType {
+        BOOKING_OVERLAP("Overlapping bookings"),
+        SLOT_OVERLAP("Overlapping availability slots"),
+        BOOKING_IN_BLOCKED_SLOT("Booking inside a blocked slot");
+
+        private final String displayName;
+
+        ConflictType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final ConflictType type;
+    private final Long boardroomId;
+    private final LocalDate date;
+    private final Long firstId;
+    private final String firstTimeSlot;
+    private final Long secondId;
+    private final String secondTimeSlot;
+
+    public IntegrityConflict(ConflictType type, ScheduledInterval first, ScheduledInterval second) {
+        this.type = type;
+        this.boardroomId = second.getBoardroomId();
+        this.date = second.getDate();
+        this.firstId = first.getId();
+        this.firstTimeSlot = first.getTimeSlot();
+        this.secondId = second.getId();
+        this.secondTimeSlot = second.getTimeSlot();
+    }
+
+    // Getters
+    public ConflictType getType() {
+        return type;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Booking or slot id of the earlier row; for BOOKING_IN_BLOCKED_SLOT always the slot
+     */
+    public Long getFirstId() {
+        return firstId;
+    }
+
+    public String getFirstTimeSlot() {
+        return firstTimeSlot;
+    }
+
+    /**
+     * Booking or slot id of the later row; for BOOKING_IN_BLOCKED_SLOT always the booking
+     */
+    public Long getSecondId() {
+        return secondId;
+    }
+
+    public String getSecondTimeSlot() {
+        return secondTimeSlot;
+    }
+
+    @Override
+    public String toString() {
+        return type + "{boardroomId=" + boardroomId + ", date=" + date +
+                ", " + firstId + " [" + firstTimeSlot + "] x " + secondId + " [" + secondTimeSlot + "]}";
+    }
+}
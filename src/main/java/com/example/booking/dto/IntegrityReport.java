@@ -0,0 +1,81 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Result of one integrity audit run.
+ */
+public class IntegrityReport {
+
+    private final LocalDateTime changedSince;
+    private final long bookingsScanned;
+    private final long slotsScanned;
+    private final List<IntegrityConflict> conflicts;
+    private final long elapsedMillis;
+
+    public IntegrityReport(LocalDateTime changedSince, long bookingsScanned, long slotsScanned,
+                           List<IntegrityConflict> conflicts, long elapsedMillis) {
+        this.changedSince = changedSince;
+        this.bookingsScanned = bookingsScanned;
+        this.slotsScanned = slotsScanned;
+        this.conflicts = List.copyOf(conflicts);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    /**
+     * Lower bound of the incremental window, or {@code null} for a full audit
+     */
+    public LocalDateTime getChangedSince() {
+        return changedSince;
+    }
+
+    public long getBookingsScanned() {
+        return bookingsScanned;
+    }
+
+    public long getSlotsScanned() {
+        return slotsScanned;
+    }
+
+    public List<IntegrityConflict> getConflicts() {
+        return conflicts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Helper methods
+    public boolean isClean() {
+        return conflicts.isEmpty();
+    }
+
+    public boolean isIncremental() {
+        return changedSince != null;
+    }
+
+    /**
+     * Conflicts grouped by boardroom, then date, both in ascending order
+     */
+    public Map<Long, Map<LocalDate, List<IntegrityConflict>>> getConflictsByRoomAndDate() {
+        return conflicts.stream().collect(Collectors.groupingBy(IntegrityConflict::getBoardroomId, TreeMap::new,
+                Collectors.groupingBy(IntegrityConflict::getDate, TreeMap::new, Collectors.toList())));
+    }
+
+    @Override
+    public String toString() {
+        return "IntegrityReport{" +
+                "changedSince=" + changedSince +
+                ", bookingsScanned=" + bookingsScanned +
+                ", slotsScanned=" + slotsScanned +
+                ", conflicts=" + conflicts.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
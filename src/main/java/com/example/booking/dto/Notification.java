@@ -0,0 +1,73 @@
+package com.example.booking.dto;
+
+import com.example.booking.enums.NotificationType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One booking change as told to one recipient.
+ */
+public class Notification {
+
+    private final NotificationType type;
+    private final Long bookingId;
+    private final String boardroomName;
+    private final String bookedBy;
+    private final LocalDate bookingDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final LocalDateTime occurredAt;
+
+    public Notification(NotificationType type, Long bookingId, String boardroomName, String bookedBy,
+                        LocalDate bookingDate, LocalTime startTime, LocalTime endTime, LocalDateTime occurredAt) {
+        this.type = type;
+        this.bookingId = bookingId;
+        this.boardroomName = boardroomName;
+        this.bookedBy = bookedBy;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters
+    public NotificationType getType() {
+        return type;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public String getBoardroomName() {
+        return boardroomName;
+    }
+
+    public String getBookedBy() {
+        return bookedBy;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    // Helper methods
+    public String getSummary() {
+        return type.getDisplayName() + ": " + boardroomName + " on " + bookingDate + " " + startTime + " - " +
+                endTime + " (booking " + bookingId + ", " + bookedBy + ")";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+/**
+ * All notifications for one recipient from one dispatch run, delivered as one message.
+ */
+public class NotificationDigest {
+
+    private final Long recipientId;
+    private final String recipientName;
+    private final String recipientEmail;
+    private final List<Notification> notifications;
+
+    public NotificationDigest(Long recipientId, String recipientName, String recipientEmail,
+                              List<Notification> notifications) {
+        this.recipientId = recipientId;
+        this.recipientName = recipientName;
+        this.recipientEmail = recipientEmail;
+        this.notifications = notifications;
+    }
+
+    // Getters
+    public Long getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    // Helper methods
+    public String getSubject() {
+        return notifications.size() == 1
+                ? notifications.get(0).getType().getDisplayName()
+                : notifications.size() + " booking updates";
+    }
+
+    public String getBody() {
+        StringBuilder body = new StringBuilder("Hello ").append(recipientName).append(",\n\n");
+        for (Notification notification : notifications) {
+            body.append("- ").append(notification.getSummary()).append('\n');
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A booking accepted by the write-behind pipeline and not yet written to the database.
+ * The reference becomes {@code Booking.reference} and identifies the booking until its
+ * row, and id, exist.
+ */
+public class PendingBooking {
+
+    private final String reference;
+    private final Long userId;
+    private final Long boardroomId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final String purpose;
+    private final Integer attendeeCount;
+    private final LocalDateTime acceptedAt;
+
+    public PendingBooking(String reference, Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                          LocalTime endTime, String purpose, Integer attendeeCount, LocalDateTime acceptedAt) {
+        this.reference = reference;
+        this.userId = userId;
+        this.boardroomId = boardroomId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.purpose = purpose;
+        this.attendeeCount = attendeeCount;
+        this.acceptedAt = acceptedAt;
+    }
+
+    // Getters
+    public String getReference() {
+        return reference;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    // Helper methods
+    public boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+        return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    @Override
+    public String toString() {
+        return "PendingBooking{" +
+                "reference='" + reference + '\'' +
+                ", userId=" + userId +
+                ", boardroomId=" + boardroomId +
+                ", date=" + date +
+                ", timeSlot=" + getTimeSlot() +
+                ", attendeeCount=" + attendeeCount +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.booking.dto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pre-rendered HTML of a template fragment. The UTF-8 encoding is computed once, so a
+ * cached fragment can be written to a response without rendering or re-encoding.
+ */
+public class RenderedFragment {
+
+    private final String html;
+    private final byte[] bytes;
+
+    public RenderedFragment(String html) {
+        this.html = html;
+        this.bytes = html.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public int getLength() {
+        return bytes.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return html;
+    }
+}
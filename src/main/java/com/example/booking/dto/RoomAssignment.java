@@ -0,0 +1,96 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Room chosen for one booking by the batch allocator, or when its room goes out of service.
+ */
+public class RoomAssignment {
+
+    private final Long bookingId;
+    private final LocalDate bookingDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final int attendeeCount;
+    private final Long requestedBoardroomId;
+    private final int requestedCapacity;
+    private final Long assignedBoardroomId;
+    private final int assignedCapacity;
+
+    public RoomAssignment(Long bookingId, LocalDate bookingDate, LocalTime startTime, LocalTime endTime,
+                          int attendeeCount, Long requestedBoardroomId, int requestedCapacity,
+                          Long assignedBoardroomId, int assignedCapacity) {
+        this.bookingId = bookingId;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.attendeeCount = attendeeCount;
+        this.requestedBoardroomId = requestedBoardroomId;
+        this.requestedCapacity = requestedCapacity;
+        this.assignedBoardroomId = assignedBoardroomId;
+        this.assignedCapacity = assignedCapacity;
+    }
+
+    // Getters
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public int getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public Long getRequestedBoardroomId() {
+        return requestedBoardroomId;
+    }
+
+    public int getRequestedCapacity() {
+        return requestedCapacity;
+    }
+
+    public Long getAssignedBoardroomId() {
+        return assignedBoardroomId;
+    }
+
+    public int getAssignedCapacity() {
+        return assignedCapacity;
+    }
+
+    // Helper methods
+    public boolean isMoved() {
+        return !requestedBoardroomId.equals(assignedBoardroomId);
+    }
+
+    public int getEmptySeats() {
+        return assignedCapacity - attendeeCount;
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomAssignment{" +
+                "bookingId=" + bookingId +
+                ", bookingDate=" + bookingDate +
+                ", timeSlot=" + getTimeSlot() +
+                ", attendeeCount=" + attendeeCount +
+                ", requestedBoardroomId=" + requestedBoardroomId +
+                ", assignedBoardroomId=" + assignedBoardroomId +
+                '}';
+    }
+}
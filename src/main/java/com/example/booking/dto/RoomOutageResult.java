@@ -0,0 +1,55 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of taking a boardroom out of service: which of its bookings were moved to
+ * other rooms and which were cancelled.
+ */
+public class RoomOutageResult {
+
+    private final Long boardroomId;
+    private final List<RoomAssignment> rehomed;
+    private final List<Long> cancelledBookingIds;
+    private final long elapsedMillis;
+
+    public RoomOutageResult(Long boardroomId, List<RoomAssignment> rehomed, List<Long> cancelledBookingIds,
+                            long elapsedMillis) {
+        this.boardroomId = boardroomId;
+        this.rehomed = List.copyOf(rehomed);
+        this.cancelledBookingIds = List.copyOf(cancelledBookingIds);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public List<RoomAssignment> getRehomed() {
+        return rehomed;
+    }
+
+    public List<Long> getCancelledBookingIds() {
+        return cancelledBookingIds;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Helper methods
+    public int getAffectedCount() {
+        return rehomed.size() + cancelledBookingIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return "RoomOutageResult{" +
+                "boardroomId=" + boardroomId +
+                ", rehomed=" + rehomed.size() +
+                ", cancelled=" + cancelledBookingIds.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
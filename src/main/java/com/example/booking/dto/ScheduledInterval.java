@@ -0,0 +1,58 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Minimal (room, date, time range) row of a booking or availability slot, streamed in
+ * (boardroom, date, start) order by the integrity audit.
+ */
+public class ScheduledInterval {
+
+    private final Long id;
+    private final Long boardroomId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean blocked;
+
+    public ScheduledInterval(Long id, Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                             Boolean blocked) {
+        this.id = id;
+        this.boardroomId = boardroomId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.blocked = Boolean.TRUE.equals(blocked);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    // Helper methods
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+}
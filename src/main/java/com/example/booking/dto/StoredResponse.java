@@ -0,0 +1,39 @@
+package com.example.booking.dto;
+
+/**
+ * HTTP status and JSON body of a completed request, replayed for retries with the same
+ * idempotency key.
+ */
+public class StoredResponse {
+
+    private final int status;
+    private final String body;
+    private final boolean replayed;
+
+    public StoredResponse(int status, String body, boolean replayed) {
+        this.status = status;
+        this.body = body;
+        this.replayed = replayed;
+    }
+
+    // Getters
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * True if this is the stored result of an earlier request rather than a fresh one
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    // Helper methods
+    public StoredResponse asReplay() {
+        return replayed ? this : new StoredResponse(status, body, true);
+    }
+}
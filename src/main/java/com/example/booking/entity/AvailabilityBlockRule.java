@@ -0,0 +1,310 @@
+package com.example.booking.entity;
+
+import com.example.booking.enums.RecurrenceFrequency;
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A recurring admin block of a boardroom, e.g. every Friday 14:00 - 17:00 for cleaning.
+ * Occurrences are computed from the rule rather than stored as availability slots;
+ * single occurrences can be skipped by adding their date as an exception.
+ */
+@Entity
+@Table(name = "availability_block_rules", indexes =
+        @Index(name = "idx_block_rules_room_dates", columnList = "boardroom_id, start_date, end_date"))
+public class AvailabilityBlockRule {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @NotNull(message = "Boardroom is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "boardroom_id", nullable = false)
+    private Boardroom boardroom;
+
+    @NotNull(message = "Frequency is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    // Every n days, weeks or months
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Column(name = "recurrence_interval", nullable = false)
+    private int interval = 1;
+
+    // Bit (dayOfWeek - 1) set for each weekday a WEEKLY rule applies to
+    @Column(name = "days_of_week", nullable = false)
+    private int daysOfWeekMask;
+
+    @NotNull(message = "Start date is required")
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Open-ended when null
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @NotNull(message = "Start time is required")
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "blocked_by")
+    private String blockedBy;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "is_active", nullable = false)
+    private boolean isActive = true;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "availability_block_rule_exceptions", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "exception_date", nullable = false)
+    private Set<LocalDate> exceptionDates = new HashSet<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AvailabilityBlockRule() {
+    }
+
+    public AvailabilityBlockRule(Boardroom boardroom, RecurrenceFrequency frequency, int interval,
+                                 Set<DayOfWeek> daysOfWeek, LocalDate startDate, LocalDate endDate,
+                                 LocalTime startTime, LocalTime endTime, String blockedBy, String reason) {
+        this.boardroom = boardroom;
+        this.frequency = frequency;
+        this.interval = interval;
+        setDaysOfWeek(daysOfWeek);
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.blockedBy = blockedBy;
+        this.reason = reason;
+    }
+
+    // Lifecycle callbacks
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boardroom getBoardroom() {
+        return boardroom;
+    }
+
+    public void setBoardroom(Boardroom boardroom) {
+        this.boardroom = boardroom;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((daysOfWeekMask & bit(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        int mask = 0;
+        if (daysOfWeek != null) {
+            for (DayOfWeek day : daysOfWeek) {
+                mask |= bit(day);
+            }
+        }
+        this.daysOfWeekMask = mask;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getBlockedBy() {
+        return blockedBy;
+    }
+
+    public void setBlockedBy(String blockedBy) {
+        this.blockedBy = blockedBy;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public boolean isActive() {
+        return isActive;
+    }
+
+    public void setActive(boolean active) {
+        isActive = active;
+    }
+
+    public Set<LocalDate> getExceptionDates() {
+        return exceptionDates;
+    }
+
+    public void setExceptionDates(Set<LocalDate> exceptionDates) {
+        this.exceptionDates = exceptionDates;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Helper methods
+    /**
+     * Whether the rule blocks the room on the given date
+     */
+    public boolean occursOn(LocalDate date) {
+        if (!isActive || date.isBefore(startDate) || (endDate != null && date.isAfter(endDate))) {
+            return false;
+        }
+        if (exceptionDates.contains(date)) {
+            return false;
+        }
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(startDate, date) % interval == 0;
+            case WEEKLY -> {
+                int mask = daysOfWeekMask != 0 ? daysOfWeekMask : bit(startDate.getDayOfWeek());
+                if ((mask & bit(date.getDayOfWeek())) == 0) {
+                    yield false;
+                }
+                LocalDate firstWeek = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                LocalDate week = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                yield ChronoUnit.WEEKS.between(firstWeek, week) % interval == 0;
+            }
+            // Months without the start day of month (e.g. the 31st) are skipped
+            case MONTHLY -> date.getDayOfMonth() == startDate.getDayOfMonth() &&
+                    ChronoUnit.MONTHS.between(startDate.withDayOfMonth(1), date.withDayOfMonth(1)) % interval == 0;
+        };
+    }
+
+    public void addException(LocalDate date) {
+        exceptionDates.add(date);
+    }
+
+    public boolean removeException(LocalDate date) {
+        return exceptionDates.remove(date);
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityBlockRule{" +
+                "id=" + id +
+                ", frequency=" + frequency +
+                ", interval=" + interval +
+                ", daysOfWeek=" + getDaysOfWeek() +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", isActive=" + isActive +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.booking.entity;
 
+import com.example.booking.id.TimeOrderedId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
@@ -8,11 +9,20 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "availability_slots")
+@Table(name = "availability_slots", indexes = {
+        @Index(name = "idx_slots_room_date_start", columnList = "boardroom_id, date, start_time"),
+        @Index(name = "idx_slots_updated_at", columnList = "updated_at")
+})
+@NamedEntityGraph(name = AvailabilitySlot.WITH_BOARDROOM, attributeNodes = @NamedAttributeNode("boardroom"))
 public class AvailabilitySlot {
 
+    /**
+     * Fetch plan for list views that show the room of every slot
+     */
+    public static final String WITH_BOARDROOM = "AvailabilitySlot.withBoardroom";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @NotNull(message = "Boardroom is required")
@@ -35,21 +45,20 @@ public class AvailabilitySlot {
     @Column(name = "is_available", nullable = false)
     private boolean isAvailable = true;
 
-    @Column(name = "admin_notes", columnDefinition = "TEXT")
-    private String adminNotes;
-
     @Column(name = "blocked_by")
     private String blockedBy;
 
-    @Column(name = "blocked_reason", columnDefinition = "TEXT")
-    private String blockedReason;
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Admin notes and blocked reason live in availability_slot_notes
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "notes_id")
+    private AvailabilitySlotNotes notes;
+
     // Constructors
     public AvailabilitySlot() {
     }
@@ -68,7 +77,7 @@ public class AvailabilitySlot {
         this.startTime = startTime;
         this.endTime = endTime;
         this.isAvailable = isAvailable;
-        this.adminNotes = adminNotes;
+        setAdminNotes(adminNotes);
     }
 
     // Lifecycle callbacks
@@ -133,11 +142,13 @@ public class AvailabilitySlot {
     }
 
     public String getAdminNotes() {
-        return adminNotes;
+        return notes != null ? notes.getAdminNotes() : null;
     }
 
     public void setAdminNotes(String adminNotes) {
-        this.adminNotes = adminNotes;
+        if (adminNotes != null || notes != null) {
+            notes().setAdminNotes(adminNotes);
+        }
     }
 
     public String getBlockedBy() {
@@ -149,11 +160,13 @@ public class AvailabilitySlot {
     }
 
     public String getBlockedReason() {
-        return blockedReason;
+        return notes != null ? notes.getBlockedReason() : null;
     }
 
     public void setBlockedReason(String blockedReason) {
-        this.blockedReason = blockedReason;
+        if (blockedReason != null || notes != null) {
+            notes().setBlockedReason(blockedReason);
+        }
     }
 
     public LocalDateTime getCreatedAt() {
@@ -172,6 +185,21 @@ public class AvailabilitySlot {
         this.updatedAt = updatedAt;
     }
 
+    public AvailabilitySlotNotes getNotes() {
+        return notes;
+    }
+
+    public void setNotes(AvailabilitySlotNotes notes) {
+        this.notes = notes;
+    }
+
+    private AvailabilitySlotNotes notes() {
+        if (notes == null) {
+            notes = new AvailabilitySlotNotes();
+        }
+        return notes;
+    }
+
     // Helper methods
     public String getBoardroomDisplayName() {
         return boardroom != null ? boardroom.getDisplayName() : "Unknown Boardroom";
@@ -221,19 +249,20 @@ public class AvailabilitySlot {
     public void block(String blockedBy, String reason) {
         this.isAvailable = false;
         this.blockedBy = blockedBy;
-        this.blockedReason = reason;
+        setBlockedReason(reason);
     }
 
     public void unblock() {
         this.isAvailable = true;
         this.blockedBy = null;
-        this.blockedReason = null;
+        setBlockedReason(null);
     }
 
     public String getDisplayInfo() {
         StringBuilder info = new StringBuilder();
         info.append(getTimeSlot()).append(" - ").append(getAvailabilityStatus());
         
+        String blockedReason = getBlockedReason();
         if (!isAvailable && blockedReason != null && !blockedReason.trim().isEmpty()) {
             info.append(" (").append(blockedReason).append(")");
         }
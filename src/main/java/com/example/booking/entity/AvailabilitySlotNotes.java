@@ -0,0 +1,60 @@
+package com.example.booking.entity;
+
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+
+/**
+ * Free-text fields of an {@link AvailabilitySlot}. Kept in their own table so that the
+ * {@code availability_slots} rows scanned by availability checks stay narrow; the row is
+ * only loaded when one of the texts is actually accessed.
+ */
+@Entity
+@Table(name = "availability_slot_notes")
+public class AvailabilitySlotNotes {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "admin_notes", columnDefinition = "TEXT")
+    private String adminNotes;
+
+    @Column(name = "blocked_reason", columnDefinition = "TEXT")
+    private String blockedReason;
+
+    // Constructors
+    public AvailabilitySlotNotes() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAdminNotes() {
+        return adminNotes;
+    }
+
+    public void setAdminNotes(String adminNotes) {
+        this.adminNotes = adminNotes;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    public void setBlockedReason(String blockedReason) {
+        this.blockedReason = blockedReason;
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilitySlotNotes{" +
+                "id=" + id +
+                '}';
+    }
+}
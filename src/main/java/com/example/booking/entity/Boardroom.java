@@ -1,6 +1,7 @@
 package com.example.booking.entity;
 
 import com.example.booking.enums.RoomCapacityType;
+import com.example.booking.id.TimeOrderedId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -14,7 +15,7 @@ import java.util.List;
 public class Boardroom {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @NotBlank(message = "Boardroom name is required")
@@ -1,5 +1,6 @@
 package com.example.booking.entity;
 
+import com.example.booking.id.TimeOrderedId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 public class BoardroomAdmin {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @NotNull(message = "User is required")
@@ -1,24 +1,40 @@
 package com.example.booking.entity;
 
 import com.example.booking.enums.BookingStatus;
+import com.example.booking.id.TimeOrderedId;
 import jakarta.persistence.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_room_date_start", columnList = "boardroom_id, booking_date, start_time"),
+        @Index(name = "idx_bookings_updated_at", columnList = "updated_at")
+})
+@NamedEntityGraph(name = Booking.WITH_BOARDROOM_AND_USER,
+        attributeNodes = {@NamedAttributeNode("boardroom"), @NamedAttributeNode("user")})
 public class Booking {
 
+    /**
+     * Fetch plan for list views that show the room and the booker of every row
+     */
+    public static final String WITH_BOARDROOM_AND_USER = "Booking.withBoardroomAndUser";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
+    // Assigned when the booking is accepted, before it has a database id
+    @Column(name = "reference", unique = true, length = 36)
+    private String reference;
+
     @NotNull(message = "Boardroom is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "boardroom_id", nullable = false)
@@ -41,10 +57,6 @@ public class Booking {
     @Column(name = "end_time", nullable = false)
     private LocalTime endTime;
 
-    @NotBlank(message = "Purpose is required")
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String purpose;
-
     @Min(value = 1, message = "Attendee count must be at least 1")
     @Column(name = "attendee_count", nullable = false)
     private Integer attendeeCount;
@@ -53,9 +65,6 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status = BookingStatus.PENDING;
 
-    @Column(name = "special_requirements", columnDefinition = "TEXT")
-    private String specialRequirements;
-
     @Column(name = "contact_number")
     private String contactNumber;
 
@@ -65,18 +74,29 @@ public class Booking {
     @Column(name = "approved_at")
     private LocalDateTime approvedAt;
 
-    @Column(name = "cancelled_reason", columnDefinition = "TEXT")
-    private String cancelledReason;
-
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    @Column(name = "checked_in_at")
+    private LocalDateTime checkedInAt;
+
+    // Set once the start reminder has been recorded, so it is sent only once
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Purpose, special requirements and cancellation reason live in booking_details
+    @Valid
+    @NotNull(message = "Purpose is required")
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "details_id")
+    private BookingDetails details;
+
     // Constructors
     public Booking() {
     }
@@ -88,14 +108,19 @@ public class Booking {
         this.bookingDate = bookingDate;
         this.startTime = startTime;
         this.endTime = endTime;
-        this.purpose = purpose;
+        this.details = new BookingDetails(purpose);
         this.attendeeCount = attendeeCount;
     }
 
     // Lifecycle callbacks
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (reference == null) {
+            reference = UUID.randomUUID().toString();
+        }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
     }
 
@@ -113,6 +138,14 @@ public class Booking {
         this.id = id;
     }
 
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
     public Boardroom getBoardroom() {
         return boardroom;
     }
@@ -154,11 +187,13 @@ public class Booking {
     }
 
     public String getPurpose() {
-        return purpose;
+        return details != null ? details.getPurpose() : null;
     }
 
     public void setPurpose(String purpose) {
-        this.purpose = purpose;
+        if (purpose != null || details != null) {
+            details().setPurpose(purpose);
+        }
     }
 
     public Integer getAttendeeCount() {
@@ -178,11 +213,13 @@ public class Booking {
     }
 
     public String getSpecialRequirements() {
-        return specialRequirements;
+        return details != null ? details.getSpecialRequirements() : null;
     }
 
     public void setSpecialRequirements(String specialRequirements) {
-        this.specialRequirements = specialRequirements;
+        if (specialRequirements != null || details != null) {
+            details().setSpecialRequirements(specialRequirements);
+        }
     }
 
     public String getContactNumber() {
@@ -210,11 +247,13 @@ public class Booking {
     }
 
     public String getCancelledReason() {
-        return cancelledReason;
+        return details != null ? details.getCancelledReason() : null;
     }
 
     public void setCancelledReason(String cancelledReason) {
-        this.cancelledReason = cancelledReason;
+        if (cancelledReason != null || details != null) {
+            details().setCancelledReason(cancelledReason);
+        }
     }
 
     public LocalDateTime getCancelledAt() {
@@ -225,6 +264,22 @@ public class Booking {
         this.cancelledAt = cancelledAt;
     }
 
+    public LocalDateTime getCheckedInAt() {
+        return checkedInAt;
+    }
+
+    public void setCheckedInAt(LocalDateTime checkedInAt) {
+        this.checkedInAt = checkedInAt;
+    }
+
+    public LocalDateTime getReminderSentAt() {
+        return reminderSentAt;
+    }
+
+    public void setReminderSentAt(LocalDateTime reminderSentAt) {
+        this.reminderSentAt = reminderSentAt;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -241,6 +296,21 @@ public class Booking {
         this.updatedAt = updatedAt;
     }
 
+    public BookingDetails getDetails() {
+        return details;
+    }
+
+    public void setDetails(BookingDetails details) {
+        this.details = details;
+    }
+
+    private BookingDetails details() {
+        if (details == null) {
+            details = new BookingDetails();
+        }
+        return details;
+    }
+
     // Helper methods
     public String getBoardroomDisplayName() {
         return boardroom != null ? boardroom.getDisplayName() : "Unknown Boardroom";
@@ -312,6 +382,7 @@ public class Booking {
     }
 
     public String getShortPurpose() {
+        String purpose = getPurpose();
         if (purpose == null || purpose.length() <= 50) {
             return purpose;
         }
@@ -326,10 +397,15 @@ public class Booking {
 
     public void cancel(String reason) {
         this.status = BookingStatus.CANCELLED;
-        this.cancelledReason = reason;
+        setCancelledReason(reason);
         this.cancelledAt = LocalDateTime.now();
     }
 
+    public void checkIn() {
+        this.status = BookingStatus.IN_PROGRESS;
+        this.checkedInAt = LocalDateTime.now();
+    }
+
     public void complete() {
         this.status = BookingStatus.COMPLETED;
     }
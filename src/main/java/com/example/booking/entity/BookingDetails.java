@@ -0,0 +1,77 @@
+package com.example.booking.entity;
+
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Free-text fields of a {@link Booking}. Kept in their own table so that the
+ * {@code bookings} rows read by conflict checks, calendars and list pages stay narrow;
+ * the row is only loaded when one of the texts is actually accessed.
+ */
+@Entity
+@Table(name = "booking_details")
+public class BookingDetails {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @NotBlank(message = "Purpose is required")
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String purpose;
+
+    @Column(name = "special_requirements", columnDefinition = "TEXT")
+    private String specialRequirements;
+
+    @Column(name = "cancelled_reason", columnDefinition = "TEXT")
+    private String cancelledReason;
+
+    // Constructors
+    public BookingDetails() {
+    }
+
+    public BookingDetails(String purpose) {
+        this.purpose = purpose;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public String getSpecialRequirements() {
+        return specialRequirements;
+    }
+
+    public void setSpecialRequirements(String specialRequirements) {
+        this.specialRequirements = specialRequirements;
+    }
+
+    public String getCancelledReason() {
+        return cancelledReason;
+    }
+
+    public void setCancelledReason(String cancelledReason) {
+        this.cancelledReason = cancelledReason;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingDetails{" +
+                "id=" + id +
+                '}';
+    }
+}
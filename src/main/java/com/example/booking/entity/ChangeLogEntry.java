@@ -0,0 +1,94 @@
+package com.example.booking.entity;
+
+import com.example.booking.enums.ChangeEntityType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change of a cached entity, read by the other nodes of a cluster to drop
+ * their stale cache entries. The id orders the log and serves as its version: a node has
+ * seen every change up to the highest id it applied, apart from the gaps it still waits
+ * for. Rows are inserted with plain JDBC by {@link com.example.booking.service.ClusterChangeLog}
+ * in the changing transaction; this mapping is used to read and purge them.
+ */
+@Entity
+@Table(name = "change_log", indexes =
+        @Index(name = "idx_change_log_created_at", columnList = "created_at"))
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Node that made the change; it invalidated its own caches already
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private ChangeEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Room whose change version the change bumps, if any
+    @Column(name = "boardroom_id")
+    private Long boardroomId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ChangeLogEntry() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(ChangeEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public void setBoardroomId(Long boardroomId) {
+        this.boardroomId = boardroomId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
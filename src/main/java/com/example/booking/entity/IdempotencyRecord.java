@@ -0,0 +1,153 @@
+package com.example.booking.entity;
+
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request made with an {@code Idempotency-Key} header. A record
+ * without a response status is claimed by a request that is still running, or by one
+ * whose node died; {@code claimed_at} tells the two apart.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "idempotency_key"}),
+       indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    // Caller and operation the key belongs to
+    @Column(nullable = false, length = 150)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request, to reject a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // When the running request claimed the key; null on rows written before claims had a lease
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    // Constructors
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String scope, String idempotencyKey, String requestHash, LocalDateTime expiresAt) {
+        this.scope = scope;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.claimedAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    // Helper methods
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    /**
+     * True if the key is claimed by a request that started before the given time
+     */
+    public boolean isClaimedBefore(LocalDateTime time) {
+        LocalDateTime claimed = claimedAt != null ? claimedAt : createdAt;
+        return !isCompleted() && claimed.isBefore(time);
+    }
+}
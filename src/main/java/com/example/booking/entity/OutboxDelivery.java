@@ -0,0 +1,73 @@
+package com.example.booking.entity;
+
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delivery of an outbox event to one of its recipients, recorded while other recipients of
+ * the event still have to be notified, so a retry does not notify this one again. Removed
+ * once the event is dispatched.
+ */
+@Entity
+@Table(name = "notification_outbox_deliveries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}))
+public class OutboxDelivery {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "delivered_at", nullable = false)
+    private LocalDateTime deliveredAt;
+
+    // Constructors
+    public OutboxDelivery() {
+    }
+
+    public OutboxDelivery(Long eventId, Long userId, LocalDateTime deliveredAt) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.deliveredAt = deliveredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public void setDeliveredAt(LocalDateTime deliveredAt) {
+        this.deliveredAt = deliveredAt;
+    }
+}
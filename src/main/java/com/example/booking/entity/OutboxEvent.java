@@ -0,0 +1,188 @@
+package com.example.booking.entity;
+
+import com.example.booking.enums.NotificationType;
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A booking change to notify about, written in the same transaction as the change and
+ * delivered later by the notification dispatcher. The booking's room, user and time are
+ * copied so the notification describes the booking as it was at the time of the change.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes =
+        @Index(name = "idx_outbox_undispatched", columnList = "dispatched_at, id"))
+public class OutboxEvent {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "boardroom_id", nullable = false)
+    private Long boardroomId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null until delivered, or until delivery was given up
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Constructors
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(NotificationType type, Booking booking) {
+        this.type = type;
+        this.bookingId = booking.getId();
+        this.boardroomId = booking.getBoardroom().getId();
+        this.userId = booking.getUser().getId();
+        this.bookingDate = booking.getBookingDate();
+        this.startTime = booking.getStartTime();
+        this.endTime = booking.getEndTime();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxEvent(NotificationType type, Long bookingId, Long boardroomId, Long userId, LocalDate bookingDate,
+                       LocalTime startTime, LocalTime endTime) {
+        this.type = type;
+        this.bookingId = bookingId;
+        this.boardroomId = boardroomId;
+        this.userId = userId;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getBoardroomId() {
+        return boardroomId;
+    }
+
+    public void setBoardroomId(Long boardroomId) {
+        this.boardroomId = boardroomId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public void setDispatchedAt(LocalDateTime dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    // Helper methods
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+}
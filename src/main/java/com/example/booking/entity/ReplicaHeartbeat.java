@@ -0,0 +1,43 @@
+package com.example.booking.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Last heartbeat a node wrote to the primary, read back from the replica to measure its
+ * lag. Written and read with plain JDBC by
+ * {@link com.example.booking.datasource.ReplicaLagMonitor}; mapped so the table is created
+ * with the schema.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    // Primary's wall clock time of the heartbeat, in epoch milliseconds
+    @Column(name = "beat_millis", nullable = false)
+    private long beatMillis;
+
+    // Constructors
+    public ReplicaHeartbeat() {
+    }
+
+    // Getters and Setters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getBeatMillis() {
+        return beatMillis;
+    }
+
+    public void setBeatMillis(long beatMillis) {
+        this.beatMillis = beatMillis;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.booking.entity;
+
+import com.example.booking.enums.WaitlistStatus;
+import com.example.booking.id.TimeOrderedId;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A request to book a time range that was taken when asked for. It waits until the range
+ * frees up and is then turned into a booking automatically.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes =
+        @Index(name = "idx_waitlist_room_date_status", columnList = "boardroom_id, booking_date, status"))
+public class WaitlistEntry {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @NotNull(message = "Boardroom is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "boardroom_id", nullable = false)
+    private Boardroom boardroom;
+
+    @NotNull(message = "User is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @NotNull(message = "Booking date is required")
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @NotNull(message = "Start time is required")
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "purpose", nullable = false)
+    private String purpose;
+
+    @Min(value = 1, message = "Attendee count must be at least 1")
+    @Column(name = "attendee_count", nullable = false)
+    private Integer attendeeCount;
+
+    // Higher is served first; equal priorities are served in order of joining
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // The booking the entry was promoted to
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id")
+    private Booking booking;
+
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(Boardroom boardroom, User user, LocalDate bookingDate, LocalTime startTime,
+                         LocalTime endTime, String purpose, Integer attendeeCount, int priority) {
+        this.boardroom = boardroom;
+        this.user = user;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.purpose = purpose;
+        this.attendeeCount = attendeeCount;
+        this.priority = priority;
+    }
+
+    // Lifecycle callbacks
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boardroom getBoardroom() {
+        return boardroom;
+    }
+
+    public void setBoardroom(Boardroom boardroom) {
+        this.boardroom = boardroom;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public Integer getAttendeeCount() {
+        return attendeeCount;
+    }
+
+    public void setAttendeeCount(Integer attendeeCount) {
+        this.attendeeCount = attendeeCount;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public void setBooking(Booking booking) {
+        this.booking = booking;
+    }
+
+    public LocalDateTime getPromotedAt() {
+        return promotedAt;
+    }
+
+    public void setPromotedAt(LocalDateTime promotedAt) {
+        this.promotedAt = promotedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Helper methods
+    public boolean isWaiting() {
+        return status == WaitlistStatus.WAITING;
+    }
+
+    public String getTimeSlot() {
+        return startTime + " - " + endTime;
+    }
+
+    public void promote(Booking booking) {
+        this.status = WaitlistStatus.PROMOTED;
+        this.booking = booking;
+        this.promotedAt = LocalDateTime.now();
+    }
+
+    public void withdraw() {
+        this.status = WaitlistStatus.WITHDRAWN;
+    }
+
+    public void expire() {
+        this.status = WaitlistStatus.EXPIRED;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "id=" + id +
+                ", bookingDate=" + bookingDate +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", priority=" + priority +
+                ", status=" + status +
+                '}';
+    }
+}
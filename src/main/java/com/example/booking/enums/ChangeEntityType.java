@@ -0,0 +1,19 @@
+package com.example.booking.enums;
+
+public enum ChangeEntityType {
+    BOARDROOM("Boardroom"),
+    BOOKING("Booking"),
+    AVAILABILITY_SLOT("Availability Slot"),
+    BLOCK_RULE("Block Rule"),
+    USER("User");
+
+    private final String displayName;
+
+    ChangeEntityType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.booking.enums;
+
+public enum NotificationType {
+    APPROVAL_REQUESTED("Approval Requested"),
+    BOOKING_CONFIRMED("Booking Confirmed"),
+    BOOKING_CANCELLED("Booking Cancelled"),
+    BOOKING_REMINDER("Booking Starts Soon"),
+    BOOKING_MOVED("Booking Moved to Another Room");
+
+    private final String displayName;
+
+    NotificationType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Whether the booker is told
+     */
+    public boolean notifiesBooker() {
+        return this != APPROVAL_REQUESTED;
+    }
+
+    /**
+     * Whether the admins of the boardroom are told
+     */
+    public boolean notifiesRoomAdmins() {
+        return this != BOOKING_CONFIRMED && this != BOOKING_REMINDER;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.booking.enums;
+
+public enum RecurrenceFrequency {
+    DAILY("Daily"),
+    WEEKLY("Weekly"),
+    MONTHLY("Monthly");
+
+    private final String displayName;
+
+    RecurrenceFrequency(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.booking.enums;
+
+public enum WaitlistStatus {
+    WAITING("Waiting"),
+    PROMOTING("Promoting"),
+    PROMOTED("Promoted"),
+    WITHDRAWN("Withdrawn"),
+    EXPIRED("Expired");
+
+    private final String displayName;
+
+    WaitlistStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
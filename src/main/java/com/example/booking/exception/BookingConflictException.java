@@ -0,0 +1,11 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a booking or hold overlaps an existing booking, hold or blocked time.
+ */
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when an idempotency key cannot be honoured: it was used for a different request,
+ * or the original request with the key is still running.
+ */
+public class IdempotencyException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    /**
+     * True if the key is claimed by a running request, false if it was reused for another request
+     */
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
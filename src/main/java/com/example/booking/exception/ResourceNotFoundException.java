@@ -0,0 +1,15 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a boardroom, booking, user or other referenced record does not exist.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    public ResourceNotFoundException(String resource, Object id) {
+        super(resource + " not found with id: " + id);
+    }
+}
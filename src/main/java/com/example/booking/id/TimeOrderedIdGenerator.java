@@ -0,0 +1,47 @@
+package com.example.booking.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate id generator behind {@link TimeOrderedId}. Ids are known as soon as an entity
+ * is persisted, so Hibernate can batch inserts, which it cannot do for identity columns.
+ *
+ * The node id is read from the {@value #NODE_ID_SETTING} Hibernate setting, supplied by
+ * {@link com.example.booking.config.IdGeneratorConfig}. All entities share one sequence
+ * per node id.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "app.id.node-id";
+
+    private static final Map<Integer, TimeOrderedIds> SEQUENCES = new ConcurrentHashMap<>();
+
+    private final TimeOrderedIds ids;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        int nodeId = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(NODE_ID_SETTING, value -> Integer.parseInt(value.toString()), 0);
+        this.ids = SEQUENCES.computeIfAbsent(nodeId, TimeOrderedIds::new);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return ids.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.booking.listener;
+
+import com.example.booking.dto.AuditRecord;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.AvailabilitySlotNotes;
+import com.example.booking.entity.BoardroomAdmin;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.BookingDetails;
+import com.example.booking.service.AuditJournalService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reports every flushed insert, update and delete of a booking, availability slot, room
+ * admin assignment, or their detail rows, to the {@link AuditJournalService}. Inserts
+ * record all set properties, deletes the last state and updates the dirty properties with
+ * their old and new values. Associations are recorded as the associated entity's id;
+ * collections are skipped.
+ *
+ * Bulk JPQL statements bypass this listener; services issuing them must record their
+ * changes themselves.
+ */
+public class AuditJournalEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final AuditJournalService auditJournalService;
+
+    public AuditJournalEventListener(AuditJournalService auditJournalService) {
+        this.auditJournalService = auditJournalService;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        AuditRecord.EntityType entityType = entityTypeOf(event.getEntity());
+        if (entityType == null) {
+            return;
+        }
+        List<AuditRecord.Change> changes = new ArrayList<>();
+        Type[] types = event.getPersister().getPropertyTypes();
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            String after = render(event.getState()[i], types[i], event.getSession());
+            if (after != null && !types[i].isCollectionType()) {
+                changes.add(new AuditRecord.Change(names[i], null, after));
+            }
+        }
+        auditJournalService.record(entityType, AuditRecord.Operation.INSERT, idOf(event.getId()), changes);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        AuditRecord.EntityType entityType = entityTypeOf(event.getEntity());
+        if (entityType == null) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        Type[] types = event.getPersister().getPropertyTypes();
+        String[] names = event.getPersister().getPropertyNames();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            dirty = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                dirty[i] = i;
+            }
+        }
+
+        List<AuditRecord.Change> changes = new ArrayList<>(dirty.length);
+        for (int i : dirty) {
+            if (types[i].isCollectionType()) {
+                continue;
+            }
+            String before = oldState != null ? render(oldState[i], types[i], event.getSession()) : null;
+            String after = render(state[i], types[i], event.getSession());
+            if (!Objects.equals(before, after)) {
+                changes.add(new AuditRecord.Change(names[i], before, after));
+            }
+        }
+        if (!changes.isEmpty()) {
+            auditJournalService.record(entityType, AuditRecord.Operation.UPDATE, idOf(event.getId()), changes);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        AuditRecord.EntityType entityType = entityTypeOf(event.getEntity());
+        if (entityType == null) {
+            return;
+        }
+        List<AuditRecord.Change> changes = new ArrayList<>();
+        Object[] deletedState = event.getDeletedState();
+        if (deletedState != null) {
+            Type[] types = event.getPersister().getPropertyTypes();
+            String[] names = event.getPersister().getPropertyNames();
+            for (int i = 0; i < names.length; i++) {
+                String before = render(deletedState[i], types[i], event.getSession());
+                if (before != null && !types[i].isCollectionType()) {
+                    changes.add(new AuditRecord.Change(names[i], before, null));
+                }
+            }
+        }
+        auditJournalService.record(entityType, AuditRecord.Operation.DELETE, idOf(event.getId()), changes);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static AuditRecord.EntityType entityTypeOf(Object entity) {
+        if (entity instanceof Booking) {
+            return AuditRecord.EntityType.BOOKING;
+        }
+        if (entity instanceof BookingDetails) {
+            return AuditRecord.EntityType.BOOKING_DETAILS;
+        }
+        if (entity instanceof AvailabilitySlot) {
+            return AuditRecord.EntityType.AVAILABILITY_SLOT;
+        }
+        if (entity instanceof AvailabilitySlotNotes) {
+            return AuditRecord.EntityType.AVAILABILITY_SLOT_NOTES;
+        }
+        if (entity instanceof BoardroomAdmin) {
+            return AuditRecord.EntityType.BOARDROOM_ADMIN;
+        }
+        return null;
+    }
+
+    private static String render(Object value, Type type, SharedSessionContractImplementor session) {
+        if (value == null || type.isCollectionType()) {
+            return null;
+        }
+        if (type instanceof EntityType entityType) {
+            // Reading the id does not initialize a lazy association
+            if (value instanceof HibernateProxy proxy) {
+                return String.valueOf(proxy.getHibernateLazyInitializer().getInternalIdentifier());
+            }
+            Object id = session.getEntityPersister(entityType.getAssociatedEntityName(), value)
+                    .getIdentifier(value, session);
+            return String.valueOf(id);
+        }
+        return String.valueOf(value);
+    }
+
+    private static Long idOf(Object id) {
+        return id instanceof Long value ? value : null;
+    }
+}
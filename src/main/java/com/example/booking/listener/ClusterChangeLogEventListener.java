@@ -0,0 +1,96 @@
+package com.example.booking.listener;
+
+import com.example.booking.entity.AvailabilityBlockRule;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.service.ClusterChangeLog;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Logs every flushed insert, update and delete of a boardroom, booking, availability
+ * slot, block rule or user to the {@link ClusterChangeLog}, so other nodes can drop their
+ * cached copies. A booking or slot moved to another room is logged for both rooms.
+ *
+ * Bulk JPQL statements bypass this listener; services issuing them must call
+ * {@link ClusterChangeLog#record(ChangeEntityType, Long, Long)} themselves.
+ */
+public class ClusterChangeLogEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String BOARDROOM_PROPERTY = "boardroom";
+
+    private final ClusterChangeLog clusterChangeLog;
+
+    public ClusterChangeLogEventListener(ClusterChangeLog clusterChangeLog) {
+        this.clusterChangeLog = clusterChangeLog;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        ChangeEntityType entityType = record(event.getSession(), event.getEntity());
+        if (entityType != null && event.getOldState() != null && !(event.getEntity() instanceof Boardroom)) {
+            String[] propertyNames = event.getPersister().getPropertyNames();
+            for (int i = 0; i < propertyNames.length; i++) {
+                if (BOARDROOM_PROPERTY.equals(propertyNames[i]) && event.getOldState()[i] instanceof Boardroom previous) {
+                    clusterChangeLog.record(event.getSession(), entityType, idOf(event.getId()), previous.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private ChangeEntityType record(EventSource session, Object entity) {
+        if (entity instanceof Boardroom boardroom) {
+            clusterChangeLog.record(session, ChangeEntityType.BOARDROOM, boardroom.getId(), boardroom.getId());
+            return ChangeEntityType.BOARDROOM;
+        }
+        if (entity instanceof Booking booking) {
+            clusterChangeLog.record(session, ChangeEntityType.BOOKING, booking.getId(), idOf(booking.getBoardroom()));
+            return ChangeEntityType.BOOKING;
+        }
+        if (entity instanceof AvailabilitySlot slot) {
+            clusterChangeLog.record(session, ChangeEntityType.AVAILABILITY_SLOT, slot.getId(), idOf(slot.getBoardroom()));
+            return ChangeEntityType.AVAILABILITY_SLOT;
+        }
+        if (entity instanceof AvailabilityBlockRule rule) {
+            clusterChangeLog.record(session, ChangeEntityType.BLOCK_RULE, rule.getId(), idOf(rule.getBoardroom()));
+            return ChangeEntityType.BLOCK_RULE;
+        }
+        if (entity instanceof User user) {
+            clusterChangeLog.record(session, ChangeEntityType.USER, user.getId(), null);
+            return ChangeEntityType.USER;
+        }
+        return null;
+    }
+
+    private static Long idOf(Boardroom boardroom) {
+        return boardroom != null ? boardroom.getId() : null;
+    }
+
+    private static Long idOf(Object id) {
+        return id instanceof Long value ? value : null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.booking.listener;
+
+import com.example.booking.entity.AvailabilityBlockRule;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.service.RoomChangeTracker;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Bumps the {@link RoomChangeTracker} version of every boardroom touched by a flushed
+ * insert, update or delete of a boardroom, booking, availability slot or block rule. A
+ * booking or slot moved to another room marks both the old and the new room as changed.
+ *
+ * Bulk JPQL statements bypass this listener; services issuing them must call
+ * {@link RoomChangeTracker#markChanged(Long)} themselves.
+ */
+public class RoomChangeEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String BOARDROOM_PROPERTY = "boardroom";
+
+    private final RoomChangeTracker roomChangeTracker;
+
+    public RoomChangeEventListener(RoomChangeTracker roomChangeTracker) {
+        this.roomChangeTracker = roomChangeTracker;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        roomChangeTracker.markChanged(boardroomIdOf(event.getEntity()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        roomChangeTracker.markChanged(boardroomIdOf(event.getEntity()));
+        if (event.getOldState() != null && !(event.getEntity() instanceof Boardroom)) {
+            String[] propertyNames = event.getPersister().getPropertyNames();
+            for (int i = 0; i < propertyNames.length; i++) {
+                if (BOARDROOM_PROPERTY.equals(propertyNames[i]) && event.getOldState()[i] instanceof Boardroom previous) {
+                    roomChangeTracker.markChanged(previous.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        roomChangeTracker.markChanged(boardroomIdOf(event.getEntity()));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long boardroomIdOf(Object entity) {
+        if (entity instanceof Boardroom boardroom) {
+            return boardroom.getId();
+        }
+        if (entity instanceof Booking booking) {
+            return booking.getBoardroom() != null ? booking.getBoardroom().getId() : null;
+        }
+        if (entity instanceof AvailabilitySlot slot) {
+            return slot.getBoardroom() != null ? slot.getBoardroom().getId() : null;
+        }
+        if (entity instanceof AvailabilityBlockRule rule) {
+            return rule.getBoardroom() != null ? rule.getBoardroom().getId() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.booking.monitoring;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts every entity hydrated by Hibernate, whether from a query result or a lazy
+ * association being initialized.
+ */
+public class EntityLoadCountingListener implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        String entityName = event.getPersister().getEntityName();
+        QueryCounter.recordEntityLoad(entityName.substring(entityName.lastIndexOf('.') + 1));
+    }
+}
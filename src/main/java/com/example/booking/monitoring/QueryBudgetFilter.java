@@ -0,0 +1,50 @@
+package com.example.booking.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Measures the SQL statements and entity loads of every HTTP request and logs the
+ * requests that exceed the configured budget.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final int maxStatements;
+    private final int maxEntityLoads;
+
+    public QueryBudgetFilter(int maxStatements, int maxEntityLoads) {
+        this.maxStatements = maxStatements;
+        this.maxEntityLoads = maxEntityLoads;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (QueryCountScope scope = QueryCounter.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                report(request, scope);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCountScope scope) {
+        boolean overBudget = scope.getStatementCount() > maxStatements || scope.getEntityLoadCount() > maxEntityLoads;
+        if (overBudget) {
+            log.warn("Query budget exceeded by {} {} (budget {} statements, {} entity loads): {}",
+                    request.getMethod(), request.getRequestURI(), maxStatements, maxEntityLoads, scope.describe());
+        } else if (log.isDebugEnabled() && scope.getStatementCount() > 0) {
+            log.debug("{} {}: {}", request.getMethod(), request.getRequestURI(), scope.describe());
+        }
+    }
+}
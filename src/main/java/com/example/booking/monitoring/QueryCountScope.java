@@ -0,0 +1,113 @@
+package com.example.booking.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A measurement window opened by {@link QueryCounter#open()}.
+ *
+ * All counts are relative to the moment the scope was opened. Assertion failures are
+ * reported as {@link AssertionError} so that test frameworks treat them as test failures.
+ */
+public final class QueryCountScope implements AutoCloseable {
+
+    private static final int REPORTED_STATEMENTS = 3;
+    private static final int MAX_SQL_LENGTH = 160;
+
+    private final QueryCounter.Counts baseline;
+    private final long startedAt = System.nanoTime();
+
+    QueryCountScope(QueryCounter.Counts baseline) {
+        this.baseline = baseline;
+    }
+
+    public long getStatementCount() {
+        return QueryCounter.current().statements - baseline.statements;
+    }
+
+    public long getEntityLoadCount() {
+        return QueryCounter.current().entityLoads - baseline.entityLoads;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    /**
+     * Entity loads per entity name, most loaded first.
+     */
+    public Map<String, Integer> getEntityLoadsByType() {
+        return delta(QueryCounter.current().loadsByEntity, baseline.loadsByEntity, 1);
+    }
+
+    /**
+     * SQL strings executed at least {@code minExecutions} times, most executed first.
+     * The same statement executed once per row of a previous result is the usual
+     * signature of an N+1 access pattern.
+     */
+    public Map<String, Integer> getRepeatedStatements(int minExecutions) {
+        return delta(QueryCounter.current().statementsBySql, baseline.statementsBySql, minExecutions);
+    }
+
+    public void assertMaxQueries(int maxStatements) {
+        long executed = getStatementCount();
+        if (executed > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but " +
+                    executed + " were executed. " + describe());
+        }
+    }
+
+    public void assertMaxEntityLoads(int maxLoads) {
+        long loaded = getEntityLoadCount();
+        if (loaded > maxLoads) {
+            throw new AssertionError("Expected at most " + maxLoads + " entity loads but " +
+                    loaded + " entities were loaded. " + describe());
+        }
+    }
+
+    /**
+     * Human readable summary of the scope, listing the most repeated statements and
+     * the loaded entity types.
+     */
+    public String describe() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(getStatementCount()).append(" statements, ")
+                .append(getEntityLoadCount()).append(" entity loads in ")
+                .append(getElapsedMillis()).append(" ms");
+
+        Map<String, Integer> loads = getEntityLoadsByType();
+        if (!loads.isEmpty()) {
+            summary.append("; loads: ").append(loads.entrySet().stream()
+                    .map(entry -> entry.getKey() + " x" + entry.getValue())
+                    .collect(Collectors.joining(", ")));
+        }
+
+        Map<String, Integer> repeated = getRepeatedStatements(2);
+        if (!repeated.isEmpty()) {
+            summary.append("; repeated: ").append(repeated.entrySet().stream()
+                    .limit(REPORTED_STATEMENTS)
+                    .map(entry -> "[" + abbreviate(entry.getKey()) + "] x" + entry.getValue())
+                    .collect(Collectors.joining(", ")));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public void close() {
+        QueryCounter.close(this);
+    }
+
+    private static Map<String, Integer> delta(Map<String, Integer> current, Map<String, Integer> base, int minimum) {
+        return current.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue() - base.getOrDefault(entry.getKey(), 0)))
+                .filter(entry -> entry.getValue() >= minimum)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String abbreviate(String sql) {
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        return compact.length() <= MAX_SQL_LENGTH ? compact : compact.substring(0, MAX_SQL_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.booking.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thread-bound counter of SQL statements and entity loads.
+ *
+ * Hibernate reports every prepared statement and every entity load into the counter of the
+ * current thread. Callers open a {@link QueryCountScope} to measure a unit of work (an HTTP
+ * request, a test method) and read or assert the difference against the values at open time:
+ *
+ * <pre>
+ * try (QueryCountScope scope = QueryCounter.open()) {
+ *     bookingRepository.findTodaysBookings(LocalDate.now()).forEach(Booking::getUserDisplayName);
+ *     scope.assertMaxQueries(1);
+ * }
+ * </pre>
+ */
+public final class QueryCounter {
+
+    /**
+     * Upper bound of distinct SQL strings tracked per thread, so a thread running
+     * ad-hoc queries for a long time cannot grow the map without limit.
+     */
+    static final int MAX_TRACKED_STATEMENTS = 512;
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+    private static final ThreadLocal<Deque<QueryCountScope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Start measuring on the current thread. Scopes may be nested; each one sees every
+     * statement executed while it is open.
+     */
+    public static QueryCountScope open() {
+        QueryCountScope scope = new QueryCountScope(COUNTS.get().copy());
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Assert against the innermost open scope of the current thread.
+     */
+    public static void assertMaxQueries(int maxStatements) {
+        currentScope().assertMaxQueries(maxStatements);
+    }
+
+    /**
+     * Assert against the innermost open scope of the current thread.
+     */
+    public static void assertMaxEntityLoads(int maxLoads) {
+        currentScope().assertMaxEntityLoads(maxLoads);
+    }
+
+    static void recordStatement(String sql) {
+        Counts counts = COUNTS.get();
+        counts.statements++;
+        if (counts.statementsBySql.size() < MAX_TRACKED_STATEMENTS || counts.statementsBySql.containsKey(sql)) {
+            counts.statementsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordEntityLoad(String entityName) {
+        Counts counts = COUNTS.get();
+        counts.entityLoads++;
+        counts.loadsByEntity.merge(entityName, 1, Integer::sum);
+    }
+
+    static Counts current() {
+        return COUNTS.get();
+    }
+
+    static void close(QueryCountScope scope) {
+        Deque<QueryCountScope> scopes = SCOPES.get();
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            COUNTS.remove();
+        }
+    }
+
+    private static QueryCountScope currentScope() {
+        QueryCountScope scope = SCOPES.get().peek();
+        if (scope == null) {
+            throw new IllegalStateException("No query count scope is open on this thread; call QueryCounter.open() first");
+        }
+        return scope;
+    }
+
+    /**
+     * Raw, monotonically increasing counts of one thread.
+     */
+    static final class Counts {
+        long statements;
+        long entityLoads;
+        final Map<String, Integer> statementsBySql = new HashMap<>();
+        final Map<String, Integer> loadsByEntity = new HashMap<>();
+
+        Counts copy() {
+            Counts copy = new Counts();
+            copy.statements = statements;
+            copy.entityLoads = entityLoads;
+            copy.statementsBySql.putAll(statementsBySql);
+            copy.loadsByEntity.putAll(loadsByEntity);
+            return copy;
+        }
+    }
+}
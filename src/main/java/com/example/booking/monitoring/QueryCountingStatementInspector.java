@@ -0,0 +1,16 @@
+package com.example.booking.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook invoked for every SQL statement prepared by a session. The statement
+ * is passed through unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.booking.notification;
+
+import com.example.booking.dto.NotificationDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Appends digests to a local file, for testing without a mail server.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.sender", havingValue = "file")
+public class FileNotificationSender implements NotificationSender {
+
+    private final Path file;
+
+    public FileNotificationSender(@Value("${app.notifications.file:data/notifications.log}") String file)
+            throws IOException {
+        this.file = Path.of(file);
+        if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+    }
+
+    @Override
+    public synchronized void send(NotificationDigest digest) throws IOException {
+        String message = "=== " + LocalDateTime.now() + " To: " + digest.getRecipientName() +
+                " <" + digest.getRecipientEmail() + ">\nSubject: " + digest.getSubject() + "\n\n" +
+                digest.getBody() + "\n";
+        Files.writeString(file, message, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
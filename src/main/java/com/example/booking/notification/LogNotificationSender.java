@@ -0,0 +1,23 @@
+package com.example.booking.notification;
+
+import com.example.booking.dto.NotificationDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes digests to the application log. The default sender.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LogNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LogNotificationSender.class);
+
+    @Override
+    public void send(NotificationDigest digest) {
+        log.info("Notification to {} <{}>: {}\n{}", digest.getRecipientName(), digest.getRecipientEmail(),
+                digest.getSubject(), digest.getBody());
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.booking.notification;
+
+import com.example.booking.dto.NotificationDigest;
+
+/**
+ * Delivers notification digests. Chosen with {@code app.notifications.sender}; a digest
+ * whose delivery throws is retried with the rest of its events on the next dispatch run.
+ */
+public interface NotificationSender {
+
+    void send(NotificationDigest digest) throws Exception;
+}
@@ -0,0 +1,57 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.AvailabilityBlockRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AvailabilityBlockRuleRepository extends JpaRepository<AvailabilityBlockRule, Long> {
+
+    /**
+     * Find block rules by boardroom ID
+     */
+    List<AvailabilityBlockRule> findByBoardroomIdOrderByStartDateAsc(Long boardroomId);
+
+    /**
+     * Find active block rules of a boardroom that may occur in a date range, with their exceptions
+     */
+    @Query("SELECT DISTINCT r FROM AvailabilityBlockRule r LEFT JOIN FETCH r.exceptionDates WHERE " +
+           "r.boardroom.id = :boardroomId AND r.isActive = true AND " +
+           "r.startDate <= :endDate AND (r.endDate IS NULL OR r.endDate >= :startDate)")
+    List<AvailabilityBlockRule> findActiveRulesForBoardroomInDateRange(@Param("boardroomId") Long boardroomId,
+                                                                       @Param("startDate") LocalDate startDate,
+                                                                       @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find IDs of boardrooms with an active block rule covering a date
+     */
+    @Query("SELECT DISTINCT r.boardroom.id FROM AvailabilityBlockRule r WHERE r.isActive = true AND " +
+           "r.startDate <= :date AND (r.endDate IS NULL OR r.endDate >= :date)")
+    List<Long> findBoardroomIdsWithActiveRulesOn(@Param("date") LocalDate date);
+
+    /**
+     * Find IDs of boardrooms with a block rule created or modified since a point in time
+     */
+    @Query("SELECT DISTINCT r.boardroom.id FROM AvailabilityBlockRule r WHERE r.updatedAt >= :since")
+    List<Long> findBoardroomIdsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find IDs of a boardroom's block rules
+     */
+    @Query("SELECT r.id FROM AvailabilityBlockRule r WHERE r.boardroom.id = :boardroomId")
+    List<Long> findIdsByBoardroomId(@Param("boardroomId") Long boardroomId);
+
+    /**
+     * Delete a boardroom's block rules, with their exception dates, in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM AvailabilityBlockRule r WHERE r.boardroom.id = :boardroomId")
+    int deleteByBoardroomIdInBulk(@Param("boardroomId") Long boardroomId);
+}
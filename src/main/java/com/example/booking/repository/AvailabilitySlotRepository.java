@@ -1,15 +1,27 @@
 package com.example.booking.repository;
 
+import com.example.booking.dto.BlockedSlotSummary;
+import com.example.booking.dto.CalendarSlot;
+import com.example.booking.dto.ScheduledInterval;
 import com.example.booking.entity.AvailabilitySlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySlot, Long> {
@@ -160,8 +172,8 @@ public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySl
     /**
      * Find slots with admin notes
      */
-    @Query("SELECT slot FROM AvailabilitySlot slot WHERE slot.adminNotes IS NOT NULL AND " +
-           "slot.adminNotes != '' ORDER BY slot.date ASC, slot.startTime ASC")
+    @Query("SELECT slot FROM AvailabilitySlot slot JOIN slot.notes n WHERE n.adminNotes IS NOT NULL AND " +
+           "n.adminNotes != '' ORDER BY slot.date ASC, slot.startTime ASC")
     List<AvailabilitySlot> findSlotsWithNotes();
 
     /**
@@ -187,7 +199,11 @@ public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySl
 
     /**
      * Find conflicting slots (overlapping time ranges for same boardroom and date)
+     *
+     * @deprecated quadratic self-join; use {@code IntegrityAuditService}, which finds the
+     * same overlaps in one ordered pass
      */
+    @Deprecated
     @Query("SELECT slot1 FROM AvailabilitySlot slot1 WHERE EXISTS (" +
            "SELECT slot2 FROM AvailabilitySlot slot2 WHERE " +
            "slot1.id != slot2.id AND slot1.boardroom.id = slot2.boardroom.id AND " +
@@ -207,8 +223,120 @@ public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySl
     /**
      * Find slots by blocked reason
      */
-    @Query("SELECT slot FROM AvailabilitySlot slot WHERE slot.isAvailable = false AND " +
-           "LOWER(slot.blockedReason) LIKE LOWER(CONCAT('%', :reason, '%')) " +
+    @Query("SELECT slot FROM AvailabilitySlot slot JOIN slot.notes n WHERE slot.isAvailable = false AND " +
+           "LOWER(n.blockedReason) LIKE LOWER(CONCAT('%', :reason, '%')) " +
            "ORDER BY slot.date ASC, slot.startTime ASC")
     List<AvailabilitySlot> findSlotsByBlockedReason(@Param("reason") String reason);
+
+    /**
+     * Find today's blocked slots with boardroom
+     */
+    @EntityGraph(AvailabilitySlot.WITH_BOARDROOM)
+    @Query("SELECT slot FROM AvailabilitySlot slot WHERE slot.date = :today AND " +
+           "slot.isAvailable = false ORDER BY slot.startTime ASC")
+    List<AvailabilitySlot> findTodaysBlockedSlotsWithBoardroom(@Param("today") LocalDate today);
+
+    /**
+     * Find future blocked slots with boardroom
+     */
+    @EntityGraph(AvailabilitySlot.WITH_BOARDROOM)
+    @Query("SELECT slot FROM AvailabilitySlot slot WHERE slot.date >= :currentDate AND " +
+           "slot.isAvailable = false ORDER BY slot.date ASC, slot.startTime ASC")
+    List<AvailabilitySlot> findFutureBlockedSlotsWithBoardroom(@Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Find summaries of today's blocked slots
+     */
+    @Query("SELECT new com.example.booking.dto.BlockedSlotSummary(slot.id, br.id, br.name, br.location, " +
+           "slot.date, slot.startTime, slot.endTime, slot.blockedBy) " +
+           "FROM AvailabilitySlot slot JOIN slot.boardroom br WHERE slot.date = :today AND " +
+           "slot.isAvailable = false ORDER BY slot.startTime ASC")
+    List<BlockedSlotSummary> findTodaysBlockedSlotSummaries(@Param("today") LocalDate today);
+
+    /**
+     * Find calendar rows of a boardroom's slots in a date range, with their blocked reason
+     */
+    @Query("SELECT new com.example.booking.dto.CalendarSlot(slot.id, slot.boardroom.id, slot.date, " +
+           "slot.startTime, slot.endTime, slot.isAvailable, slot.blockedBy, n.blockedReason) " +
+           "FROM AvailabilitySlot slot LEFT JOIN slot.notes n WHERE slot.boardroom.id = :boardroomId AND " +
+           "slot.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY slot.date ASC, slot.startTime ASC")
+    List<CalendarSlot> findCalendarSlotsByBoardroomInDateRange(@Param("boardroomId") Long boardroomId,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find blocked slots of several boardrooms in a date range, with their notes
+     */
+    @Query("SELECT slot FROM AvailabilitySlot slot LEFT JOIN FETCH slot.notes WHERE " +
+           "slot.boardroom.id IN :boardroomIds AND slot.date BETWEEN :startDate AND :endDate AND " +
+           "slot.isAvailable = false " +
+           "ORDER BY slot.boardroom.id ASC, slot.date ASC, slot.startTime ASC")
+    List<AvailabilitySlot> findBlockedSlotsForBoardroomsInDateRange(@Param("boardroomIds") Collection<Long> boardroomIds,
+                                                                   @Param("startDate") LocalDate startDate,
+                                                                   @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find the ID, date, start and end time, availability, blocker, creation time, notes ID, admin notes
+     * and blocked reason of a boardroom's slots, in ID order
+     */
+    @Query("SELECT slot.id, slot.date, slot.startTime, slot.endTime, slot.isAvailable, slot.blockedBy, " +
+           "slot.createdAt, n.id, n.adminNotes, n.blockedReason " +
+           "FROM AvailabilitySlot slot LEFT JOIN slot.notes n WHERE slot.boardroom.id = :boardroomId " +
+           "ORDER BY slot.id ASC")
+    List<Object[]> findSlotRowsForBoardroom(@Param("boardroomId") Long boardroomId, Pageable pageable);
+
+    /**
+     * Delete slots by ID in a single statement (notes must be deleted separately)
+     */
+    @Modifying
+    @Query("DELETE FROM AvailabilitySlot slot WHERE slot.id IN :ids")
+    int deleteSlotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete slot notes by ID in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM AvailabilitySlotNotes notes WHERE notes.id IN :ids")
+    int deleteSlotNotesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream slot intervals ordered by boardroom, date and start time
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(slot.id, slot.boardroom.id, slot.date, " +
+           "slot.startTime, slot.endTime, CASE WHEN slot.isAvailable = false THEN true ELSE false END) " +
+           "FROM AvailabilitySlot slot " +
+           "ORDER BY slot.boardroom.id ASC, slot.date ASC, slot.startTime ASC, slot.id ASC")
+    Stream<ScheduledInterval> streamSlotIntervals();
+
+    /**
+     * Stream slot intervals of the given boardrooms in a date range, ordered by boardroom,
+     * date and start time
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(slot.id, slot.boardroom.id, slot.date, " +
+           "slot.startTime, slot.endTime, CASE WHEN slot.isAvailable = false THEN true ELSE false END) " +
+           "FROM AvailabilitySlot slot WHERE slot.boardroom.id IN :boardroomIds AND " +
+           "slot.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY slot.boardroom.id ASC, slot.date ASC, slot.startTime ASC, slot.id ASC")
+    Stream<ScheduledInterval> streamSlotIntervalsForBoardrooms(@Param("boardroomIds") Collection<Long> boardroomIds,
+                                                               @Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find the (boardroom ID, date) pairs of slots created or modified since a point in time
+     */
+    @Query("SELECT DISTINCT slot.boardroom.id, slot.date FROM AvailabilitySlot slot WHERE slot.updatedAt >= :since")
+    List<Object[]> findRoomDaysChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find blocked slot intervals of a boardroom on a date
+     */
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(slot.id, slot.boardroom.id, slot.date, " +
+           "slot.startTime, slot.endTime, true) " +
+           "FROM AvailabilitySlot slot WHERE slot.boardroom.id = :boardroomId AND slot.date = :date AND " +
+           "slot.isAvailable = false")
+    List<ScheduledInterval> findBlockedIntervals(@Param("boardroomId") Long boardroomId,
+                                                 @Param("date") LocalDate date);
 }
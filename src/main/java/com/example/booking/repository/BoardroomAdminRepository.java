@@ -0,0 +1,69 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.BoardroomAdmin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BoardroomAdminRepository extends JpaRepository<BoardroomAdmin, Long> {
+
+    /**
+     * Find active admin assignments of a boardroom
+     */
+    List<BoardroomAdmin> findByBoardroomIdAndIsActiveTrue(Long boardroomId);
+
+    /**
+     * Find active admin assignments of a user
+     */
+    List<BoardroomAdmin> findByUserIdAndIsActiveTrue(Long userId);
+
+    /**
+     * Find active admin assignments of several boardrooms, with their active users
+     */
+    @Query("SELECT ba FROM BoardroomAdmin ba JOIN FETCH ba.user u " +
+           "WHERE ba.boardroom.id IN :boardroomIds AND ba.isActive = true AND u.isActive = true")
+    List<BoardroomAdmin> findActiveAdminsForBoardrooms(@Param("boardroomIds") Collection<Long> boardroomIds);
+
+    /**
+     * Find IDs of active admin assignments of a user
+     */
+    @Query("SELECT ba.id FROM BoardroomAdmin ba WHERE ba.user.id = :userId AND ba.isActive = true")
+    List<Long> findActiveIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find the ID, user ID, boardroom ID, assigner, assignment date and active flag of a user's admin
+     * assignments
+     */
+    @Query("SELECT ba.id, ba.user.id, ba.boardroom.id, ba.assignedBy, ba.assignedDate, ba.isActive " +
+           "FROM BoardroomAdmin ba WHERE ba.user.id = :userId")
+    List<Object[]> findRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find the ID, user ID, boardroom ID, assigner, assignment date and active flag of a boardroom's admin
+     * assignments
+     */
+    @Query("SELECT ba.id, ba.user.id, ba.boardroom.id, ba.assignedBy, ba.assignedDate, ba.isActive " +
+           "FROM BoardroomAdmin ba WHERE ba.boardroom.id = :boardroomId")
+    List<Object[]> findRowsByBoardroomId(@Param("boardroomId") Long boardroomId);
+
+    /**
+     * Deactivate admin assignments by ID
+     */
+    @Modifying
+    @Query("UPDATE BoardroomAdmin ba SET ba.isActive = false, ba.updatedAt = :now WHERE ba.id IN :ids")
+    int deactivateByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete admin assignments by ID in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM BoardroomAdmin ba WHERE ba.id IN :ids")
+    int deleteByIdInBulk(@Param("ids") Collection<Long> ids);
+}
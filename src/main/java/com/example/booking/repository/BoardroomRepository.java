@@ -3,6 +3,7 @@ package com.example.booking.repository;
 import com.example.booking.entity.Boardroom;
 import com.example.booking.enums.RoomCapacityType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -40,6 +41,12 @@ public interface BoardroomRepository extends JpaRepository<Boardroom, Long> {
      */
     List<Boardroom> findByLocationIgnoreCaseAndIsActiveTrueOrderByNameAsc(String location);
 
+    /**
+     * Find active boardrooms of a capacity type at a location, smallest first
+     */
+    List<Boardroom> findByCapacityTypeAndLocationIgnoreCaseAndIsActiveTrueOrderByCapacityAsc(
+            RoomCapacityType capacityType, String location);
+
     /**
      * Search boardrooms by name or location (case-insensitive)
      */
@@ -154,4 +161,23 @@ public interface BoardroomRepository extends JpaRepository<Boardroom, Long> {
      * Find boardroom by name (case-insensitive)
      */
     Optional<Boardroom> findByNameIgnoreCaseAndIsActiveTrue(String name);
+
+    /**
+     * Count active boardrooms grouped by capacity type
+     */
+    @Query("SELECT b.capacityType, COUNT(b) FROM Boardroom b WHERE b.isActive = true GROUP BY b.capacityType")
+    List<Object[]> countActiveBoardroomsGroupedByCapacityType();
+
+    /**
+     * Find IDs of all boardrooms of a capacity type, active or not
+     */
+    @Query("SELECT b.id FROM Boardroom b WHERE b.capacityType = :capacityType")
+    List<Long> findIdsByCapacityType(@Param("capacityType") RoomCapacityType capacityType);
+
+    /**
+     * Delete a boardroom in a single statement, bypassing the cascade to its collections
+     */
+    @Modifying
+    @Query("DELETE FROM Boardroom b WHERE b.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
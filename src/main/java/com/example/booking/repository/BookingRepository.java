@@ -1,16 +1,29 @@
 package com.example.booking.repository;
 
+import com.example.booking.dto.BookingHistoryRow;
+import com.example.booking.dto.BookingSummary;
+import com.example.booking.dto.ScheduledInterval;
+import com.example.booking.entity.Boardroom;
 import com.example.booking.entity.Booking;
 import com.example.booking.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -117,6 +130,133 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "b.bookingDate < :currentDate")
     List<Booking> findBookingsToComplete(@Param("currentDate") LocalDate currentDate);
 
+    /**
+     * Find the ID, status, date, start and end time of confirmed and in-progress bookings in a date range
+     */
+    @Query("SELECT b.id, b.status, b.bookingDate, b.startTime, b.endTime FROM Booking b WHERE " +
+           "b.bookingDate BETWEEN :startDate AND :endDate AND b.status IN ('CONFIRMED', 'IN_PROGRESS')")
+    List<Object[]> findTimedBookings(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Mark the start reminder of a confirmed booking as sent, unless it already was
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.reminderSentAt = :now WHERE b.id = :id AND " +
+           "b.status = 'CONFIRMED' AND b.reminderSentAt IS NULL")
+    int markReminderSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Find the ID, user ID, date, start and end time, attendee count, status and details ID of pending and
+     * confirmed bookings of a boardroom overlapping a time range on any day of a date range
+     */
+    @Query("SELECT b.id, b.user.id, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, d.id " +
+           "FROM Booking b LEFT JOIN b.details d WHERE b.boardroom.id = :boardroomId AND " +
+           "b.bookingDate BETWEEN :startDate AND :endDate AND b.status IN ('PENDING', 'CONFIRMED') AND " +
+           "b.startTime < :endTime AND b.endTime > :startTime " +
+           "ORDER BY b.bookingDate ASC, b.startTime ASC")
+    List<Object[]> findBookingsAffectedByOutage(@Param("boardroomId") Long boardroomId,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate,
+                                                @Param("startTime") LocalTime startTime,
+                                                @Param("endTime") LocalTime endTime);
+
+    /**
+     * Find the latest date of a boardroom's pending and confirmed bookings
+     */
+    @Query("SELECT MAX(b.bookingDate) FROM Booking b WHERE b.boardroom.id = :boardroomId AND " +
+           "b.status IN ('PENDING', 'CONFIRMED')")
+    LocalDate findLastOpenBookingDate(@Param("boardroomId") Long boardroomId);
+
+    /**
+     * Cancel bookings by ID
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.cancelledAt = :now, b.updatedAt = :now " +
+           "WHERE b.id IN :ids")
+    int cancelByIdIn(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Set the cancellation reason of booking details by ID
+     */
+    @Modifying
+    @Query("UPDATE BookingDetails d SET d.cancelledReason = :reason WHERE d.id IN :ids")
+    int updateCancelledReasonByDetailsIdIn(@Param("ids") Collection<Long> ids, @Param("reason") String reason);
+
+    /**
+     * Move bookings to another boardroom by ID
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.boardroom = :boardroom, b.updatedAt = :now WHERE b.id IN :ids")
+    int moveByIdIn(@Param("ids") Collection<Long> ids, @Param("boardroom") Boardroom boardroom,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Find the ID, boardroom ID, date, start and end time, status and details ID of a user's pending and
+     * confirmed bookings that have not ended, in ID order
+     */
+    @Query("SELECT b.id, b.boardroom.id, b.bookingDate, b.startTime, b.endTime, b.status, d.id " +
+           "FROM Booking b LEFT JOIN b.details d WHERE b.user.id = :userId AND " +
+           "b.status IN ('PENDING', 'CONFIRMED') AND " +
+           "(b.bookingDate > :currentDate OR (b.bookingDate = :currentDate AND b.endTime > :currentTime)) " +
+           "ORDER BY b.id ASC")
+    List<Object[]> findOpenBookingRowsForUser(@Param("userId") Long userId,
+                                              @Param("currentDate") LocalDate currentDate,
+                                              @Param("currentTime") LocalTime currentTime,
+                                              Pageable pageable);
+
+    /**
+     * Count a user's pending, confirmed and in-progress bookings that have not ended
+     */
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.user.id = :userId AND " +
+           "b.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS') AND " +
+           "(b.bookingDate > :currentDate OR (b.bookingDate = :currentDate AND b.endTime > :currentTime))")
+    long countOpenBookingsForUser(@Param("userId") Long userId,
+                                  @Param("currentDate") LocalDate currentDate,
+                                  @Param("currentTime") LocalTime currentTime);
+
+    /**
+     * Count a boardroom's pending, confirmed and in-progress bookings that have not ended
+     */
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.boardroom.id = :boardroomId AND " +
+           "b.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS') AND " +
+           "(b.bookingDate > :currentDate OR (b.bookingDate = :currentDate AND b.endTime > :currentTime))")
+    long countOpenBookingsForBoardroom(@Param("boardroomId") Long boardroomId,
+                                       @Param("currentDate") LocalDate currentDate,
+                                       @Param("currentTime") LocalTime currentTime);
+
+    /**
+     * Find the ID, boardroom ID, user ID, date, start and end time, status, attendee count, creation time,
+     * details ID, purpose and cancellation reason of a user's bookings, in ID order
+     */
+    @Query("SELECT b.id, b.boardroom.id, b.user.id, b.bookingDate, b.startTime, b.endTime, b.status, " +
+           "b.attendeeCount, b.createdAt, d.id, d.purpose, d.cancelledReason " +
+           "FROM Booking b LEFT JOIN b.details d WHERE b.user.id = :userId ORDER BY b.id ASC")
+    List<Object[]> findBookingRowsForUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Find the ID, boardroom ID, user ID, date, start and end time, status, attendee count, creation time,
+     * details ID, purpose and cancellation reason of a boardroom's bookings, in ID order
+     */
+    @Query("SELECT b.id, b.boardroom.id, b.user.id, b.bookingDate, b.startTime, b.endTime, b.status, " +
+           "b.attendeeCount, b.createdAt, d.id, d.purpose, d.cancelledReason " +
+           "FROM Booking b LEFT JOIN b.details d WHERE b.boardroom.id = :boardroomId ORDER BY b.id ASC")
+    List<Object[]> findBookingRowsForBoardroom(@Param("boardroomId") Long boardroomId, Pageable pageable);
+
+    /**
+     * Delete bookings by ID in a single statement (details must be deleted separately)
+     */
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteBookingsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete booking details by ID in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM BookingDetails d WHERE d.id IN :ids")
+    int deleteDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Find bookings currently in progress
      */
@@ -134,6 +274,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "ORDER BY b.createdAt ASC")
     List<Booking> findPendingBookings(@Param("currentDate") LocalDate currentDate);
 
+    /**
+     * Find pending bookings in a date range, by date and then oldest request first
+     */
+    @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' AND " +
+           "b.bookingDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.bookingDate ASC, b.createdAt ASC, b.id ASC")
+    List<Booking> findPendingBookingsInDateRange(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
     /**
      * Find bookings by user in a specific date range
      */
@@ -212,4 +361,172 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
            "ORDER BY b.startTime ASC")
     List<Booking> findTodaysBookings(@Param("today") LocalDate today);
+
+    // List view fetch plans: boardroom and user are loaded in the same query as the booking
+
+    /**
+     * Find bookings for a specific date with boardroom and user
+     */
+    @EntityGraph(Booking.WITH_BOARDROOM_AND_USER)
+    @Query("SELECT b FROM Booking b WHERE b.bookingDate = :date ORDER BY b.startTime ASC")
+    List<Booking> findWithDetailsByBookingDate(@Param("date") LocalDate date);
+
+    /**
+     * Find today's bookings with boardroom and user
+     */
+    @EntityGraph(Booking.WITH_BOARDROOM_AND_USER)
+    @Query("SELECT b FROM Booking b WHERE b.bookingDate = :today AND " +
+           "b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.startTime ASC")
+    List<Booking> findTodaysBookingsWithDetails(@Param("today") LocalDate today);
+
+    /**
+     * Find pending bookings that need approval with boardroom and user
+     */
+    @EntityGraph(Booking.WITH_BOARDROOM_AND_USER)
+    @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' AND " +
+           "b.bookingDate >= :currentDate " +
+           "ORDER BY b.createdAt ASC")
+    List<Booking> findPendingBookingsWithDetails(@Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Find upcoming bookings for a user with boardroom
+     */
+    @EntityGraph(Booking.WITH_BOARDROOM_AND_USER)
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND " +
+           "b.bookingDate >= :currentDate AND b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.bookingDate ASC, b.startTime ASC")
+    List<Booking> findUpcomingBookingsByUserIdWithDetails(@Param("userId") Long userId,
+                                                        @Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Find bookings by boardroom in a specific date range with boardroom and user
+     */
+    @EntityGraph(Booking.WITH_BOARDROOM_AND_USER)
+    @Query("SELECT b FROM Booking b WHERE b.boardroom.id = :boardroomId AND " +
+           "b.bookingDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.bookingDate DESC, b.startTime DESC")
+    List<Booking> findBookingsByBoardroomInDateRangeWithDetails(@Param("boardroomId") Long boardroomId,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+
+    // List view projections: only the columns a list row displays
+
+    /**
+     * Find booking summaries for a specific date
+     */
+    @Query("SELECT new com.example.booking.dto.BookingSummary(b.id, br.id, br.name, br.location, " +
+           "u.id, u.fullName, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.boardroom br JOIN b.user u WHERE b.bookingDate = :date " +
+           "ORDER BY b.startTime ASC")
+    List<BookingSummary> findSummariesByBookingDate(@Param("date") LocalDate date);
+
+    /**
+     * Find today's booking summaries
+     */
+    @Query("SELECT new com.example.booking.dto.BookingSummary(b.id, br.id, br.name, br.location, " +
+           "u.id, u.fullName, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.boardroom br JOIN b.user u WHERE b.bookingDate = :today AND " +
+           "b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.startTime ASC")
+    List<BookingSummary> findTodaysBookingSummaries(@Param("today") LocalDate today);
+
+    /**
+     * Find summaries of pending bookings that need approval
+     */
+    @Query("SELECT new com.example.booking.dto.BookingSummary(b.id, br.id, br.name, br.location, " +
+           "u.id, u.fullName, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.boardroom br JOIN b.user u WHERE b.status = 'PENDING' AND " +
+           "b.bookingDate >= :currentDate " +
+           "ORDER BY b.createdAt ASC")
+    List<BookingSummary> findPendingBookingSummaries(@Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Find upcoming booking summaries for a user
+     */
+    @Query("SELECT new com.example.booking.dto.BookingSummary(b.id, br.id, br.name, br.location, " +
+           "u.id, u.fullName, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.boardroom br JOIN b.user u WHERE u.id = :userId AND " +
+           "b.bookingDate >= :currentDate AND b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.bookingDate ASC, b.startTime ASC")
+    List<BookingSummary> findUpcomingBookingSummariesByUserId(@Param("userId") Long userId,
+                                                            @Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Find active booking summaries of a boardroom for a calendar date range
+     */
+    @Query("SELECT new com.example.booking.dto.BookingSummary(b.id, br.id, br.name, br.location, " +
+           "u.id, u.fullName, b.bookingDate, b.startTime, b.endTime, b.attendeeCount, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.boardroom br JOIN b.user u WHERE br.id = :boardroomId AND " +
+           "b.bookingDate BETWEEN :startDate AND :endDate AND b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.bookingDate ASC, b.startTime ASC")
+    List<BookingSummary> findCalendarSummariesByBoardroom(@Param("boardroomId") Long boardroomId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Count bookings grouped by status
+     */
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countBookingsGroupedByStatus();
+
+    /**
+     * Stream active booking intervals ordered by boardroom, date and start time
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(b.id, b.boardroom.id, b.bookingDate, " +
+           "b.startTime, b.endTime, false) " +
+           "FROM Booking b WHERE b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.boardroom.id ASC, b.bookingDate ASC, b.startTime ASC, b.id ASC")
+    Stream<ScheduledInterval> streamActiveBookingIntervals();
+
+    /**
+     * Stream active booking intervals of the given boardrooms in a date range, ordered by
+     * boardroom, date and start time
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(b.id, b.boardroom.id, b.bookingDate, " +
+           "b.startTime, b.endTime, false) " +
+           "FROM Booking b WHERE b.boardroom.id IN :boardroomIds AND " +
+           "b.bookingDate BETWEEN :startDate AND :endDate AND b.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "ORDER BY b.boardroom.id ASC, b.bookingDate ASC, b.startTime ASC, b.id ASC")
+    Stream<ScheduledInterval> streamActiveBookingIntervalsForBoardrooms(@Param("boardroomIds") Collection<Long> boardroomIds,
+                                                                        @Param("startDate") LocalDate startDate,
+                                                                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Stream every booking's room, time, status and attendee count, ordered by date
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.booking.dto.BookingHistoryRow(b.boardroom.id, b.bookingDate, " +
+           "b.startTime, b.endTime, b.status, b.attendeeCount) " +
+           "FROM Booking b ORDER BY b.bookingDate ASC, b.boardroom.id ASC")
+    Stream<BookingHistoryRow> streamBookingHistory();
+
+    /**
+     * Find the (boardroom ID, date) pairs of bookings created or modified since a point in time
+     */
+    @Query("SELECT DISTINCT b.boardroom.id, b.bookingDate FROM Booking b WHERE b.updatedAt >= :since")
+    List<Object[]> findRoomDaysChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find pending, confirmed and in-progress booking intervals of a boardroom on a date
+     */
+    @Query("SELECT new com.example.booking.dto.ScheduledInterval(b.id, b.boardroom.id, b.bookingDate, " +
+           "b.startTime, b.endTime, false) " +
+           "FROM Booking b WHERE b.boardroom.id = :boardroomId AND b.bookingDate = :date AND " +
+           "b.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')")
+    List<ScheduledInterval> findOccupyingIntervals(@Param("boardroomId") Long boardroomId,
+                                                   @Param("date") LocalDate date);
+
+    /**
+     * Find which of the given booking references already exist
+     */
+    @Query("SELECT b.reference FROM Booking b WHERE b.reference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+
+    /**
+     * Find booking by reference
+     */
+    Optional<Booking> findByReference(String reference);
 }
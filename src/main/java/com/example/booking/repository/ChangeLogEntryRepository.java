@@ -0,0 +1,49 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Find the entries after the given id, oldest first
+     */
+    @Query("SELECT entry FROM ChangeLogEntry entry WHERE entry.id > :afterId ORDER BY entry.id ASC")
+    List<ChangeLogEntry> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find entries by id, oldest first
+     */
+    @Query("SELECT entry FROM ChangeLogEntry entry WHERE entry.id IN :ids ORDER BY entry.id ASC")
+    List<ChangeLogEntry> findByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find IDs of boardrooms with entries created since a point in time
+     */
+    @Query("SELECT DISTINCT entry.boardroomId FROM ChangeLogEntry entry WHERE entry.createdAt >= :since AND " +
+           "entry.boardroomId IS NOT NULL")
+    List<Long> findBoardroomIdsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Highest id in the log, or null if it is empty
+     */
+    @Query("SELECT MAX(entry.id) FROM ChangeLogEntry entry")
+    Long findMaxId();
+
+    /**
+     * Delete entries created before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry entry WHERE entry.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,44 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Find the record of a key within its scope
+     */
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    /**
+     * Delete records that expired before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete an unfinished claim so the request can be retried, unless another request took it over
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.responseStatus IS NULL " +
+           "AND r.claimedAt = :claimedAt")
+    int deleteClaim(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * Take over an unfinished claim made before the given time; 1 if this caller now holds it
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimedAt = :now WHERE r.id = :id AND r.responseStatus IS NULL " +
+           "AND COALESCE(r.claimedAt, r.createdAt) < :claimedBefore")
+    int takeOverClaim(@Param("id") Long id, @Param("claimedBefore") LocalDateTime claimedBefore,
+                      @Param("now") LocalDateTime now);
+}
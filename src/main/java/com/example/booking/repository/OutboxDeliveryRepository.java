@@ -0,0 +1,37 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.OutboxDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, Long> {
+
+    /**
+     * Find the recorded deliveries of events
+     */
+    @Query("SELECT d FROM OutboxDelivery d WHERE d.eventId IN :eventIds")
+    List<OutboxDelivery> findByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Delete the recorded deliveries of events
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxDelivery d WHERE d.eventId IN :eventIds")
+    int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Delete the recorded deliveries of events dispatched or given up before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxDelivery d WHERE d.eventId IN " +
+           "(SELECT e.id FROM OutboxEvent e WHERE e.dispatchedAt < :before)")
+    int deleteForEventsDispatchedBefore(@Param("before") LocalDateTime before);
+}
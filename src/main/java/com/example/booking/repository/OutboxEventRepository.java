@@ -0,0 +1,70 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest undispatched events, skipping those locked by another dispatcher
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.dispatchedAt IS NULL ORDER BY e.id ASC")
+    List<OutboxEvent> lockUndispatched(Pageable pageable);
+
+    /**
+     * Count undispatched events
+     */
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.dispatchedAt IS NULL")
+    long countUndispatched();
+
+    /**
+     * Creation time of the oldest undispatched event
+     */
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.dispatchedAt IS NULL")
+    LocalDateTime findOldestUndispatchedCreatedAt();
+
+    /**
+     * Mark events as dispatched
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.dispatchedAt = :now, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Record a failed delivery attempt of events
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Give up on events that failed too often
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.dispatchedAt = :now " +
+           "WHERE e.dispatchedAt IS NULL AND e.attempts >= :maxAttempts")
+    int abandonFailed(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete events dispatched before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,10 +2,12 @@ package com.example.booking.repository;
 
 import com.example.booking.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +34,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmailIgnoreCase(String email);
 
+    /**
+     * Check if an active user exists with the given ID
+     */
+    boolean existsByIdAndIsActiveTrue(Long id);
+
     /**
      * Find all active users
      */
@@ -94,4 +101,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.bookings b WHERE u.isActive = true " +
            "GROUP BY u ORDER BY COUNT(b) DESC")
     List<User> findTopUsersByBookingCount();
+
+    /**
+     * Count active users grouped by role
+     */
+    @Query("SELECT u.role, COUNT(u) FROM User u WHERE u.isActive = true GROUP BY u.role")
+    List<Object[]> countActiveUsersGroupedByRole();
+
+    /**
+     * Deactivate a user without loading it; returns 0 if it was already inactive
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.isActive = false, u.updatedAt = :now WHERE u.id = :id AND u.isActive = true")
+    int deactivateById(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete a user in a single statement, bypassing the cascade to its collections
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
@@ -0,0 +1,98 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Find waiting entries for dates from the given date on
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = 'WAITING' AND w.bookingDate >= :fromDate")
+    List<WaitlistEntry> findWaitingFrom(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Find waiting entries of a boardroom on a date, in the order they are served
+     */
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.user " +
+           "WHERE w.boardroom.id = :boardroomId AND w.bookingDate = :date AND w.status = 'WAITING' " +
+           "ORDER BY w.priority DESC, w.createdAt ASC, w.id ASC")
+    List<WaitlistEntry> findWaitingForBoardroomAndDate(@Param("boardroomId") Long boardroomId,
+                                                       @Param("date") LocalDate date);
+
+    /**
+     * Find the dates a boardroom has waiting entries for, from the given date on
+     */
+    @Query("SELECT DISTINCT w.bookingDate FROM WaitlistEntry w WHERE w.boardroom.id = :boardroomId AND " +
+           "w.status = 'WAITING' AND w.bookingDate >= :fromDate ORDER BY w.bookingDate ASC")
+    List<LocalDate> findWaitingDatesForBoardroom(@Param("boardroomId") Long boardroomId,
+                                                 @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Find entries of a user, newest first
+     */
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.boardroom WHERE w.user.id = :userId " +
+           "ORDER BY w.createdAt DESC")
+    List<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+
+    /**
+     * Count waiting entries of a user
+     */
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.user.id = :userId AND w.status = 'WAITING'")
+    long countWaitingByUserId(@Param("userId") Long userId);
+
+    /**
+     * Expire waiting entries for dates before the given date
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED', w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.status = 'WAITING' AND w.bookingDate < :date")
+    int expireBefore(@Param("date") LocalDate date);
+
+    /**
+     * Claim a waiting entry for promotion; 1 if it was still waiting
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'PROMOTING', w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.status = 'WAITING'")
+    int claimForPromotion(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Withdraw the waiting entries of a user
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'WITHDRAWN', w.updatedAt = :now " +
+           "WHERE w.user.id = :userId AND w.status = 'WAITING'")
+    int withdrawWaitingByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Unlink entries from the bookings they were promoted to, by booking ID
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.booking = null WHERE w.booking.id IN :bookingIds")
+    int clearBookingByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Delete the entries of a user in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.user.id = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
+
+    /**
+     * Delete the entries of a boardroom in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.boardroom.id = :boardroomId")
+    int deleteByBoardroomIdInBulk(@Param("boardroomId") Long boardroomId);
+}
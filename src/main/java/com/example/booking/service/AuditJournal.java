@@ -0,0 +1,360 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AuditRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit journal in memory-mapped segment files.
+ *
+ * Records are written as {@code [length][crc32][payload]}, the length last, into a segment
+ * mapped at its full size; the unwritten tail stays zero, so a reader stops at the first
+ * zero length. Segments are named after the sequence number of their first record. A
+ * new segment is started when a record does not fit and on every startup, so appends
+ * never continue after a possibly torn tail. Nothing is durable until {@link #force()}.
+ *
+ * The payload holds the sequence number, the timestamp in epoch milliseconds, the entity
+ * type and operation as enum ordinals (new constants must be appended), the entity id, the
+ * actor and the changed properties; each value is stored as modified UTF-8 behind a flag
+ * byte marking which of before and after are present. Timestamps never decrease, which
+ * lets {@link #read} skip every segment ending before the requested range.
+ */
+public class AuditJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".jnl";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_VALUE_CHARS = 4000;
+    private static final int HAS_BEFORE = 1;
+    private static final int HAS_AFTER = 2;
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final Object appendLock = new Object();
+    private Path currentPath;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private volatile int publishedPosition;
+    private long nextSequence = 1;
+    private long lastTimestamp;
+    private boolean closed;
+
+    public AuditJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            if (!segments.isEmpty()) {
+                Path last = segments.get(segments.size() - 1);
+                nextSequence = firstSequence(last);
+                readSegment(last, Integer.MAX_VALUE, record -> {
+                    nextSequence = record.getSequence() + 1;
+                    lastTimestamp = record.getTimestamp().toEpochMilli();
+                    return true;
+                });
+                if (nextSequence == firstSequence(last)) {
+                    // Created but never written; the next segment takes its name
+                    Files.delete(last);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit journal " + directory, e);
+        }
+    }
+
+    /**
+     * Append a record, numbered and timestamped here; it is durable after the next
+     * {@link #force()}. Values longer than 4000 characters are truncated.
+     */
+    public AuditRecord append(AuditRecord.EntityType entityType, AuditRecord.Operation operation, Long entityId,
+                              String actor, List<AuditRecord.Change> changes) {
+        List<AuditRecord.Change> stored = new ArrayList<>(changes.size());
+        for (AuditRecord.Change change : changes) {
+            stored.add(new AuditRecord.Change(change.property(), truncate(change.before()), truncate(change.after())));
+        }
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Audit journal is closed");
+            }
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            AuditRecord record = new AuditRecord(nextSequence, Instant.ofEpochMilli(timestamp), entityType,
+                    operation, entityId, truncate(actor), stored);
+            byte[] payload = encode(record);
+            int size = HEADER_BYTES + payload.length;
+            try {
+                if (buffer == null || buffer.remaining() < size) {
+                    roll(record.getSequence(), size);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start audit journal segment", e);
+            }
+            int position = buffer.position();
+            buffer.putInt(position + 4, crc(payload));
+            buffer.put(position + HEADER_BYTES, payload);
+            // A non-zero length marks the record complete
+            buffer.putInt(position, payload.length);
+            buffer.position(position + size);
+            publishedPosition = position + size;
+            nextSequence++;
+            lastTimestamp = timestamp;
+            return record;
+        }
+    }
+
+    /**
+     * Write everything appended so far to disk
+     */
+    public void force() {
+        MappedByteBuffer mapped;
+        int length;
+        synchronized (appendLock) {
+            if (buffer == null) {
+                return;
+            }
+            mapped = buffer;
+            length = publishedPosition;
+        }
+        // Earlier segments were forced when they were rolled
+        mapped.force(0, length);
+    }
+
+    /**
+     * Read the records of this journal with a timestamp in the range, oldest first.
+     * Either bound may be {@code null}.
+     */
+    public void read(Instant from, Instant to, Consumer<AuditRecord> consumer) {
+        Path livePath;
+        int liveLength;
+        synchronized (appendLock) {
+            livePath = currentPath;
+            liveLength = publishedPosition;
+        }
+        read(directory, from, to, consumer, path -> path.equals(livePath) ? liveLength : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read the records of the journal in the directory with a timestamp in the range,
+     * oldest first. Either bound may be {@code null}. Safe to use on a journal another
+     * process is appending to.
+     */
+    public static void read(Path directory, Instant from, Instant to, Consumer<AuditRecord> consumer) {
+        read(directory, from, to, consumer, path -> Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (buffer != null) {
+                buffer.force(0, publishedPosition);
+                closeQuietly(channel, currentPath);
+            }
+        }
+    }
+
+    private void roll(long firstSequence, int minBytes) throws IOException {
+        if (buffer != null) {
+            buffer.force(0, publishedPosition);
+            closeQuietly(channel, currentPath);
+        }
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        // The mapping outlives the channel; it is released with the buffer
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minBytes));
+        currentPath = path;
+        publishedPosition = 0;
+    }
+
+    private static void read(Path directory, Instant from, Instant to, Consumer<AuditRecord> consumer,
+                             ToIntFunction<Path> readableLength) {
+        try {
+            List<Path> segments = listSegments(directory);
+            for (int i = 0; i < segments.size(); i++) {
+                if (from != null && i + 1 < segments.size()) {
+                    // Every record of this segment is at most as recent as the next one's first
+                    Instant nextStart = firstTimestamp(segments.get(i + 1));
+                    if (nextStart != null && nextStart.isBefore(from)) {
+                        continue;
+                    }
+                }
+                boolean more = readSegment(segments.get(i), readableLength.applyAsInt(segments.get(i)), record -> {
+                    if (to != null && record.getTimestamp().isAfter(to)) {
+                        return false;
+                    }
+                    if (from == null || !record.getTimestamp().isBefore(from)) {
+                        consumer.accept(record);
+                    }
+                    return true;
+                });
+                if (!more) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit journal " + directory, e);
+        }
+    }
+
+    private static Instant firstTimestamp(Path segment) throws IOException {
+        Instant[] first = new Instant[1];
+        readSegment(segment, Integer.MAX_VALUE, record -> {
+            first[0] = record.getTimestamp();
+            return false;
+        });
+        return first[0];
+    }
+
+    /**
+     * Pass the segment's complete records to the visitor until it returns {@code false};
+     * returns {@code false} if the visitor stopped the read
+     */
+    private static boolean readSegment(Path path, int readableLength, Predicate<AuditRecord> visitor)
+            throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = Math.min(file.size(), readableLength);
+            if (length < HEADER_BYTES) {
+                return true;
+            }
+            ByteBuffer mapped = file.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            while (mapped.remaining() >= HEADER_BYTES) {
+                int recordLength = mapped.getInt();
+                int checksum = mapped.getInt();
+                if (recordLength == 0) {
+                    break;
+                }
+                if (recordLength < 0 || recordLength > mapped.remaining()) {
+                    log.warn("Audit journal {} ends with a torn record at offset {}", path,
+                            mapped.position() - HEADER_BYTES);
+                    break;
+                }
+                byte[] payload = new byte[recordLength];
+                mapped.get(payload);
+                if (crc(payload) != checksum) {
+                    log.warn("Audit journal {} has a corrupt record at offset {}", path,
+                            mapped.position() - recordLength - HEADER_BYTES);
+                    break;
+                }
+                if (!visitor.test(decode(payload))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static byte[] encode(AuditRecord record) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(record.getSequence());
+            out.writeLong(record.getTimestamp().toEpochMilli());
+            out.writeByte(record.getEntityType().ordinal());
+            out.writeByte(record.getOperation().ordinal());
+            out.writeLong(record.getEntityId());
+            out.writeUTF(record.getActor());
+            out.writeShort(record.getChanges().size());
+            for (AuditRecord.Change change : record.getChanges()) {
+                out.writeUTF(change.property());
+                out.writeByte((change.before() != null ? HAS_BEFORE : 0) | (change.after() != null ? HAS_AFTER : 0));
+                if (change.before() != null) {
+                    out.writeUTF(change.before());
+                }
+                if (change.after() != null) {
+                    out.writeUTF(change.after());
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AuditRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        Instant timestamp = Instant.ofEpochMilli(in.readLong());
+        AuditRecord.EntityType entityType = AuditRecord.EntityType.values()[in.readUnsignedByte()];
+        AuditRecord.Operation operation = AuditRecord.Operation.values()[in.readUnsignedByte()];
+        long entityId = in.readLong();
+        String actor = in.readUTF();
+        int count = in.readUnsignedShort();
+        List<AuditRecord.Change> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String property = in.readUTF();
+            int flags = in.readUnsignedByte();
+            String before = (flags & HAS_BEFORE) != 0 ? in.readUTF() : null;
+            String after = (flags & HAS_AFTER) != 0 ? in.readUTF() : null;
+            changes.add(new AuditRecord.Change(property, before, after));
+        }
+        return new AuditRecord(sequence, timestamp, entityType, operation, entityId, actor, changes);
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_VALUE_CHARS) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(MAX_VALUE_CHARS - 1)) ? MAX_VALUE_CHARS - 1 : MAX_VALUE_CHARS;
+        return value.substring(0, end);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX) &&
+                            path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void closeQuietly(FileChannel channel, Path path) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Cannot close audit journal segment {}", path, e);
+        }
+    }
+}
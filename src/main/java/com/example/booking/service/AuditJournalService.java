@@ -0,0 +1,185 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AuditRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Records every change of bookings, availability slots and room admin assignments in the
+ * {@link AuditJournal}, enabled with {@code app.audit-journal.enabled}.
+ *
+ * Changes made inside a transaction are buffered and appended once it commits, so the
+ * journal never shows a change that was rolled back. The journal is forced to disk every
+ * {@code app.audit-journal.fsync-interval-ms}; a crash loses at most the changes appended
+ * since. The actor is the authenticated user of the thread making the change, or
+ * {@code system} for scheduled and background work.
+ *
+ * Flushed entity changes are reported by the Hibernate listener registered in
+ * {@link com.example.booking.config.HibernateListenerConfig}; services issuing bulk JPQL
+ * statements must record their changes themselves.
+ */
+@Service
+public class AuditJournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournalService.class);
+
+    private static final String SYSTEM_ACTOR = "system";
+
+    private final AuditJournal journal;
+
+    private final Counter recordedCounter;
+    private final Counter failedCounter;
+    private final Timer forceTimer;
+
+    public AuditJournalService(MeterRegistry meterRegistry,
+                               @Value("${app.audit-journal.enabled:true}") boolean enabled,
+                               @Value("${app.audit-journal.dir:data/audit}") String directory,
+                               @Value("${app.audit-journal.segment-bytes:67108864}") int segmentBytes) {
+        this.journal = enabled ? new AuditJournal(Path.of(directory), segmentBytes) : null;
+
+        this.recordedCounter = Counter.builder("booking.audit.records").tag("outcome", "recorded")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.audit.records").tag("outcome", "failed")
+                .register(meterRegistry);
+        this.forceTimer = Timer.builder("booking.audit.fsync")
+                .description("Time to force the audit journal to disk").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * Record a change, appended to the journal after the current transaction commits
+     */
+    public void record(AuditRecord.EntityType entityType, AuditRecord.Operation operation, Long entityId,
+                       List<AuditRecord.Change> changes) {
+        if (journal == null || entityId == null) {
+            return;
+        }
+        PendingRecord pending = new PendingRecord(entityType, operation, entityId, currentActor(), changes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingRecords().add(pending);
+        } else {
+            append(pending);
+        }
+    }
+
+    /**
+     * Record the deletion of a row removed by a bulk statement, given its last state
+     */
+    public void recordDeleted(AuditRecord.EntityType entityType, Long entityId, Map<String, ?> state) {
+        List<AuditRecord.Change> changes = new ArrayList<>(state.size());
+        state.forEach((property, value) -> {
+            if (value != null) {
+                changes.add(new AuditRecord.Change(property, String.valueOf(value), null));
+            }
+        });
+        record(entityType, AuditRecord.Operation.DELETE, entityId, changes);
+    }
+
+    /**
+     * Records with a timestamp in the range, oldest first, at most {@code limit} of them.
+     * Either bound may be {@code null}.
+     */
+    public List<AuditRecord> scan(Instant from, Instant to, int limit) {
+        List<AuditRecord> records = new ArrayList<>();
+        replay(from, to, record -> {
+            if (records.size() < limit) {
+                records.add(record);
+            }
+        });
+        return records;
+    }
+
+    /**
+     * Pass every record with a timestamp in the range to the consumer, oldest first.
+     * Either bound may be {@code null}.
+     */
+    public void replay(Instant from, Instant to, Consumer<AuditRecord> consumer) {
+        if (journal == null) {
+            return;
+        }
+        journal.read(from, to, consumer);
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit-journal.fsync-interval-ms:1000}")
+    public void force() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            forceTimer.record(journal::force);
+        } catch (RuntimeException e) {
+            log.error("Cannot force audit journal to disk", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void append(PendingRecord pending) {
+        try {
+            journal.append(pending.entityType, pending.operation, pending.entityId, pending.actor, pending.changes);
+            recordedCounter.increment();
+        } catch (RuntimeException e) {
+            // The change itself is committed; losing its audit record must not fail the caller
+            failedCounter.increment();
+            log.error("Cannot append {} {} {} to audit journal", pending.operation, pending.entityType,
+                    pending.entityId, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingRecord> pendingRecords() {
+        List<PendingRecord> pending = (List<PendingRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<PendingRecord> records = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, records);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    records.forEach(AuditJournalService.this::append);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditJournalService.this);
+                }
+            });
+            pending = records;
+        }
+        return pending;
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : SYSTEM_ACTOR;
+    }
+
+    private record PendingRecord(AuditRecord.EntityType entityType, AuditRecord.Operation operation, Long entityId,
+                                 String actor, List<AuditRecord.Change> changes) {
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AuditRecord;
+import com.example.booking.dto.BulkBlockResult;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.util.TimeInterval;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Admin blocking of many rooms over many days at once.
+ *
+ * Blocks are kept normalized: per room and day the blocked availability slots form the
+ * minimal set of non-overlapping, non-adjacent intervals. A bulk request is merged with
+ * the blocks already stored for each (room, day), and only the difference is written:
+ * existing rows are reused and resized where possible, superfluous rows are deleted with
+ * set-based statements, and new rows are inserted in one batch.
+ *
+ * Time released by an unblock is offered to the waitlist once the transaction commits.
+ */
+@Service
+public class AvailabilityBlockService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityBlockService.class);
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final BoardroomRepository boardroomRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final RoomChangeTracker roomChangeTracker;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditJournalService auditJournalService;
+    private final ClusterChangeLog clusterChangeLog;
+    private final int maxDays;
+
+    public AvailabilityBlockService(BoardroomRepository boardroomRepository,
+                                    AvailabilitySlotRepository availabilitySlotRepository,
+                                    RoomChangeTracker roomChangeTracker,
+                                    EntityManager entityManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    AuditJournalService auditJournalService,
+                                    ClusterChangeLog clusterChangeLog,
+                                    @Value("${app.availability.bulk-block.max-days:366}") int maxDays) {
+        this.boardroomRepository = boardroomRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.roomChangeTracker = roomChangeTracker;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.auditJournalService = auditJournalService;
+        this.clusterChangeLog = clusterChangeLog;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Block the time range on every day of the date range in every given room, merging
+     * with the blocks that already exist. The merged interval containing the request
+     * takes over its blocker and reason.
+     */
+    @Transactional
+    public BulkBlockResult blockRooms(Collection<Long> boardroomIds, LocalDate startDate, LocalDate endDate,
+                                      LocalTime startTime, LocalTime endTime, String blockedBy, String reason) {
+        TimeInterval requested = new TimeInterval(startTime, endTime);
+        Set<Long> roomIds = validate(boardroomIds, startDate, endDate);
+        Map<RoomDay, List<AvailabilitySlot>> existing = loadBlockedSlots(roomIds, startDate, endDate);
+
+        SlotChanges changes = new SlotChanges();
+        for (Long roomId : roomIds) {
+            Boardroom boardroom = boardroomRepository.getReferenceById(roomId);
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                List<AvailabilitySlot> slots = existing.getOrDefault(new RoomDay(roomId, date), List.of());
+                mergeBlock(boardroom, date, slots, requested, blockedBy, reason, changes);
+            }
+        }
+
+        BulkBlockResult result = apply(changes, roomIds.size(), startDate, endDate);
+        log.info("Blocked {} - {} in {} rooms from {} to {}: {}", startTime, endTime, roomIds.size(), startDate, endDate, result);
+        return result;
+    }
+
+    /**
+     * Remove the time range from the blocks of every day of the date range in every given
+     * room. Blocks partly covered by the range are shortened or split.
+     */
+    @Transactional
+    public BulkBlockResult unblockRooms(Collection<Long> boardroomIds, LocalDate startDate, LocalDate endDate,
+                                        LocalTime startTime, LocalTime endTime) {
+        TimeInterval released = new TimeInterval(startTime, endTime);
+        Set<Long> roomIds = validate(boardroomIds, startDate, endDate);
+        Map<RoomDay, List<AvailabilitySlot>> existing = loadBlockedSlots(roomIds, startDate, endDate);
+
+        SlotChanges changes = new SlotChanges();
+        for (List<AvailabilitySlot> slots : existing.values()) {
+            for (AvailabilitySlot slot : slots) {
+                subtractBlock(slot, released, changes);
+            }
+        }
+
+        BulkBlockResult result = apply(changes, roomIds.size(), startDate, endDate);
+        changes.freed.forEach(eventPublisher::publishEvent);
+        log.info("Unblocked {} - {} in {} rooms from {} to {}: {}", startTime, endTime, roomIds.size(), startDate, endDate, result);
+        return result;
+    }
+
+    private void mergeBlock(Boardroom boardroom, LocalDate date, List<AvailabilitySlot> slots, TimeInterval requested,
+                            String blockedBy, String reason, SlotChanges changes) {
+        List<TimeInterval> intervals = new ArrayList<>(slots.size() + 1);
+        slots.forEach(slot -> intervals.add(intervalOf(slot)));
+        intervals.add(requested);
+
+        for (TimeInterval merged : TimeInterval.merge(intervals)) {
+            boolean containsRequest = merged.contains(requested);
+            AvailabilitySlot keeper = null;
+            for (AvailabilitySlot slot : slots) {
+                if (!merged.contains(intervalOf(slot))) {
+                    continue;
+                }
+                if (keeper == null) {
+                    keeper = slot;
+                } else {
+                    changes.delete(slot);
+                }
+            }
+
+            if (keeper == null) {
+                AvailabilitySlot slot = new AvailabilitySlot(boardroom, date, merged.start(), merged.end());
+                slot.block(blockedBy, reason);
+                changes.insert(slot);
+                continue;
+            }
+
+            boolean resized = !merged.equals(intervalOf(keeper));
+            boolean relabelled = containsRequest &&
+                    (!Objects.equals(keeper.getBlockedBy(), blockedBy) || !Objects.equals(keeper.getBlockedReason(), reason));
+            if (resized) {
+                keeper.setStartTime(merged.start());
+                keeper.setEndTime(merged.end());
+            }
+            if (relabelled) {
+                keeper.block(blockedBy, reason);
+            }
+            if (resized || relabelled) {
+                changes.update(keeper);
+            }
+        }
+    }
+
+    private void subtractBlock(AvailabilitySlot slot, TimeInterval released, SlotChanges changes) {
+        TimeInterval interval = intervalOf(slot);
+        if (!interval.overlaps(released)) {
+            return;
+        }
+        changes.freed.add(new WaitlistService.TimeFreedEvent(slot.getBoardroom().getId(), slot.getDate(),
+                max(interval.start(), released.start()), min(interval.end(), released.end())));
+        List<TimeInterval> remaining = interval.subtract(released);
+        if (remaining.isEmpty()) {
+            changes.delete(slot);
+            return;
+        }
+
+        slot.setStartTime(remaining.get(0).start());
+        slot.setEndTime(remaining.get(0).end());
+        changes.update(slot);
+
+        if (remaining.size() == 2) {
+            AvailabilitySlot tail = new AvailabilitySlot(slot.getBoardroom(), slot.getDate(),
+                    remaining.get(1).start(), remaining.get(1).end(), false, slot.getAdminNotes());
+            tail.block(slot.getBlockedBy(), slot.getBlockedReason());
+            changes.insert(tail);
+        }
+    }
+
+    private void auditDeleted(AvailabilitySlot slot) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("blockedBy", slot.getBlockedBy());
+        state.put("boardroom", slot.getBoardroom().getId());
+        state.put("createdAt", slot.getCreatedAt());
+        state.put("date", slot.getDate());
+        state.put("endTime", slot.getEndTime());
+        state.put("isAvailable", slot.isAvailable());
+        state.put("notes", slot.getNotes() != null ? slot.getNotes().getId() : null);
+        state.put("startTime", slot.getStartTime());
+        state.put("updatedAt", slot.getUpdatedAt());
+        auditJournalService.recordDeleted(AuditRecord.EntityType.AVAILABILITY_SLOT, slot.getId(), state);
+        if (slot.getNotes() != null) {
+            Map<String, Object> notes = new LinkedHashMap<>();
+            notes.put("adminNotes", slot.getNotes().getAdminNotes());
+            notes.put("blockedReason", slot.getNotes().getBlockedReason());
+            auditJournalService.recordDeleted(AuditRecord.EntityType.AVAILABILITY_SLOT_NOTES,
+                    slot.getNotes().getId(), notes);
+        }
+    }
+
+    private BulkBlockResult apply(SlotChanges changes, int roomCount, LocalDate startDate, LocalDate endDate) {
+        List<Long> slotIds = new ArrayList<>(changes.deleted.size());
+        List<Long> noteIds = new ArrayList<>();
+        for (AvailabilitySlot slot : changes.deleted) {
+            slotIds.add(slot.getId());
+            if (slot.getNotes() != null) {
+                noteIds.add(slot.getNotes().getId());
+            }
+            auditDeleted(slot);
+            clusterChangeLog.record(ChangeEntityType.AVAILABILITY_SLOT, slot.getId(), slot.getBoardroom().getId());
+            entityManager.detach(slot);
+        }
+        // Slots reference their notes, so the slots go first
+        for (List<Long> chunk : chunks(slotIds)) {
+            availabilitySlotRepository.deleteSlotsByIdIn(chunk);
+        }
+        for (List<Long> chunk : chunks(noteIds)) {
+            availabilitySlotRepository.deleteSlotNotesByIdIn(chunk);
+        }
+
+        availabilitySlotRepository.saveAll(changes.inserted);
+        availabilitySlotRepository.flush();
+
+        // The listeners see inserts and updates, but not the bulk deletes
+        changes.touchedRooms.forEach(roomChangeTracker::markChanged);
+
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return new BulkBlockResult(roomCount, days, changes.inserted.size(), changes.updated.size(), changes.deleted.size());
+    }
+
+    private Set<Long> validate(Collection<Long> boardroomIds, LocalDate startDate, LocalDate endDate) {
+        if (boardroomIds == null || boardroomIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one boardroom is required");
+        }
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxDays) {
+            throw new IllegalArgumentException("A bulk block may span at most " + maxDays + " days");
+        }
+
+        Set<Long> roomIds = new LinkedHashSet<>(boardroomIds);
+        Set<Long> found = new HashSet<>();
+        boardroomRepository.findAllById(roomIds).forEach(boardroom -> found.add(boardroom.getId()));
+        for (Long roomId : roomIds) {
+            if (!found.contains(roomId)) {
+                throw new ResourceNotFoundException("Boardroom", roomId);
+            }
+        }
+        return roomIds;
+    }
+
+    /**
+     * Blocked slots of the rooms and dates, with their notes fetched in the same query:
+     * merging compares blocked reasons and deleting journals the notes of every slot, so
+     * lazily loaded notes would cost one query per slot.
+     */
+    private Map<RoomDay, List<AvailabilitySlot>> loadBlockedSlots(Set<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+        Map<RoomDay, List<AvailabilitySlot>> byRoomDay = new HashMap<>();
+        for (AvailabilitySlot slot : availabilitySlotRepository.findBlockedSlotsForBoardroomsInDateRange(roomIds, startDate, endDate)) {
+            byRoomDay.computeIfAbsent(new RoomDay(slot.getBoardroom().getId(), slot.getDate()), key -> new ArrayList<>())
+                    .add(slot);
+        }
+        return byRoomDay;
+    }
+
+    private static TimeInterval intervalOf(AvailabilitySlot slot) {
+        return new TimeInterval(slot.getStartTime(), slot.getEndTime());
+    }
+
+    private static LocalTime max(LocalTime a, LocalTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalTime min(LocalTime a, LocalTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+    }
+
+    private static final class SlotChanges {
+        final List<AvailabilitySlot> inserted = new ArrayList<>();
+        final Set<AvailabilitySlot> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<AvailabilitySlot> deleted = new ArrayList<>();
+        final Set<Long> touchedRooms = new HashSet<>();
+        final List<WaitlistService.TimeFreedEvent> freed = new ArrayList<>();
+
+        void insert(AvailabilitySlot slot) {
+            inserted.add(slot);
+            touchedRooms.add(slot.getBoardroom().getId());
+        }
+
+        void update(AvailabilitySlot slot) {
+            updated.add(slot);
+            touchedRooms.add(slot.getBoardroom().getId());
+        }
+
+        void delete(AvailabilitySlot slot) {
+            deleted.add(slot);
+            touchedRooms.add(slot.getBoardroom().getId());
+        }
+    }
+}
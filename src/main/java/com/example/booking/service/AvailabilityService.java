@@ -0,0 +1,209 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingSummary;
+import com.example.booking.dto.CalendarSlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.enums.RoomCapacityType;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Availability and calendar reads shared by every booking page.
+ *
+ * Identical queries issued concurrently (many users asking for the same room type and
+ * time slot at the same moment) are coalesced into a single database call whose result
+ * is handed to all callers and reused for a short freshness window, or until any room
+ * changes. Shared results are immutable: calendar reads return projections, and room
+ * searches share the ids of the free rooms, from which each caller loads its own
+ * entities with one lookup by primary key.
+ *
+ * Recurring block rules are evaluated by {@link BlockRuleService} on top of the booking
+ * and slot queries. Rooms with a live {@link BookingHoldService hold} on the time range
+ * are filtered out of every answer, after the shared result is taken, so holds never
+ * need to invalidate it. The same applies to bookings accepted by the write-behind
+ * pipeline whose rows are not written yet.
+ */
+@Service
+public class AvailabilityService {
+
+    private final BoardroomRepository boardroomRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final BlockRuleService blockRuleService;
+    private final BookingHoldService bookingHoldService;
+    // Null unless write-behind booking is enabled
+    private final OccupancyState occupancyState;
+
+    private final SingleFlight<AvailabilityKey, List<Long>> availabilityFlights;
+    private final SingleFlight<CalendarKey, List<BookingSummary>> calendarBookingFlights;
+    private final SingleFlight<CalendarKey, List<CalendarSlot>> calendarSlotFlights;
+
+    public AvailabilityService(BoardroomRepository boardroomRepository,
+                               BookingRepository bookingRepository,
+                               AvailabilitySlotRepository availabilitySlotRepository,
+                               BlockRuleService blockRuleService,
+                               BookingHoldService bookingHoldService,
+                               ObjectProvider<OccupancyState> occupancyState,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.availability.coalescing.freshness-ms:1000}") long freshnessMillis) {
+        this.boardroomRepository = boardroomRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.blockRuleService = blockRuleService;
+        this.bookingHoldService = bookingHoldService;
+        this.occupancyState = occupancyState.getIfAvailable();
+        this.availabilityFlights = new SingleFlight<>(freshnessMillis);
+        this.calendarBookingFlights = new SingleFlight<>(freshnessMillis);
+        this.calendarSlotFlights = new SingleFlight<>(freshnessMillis);
+
+        registerMetrics(meterRegistry, "availability", availabilityFlights);
+        registerMetrics(meterRegistry, "calendar-bookings", calendarBookingFlights);
+        registerMetrics(meterRegistry, "calendar-slots", calendarSlotFlights);
+    }
+
+    /**
+     * Active boardrooms free for the whole time range
+     */
+    public List<Boardroom> findAvailableBoardrooms(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return load(withoutHeldOrPending(availabilityFlights.get(new AvailabilityKey(null, date, startTime, endTime),
+                () -> withoutRuleBlocks(boardroomRepository.findAvailableBoardrooms(date, startTime, endTime),
+                        date, startTime, endTime)), date, startTime, endTime));
+    }
+
+    /**
+     * Active boardrooms of one capacity type free for the whole time range
+     */
+    public List<Boardroom> findAvailableBoardroomsByCapacityType(RoomCapacityType capacityType, LocalDate date,
+                                                                 LocalTime startTime, LocalTime endTime) {
+        return load(withoutHeldOrPending(availabilityFlights.get(
+                new AvailabilityKey(capacityType, date, startTime, endTime),
+                () -> withoutRuleBlocks(boardroomRepository.findAvailableBoardroomsByCapacityType(
+                        capacityType, date, startTime, endTime), date, startTime, endTime)),
+                date, startTime, endTime));
+    }
+
+    /**
+     * Check if a boardroom is free for the whole time range: no active booking, hold,
+     * blocked slot or block rule occurrence overlaps it
+     */
+    public boolean isTimeSlotAvailable(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return isTimeSlotAvailable(boardroomId, date, startTime, endTime, null);
+    }
+
+    /**
+     * Check if a boardroom is free for the whole time range for a user, whose own holds
+     * do not count as conflicts
+     */
+    public boolean isTimeSlotAvailable(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                       Long userId) {
+        return !bookingHoldService.isHeldByOthers(boardroomId, date, startTime, endTime, userId) &&
+                !(occupancyState != null && occupancyState.hasPendingWrite(boardroomId, date, startTime, endTime)) &&
+                !blockRuleService.isBlockedByRule(boardroomId, date, startTime, endTime) &&
+                !boardroomRepository.isBoardroomBlockedByAdmin(boardroomId, date, startTime, endTime) &&
+                boardroomRepository.isBoardroomAvailableForBooking(boardroomId, date, startTime, endTime);
+    }
+
+    /**
+     * Confirmed and in-progress bookings of a boardroom for one calendar month
+     */
+    public List<BookingSummary> findCalendarBookings(Long boardroomId, YearMonth month) {
+        return calendarBookingFlights.get(new CalendarKey(boardroomId, month),
+                () -> List.copyOf(bookingRepository.findCalendarSummariesByBoardroom(
+                        boardroomId, month.atDay(1), month.atEndOfMonth())));
+    }
+
+    /**
+     * Availability slots of a boardroom for one calendar month
+     */
+    public List<CalendarSlot> findCalendarSlots(Long boardroomId, YearMonth month) {
+        return calendarSlotFlights.get(new CalendarKey(boardroomId, month),
+                () -> List.copyOf(availabilitySlotRepository.findCalendarSlotsByBoardroomInDateRange(
+                        boardroomId, month.atDay(1), month.atEndOfMonth())));
+    }
+
+    /**
+     * Drop every cached result, e.g. after a booking or block changed
+     */
+    @EventListener(RoomChangeTracker.RoomChangedEvent.class)
+    public void invalidateAll() {
+        availabilityFlights.invalidateAll();
+        calendarBookingFlights.invalidateAll();
+        calendarSlotFlights.invalidateAll();
+    }
+
+    /**
+     * IDs of the rooms not blocked by a rule, in query order
+     */
+    private List<Long> withoutRuleBlocks(List<Boardroom> boardrooms, LocalDate date,
+                                         LocalTime startTime, LocalTime endTime) {
+        Set<Long> blocked = blockRuleService.findBoardroomsBlockedByRules(date, startTime, endTime);
+        return boardrooms.stream().map(Boardroom::getId).filter(id -> !blocked.contains(id)).toList();
+    }
+
+    private List<Long> withoutHeldOrPending(List<Long> boardroomIds, LocalDate date,
+                                            LocalTime startTime, LocalTime endTime) {
+        Set<Long> held = new HashSet<>(bookingHoldService.findBoardroomsHeldByOthers(date, startTime, endTime, null));
+        if (occupancyState != null) {
+            held.addAll(occupancyState.findBoardroomsWithPendingWrites(date, startTime, endTime));
+        }
+        if (held.isEmpty()) {
+            return boardroomIds;
+        }
+        return boardroomIds.stream().filter(id -> !held.contains(id)).toList();
+    }
+
+    /**
+     * The caller's own entities of the rooms, in the given order
+     */
+    private List<Boardroom> load(List<Long> boardroomIds) {
+        if (boardroomIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Boardroom> byId = boardroomRepository.findAllById(boardroomIds).stream()
+                .collect(Collectors.toMap(Boardroom::getId, Function.identity()));
+        // A room deleted since the shared result was taken is left out
+        return boardroomIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String query, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("booking.reads.coalesced.calls", flight, SingleFlight::getLoadCount)
+                .description("Read calls that executed a database query")
+                .tags("query", query, "result", "loaded")
+                .register(registry);
+        FunctionCounter.builder("booking.reads.coalesced.calls", flight, SingleFlight::getSharedCount)
+                .description("Read calls answered with the result of a concurrent or recent identical call")
+                .tags("query", query, "result", "shared")
+                .register(registry);
+        Gauge.builder("booking.reads.coalesced.ratio", flight, SingleFlight::getCoalescingRatio)
+                .description("Fraction of read calls that did not hit the database")
+                .tag("query", query)
+                .register(registry);
+    }
+
+    private record AvailabilityKey(RoomCapacityType capacityType, LocalDate date,
+                                   LocalTime startTime, LocalTime endTime) {
+    }
+
+    private record CalendarKey(Long boardroomId, YearMonth month) {
+    }
+}
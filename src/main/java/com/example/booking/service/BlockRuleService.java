@@ -0,0 +1,274 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.entity.AvailabilityBlockRule;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.enums.RecurrenceFrequency;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.AvailabilityBlockRuleRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import com.example.booking.util.TimeInterval;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recurring availability blocks.
+ *
+ * A rule such as "every Friday 14:00 - 17:00" is one row no matter how long it runs.
+ * Occurrences are expanded on demand, one (boardroom, month) at a time, and the
+ * expansion is cached under the room's {@link RoomChangeTracker} version, so it is
+ * recomputed only after a rule, exception or other change of that room.
+ */
+@Service
+public class BlockRuleService {
+
+    private final AvailabilityBlockRuleRepository blockRuleRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final RoomChangeTracker roomChangeTracker;
+    private final ClusterChangeLog clusterChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<RoomMonth, CachedMonth> expansions;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BlockRuleService(AvailabilityBlockRuleRepository blockRuleRepository,
+                            BoardroomRepository boardroomRepository,
+                            WaitlistEntryRepository waitlistEntryRepository,
+                            RoomChangeTracker roomChangeTracker,
+                            ClusterChangeLog clusterChangeLog,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.block-rules.cache.max-entries:5000}") int maxEntries) {
+        this.blockRuleRepository = blockRuleRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.roomChangeTracker = roomChangeTracker;
+        this.clusterChangeLog = clusterChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.expansions = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RoomMonth, CachedMonth> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        FunctionCounter.builder("booking.block-rule.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("booking.block-rule.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        Gauge.builder("booking.block-rule.cache.size", expansions, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Create a recurring block. {@code daysOfWeek} only applies to WEEKLY rules and
+     * defaults to the weekday of the start date; {@code endDate} may be null for an
+     * open-ended rule.
+     */
+    @Transactional
+    public AvailabilityBlockRule createRule(Long boardroomId, RecurrenceFrequency frequency, int interval,
+                                            Set<DayOfWeek> daysOfWeek, LocalDate startDate, LocalDate endDate,
+                                            LocalTime startTime, LocalTime endTime, String blockedBy, String reason) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Frequency is required");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1");
+        }
+        if (startDate == null || (endDate != null && endDate.isBefore(startDate))) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        Boardroom boardroom = boardroomRepository.findById(boardroomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Boardroom", boardroomId));
+
+        return blockRuleRepository.save(new AvailabilityBlockRule(boardroom, frequency, interval,
+                frequency == RecurrenceFrequency.WEEKLY ? daysOfWeek : null,
+                startDate, endDate, startTime, endTime, blockedBy, reason));
+    }
+
+    /**
+     * Skip a single occurrence of a rule
+     */
+    @Transactional
+    public AvailabilityBlockRule addException(Long ruleId, LocalDate date) {
+        AvailabilityBlockRule rule = findRule(ruleId);
+        if (!rule.getExceptionDates().contains(date)) {
+            boolean occurred = rule.occursOn(date);
+            rule.addException(date);
+            // Collection-only changes do not update the rule row itself
+            markChanged(rule);
+            if (occurred) {
+                eventPublisher.publishEvent(new WaitlistService.TimeFreedEvent(rule.getBoardroom().getId(), date,
+                        rule.getStartTime(), rule.getEndTime()));
+            }
+        }
+        return rule;
+    }
+
+    /**
+     * Reinstate a skipped occurrence of a rule
+     */
+    @Transactional
+    public AvailabilityBlockRule removeException(Long ruleId, LocalDate date) {
+        AvailabilityBlockRule rule = findRule(ruleId);
+        if (rule.removeException(date)) {
+            markChanged(rule);
+        }
+        return rule;
+    }
+
+    /**
+     * Stop a rule from blocking any further occurrence. The occurrences on dates the room
+     * has waitlist entries for are offered to the waitlist once the transaction commits.
+     */
+    @Transactional
+    public AvailabilityBlockRule deactivateRule(Long ruleId) {
+        AvailabilityBlockRule rule = findRule(ruleId);
+        if (!rule.isActive()) {
+            return rule;
+        }
+        Long boardroomId = rule.getBoardroom().getId();
+        // Only dates someone waits for can be matched, which bounds an open-ended rule
+        for (LocalDate date : waitlistEntryRepository.findWaitingDatesForBoardroom(boardroomId, LocalDate.now())) {
+            if (rule.occursOn(date)) {
+                eventPublisher.publishEvent(new WaitlistService.TimeFreedEvent(boardroomId, date,
+                        rule.getStartTime(), rule.getEndTime()));
+            }
+        }
+        rule.setActive(false);
+        return rule;
+    }
+
+    /**
+     * Rule-blocked time ranges of a boardroom for every day of a month that has any,
+     * merged per day. The returned map is shared and must not be modified.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, List<TimeInterval>> getMonthBlocks(Long boardroomId, YearMonth month) {
+        RoomMonth key = new RoomMonth(boardroomId, month);
+        // Read the version before the rules, so a concurrent change can only make the
+        // entry look older than it is
+        long version = roomChangeTracker.getVersion(boardroomId);
+        CachedMonth cached = expansions.get(key);
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return cached.blocks();
+        }
+
+        misses.increment();
+        // Cached under the current version, so read from the primary rather than a lagging replica
+        Map<LocalDate, List<TimeInterval>> blocks = ReadRouting.onPrimary(() -> expand(boardroomId, month));
+        expansions.put(key, new CachedMonth(version, blocks));
+        return blocks;
+    }
+
+    /**
+     * Rule-blocked time ranges of a boardroom on one date
+     */
+    @Transactional(readOnly = true)
+    public List<TimeInterval> getBlocks(Long boardroomId, LocalDate date) {
+        return getMonthBlocks(boardroomId, YearMonth.from(date)).getOrDefault(date, List.of());
+    }
+
+    /**
+     * Check if a rule blocks any part of the time range
+     */
+    @Transactional(readOnly = true)
+    public boolean isBlockedByRule(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        for (TimeInterval block : getBlocks(boardroomId, date)) {
+            if (block.overlaps(startTime, endTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * IDs of boardrooms a rule blocks during any part of the time range
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findBoardroomsBlockedByRules(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        // The transaction's connection may fill the expansion cache, so it must be the primary
+        return ReadRouting.onPrimary(() -> {
+            Set<Long> blocked = new HashSet<>();
+            for (Long boardroomId : blockRuleRepository.findBoardroomIdsWithActiveRulesOn(date)) {
+                if (isBlockedByRule(boardroomId, date, startTime, endTime)) {
+                    blocked.add(boardroomId);
+                }
+            }
+            return blocked;
+        });
+    }
+
+    /**
+     * Drop all cached expansions
+     */
+    public void clear() {
+        expansions.clear();
+    }
+
+    private Map<LocalDate, List<TimeInterval>> expand(Long boardroomId, YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        List<AvailabilityBlockRule> rules =
+                blockRuleRepository.findActiveRulesForBoardroomInDateRange(boardroomId, first, last);
+        if (rules.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<LocalDate, List<TimeInterval>> blocks = new HashMap<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            List<TimeInterval> intervals = new ArrayList<>();
+            for (AvailabilityBlockRule rule : rules) {
+                if (rule.occursOn(date)) {
+                    intervals.add(new TimeInterval(rule.getStartTime(), rule.getEndTime()));
+                }
+            }
+            if (!intervals.isEmpty()) {
+                blocks.put(date, List.copyOf(TimeInterval.merge(intervals)));
+            }
+        }
+        return Collections.unmodifiableMap(blocks);
+    }
+
+    private void markChanged(AvailabilityBlockRule rule) {
+        roomChangeTracker.markChanged(rule.getBoardroom().getId());
+        clusterChangeLog.record(ChangeEntityType.BLOCK_RULE, rule.getId(), rule.getBoardroom().getId());
+    }
+
+    private AvailabilityBlockRule findRule(Long ruleId) {
+        return blockRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Block rule", ruleId));
+    }
+
+    private record RoomMonth(Long boardroomId, YearMonth month) {
+    }
+
+    private record CachedMonth(long version, Map<LocalDate, List<TimeInterval>> blocks) {
+    }
+}
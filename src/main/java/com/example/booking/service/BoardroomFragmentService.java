@@ -0,0 +1,92 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingSummary;
+import com.example.booking.dto.CalendarDay;
+import com.example.booking.dto.CalendarSlot;
+import com.example.booking.dto.RenderedFragment;
+import com.example.booking.entity.Boardroom;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cached HTML building blocks of the room catalog and calendar pages. Pages insert the
+ * result with {@code th:utext="${fragment.html}"}.
+ */
+@Service
+public class BoardroomFragmentService {
+
+    static final String ROOM_CARD_TEMPLATE = "fragments/room-card";
+    static final String ROOM_CALENDAR_TEMPLATE = "fragments/room-calendar";
+
+    private final FragmentCache fragmentCache;
+    private final AvailabilityService availabilityService;
+    private final BlockRuleService blockRuleService;
+
+    public BoardroomFragmentService(FragmentCache fragmentCache, AvailabilityService availabilityService,
+                                    BlockRuleService blockRuleService) {
+        this.fragmentCache = fragmentCache;
+        this.availabilityService = availabilityService;
+        this.blockRuleService = blockRuleService;
+    }
+
+    /**
+     * Catalog card of a boardroom
+     */
+    public RenderedFragment roomCard(Boardroom boardroom) {
+        return fragmentCache.render(boardroom.getId(), ROOM_CARD_TEMPLATE, "card", null,
+                () -> Map.of("room", boardroom));
+    }
+
+    /**
+     * Catalog cards of several boardrooms, in the given order
+     */
+    public List<RenderedFragment> roomCards(List<Boardroom> boardrooms) {
+        return boardrooms.stream().map(this::roomCard).collect(Collectors.toList());
+    }
+
+    /**
+     * Month grid of a boardroom's calendar, weeks starting on Monday
+     */
+    public RenderedFragment roomMonthGrid(Long boardroomId, YearMonth month) {
+        return fragmentCache.render(boardroomId, ROOM_CALENDAR_TEMPLATE, "month", month,
+                () -> Map.of("boardroomId", boardroomId, "month", month, "weeks", buildWeeks(boardroomId, month)));
+    }
+
+    private List<List<CalendarDay>> buildWeeks(Long boardroomId, YearMonth month) {
+        Map<LocalDate, List<BookingSummary>> bookingsByDate = availabilityService.findCalendarBookings(boardroomId, month)
+                .stream()
+                .collect(Collectors.groupingBy(BookingSummary::getBookingDate));
+        Map<LocalDate, List<String>> blocksByDate = availabilityService.findCalendarSlots(boardroomId, month)
+                .stream()
+                .filter(slot -> !slot.isAvailable())
+                .collect(Collectors.groupingBy(CalendarSlot::getDate,
+                        Collectors.mapping(CalendarSlot::getTimeSlot, Collectors.toList())));
+        blockRuleService.getMonthBlocks(boardroomId, month).forEach((date, intervals) ->
+                intervals.forEach(interval -> blocksByDate.computeIfAbsent(date, key -> new ArrayList<>())
+                        .add(interval.toString())));
+
+        LocalDate first = month.atDay(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate last = month.atEndOfMonth().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+
+        List<List<CalendarDay>> weeks = new ArrayList<>();
+        List<CalendarDay> week = new ArrayList<>(7);
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            week.add(new CalendarDay(date, YearMonth.from(date).equals(month),
+                    bookingsByDate.getOrDefault(date, List.of()),
+                    blocksByDate.getOrDefault(date, List.of())));
+            if (week.size() == 7) {
+                weeks.add(week);
+                week = new ArrayList<>(7);
+            }
+        }
+        return weeks;
+    }
+}
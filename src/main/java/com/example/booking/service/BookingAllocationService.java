@@ -0,0 +1,282 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.dto.AllocationPlan;
+import com.example.booking.dto.RoomAssignment;
+import com.example.booking.dto.ScheduledInterval;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.util.TimeInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Assigns rooms to all pending bookings of a day or week at once.
+ *
+ * Requests are placed best-fit decreasing: per date, the largest meetings go first, and
+ * each takes the smallest active room that seats it and is free for its time range,
+ * preferring the room it asked for among equally sized ones. Small meetings therefore
+ * fill small rooms and leave the large ones for meetings that need them. A room is free
+ * when no confirmed booking, blocked slot, block rule occurrence, other user's hold or
+ * unwritten write-behind booking overlaps the range, nor a request placed earlier in the
+ * same run.
+ *
+ * Approving a plan holds the room-day locks of every active room for the range, then
+ * reassigns and confirms all placed bookings in one transaction, flushed as batched
+ * updates. Requests that fit nowhere stay pending.
+ */
+@Service
+public class BookingAllocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAllocationService.class);
+
+    private static final Comparator<Booking> LARGEST_FIRST =
+            Comparator.comparing(Booking::getAttendeeCount, Comparator.reverseOrder())
+                    .thenComparing(booking -> -new TimeInterval(booking.getStartTime(), booking.getEndTime())
+                            .getDurationInMinutes())
+                    .thenComparing(Booking::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Booking::getId);
+
+    private static final Comparator<Boardroom> SMALLEST_FIRST =
+            Comparator.comparing(Boardroom::getCapacity).thenComparing(Boardroom::getId);
+
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final BlockRuleService blockRuleService;
+    private final BookingHoldService bookingHoldService;
+    // Null unless write-behind booking is enabled
+    private final OccupancyState occupancyState;
+    private final RoomDayLocks roomDayLocks;
+    private final NotificationOutbox notificationOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxDays;
+
+    public BookingAllocationService(BookingRepository bookingRepository,
+                                    BoardroomRepository boardroomRepository,
+                                    AvailabilitySlotRepository availabilitySlotRepository,
+                                    BlockRuleService blockRuleService,
+                                    BookingHoldService bookingHoldService,
+                                    ObjectProvider<OccupancyState> occupancyState,
+                                    RoomDayLocks roomDayLocks,
+                                    NotificationOutbox notificationOutbox,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.allocation.max-days:7}") int maxDays) {
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.blockRuleService = blockRuleService;
+        this.bookingHoldService = bookingHoldService;
+        this.occupancyState = occupancyState.getIfAvailable();
+        this.roomDayLocks = roomDayLocks;
+        this.notificationOutbox = notificationOutbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Compute the allocation for the pending bookings of the date range without changing anything
+     */
+    public AllocationPlan planAllocation(LocalDate startDate, LocalDate endDate) {
+        validate(startDate, endDate);
+        long started = System.nanoTime();
+        // On the primary, so the plan matches what approving it would do
+        return ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            Allocation allocation = allocate(startDate, endDate);
+            return allocation.toPlan(startDate, endDate, false, started);
+        }));
+    }
+
+    /**
+     * Allocate rooms to the pending bookings of the date range and confirm every placed
+     * booking in one transaction
+     */
+    public AllocationPlan approveAllocation(LocalDate startDate, LocalDate endDate, String approvedBy) {
+        validate(startDate, endDate);
+        long started = System.nanoTime();
+        List<Long> roomIds = boardroomRepository.findByIsActiveTrueOrderByNameAsc().stream()
+                .map(Boardroom::getId)
+                .toList();
+        List<LocalDate> dates = startDate.datesUntil(endDate.plusDays(1)).toList();
+
+        AllocationPlan plan = roomDayLocks.withLocks(roomIds, dates, () -> transactionTemplate.execute(status -> {
+            Allocation allocation = allocate(startDate, endDate);
+            allocation.placements.forEach((booking, room) -> {
+                if (!booking.getBoardroom().getId().equals(room.getId())) {
+                    booking.setBoardroom(room);
+                }
+                booking.approve(approvedBy);
+                notificationOutbox.record(NotificationType.BOOKING_CONFIRMED, booking);
+                eventPublisher.publishEvent(BookingTimerService.BookingChangedEvent.of(booking));
+            });
+            // Identical UPDATE statements, sent in JDBC batches
+            bookingRepository.flush();
+            return allocation.toPlan(startDate, endDate, true, started);
+        }));
+        log.info("Approved room allocation by {}: {}", approvedBy, plan);
+        return plan;
+    }
+
+    private Allocation allocate(LocalDate startDate, LocalDate endDate) {
+        // Rooms first, so the bookings' room associations resolve to the loaded instances
+        List<Boardroom> rooms = new ArrayList<>(boardroomRepository.findByIsActiveTrueOrderByNameAsc());
+        rooms.sort(SMALLEST_FIRST);
+        List<Booking> pending = bookingRepository.findPendingBookingsInDateRange(startDate, endDate);
+        Occupied occupied = loadOccupied(rooms, startDate, endDate);
+
+        Map<LocalDate, List<Booking>> byDate = new HashMap<>();
+        pending.forEach(booking -> byDate.computeIfAbsent(booking.getBookingDate(), date -> new ArrayList<>())
+                .add(booking));
+
+        Allocation allocation = new Allocation();
+        byDate.values().forEach(requests -> {
+            requests.sort(LARGEST_FIRST);
+            for (Booking booking : requests) {
+                Boardroom room = bestFit(rooms, booking, occupied);
+                if (room == null) {
+                    allocation.unplaced.add(booking.getId());
+                    continue;
+                }
+                occupied.add(room.getId(), booking.getBookingDate(),
+                        new TimeInterval(booking.getStartTime(), booking.getEndTime()));
+                allocation.place(booking, room);
+            }
+        });
+        return allocation;
+    }
+
+    private Boardroom bestFit(List<Boardroom> roomsBySize, Booking booking, Occupied occupied) {
+        TimeInterval wanted = new TimeInterval(booking.getStartTime(), booking.getEndTime());
+        Long requestedRoomId = booking.getBoardroom().getId();
+        Boardroom best = null;
+        for (Boardroom room : roomsBySize) {
+            if (room.getCapacity() < booking.getAttendeeCount()) {
+                continue;
+            }
+            if (best != null && room.getCapacity() > best.getCapacity()) {
+                break;
+            }
+            if (!isFree(room, booking, wanted, occupied)) {
+                continue;
+            }
+            if (best == null) {
+                best = room;
+            }
+            if (room.getId().equals(requestedRoomId)) {
+                return room;
+            }
+        }
+        return best;
+    }
+
+    private boolean isFree(Boardroom room, Booking booking, TimeInterval wanted, Occupied occupied) {
+        LocalDate date = booking.getBookingDate();
+        return !occupied.overlaps(room.getId(), date, wanted) &&
+                !blockRuleService.isBlockedByRule(room.getId(), date, wanted.start(), wanted.end()) &&
+                !bookingHoldService.isHeldByOthers(room.getId(), date, wanted.start(), wanted.end(),
+                        booking.getUser().getId()) &&
+                !(occupancyState != null &&
+                        occupancyState.hasPendingWrite(room.getId(), date, wanted.start(), wanted.end()));
+    }
+
+    private Occupied loadOccupied(List<Boardroom> rooms, LocalDate startDate, LocalDate endDate) {
+        Occupied occupied = new Occupied();
+        if (rooms.isEmpty()) {
+            return occupied;
+        }
+        List<Long> roomIds = rooms.stream().map(Boardroom::getId).toList();
+        try (Stream<ScheduledInterval> bookings =
+                     bookingRepository.streamActiveBookingIntervalsForBoardrooms(roomIds, startDate, endDate);
+             Stream<ScheduledInterval> slots =
+                     availabilitySlotRepository.streamSlotIntervalsForBoardrooms(roomIds, startDate, endDate)) {
+            bookings.forEach(occupied::add);
+            slots.filter(ScheduledInterval::isBlocked).forEach(occupied::add);
+        }
+        return occupied;
+    }
+
+    private void validate(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxDays) {
+            throw new IllegalArgumentException("An allocation may span at most " + maxDays + " days");
+        }
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+    }
+
+    private static final class Occupied {
+        private final Map<RoomDay, List<TimeInterval>> intervals = new HashMap<>();
+
+        void add(ScheduledInterval interval) {
+            add(interval.getBoardroomId(), interval.getDate(),
+                    new TimeInterval(interval.getStartTime(), interval.getEndTime()));
+        }
+
+        void add(Long boardroomId, LocalDate date, TimeInterval interval) {
+            intervals.computeIfAbsent(new RoomDay(boardroomId, date), key -> new ArrayList<>()).add(interval);
+        }
+
+        boolean overlaps(Long boardroomId, LocalDate date, TimeInterval interval) {
+            List<TimeInterval> taken = intervals.get(new RoomDay(boardroomId, date));
+            if (taken != null) {
+                for (TimeInterval other : taken) {
+                    if (other.overlaps(interval)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Allocation {
+        final Map<Booking, Boardroom> placements = new IdentityHashMap<>();
+        final List<RoomAssignment> assignments = new ArrayList<>();
+        final List<Long> unplaced = new ArrayList<>();
+
+        void place(Booking booking, Boardroom room) {
+            placements.put(booking, room);
+            Boardroom requested = booking.getBoardroom();
+            assignments.add(new RoomAssignment(booking.getId(), booking.getBookingDate(), booking.getStartTime(),
+                    booking.getEndTime(), booking.getAttendeeCount(), requested.getId(), requested.getCapacity(),
+                    room.getId(), room.getCapacity()));
+        }
+
+        AllocationPlan toPlan(LocalDate startDate, LocalDate endDate, boolean approved, long startedNanos) {
+            assignments.sort(Comparator.comparing(RoomAssignment::getBookingDate)
+                    .thenComparing(RoomAssignment::getStartTime)
+                    .thenComparing(RoomAssignment::getAssignedBoardroomId));
+            long elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+            return new AllocationPlan(startDate, endDate, assignments, unplaced, approved, elapsedMillis);
+        }
+    }
+}
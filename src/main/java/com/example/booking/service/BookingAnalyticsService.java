@@ -0,0 +1,258 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHistoryAggregate;
+import com.example.booking.dto.BookingHistoryFilter;
+import com.example.booking.dto.BookingHistoryRow;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Analytics over the whole booking history without loading the bookings table.
+ *
+ * The history is exported to a {@link BookingHistoryStore} by
+ * {@code app.analytics.export-cron}, each export into a new generation directory under
+ * {@code app.analytics.dir} that replaces the previous one once complete; a node without
+ * a generation exports right after startup. The export reads through a read-only
+ * transaction, so it goes to the read replica when one is configured. Queries scan the
+ * current generation's columns in parallel and see bookings as of its export.
+ */
+@Service
+public class BookingAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAnalyticsService.class);
+
+    private static final String GENERATION_PREFIX = "gen-";
+
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final LocalTime dayStart;
+    private final LocalTime dayEnd;
+    private final ExecutorService scanExecutor;
+
+    private final Object exportLock = new Object();
+    private volatile Generation current;
+
+    private final Timer exportTimer;
+    private final Timer queryTimer;
+
+    public BookingAnalyticsService(BookingRepository bookingRepository,
+                                   BoardroomRepository boardroomRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.analytics.dir:data/analytics}") String directory,
+                                   @Value("${app.analytics.day-start:08:00}") LocalTime dayStart,
+                                   @Value("${app.analytics.day-end:18:00}") LocalTime dayEnd,
+                                   @Value("${app.analytics.scan-threads:0}") int scanThreads) {
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = Path.of(directory);
+        this.dayStart = dayStart;
+        this.dayEnd = dayEnd;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = scanThreads > 0 ? scanThreads : Runtime.getRuntime().availableProcessors();
+        this.scanExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "analytics-scan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.exportTimer = Timer.builder("booking.analytics.export")
+                .description("Time to export the booking history to the analytics store")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("booking.analytics.query").register(meterRegistry);
+        Gauge.builder("booking.analytics.rows", this, service -> {
+            Generation generation = service.current;
+            return generation != null ? generation.store().getRows() : 0;
+        }).register(meterRegistry);
+
+        openLatest();
+    }
+
+    /**
+     * Aggregate the exported bookings matching the filter
+     */
+    public BookingHistoryAggregate aggregate(BookingHistoryFilter filter) {
+        Generation generation = current;
+        if (generation == null) {
+            throw new IllegalStateException("The booking history has not been exported yet");
+        }
+        long started = System.nanoTime();
+
+        Set<Long> boardroomIds = filter.getBoardroomIds();
+        if (filter.getCapacityType() != null) {
+            Set<Long> ofType = new HashSet<>(boardroomRepository.findIdsByCapacityType(filter.getCapacityType()));
+            if (boardroomIds != null) {
+                ofType.retainAll(boardroomIds);
+            }
+            boardroomIds = ofType;
+        }
+        long rooms = boardroomIds != null ? boardroomIds.size() : boardroomRepository.count();
+
+        BookingHistoryStore.Scan scan = new BookingHistoryStore.Scan(filter.getStartDate(), filter.getEndDate(),
+                boardroomIds, filter.getDaysOfWeek(), filter.getStatuses(), dayStart, dayEnd);
+        BookingHistoryStore.Totals totals = generation.store().aggregate(scan, scanExecutor);
+
+        long elapsed = System.nanoTime() - started;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        int bookableMinutes = Math.max(0, BookingHistoryStore.endMinuteOf(dayEnd) -
+                (dayStart.getHour() * 60 + dayStart.getMinute()));
+        return new BookingHistoryAggregate(totals.bookings(), totals.bookedMinutes(), totals.attendees(),
+                rooms * countDays(filter), bookableMinutes, generation.exportedAt(), elapsed / 1_000_000);
+    }
+
+    /**
+     * Export the booking history into a new generation and switch queries to it
+     */
+    @Scheduled(cron = "${app.analytics.export-cron:0 15 3 * * *}")
+    public void export() {
+        synchronized (exportLock) {
+            long started = System.currentTimeMillis();
+            Path target = directory.resolve(GENERATION_PREFIX + started);
+            try {
+                BookingHistoryStore written = readOnlyTransaction.execute(status -> {
+                    try (Stream<BookingHistoryRow> rows = bookingRepository.streamBookingHistory()) {
+                        return BookingHistoryStore.write(target, rows);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                current = new Generation(written, toDateTime(started));
+                log.info("Exported {} bookings to analytics store {} in {} ms", written.getRows(), target,
+                        System.currentTimeMillis() - started);
+            } catch (RuntimeException e) {
+                log.warn("Cannot export the booking history to {}: {}", directory, e.getMessage());
+                return;
+            } finally {
+                exportTimer.record(System.currentTimeMillis() - started, TimeUnit.MILLISECONDS);
+            }
+            // Scans of older generations keep their mappings after the files are unlinked
+            deleteOtherThan(target);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exportIfMissing() {
+        if (current == null) {
+            scanExecutor.execute(this::export);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanExecutor.shutdownNow();
+    }
+
+    private void openLatest() {
+        Optional<Path> latest;
+        try (Stream<Path> entries = Files.list(directory)) {
+            latest = entries.filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .max(Comparator.comparingLong(BookingAnalyticsService::generationTime));
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.warn("Cannot list analytics store {}: {}", directory, e.getMessage());
+            return;
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        try {
+            current = new Generation(BookingHistoryStore.open(latest.get()),
+                    toDateTime(generationTime(latest.get())));
+            deleteOtherThan(latest.get());
+        } catch (IOException e) {
+            log.warn("Ignoring analytics store {}: {}", latest.get(), e.getMessage());
+        }
+    }
+
+    private void deleteOtherThan(Path keep) {
+        try (Stream<Path> entries = Files.list(directory)) {
+            List<Path> stale = entries.filter(path -> !path.equals(keep)).toList();
+            stale.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Cannot clean up analytics store {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private long countDays(BookingHistoryFilter filter) {
+        Set<DayOfWeek> daysOfWeek = filter.getDaysOfWeek();
+        long total = ChronoUnit.DAYS.between(filter.getStartDate(), filter.getEndDate()) + 1;
+        if (daysOfWeek == null) {
+            return total;
+        }
+        long days = 0;
+        // Every full week holds each day once; only the remainder needs checking
+        LocalDate date = filter.getStartDate().plusWeeks(total / 7);
+        for (; !date.isAfter(filter.getEndDate()); date = date.plusDays(1)) {
+            if (daysOfWeek.contains(date.getDayOfWeek())) {
+                days++;
+            }
+        }
+        return days + total / 7 * daysOfWeek.size();
+    }
+
+    private static long generationTime(Path generation) {
+        try {
+            return Long.parseLong(generation.getFileName().toString().substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record Generation(BookingHistoryStore store, LocalDateTime exportedAt) {
+    }
+}
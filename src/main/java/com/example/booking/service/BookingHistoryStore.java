@@ -0,0 +1,261 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHistoryRow;
+import com.example.booking.enums.BookingStatus;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Booking history in column files, memory-mapped for analytics scans that never touch the
+ * database.
+ *
+ * A store is a directory with one file per column, each holding one big-endian primitive
+ * per booking: {@code boardroom} (long), {@code date} (int, epoch day), {@code start} and
+ * {@code end} (short, minute of the day; an end of 1440 is midnight), {@code status}
+ * (byte, enum ordinal, so new constants must be appended) and {@code attendees} (int).
+ * Rows are in date order. A scan splits them into chunks of {@value #CHUNK_ROWS} rows,
+ * skips chunks whose date range misses the filter, and aggregates the others in parallel.
+ * Columns are mapped whole, which limits a store to about 268 million bookings.
+ */
+public class BookingHistoryStore {
+
+    public static final int CHUNK_ROWS = 64 * 1024;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final String BOARDROOM = "boardroom";
+    private static final String DATE = "date";
+    private static final String START = "start";
+    private static final String END = "end";
+    private static final String STATUS = "status";
+    private static final String ATTENDEES = "attendees";
+
+    private final Path directory;
+    private final int rows;
+    private final MappedByteBuffer boardrooms;
+    private final MappedByteBuffer dates;
+    private final MappedByteBuffer starts;
+    private final MappedByteBuffer ends;
+    private final MappedByteBuffer statuses;
+    private final MappedByteBuffer attendees;
+    private final int[] chunkFirstDay;
+    private final int[] chunkLastDay;
+
+    private BookingHistoryStore(Path directory) throws IOException {
+        this.directory = directory;
+        this.dates = map(directory.resolve(DATE));
+        this.rows = dates.capacity() / Integer.BYTES;
+        this.boardrooms = map(directory.resolve(BOARDROOM));
+        this.starts = map(directory.resolve(START));
+        this.ends = map(directory.resolve(END));
+        this.statuses = map(directory.resolve(STATUS));
+        this.attendees = map(directory.resolve(ATTENDEES));
+        if (boardrooms.capacity() != rows * Long.BYTES || starts.capacity() != rows * Short.BYTES ||
+                ends.capacity() != rows * Short.BYTES || statuses.capacity() != rows ||
+                attendees.capacity() != rows * Integer.BYTES) {
+            throw new IOException("Columns of booking history " + directory + " differ in length");
+        }
+
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        this.chunkFirstDay = new int[chunks];
+        this.chunkLastDay = new int[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            for (int row = chunk * CHUNK_ROWS, end = Math.min(rows, row + CHUNK_ROWS); row < end; row++) {
+                int day = dates.getInt(row * Integer.BYTES);
+                first = Math.min(first, day);
+                last = Math.max(last, day);
+            }
+            chunkFirstDay[chunk] = first;
+            chunkLastDay[chunk] = last;
+        }
+    }
+
+    /**
+     * Write the rows as a new store in the directory, which must not exist yet, then open it
+     */
+    public static BookingHistoryStore write(Path directory, Stream<BookingHistoryRow> rows) throws IOException {
+        Path parent = directory.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempDirectory(parent, directory.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream boardroomOut = output(temporary.resolve(BOARDROOM));
+                 DataOutputStream dateOut = output(temporary.resolve(DATE));
+                 DataOutputStream startOut = output(temporary.resolve(START));
+                 DataOutputStream endOut = output(temporary.resolve(END));
+                 DataOutputStream statusOut = output(temporary.resolve(STATUS));
+                 DataOutputStream attendeesOut = output(temporary.resolve(ATTENDEES))) {
+                rows.forEach(row -> {
+                    try {
+                        boardroomOut.writeLong(row.getBoardroomId());
+                        dateOut.writeInt((int) row.getDate().toEpochDay());
+                        startOut.writeShort(minuteOf(row.getStartTime()));
+                        endOut.writeShort(endMinuteOf(row.getEndTime()));
+                        statusOut.writeByte(row.getStatus().ordinal());
+                        attendeesOut.writeInt(row.getAttendeeCount() != null ? row.getAttendeeCount() : 0);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, directory, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            FileSystemUtils.deleteRecursively(temporary);
+        }
+        return open(directory);
+    }
+
+    /**
+     * Map an existing store
+     */
+    public static BookingHistoryStore open(Path directory) throws IOException {
+        return new BookingHistoryStore(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Aggregate the bookings matching the scan, one task per chunk on the executor
+     */
+    public Totals aggregate(Scan scan, Executor executor) {
+        List<CompletableFuture<Totals>> tasks = new ArrayList<>();
+        for (int chunk = 0; chunk < chunkFirstDay.length; chunk++) {
+            if (chunkLastDay[chunk] < scan.firstDay || chunkFirstDay[chunk] > scan.lastDay) {
+                continue;
+            }
+            int from = chunk * CHUNK_ROWS;
+            int to = Math.min(rows, from + CHUNK_ROWS);
+            tasks.add(CompletableFuture.supplyAsync(() -> aggregate(scan, from, to), executor));
+        }
+        Totals totals = new Totals(0, 0, 0);
+        for (CompletableFuture<Totals> task : tasks) {
+            totals = totals.plus(task.join());
+        }
+        return totals;
+    }
+
+    private Totals aggregate(Scan scan, int from, int to) {
+        long bookings = 0;
+        long minutes = 0;
+        long attendeeTotal = 0;
+        for (int row = from; row < to; row++) {
+            int day = dates.getInt(row * Integer.BYTES);
+            // Epoch day 0 was a Thursday, so (epochDay + 3) mod 7 is 0 on Mondays
+            if (day < scan.firstDay || day > scan.lastDay ||
+                    (scan.statusMask & (1 << statuses.get(row))) == 0 ||
+                    (scan.dayOfWeekMask & (1 << Math.floorMod(day + 3, 7))) == 0) {
+                continue;
+            }
+            if (scan.boardroomIds != null &&
+                    Arrays.binarySearch(scan.boardroomIds, boardrooms.getLong(row * Long.BYTES)) < 0) {
+                continue;
+            }
+            bookings++;
+            int start = Math.max(starts.getShort(row * Short.BYTES), scan.dayStartMinute);
+            int end = Math.min(ends.getShort(row * Short.BYTES), scan.dayEndMinute);
+            minutes += Math.max(0, end - start);
+            attendeeTotal += attendees.getInt(row * Integer.BYTES);
+        }
+        return new Totals(bookings, minutes, attendeeTotal);
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Booking history column " + file + " is too large to map");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static DataOutputStream output(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Minute of the day an end time stands for; midnight closes the day
+     */
+    public static int endMinuteOf(LocalTime time) {
+        int minute = minuteOf(time);
+        return minute == 0 ? MINUTES_PER_DAY : minute;
+    }
+
+    /**
+     * Compiled filter of a scan; minutes outside [dayStartMinute, dayEndMinute) are not counted
+     */
+    public static final class Scan {
+
+        private final int firstDay;
+        private final int lastDay;
+        private final long[] boardroomIds;
+        private final int dayOfWeekMask;
+        private final int statusMask;
+        private final int dayStartMinute;
+        private final int dayEndMinute;
+
+        public Scan(LocalDate startDate, LocalDate endDate, Set<Long> boardroomIds, Set<DayOfWeek> daysOfWeek,
+                    Set<BookingStatus> statuses, LocalTime dayStart, LocalTime dayEnd) {
+            this.firstDay = (int) startDate.toEpochDay();
+            this.lastDay = (int) endDate.toEpochDay();
+            this.boardroomIds = boardroomIds != null
+                    ? boardroomIds.stream().mapToLong(Long::longValue).sorted().toArray()
+                    : null;
+            int days = 0;
+            for (DayOfWeek dayOfWeek : daysOfWeek != null ? daysOfWeek : Set.of(DayOfWeek.values())) {
+                days |= 1 << (dayOfWeek.getValue() - 1);
+            }
+            this.dayOfWeekMask = days;
+            int statusBits = 0;
+            for (BookingStatus status : statuses) {
+                statusBits |= 1 << status.ordinal();
+            }
+            this.statusMask = statusBits;
+            this.dayStartMinute = minuteOf(dayStart);
+            this.dayEndMinute = endMinuteOf(dayEnd);
+        }
+    }
+
+    /**
+     * Sums over the matching bookings
+     */
+    public record Totals(long bookings, long bookedMinutes, long attendees) {
+
+        Totals plus(Totals other) {
+            return new Totals(bookings + other.bookings, bookedMinutes + other.bookedMinutes,
+                    attendees + other.attendees);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHold;
+import com.example.booking.util.HashedTimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory registry of booking holds.
+ *
+ * Holds are indexed by date and boardroom so conflict checks only look at the holds of
+ * one room-day. Each hold schedules its own removal on a {@link HashedTimerWheel}; the
+ * wheel may run up to one tick late, so lookups also ignore holds past their expiry.
+ *
+ * This class only stores holds. Placing one against bookings and blocks, and turning it
+ * into a booking, is done by {@link BookingService} under the room-day lock. A hold that
+ * is released or expires offers its range to the waitlist.
+ */
+@Service
+public class BookingHoldService {
+
+    private final Map<String, HoldEntry> holds = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Map<Long, Set<BookingHold>>> holdsByDate = new ConcurrentHashMap<>();
+    private final HashedTimerWheel timerWheel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int maxHoldsPerUser;
+
+    private final Counter placedCounter;
+    private final Counter convertedCounter;
+    private final Counter expiredCounter;
+
+    public BookingHoldService(ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.booking.hold.default-ttl-minutes:5}") long defaultTtlMinutes,
+                              @Value("${app.booking.hold.max-ttl-minutes:15}") long maxTtlMinutes,
+                              @Value("${app.booking.hold.max-per-user:3}") int maxHoldsPerUser,
+                              @Value("${app.booking.hold.timer-tick-ms:100}") long timerTickMillis) {
+        this.eventPublisher = eventPublisher;
+        this.defaultTtl = Duration.ofMinutes(defaultTtlMinutes);
+        this.maxTtl = Duration.ofMinutes(maxTtlMinutes);
+        this.maxHoldsPerUser = maxHoldsPerUser;
+        this.timerWheel = new HashedTimerWheel("booking-hold-expiry", timerTickMillis, 512);
+
+        this.placedCounter = Counter.builder("booking.holds").tag("outcome", "placed").register(meterRegistry);
+        this.convertedCounter = Counter.builder("booking.holds").tag("outcome", "converted").register(meterRegistry);
+        this.expiredCounter = Counter.builder("booking.holds").tag("outcome", "expired").register(meterRegistry);
+        Gauge.builder("booking.holds.active", holds, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Register a hold. The caller must hold the room-day lock and have checked the
+     * range against bookings, blocks and other holds.
+     *
+     * @param ttl hold duration, or {@code null} for the default; capped at the maximum
+     */
+    BookingHold add(Long boardroomId, Long userId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                    Duration ttl) {
+        Duration effectiveTtl = ttl == null ? defaultTtl : (ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl);
+        if (effectiveTtl.isNegative() || effectiveTtl.isZero()) {
+            throw new IllegalArgumentException("Hold duration must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BookingHold hold = new BookingHold(UUID.randomUUID().toString(), boardroomId, userId, date,
+                startTime, endTime, now, now.plus(effectiveTtl));
+
+        holdsByDate.compute(date, (day, rooms) -> {
+            Map<Long, Set<BookingHold>> byRoom = rooms != null ? rooms : new ConcurrentHashMap<>();
+            byRoom.computeIfAbsent(boardroomId, id -> ConcurrentHashMap.newKeySet()).add(hold);
+            return byRoom;
+        });
+        // Registered before the timeout is scheduled, so an early expiry always finds it
+        HoldEntry entry = new HoldEntry(hold);
+        holds.put(hold.getId(), entry);
+        entry.timeout = timerWheel.schedule(() -> {
+            if (remove(hold.getId()) != null) {
+                expiredCounter.increment();
+                publishFreed(hold);
+            }
+        }, effectiveTtl.toMillis(), TimeUnit.MILLISECONDS);
+        placedCounter.increment();
+        return hold;
+    }
+
+    /**
+     * Find an unexpired hold
+     */
+    public Optional<BookingHold> findHold(String holdId) {
+        HoldEntry entry = holds.get(holdId);
+        if (entry == null || entry.hold.isExpired(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.hold);
+    }
+
+    /**
+     * Drop a hold before it expires
+     */
+    public boolean release(String holdId) {
+        BookingHold released = remove(holdId);
+        if (released == null) {
+            return false;
+        }
+        publishFreed(released);
+        return true;
+    }
+
+    /**
+     * Drop a hold that became a booking
+     */
+    void converted(String holdId) {
+        if (remove(holdId) != null) {
+            convertedCounter.increment();
+        }
+    }
+
+    /**
+     * Number of unexpired holds of a user
+     */
+    public int countHoldsByUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        int count = 0;
+        for (HoldEntry entry : holds.values()) {
+            if (entry.hold.getUserId().equals(userId) && !entry.hold.isExpired(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getMaxHoldsPerUser() {
+        return maxHoldsPerUser;
+    }
+
+    /**
+     * Check if someone other than the given user (any user when {@code null}) holds part
+     * of the time range
+     */
+    public boolean isHeldByOthers(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                  Long userId) {
+        Map<Long, Set<BookingHold>> rooms = holdsByDate.get(date);
+        return rooms != null && conflicts(rooms.get(boardroomId), startTime, endTime, userId, LocalDateTime.now());
+    }
+
+    /**
+     * IDs of boardrooms of which someone other than the given user (any user when
+     * {@code null}) holds part of the time range
+     */
+    public Set<Long> findBoardroomsHeldByOthers(LocalDate date, LocalTime startTime, LocalTime endTime, Long userId) {
+        Map<Long, Set<BookingHold>> rooms = holdsByDate.get(date);
+        if (rooms == null) {
+            return Set.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> held = new HashSet<>();
+        rooms.forEach((boardroomId, roomHolds) -> {
+            if (conflicts(roomHolds, startTime, endTime, userId, now)) {
+                held.add(boardroomId);
+            }
+        });
+        return held;
+    }
+
+    /**
+     * Holds of the given user overlapping the time range
+     */
+    Set<BookingHold> findOwnOverlappingHolds(Long boardroomId, LocalDate date, LocalTime startTime,
+                                             LocalTime endTime, Long userId) {
+        Map<Long, Set<BookingHold>> rooms = holdsByDate.get(date);
+        Set<BookingHold> roomHolds = rooms != null ? rooms.get(boardroomId) : null;
+        Set<BookingHold> own = new HashSet<>();
+        if (roomHolds != null) {
+            for (BookingHold hold : roomHolds) {
+                if (hold.getUserId().equals(userId) && hold.overlaps(startTime, endTime)) {
+                    own.add(hold);
+                }
+            }
+        }
+        return own;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.close();
+    }
+
+    private void publishFreed(BookingHold hold) {
+        eventPublisher.publishEvent(new WaitlistService.TimeFreedEvent(hold.getBoardroomId(), hold.getDate(),
+                hold.getStartTime(), hold.getEndTime()));
+    }
+
+    private static boolean conflicts(Set<BookingHold> roomHolds, LocalTime startTime, LocalTime endTime,
+                                     Long userId, LocalDateTime now) {
+        if (roomHolds == null) {
+            return false;
+        }
+        for (BookingHold hold : roomHolds) {
+            if (!hold.getUserId().equals(userId) && hold.overlaps(startTime, endTime) && !hold.isExpired(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BookingHold remove(String holdId) {
+        HoldEntry entry = holds.remove(holdId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.timeout != null) {
+            entry.timeout.cancel();
+        }
+        BookingHold hold = entry.hold;
+        holdsByDate.computeIfPresent(hold.getDate(), (day, rooms) -> {
+            rooms.computeIfPresent(hold.getBoardroomId(), (id, roomHolds) -> {
+                roomHolds.remove(hold);
+                return roomHolds.isEmpty() ? null : roomHolds;
+            });
+            return rooms.isEmpty() ? null : rooms;
+        });
+        return hold;
+    }
+
+    private static final class HoldEntry {
+        final BookingHold hold;
+        volatile HashedTimerWheel.Timeout timeout;
+
+        HoldEntry(BookingHold hold) {
+            this.hold = hold;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHold;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Booking lifecycle: holds, creation, approval, check-in, completion and cancellation.
+ *
+ * Every operation that can create a conflict runs its check and its write under the
+ * {@link RoomDayLocks} lock of the booking's room and date, and commits before the lock
+ * is released, so concurrent requests for the same room-day are serialized while all
+ * other requests proceed in parallel. Conflicts are reported as
+ * {@link BookingConflictException}. Creation, approval and cancellation record a
+ * notification in the {@link NotificationOutbox} within the same transaction. Callers
+ * acting for someone else are refused with {@link AccessDeniedException}.
+ *
+ * A confirmed booking must be checked into by its check-in deadline,
+ * {@code app.booking.check-in.grace-minutes} after the start; otherwise
+ * {@link BookingTimerService} releases the room by cancelling it.
+ */
+@Service
+public class BookingService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final UserRepository userRepository;
+    private final AvailabilityService availabilityService;
+    private final BookingHoldService bookingHoldService;
+    private final RoomDayLocks roomDayLocks;
+    private final NotificationOutbox notificationOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration checkInOpensBefore;
+    private final Duration checkInGrace;
+
+    public BookingService(BookingRepository bookingRepository,
+                          BoardroomRepository boardroomRepository,
+                          UserRepository userRepository,
+                          AvailabilityService availabilityService,
+                          BookingHoldService bookingHoldService,
+                          RoomDayLocks roomDayLocks,
+                          NotificationOutbox notificationOutbox,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.booking.check-in.opens-before-minutes:15}") long checkInOpensBeforeMinutes,
+                          @Value("${app.booking.check-in.grace-minutes:10}") long checkInGraceMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.userRepository = userRepository;
+        this.availabilityService = availabilityService;
+        this.bookingHoldService = bookingHoldService;
+        this.roomDayLocks = roomDayLocks;
+        this.notificationOutbox = notificationOutbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkInOpensBefore = Duration.ofMinutes(checkInOpensBeforeMinutes);
+        this.checkInGrace = Duration.ofMinutes(checkInGraceMinutes);
+    }
+
+    /**
+     * Tentatively reserve a time range for a user. An overlapping hold of the same user
+     * on the same room is replaced.
+     *
+     * @param ttl hold duration, or {@code null} for the configured default
+     */
+    public BookingHold placeHold(Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                                 LocalTime endTime, Duration ttl) {
+        validateTimes(date, startTime, endTime);
+        return roomDayLocks.withLock(boardroomId, date, () -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                findActiveBoardroom(boardroomId);
+                findActiveUser(userId);
+                if (!availabilityService.isTimeSlotAvailable(boardroomId, date, startTime, endTime, userId)) {
+                    throw new BookingConflictException("The boardroom is not available for " + startTime + " - " + endTime);
+                }
+            });
+            Set<BookingHold> replaced =
+                    bookingHoldService.findOwnOverlappingHolds(boardroomId, date, startTime, endTime, userId);
+            LocalDateTime now = LocalDateTime.now();
+            long freed = replaced.stream().filter(hold -> !hold.isExpired(now)).count();
+            // The holds being replaced are counted as freed, but only released once the new one is placed
+            if (bookingHoldService.countHoldsByUser(userId) - freed >= bookingHoldService.getMaxHoldsPerUser()) {
+                throw new BookingConflictException("At most " + bookingHoldService.getMaxHoldsPerUser() +
+                        " holds may be open at a time");
+            }
+            BookingHold hold = bookingHoldService.add(boardroomId, userId, date, startTime, endTime, ttl);
+            replaced.forEach(old -> bookingHoldService.release(old.getId()));
+            return hold;
+        });
+    }
+
+    /**
+     * Give up a hold of the user
+     */
+    public void releaseHold(String holdId, Long userId) {
+        BookingHold hold = findOwnHold(holdId, userId);
+        bookingHoldService.release(hold.getId());
+    }
+
+    /**
+     * Turn a hold into a booking. The hold is consumed only if the booking commits.
+     */
+    public Booking confirmHold(String holdId, Long userId, String purpose, Integer attendeeCount) {
+        BookingHold hold = findOwnHold(holdId, userId);
+        return roomDayLocks.withLock(hold.getBoardroomId(), hold.getDate(), () -> {
+            // Re-check under the lock: the hold may have expired while we waited
+            BookingHold current = findOwnHold(holdId, userId);
+            Booking booking = insertBooking(userId, current.getBoardroomId(), current.getDate(),
+                    current.getStartTime(), current.getEndTime(), purpose, attendeeCount, null);
+            bookingHoldService.converted(holdId);
+            return booking;
+        });
+    }
+
+    /**
+     * Book a time range directly, without a prior hold
+     */
+    public Booking createBooking(Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                                 LocalTime endTime, String purpose, Integer attendeeCount) {
+        return createBooking(userId, boardroomId, date, startTime, endTime, purpose, attendeeCount, null);
+    }
+
+    /**
+     * Book a time range directly under a caller-chosen reference. If a booking with that
+     * reference already exists it is returned instead, so a retried request that did
+     * commit the first time does not book twice.
+     */
+    public Booking createBooking(Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                                 LocalTime endTime, String purpose, Integer attendeeCount, String reference) {
+        validateTimes(date, startTime, endTime);
+        return roomDayLocks.withLock(boardroomId, date,
+                () -> insertBooking(userId, boardroomId, date, startTime, endTime, purpose, attendeeCount, reference));
+    }
+
+    /**
+     * Confirm a pending booking, provided nothing confirmed or blocked overlaps it by now
+     */
+    public Booking approveBooking(Long bookingId, String approvedBy) {
+        Booking pending = findBooking(bookingId);
+        return roomDayLocks.withLock(pending.getBoardroom().getId(), pending.getBookingDate(),
+                () -> transactionTemplate.execute(status -> {
+                    Booking booking = findBooking(bookingId);
+                    if (!booking.canBeModified()) {
+                        throw new IllegalStateException("Only pending bookings can be approved");
+                    }
+                    // Pending bookings do not count as conflicts, so this one does not block itself
+                    if (!availabilityService.isTimeSlotAvailable(booking.getBoardroom().getId(), booking.getBookingDate(),
+                            booking.getStartTime(), booking.getEndTime(), booking.getUser().getId())) {
+                        throw new BookingConflictException("The boardroom is no longer available for " +
+                                booking.getTimeSlot());
+                    }
+                    booking.approve(approvedBy);
+                    notificationOutbox.record(NotificationType.BOOKING_CONFIRMED, booking);
+                    eventPublisher.publishEvent(BookingTimerService.BookingChangedEvent.of(booking));
+                    return bookingRepository.save(booking);
+                }));
+    }
+
+    /**
+     * Cancel a pending or confirmed booking. The freed range is offered to the waitlist
+     * once the cancellation commits.
+     */
+    public Booking cancelBooking(Long bookingId, String reason) {
+        return cancelBooking(bookingId, reason, null, true);
+    }
+
+    /**
+     * Cancel a booking on behalf of a caller, who must be its booker unless they are an administrator
+     */
+    public Booking cancelBooking(Long bookingId, String reason, String username, boolean admin) {
+        return transactionTemplate.execute(status -> {
+            Booking booking = findBooking(bookingId);
+            checkBookerOrAdmin(booking, username, admin, "cancel");
+            if (!booking.canBeCancelled()) {
+                throw new IllegalStateException("Booking " + bookingId + " cannot be cancelled in status " +
+                        booking.getStatus());
+            }
+            return cancel(booking, reason);
+        });
+    }
+
+    /**
+     * Check the caller into a confirmed booking, from
+     * {@code app.booking.check-in.opens-before-minutes} before its start until its check-in
+     * deadline. The caller must be its booker unless they are an administrator.
+     */
+    public Booking checkIn(Long bookingId, String username, boolean admin) {
+        Booking found = findBooking(bookingId);
+        return roomDayLocks.withLock(found.getBoardroom().getId(), found.getBookingDate(),
+                () -> transactionTemplate.execute(status -> {
+                    Booking booking = findBooking(bookingId);
+                    checkBookerOrAdmin(booking, username, admin, "check into");
+                    if (booking.getStatus() != BookingStatus.CONFIRMED) {
+                        throw new IllegalStateException("Booking " + bookingId + " cannot be checked into in status " +
+                                booking.getStatus());
+                    }
+                    LocalDateTime opens = LocalDateTime.of(booking.getBookingDate(), booking.getStartTime())
+                            .minus(checkInOpensBefore);
+                    LocalDateTime deadline = getCheckInDeadline(booking.getBookingDate(), booking.getStartTime(),
+                            booking.getEndTime());
+                    LocalDateTime now = LocalDateTime.now();
+                    if (now.isBefore(opens) || now.isAfter(deadline)) {
+                        throw new IllegalStateException("Check-in for booking " + bookingId + " is open from " +
+                                opens + " to " + deadline);
+                    }
+                    booking.checkIn();
+                    eventPublisher.publishEvent(BookingTimerService.BookingChangedEvent.of(booking));
+                    return bookingRepository.save(booking);
+                }));
+    }
+
+    /**
+     * Cancel a booking nobody checked into by its deadline; false if it was checked into,
+     * cancelled or otherwise changed in the meantime
+     */
+    public boolean releaseNoShow(Long bookingId) {
+        Optional<Booking> found = bookingRepository.findById(bookingId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Boolean released = roomDayLocks.withLock(found.get().getBoardroom().getId(), found.get().getBookingDate(),
+                () -> transactionTemplate.execute(status -> {
+                    Booking booking = bookingRepository.findById(bookingId).orElse(null);
+                    if (booking == null || booking.getStatus() != BookingStatus.CONFIRMED ||
+                            LocalDateTime.now().isBefore(getCheckInDeadline(booking.getBookingDate(),
+                                    booking.getStartTime(), booking.getEndTime()))) {
+                        return false;
+                    }
+                    cancel(booking, "Released: nobody checked in within " + checkInGrace.toMinutes() +
+                            " minutes of the start");
+                    return true;
+                }));
+        if (Boolean.TRUE.equals(released)) {
+            log.info("Released booking {}: nobody checked in", bookingId);
+        }
+        return Boolean.TRUE.equals(released);
+    }
+
+    /**
+     * Complete a checked-in booking that has ended; false if it is not in progress
+     */
+    public boolean completeBooking(Long bookingId) {
+        Boolean completed = transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(bookingId).orElse(null);
+            if (booking == null || booking.getStatus() != BookingStatus.IN_PROGRESS) {
+                return false;
+            }
+            booking.complete();
+            eventPublisher.publishEvent(BookingTimerService.BookingChangedEvent.of(booking));
+            bookingRepository.save(booking);
+            return true;
+        });
+        return Boolean.TRUE.equals(completed);
+    }
+
+    /**
+     * When a booking is released if nobody checked in: the grace period after its start,
+     * or its end if that comes first
+     */
+    public LocalDateTime getCheckInDeadline(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        LocalDateTime deadline = LocalDateTime.of(date, startTime).plus(checkInGrace);
+        LocalDateTime end = LocalDateTime.of(date, endTime);
+        return deadline.isAfter(end) ? end : deadline;
+    }
+
+    private Booking cancel(Booking booking, String reason) {
+        booking.cancel(reason);
+        notificationOutbox.record(NotificationType.BOOKING_CANCELLED, booking);
+        eventPublisher.publishEvent(new WaitlistService.TimeFreedEvent(booking.getBoardroom().getId(),
+                booking.getBookingDate(), booking.getStartTime(), booking.getEndTime()));
+        eventPublisher.publishEvent(BookingTimerService.BookingChangedEvent.of(booking));
+        return bookingRepository.save(booking);
+    }
+
+    private Booking insertBooking(Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                                  LocalTime endTime, String purpose, Integer attendeeCount, String reference) {
+        Booking saved = transactionTemplate.execute(status -> {
+            if (reference != null) {
+                Optional<Booking> existing = bookingRepository.findByReference(reference);
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+            }
+            Boardroom boardroom = findActiveBoardroom(boardroomId);
+            User user = findActiveUser(userId);
+            if (attendeeCount == null || attendeeCount < 1 || attendeeCount > boardroom.getCapacity()) {
+                throw new IllegalArgumentException("Attendee count must be between 1 and " + boardroom.getCapacity());
+            }
+            if (!availabilityService.isTimeSlotAvailable(boardroomId, date, startTime, endTime, userId)) {
+                throw new BookingConflictException("The boardroom is not available for " + startTime + " - " + endTime);
+            }
+            Booking booking = new Booking(boardroom, user, date, startTime, endTime, purpose, attendeeCount);
+            booking.setReference(reference);
+            Booking created = bookingRepository.save(booking);
+            notificationOutbox.record(NotificationType.APPROVAL_REQUESTED, created);
+            return created;
+        });
+        log.debug("Created booking {}", saved);
+        return saved;
+    }
+
+    private BookingHold findOwnHold(String holdId, Long userId) {
+        BookingHold hold = bookingHoldService.findHold(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking hold", holdId));
+        if (!hold.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Booking hold", holdId);
+        }
+        return hold;
+    }
+
+    private Boardroom findActiveBoardroom(Long boardroomId) {
+        Boardroom boardroom = boardroomRepository.findById(boardroomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Boardroom", boardroomId));
+        if (!boardroom.isActive()) {
+            throw new IllegalArgumentException("Boardroom " + boardroomId + " is not active");
+        }
+        return boardroom;
+    }
+
+    private User findActiveUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        if (!user.isActive()) {
+            throw new IllegalArgumentException("User " + userId + " is not active");
+        }
+        return user;
+    }
+
+    private Booking findBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
+    }
+
+    private static void checkBookerOrAdmin(Booking booking, String username, boolean admin, String action) {
+        if (!admin && !booking.getUser().getUsername().equalsIgnoreCase(username)) {
+            throw new AccessDeniedException("Only the booker or an administrator can " + action + " booking " +
+                    booking.getId());
+        }
+    }
+
+    private static void validateTimes(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (date == null) {
+            throw new IllegalArgumentException("Booking date is required");
+        }
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.entity.Booking;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.util.HashedTimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-booking timers on a {@link HashedTimerWheel}, replacing a poll for bookings that
+ * start or end.
+ *
+ * A confirmed booking has three timers: a start reminder
+ * {@code app.booking.reminder-minutes} before the start, which records a
+ * {@link NotificationType#BOOKING_REMINDER} notification once per booking; the check-in
+ * deadline, at which {@link BookingService#releaseNoShow} cancels the booking if nobody
+ * checked in; and the end, at which a checked-in booking is completed. A checked-in
+ * booking keeps only the end timer.
+ *
+ * Only bookings starting within {@code app.booking.timers.horizon-hours} hold timers.
+ * They are loaded at startup and every {@code app.booking.timers.refill-interval-ms},
+ * which also catches up with changes made on other nodes; changes on this node
+ * reschedule the booking's timers as soon as they commit. Deadlines that passed while
+ * the application was down fire on loading. Expired timers only hand the booking to a
+ * single background thread, since the wheel's own thread must not block.
+ */
+@Service
+public class BookingTimerService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingTimerService.class);
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reminderLead;
+    private final Duration horizon;
+    private final HashedTimerWheel timerWheel;
+    private final ExecutorService actionExecutor;
+
+    private final Map<Long, BookingTimers> timers = new ConcurrentHashMap<>();
+
+    private final Counter remindedCounter;
+    private final Counter releasedCounter;
+    private final Counter completedCounter;
+
+    public BookingTimerService(BookingRepository bookingRepository,
+                               BookingService bookingService,
+                               NotificationOutbox notificationOutbox,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.booking.reminder-minutes:15}") long reminderMinutes,
+                               @Value("${app.booking.timers.horizon-hours:24}") long horizonHours,
+                               @Value("${app.booking.timers.tick-ms:1000}") long tickMillis) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reminderLead = Duration.ofMinutes(reminderMinutes);
+        this.horizon = Duration.ofHours(horizonHours);
+        this.timerWheel = new HashedTimerWheel("booking-timers", tickMillis, 4096);
+        this.actionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-timer-action");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.remindedCounter = Counter.builder("booking.timers").tag("outcome", "reminded").register(meterRegistry);
+        this.releasedCounter = Counter.builder("booking.timers").tag("outcome", "released").register(meterRegistry);
+        this.completedCounter = Counter.builder("booking.timers").tag("outcome", "completed").register(meterRegistry);
+        Gauge.builder("booking.timers.active", timers, Map::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        schedule(event, LocalDateTime.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refill();
+    }
+
+    /**
+     * Schedule the bookings starting within the horizon, and drop the timers of bookings
+     * no longer confirmed or in progress
+     */
+    @Scheduled(fixedDelayString = "${app.booking.timers.refill-interval-ms:900000}",
+            initialDelayString = "${app.booking.timers.refill-interval-ms:900000}")
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        List<Object[]> rows;
+        try {
+            // A lagging replica would drop the timers of bookings confirmed moments ago
+            rows = ReadRouting.onPrimary(() -> bookingRepository.findTimedBookings(now.toLocalDate(),
+                    now.plus(horizon).toLocalDate()));
+        } catch (RuntimeException e) {
+            log.warn("Cannot load booking timers: {}", e.getMessage());
+            return;
+        }
+        Set<Long> loaded = new HashSet<>();
+        for (Object[] row : rows) {
+            BookingChangedEvent booking = new BookingChangedEvent((Long) row[0], (BookingStatus) row[1],
+                    (LocalDate) row[2], (LocalTime) row[3], (LocalTime) row[4]);
+            loaded.add(booking.bookingId());
+            schedule(booking, now);
+        }
+        // Timers scheduled after the query started may belong to bookings it could not see
+        timers.forEach((bookingId, bookingTimers) -> {
+            if (!loaded.contains(bookingId) && bookingTimers.scheduledAt < started) {
+                remove(bookingId, bookingTimers);
+            }
+        });
+        log.debug("Loaded timers of {} bookings", loaded.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.close();
+        actionExecutor.shutdownNow();
+    }
+
+    private void schedule(BookingChangedEvent booking, LocalDateTime now) {
+        LocalDateTime start = LocalDateTime.of(booking.date(), booking.startTime());
+        LocalDateTime end = LocalDateTime.of(booking.date(), booking.endTime());
+        boolean timed = booking.status() == BookingStatus.CONFIRMED || booking.status() == BookingStatus.IN_PROGRESS;
+        if (!timed || !end.isAfter(now) || start.isAfter(now.plus(horizon))) {
+            BookingTimers existing = timers.get(booking.bookingId());
+            if (existing != null) {
+                remove(booking.bookingId(), existing);
+            }
+            return;
+        }
+        timers.compute(booking.bookingId(), (bookingId, existing) -> {
+            if (existing != null) {
+                if (existing.booking.equals(booking)) {
+                    return existing;
+                }
+                existing.cancel();
+            }
+            BookingTimers scheduled = new BookingTimers(booking);
+            if (booking.status() == BookingStatus.CONFIRMED) {
+                if (start.isAfter(now)) {
+                    scheduled.reminder = at(start.minus(reminderLead), now, () -> remind(bookingId));
+                }
+                LocalDateTime deadline = bookingService.getCheckInDeadline(booking.date(), booking.startTime(),
+                        booking.endTime());
+                scheduled.deadline = at(deadline, now, () -> release(bookingId));
+            }
+            scheduled.end = at(end, now, () -> complete(bookingId, scheduled));
+            return scheduled;
+        });
+    }
+
+    private HashedTimerWheel.Timeout at(LocalDateTime time, LocalDateTime now, Runnable action) {
+        return timerWheel.schedule(() -> actionExecutor.execute(action),
+                Duration.between(now, time).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void remind(Long bookingId) {
+        try {
+            Boolean reminded = transactionTemplate.execute(status -> {
+                // Conditional, so neither a restart nor another node sends it twice
+                if (bookingRepository.markReminderSent(bookingId, LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                notificationOutbox.record(NotificationType.BOOKING_REMINDER, booking);
+                return true;
+            });
+            if (Boolean.TRUE.equals(reminded)) {
+                remindedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot send the reminder of booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void release(Long bookingId) {
+        try {
+            if (bookingService.releaseNoShow(bookingId)) {
+                releasedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot release booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void complete(Long bookingId, BookingTimers completing) {
+        timers.remove(bookingId, completing);
+        try {
+            if (bookingService.completeBooking(bookingId)) {
+                completedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot complete booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void remove(Long bookingId, BookingTimers bookingTimers) {
+        if (timers.remove(bookingId, bookingTimers)) {
+            bookingTimers.cancel();
+        }
+    }
+
+    /**
+     * Published when a booking's status or time changes; its timers are rescheduled
+     * once the change commits
+     */
+    public record BookingChangedEvent(Long bookingId, BookingStatus status, LocalDate date,
+                                      LocalTime startTime, LocalTime endTime) {
+
+        public static BookingChangedEvent of(Booking booking) {
+            return new BookingChangedEvent(booking.getId(), booking.getStatus(), booking.getBookingDate(),
+                    booking.getStartTime(), booking.getEndTime());
+        }
+    }
+
+    private static final class BookingTimers {
+        final BookingChangedEvent booking;
+        final long scheduledAt = System.currentTimeMillis();
+        volatile HashedTimerWheel.Timeout reminder;
+        volatile HashedTimerWheel.Timeout deadline;
+        volatile HashedTimerWheel.Timeout end;
+
+        BookingTimers(BookingChangedEvent booking) {
+            this.booking = booking;
+        }
+
+        void cancel() {
+            for (HashedTimerWheel.Timeout timeout : new HashedTimerWheel.Timeout[]{reminder, deadline, end}) {
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.PendingBooking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable local log of bookings accepted by the write-behind pipeline.
+ *
+ * Records are appended to numbered segment files as {@code [length][crc32][payload]}.
+ * {@link #sync(long)} groups the fsyncs of concurrent callers: whoever finds the log not
+ * yet durable up to its record forces everything appended so far. A segment is rolled
+ * once it exceeds its size limit and deleted when every record in it has been written
+ * to the database. On startup, {@link #recover()} reads the remaining segments; a torn or
+ * corrupt record ends the segment, as it can only be the tail of an interrupted append.
+ */
+public class BookingWriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingWriteAheadLog.class);
+
+    private static final String SEGMENT_PREFIX = "bookings-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final List<Segment> recoveredSegments = new ArrayList<>();
+    private Segment current;
+    private long nextSegmentNumber;
+    private volatile long appendedPosition;
+    private volatile long durablePosition;
+
+    public BookingWriteAheadLog(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create write-ahead log directory " + directory, e);
+        }
+    }
+
+    /**
+     * Read every record left by a previous run, oldest first. Must be called once, before
+     * the first append; the segments read are deleted by {@link #recovered()}.
+     */
+    public List<PendingBooking> recover() {
+        List<PendingBooking> bookings = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX) &&
+                            path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+            for (Path path : segments) {
+                long number = segmentNumber(path);
+                nextSegmentNumber = Math.max(nextSegmentNumber, number + 1);
+                bookings.addAll(readSegment(path));
+                recoveredSegments.add(new Segment(number, path, null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read write-ahead log " + directory, e);
+        }
+        return bookings;
+    }
+
+    /**
+     * Delete the segments returned by {@link #recover()} once they are in the database
+     */
+    public void recovered() {
+        for (Segment segment : recoveredSegments) {
+            deleteQuietly(segment.path);
+        }
+        recoveredSegments.clear();
+    }
+
+    /**
+     * Append a record; it is durable only after {@link #sync(long)} with the returned
+     * position
+     */
+    public Appended append(PendingBooking booking) {
+        ByteBuffer record = encode(booking);
+        synchronized (appendLock) {
+            try {
+                if (current == null || current.channel.size() >= segmentBytes) {
+                    roll();
+                }
+                while (record.hasRemaining()) {
+                    current.channel.write(record);
+                }
+                current.pending.incrementAndGet();
+                appendedPosition += record.limit();
+                return new Appended(current, appendedPosition);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to write-ahead log", e);
+            }
+        }
+    }
+
+    /**
+     * Make everything up to the position durable
+     */
+    public void sync(long position) {
+        if (!fsync || durablePosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (appendLock) {
+                target = appendedPosition;
+                channel = current.channel;
+            }
+            try {
+                // Earlier segments were forced when they were rolled
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync write-ahead log", e);
+            }
+            durablePosition = target;
+        }
+    }
+
+    /**
+     * The record appended into the segment is in the database
+     */
+    public void markPersisted(Segment segment) {
+        if (segment.pending.decrementAndGet() == 0 && segment.sealed) {
+            synchronized (appendLock) {
+                if (segment.pending.get() == 0 && segment != current) {
+                    closeQuietly(segment);
+                    deleteQuietly(segment.path);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            if (current != null) {
+                closeQuietly(current);
+                if (current.pending.get() == 0) {
+                    deleteQuietly(current.path);
+                }
+                current = null;
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        Segment previous = current;
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, nextSegmentNumber, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        current = new Segment(nextSegmentNumber++, path, channel);
+        if (previous != null) {
+            if (fsync) {
+                previous.channel.force(false);
+            }
+            previous.sealed = true;
+            if (previous.pending.get() == 0) {
+                closeQuietly(previous);
+                deleteQuietly(previous.path);
+            }
+        }
+    }
+
+    private List<PendingBooking> readSegment(Path path) throws IOException {
+        List<PendingBooking> bookings = new ArrayList<>();
+        byte[] content = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > buffer.remaining()) {
+                log.warn("Write-ahead log {} ends with a torn record at offset {}", path, buffer.position() - HEADER_BYTES);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (crc(payload) != checksum) {
+                log.warn("Write-ahead log {} has a corrupt record at offset {}", path, buffer.position() - length - HEADER_BYTES);
+                break;
+            }
+            bookings.add(decode(payload));
+        }
+        return bookings;
+    }
+
+    private static ByteBuffer encode(PendingBooking booking) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(booking.getReference());
+            out.writeLong(booking.getUserId());
+            out.writeLong(booking.getBoardroomId());
+            out.writeLong(booking.getDate().toEpochDay());
+            out.writeInt(booking.getStartTime().toSecondOfDay());
+            out.writeInt(booking.getEndTime().toSecondOfDay());
+            writeString(out, booking.getPurpose());
+            out.writeInt(booking.getAttendeeCount());
+            out.writeUTF(booking.getAcceptedAt().toString());
+            byte[] payload = bytes.toByteArray();
+
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            record.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PendingBooking decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new PendingBooking(
+                in.readUTF(),
+                in.readLong(),
+                in.readLong(),
+                LocalDate.ofEpochDay(in.readLong()),
+                LocalTime.ofSecondOfDay(in.readInt()),
+                LocalTime.ofSecondOfDay(in.readInt()),
+                readString(in),
+                in.readInt(),
+                LocalDateTime.parse(in.readUTF()));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            if (segment.channel != null) {
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot close write-ahead log segment {}", segment.path, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete write-ahead log segment {}", path, e);
+        }
+    }
+
+    /**
+     * Position of an appended record, and the segment holding it
+     */
+    public record Appended(Segment segment, long position) {
+    }
+
+    public static final class Segment {
+        private final long number;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean sealed;
+
+        private Segment(long number, Path path, FileChannel channel) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+    }
+}
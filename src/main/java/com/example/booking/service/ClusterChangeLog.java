@@ -0,0 +1,288 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.entity.ChangeLogEntry;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.repository.ChangeLogEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.event.spi.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the in-process caches of several nodes sharing one database coherent, enabled
+ * with {@code app.cluster.change-log.enabled}.
+ *
+ * Every committed change of a boardroom, booking, availability slot, block rule or user
+ * adds a row to the {@code change_log} table, written in the changing transaction right
+ * before it commits. Each node polls the log every {@code app.cluster.change-log.poll-interval-ms}
+ * and, for rows written by other nodes, bumps the {@link RoomChangeTracker} version of the
+ * affected room, which invalidates every room-keyed cache, or publishes a
+ * {@link UserChangedEvent}. A remote change is therefore visible after at most one poll
+ * interval plus the poll itself.
+ *
+ * Log ids are assigned on insert but become visible on commit, so a transaction that
+ * commits late leaves a gap below rows already read. Every missing id is re-read on
+ * every poll until it shows up or {@code app.cluster.change-log.gap-timeout-ms} passes,
+ * after which it is assumed to belong to a rolled-back transaction. Ids can be skipped
+ * in any number, by rolled-back batches or by auto-increment ranges reserved per
+ * statement, so at most {@code app.cluster.change-log.max-gaps} are tracked; ids beyond
+ * that are counted in {@code booking.cluster.change-log.untracked-gaps} and never re-read.
+ */
+@Service
+public class ClusterChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterChangeLog.class);
+
+    private static final String INSERT_SQL = "INSERT INTO change_log " +
+            "(node_id, entity_type, entity_id, boardroom_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final ChangeLogEntryRepository changeLogEntryRepository;
+    private final RoomChangeTracker roomChangeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final int maxGaps;
+    private final Duration retention;
+
+    private final Map<EventSource, Set<Change>> pendingBySession = new ConcurrentHashMap<>();
+    // Missing log ids below the cursor, with the time they were first missed
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    private volatile long cursor;
+
+    private final Timer lagTimer;
+    private final Counter appliedCounter;
+    private final Counter untrackedGapCounter;
+
+    public ClusterChangeLog(ChangeLogEntryRepository changeLogEntryRepository,
+                            RoomChangeTracker roomChangeTracker,
+                            ApplicationEventPublisher eventPublisher,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.cluster.change-log.enabled:false}") boolean enabled,
+                            @Value("${app.id.node-id:0}") String nodeId,
+                            @Value("${app.cluster.change-log.batch-size:500}") int batchSize,
+                            @Value("${app.cluster.change-log.gap-timeout-ms:60000}") long gapTimeoutMillis,
+                            @Value("${app.cluster.change-log.max-gaps:10000}") int maxGaps,
+                            @Value("${app.cluster.change-log.retention-minutes:60}") long retentionMinutes) {
+        this.changeLogEntryRepository = changeLogEntryRepository;
+        this.roomChangeTracker = roomChangeTracker;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.maxGaps = maxGaps;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        this.lagTimer = Timer.builder("booking.cluster.change-log.lag")
+                .description("Time from a change on another node to its invalidation on this node")
+                .register(meterRegistry);
+        this.appliedCounter = Counter.builder("booking.cluster.change-log.applied").register(meterRegistry);
+        this.untrackedGapCounter = Counter.builder("booking.cluster.change-log.untracked-gaps")
+                .description("Missing change log ids not re-read because too many were missing already")
+                .register(meterRegistry);
+        Gauge.builder("booking.cluster.change-log.gaps", gaps, Map::size).register(meterRegistry);
+
+        if (enabled) {
+            // Caches start empty, so earlier changes need not be applied
+            Long maxId = changeLogEntryRepository.findMaxId();
+            this.cursor = maxId != null ? maxId : 0L;
+            log.info("Cluster change log enabled for node {} at position {}", nodeId, cursor);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Log a change made in the session's transaction, written when it commits
+     */
+    public void record(EventSource session, ChangeEntityType entityType, Long entityId, Long boardroomId) {
+        if (!enabled || entityId == null) {
+            return;
+        }
+        pendingBySession.computeIfAbsent(session, this::registerWrite)
+                .add(new Change(entityType, entityId, boardroomId));
+    }
+
+    /**
+     * Log a change made by a bulk statement in the current transaction
+     */
+    public void record(ChangeEntityType entityType, Long entityId, Long boardroomId) {
+        if (enabled) {
+            record(entityManager.unwrap(EventSource.class), entityType, entityId, boardroomId);
+        }
+    }
+
+    /**
+     * Boardrooms any node changed since the given time, or {@code null} if purged entries
+     * may be missing; none when the log is disabled
+     */
+    public Set<Long> findBoardroomsChangedSince(LocalDateTime since) {
+        if (!enabled) {
+            return Set.of();
+        }
+        if (since.isBefore(LocalDateTime.now().minus(retention))) {
+            return null;
+        }
+        return new HashSet<>(changeLogEntryRepository.findBoardroomIdsChangedSince(since));
+    }
+
+    /**
+     * Apply the changes other nodes committed since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.change-log.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // A lagging replica would delay invalidations and hide log rows as gaps
+            ReadRouting.onPrimary(this::pollPrimary);
+        } catch (RuntimeException e) {
+            log.warn("Cannot poll the cluster change log: {}", e.getMessage());
+        }
+    }
+
+    private void pollPrimary() {
+        long now = System.currentTimeMillis();
+        if (!gaps.isEmpty()) {
+            List<Long> missing = gaps.keySet().stream().sorted().toList();
+            for (int from = 0; from < missing.size(); from += batchSize) {
+                List<Long> ids = missing.subList(from, Math.min(from + batchSize, missing.size()));
+                for (ChangeLogEntry entry : changeLogEntryRepository.findByIdIn(ids)) {
+                    gaps.remove(entry.getId());
+                    apply(entry);
+                }
+            }
+            gaps.values().removeIf(missedAt -> now - missedAt > gapTimeoutMillis);
+        }
+
+        List<ChangeLogEntry> entries;
+        do {
+            entries = changeLogEntryRepository.findAfter(cursor, PageRequest.of(0, batchSize));
+            for (ChangeLogEntry entry : entries) {
+                trackGaps(cursor + 1, entry.getId(), now);
+                cursor = entry.getId();
+                apply(entry);
+            }
+        } while (entries.size() == batchSize);
+    }
+
+    /**
+     * Delete log entries every node has long applied
+     */
+    @Scheduled(cron = "${app.cluster.change-log.purge-cron:0 */10 * * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                changeLogEntryRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} cluster change log entries", deleted);
+        }
+    }
+
+    private void trackGaps(long firstMissing, long nextSeen, long now) {
+        long missing = firstMissing;
+        while (missing < nextSeen && gaps.size() < maxGaps) {
+            gaps.put(missing++, now);
+        }
+        if (missing < nextSeen) {
+            untrackedGapCounter.increment(nextSeen - missing);
+            log.warn("Not waiting for change log ids {} to {}: {} missing ids are tracked already", missing,
+                    nextSeen - 1, maxGaps);
+        }
+    }
+
+    private void apply(ChangeLogEntry entry) {
+        if (nodeId.equals(entry.getNodeId())) {
+            return;
+        }
+        if (entry.getBoardroomId() != null) {
+            // Called outside a transaction, so the version is bumped right away
+            roomChangeTracker.markChanged(entry.getBoardroomId());
+        }
+        if (entry.getEntityType() == ChangeEntityType.USER) {
+            eventPublisher.publishEvent(new UserChangedEvent(entry.getEntityId()));
+        }
+        appliedCounter.increment();
+        lagTimer.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    private Set<Change> registerWrite(EventSource session) {
+        Set<Change> changes = new LinkedHashSet<>();
+        // Runs after the flush at commit, so changes flushed by the commit itself are included
+        session.getActionQueue().registerProcess(committing -> write(committing, changes));
+        session.getActionQueue().registerProcess((success, completed) -> pendingBySession.remove(session));
+        return changes;
+    }
+
+    private void write(Session session, Set<Change> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    statement.setString(1, nodeId);
+                    statement.setString(2, change.entityType().name());
+                    statement.setLong(3, change.entityId());
+                    if (change.boardroomId() != null) {
+                        statement.setLong(4, change.boardroomId());
+                    } else {
+                        statement.setNull(4, Types.BIGINT);
+                    }
+                    statement.setTimestamp(5, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private record Change(ChangeEntityType entityType, Long entityId, Long boardroomId) {
+    }
+
+    /**
+     * Published when another node changed a user
+     */
+    public record UserChangedEvent(Long userId) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BlockedSlotSummary;
+import com.example.booking.dto.BookingSummary;
+import com.example.booking.dto.DashboardSnapshot;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.RoomCapacityType;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.util.SingleFlight;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds the admin dashboard from six queries: three grouped counts (bookings by status,
+ * active rooms by capacity type, active users by role) and three list projections
+ * (today's bookings, today's blocked slots, pending approvals). The queries run in
+ * parallel and the resulting snapshot is shared by every admin for a few seconds, so the
+ * dashboard costs the database the same whether one or fifty admins have it open.
+ */
+@Service
+public class DashboardService {
+
+    private static final int QUERY_COUNT = 6;
+
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final UserRepository userRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final SingleFlight<LocalDate, DashboardSnapshot> snapshots;
+    private final ExecutorService queryExecutor;
+
+    public DashboardService(BookingRepository bookingRepository,
+                            BoardroomRepository boardroomRepository,
+                            UserRepository userRepository,
+                            AvailabilitySlotRepository availabilitySlotRepository,
+                            @Value("${app.dashboard.snapshot-ttl-ms:5000}") long snapshotTtlMillis) {
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.userRepository = userRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.snapshots = new SingleFlight<>(snapshotTtlMillis);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.queryExecutor = Executors.newFixedThreadPool(QUERY_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Current dashboard snapshot, at most {@code app.dashboard.snapshot-ttl-ms} old
+     */
+    public DashboardSnapshot getSnapshot() {
+        LocalDate today = LocalDate.now();
+        return snapshots.get(today, () -> buildSnapshot(today));
+    }
+
+    /**
+     * Force the next call to rebuild the snapshot
+     */
+    public void invalidate() {
+        snapshots.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdownNow();
+    }
+
+    private DashboardSnapshot buildSnapshot(LocalDate today) {
+        long started = System.nanoTime();
+
+        CompletableFuture<List<Object[]>> bookingCounts = async(bookingRepository::countBookingsGroupedByStatus);
+        CompletableFuture<List<Object[]>> roomCounts = async(boardroomRepository::countActiveBoardroomsGroupedByCapacityType);
+        CompletableFuture<List<Object[]>> userCounts = async(userRepository::countActiveUsersGroupedByRole);
+        CompletableFuture<List<BookingSummary>> todaysBookings =
+                async(() -> bookingRepository.findTodaysBookingSummaries(today));
+        CompletableFuture<List<BlockedSlotSummary>> todaysBlockedSlots =
+                async(() -> availabilitySlotRepository.findTodaysBlockedSlotSummaries(today));
+        CompletableFuture<List<BookingSummary>> pendingBookings =
+                async(() -> bookingRepository.findPendingBookingSummaries(today));
+
+        try {
+            CompletableFuture.allOf(bookingCounts, roomCounts, userCounts,
+                    todaysBookings, todaysBlockedSlots, pendingBookings).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        return new DashboardSnapshot(
+                toCounts(bookingCounts.join(), BookingStatus.class),
+                toCounts(roomCounts.join(), RoomCapacityType.class),
+                toCounts(userCounts.join(), User.UserRole.class),
+                todaysBookings.join(),
+                todaysBlockedSlots.join(),
+                pendingBookings.join(),
+                LocalDateTime.now(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, queryExecutor);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> toCounts(List<Object[]> rows, Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
+        }
+        for (Object[] row : rows) {
+            counts.put(type.cast(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
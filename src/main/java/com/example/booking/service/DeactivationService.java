@@ -0,0 +1,450 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.dto.AuditRecord;
+import com.example.booking.dto.DeactivationResult;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.OutboxEvent;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.AvailabilityBlockRuleRepository;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomAdminRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deactivates and purges users and boardrooms without loading their collections.
+ *
+ * Both entities map their bookings, admin assignments and (for boardrooms) availability
+ * slots with {@code CascadeType.ALL}, so removing one through the entity manager would
+ * load every related row first. Here all changes are set-based statements over chunks of
+ * {@value #CHUNK_SIZE} rows, each chunk in its own transaction, reading only the columns
+ * the audit journal needs.
+ *
+ * Deactivating a user cancels their pending and confirmed bookings that have not ended,
+ * withdraws their waitlist entries and deactivates their admin assignments; meetings in
+ * progress are left to finish. Boardrooms are deactivated through
+ * {@link RoomOutageService#deactivateRoom}, which can also move their bookings. An
+ * inactive user or boardroom without open bookings can then be purged: its bookings with
+ * their details, its slots with their notes, its block rules, waitlist entries and admin
+ * assignments are deleted, and finally its own row. A purge that fails part way leaves
+ * the entity inactive and can simply be run again.
+ *
+ * Bulk statements bypass the entity listeners, so the changes are reported to the audit
+ * journal, the cluster change log and the room change tracker here.
+ */
+@Service
+public class DeactivationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeactivationService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String DEFAULT_REASON = "User account deactivated";
+
+    private final UserRepository userRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final AvailabilityBlockRuleRepository blockRuleRepository;
+    private final BoardroomAdminRepository boardroomAdminRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final AuditJournalService auditJournalService;
+    private final ClusterChangeLog clusterChangeLog;
+    private final RoomChangeTracker roomChangeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public DeactivationService(UserRepository userRepository,
+                               BoardroomRepository boardroomRepository,
+                               BookingRepository bookingRepository,
+                               AvailabilitySlotRepository availabilitySlotRepository,
+                               AvailabilityBlockRuleRepository blockRuleRepository,
+                               BoardroomAdminRepository boardroomAdminRepository,
+                               WaitlistEntryRepository waitlistEntryRepository,
+                               NotificationOutbox notificationOutbox,
+                               AuditJournalService auditJournalService,
+                               ClusterChangeLog clusterChangeLog,
+                               RoomChangeTracker roomChangeTracker,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.blockRuleRepository = blockRuleRepository;
+        this.boardroomAdminRepository = boardroomAdminRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.auditJournalService = auditJournalService;
+        this.clusterChangeLog = clusterChangeLog;
+        this.roomChangeTracker = roomChangeTracker;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Deactivate a user, then cancel their open bookings, withdraw their waitlist entries
+     * and deactivate their admin assignments
+     */
+    public DeactivationResult deactivateUser(Long userId, String reason) {
+        long started = System.nanoTime();
+        int[] counts = transactionTemplate.execute(status -> {
+            if (!userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("User", userId);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            // Bookings are checked against the flag, so none can be added from here on
+            if (userRepository.deactivateById(userId, now) > 0) {
+                clusterChangeLog.record(ChangeEntityType.USER, userId, null);
+            }
+            int withdrawn = waitlistEntryRepository.withdrawWaitingByUserId(userId, now);
+
+            List<Long> assignmentIds = new ArrayList<>();
+            Set<Long> roomIds = new LinkedHashSet<>();
+            for (Object[] row : boardroomAdminRepository.findRowsByUserId(userId)) {
+                if ((Boolean) row[5]) {
+                    assignmentIds.add((Long) row[0]);
+                    roomIds.add((Long) row[2]);
+                }
+            }
+            for (List<Long> chunk : chunks(assignmentIds)) {
+                boardroomAdminRepository.deactivateByIdIn(chunk, now);
+            }
+            for (Long assignmentId : assignmentIds) {
+                auditJournalService.record(AuditRecord.EntityType.BOARDROOM_ADMIN, AuditRecord.Operation.UPDATE,
+                        assignmentId, List.of(new AuditRecord.Change("isActive", "true", "false"), updatedAt(now)));
+            }
+            // Admins are looked up with their rooms
+            roomIds.forEach(roomChangeTracker::markChanged);
+            return new int[]{withdrawn, assignmentIds.size()};
+        });
+        // Outside the transaction, so the admission cache drops the user right away
+        eventPublisher.publishEvent(new ClusterChangeLog.UserChangedEvent(userId));
+
+        String cancellationReason = reason != null ? reason : DEFAULT_REASON;
+        int cancelled = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> cancelOpenBookings(userId, cancellationReason));
+            cancelled += chunk;
+        } while (chunk == CHUNK_SIZE);
+
+        return report(new DeactivationResult("User", userId, false, cancelled, 0, 0, 0, counts[0], counts[1],
+                elapsedMillis(started)), "deactivation");
+    }
+
+    /**
+     * Delete an inactive user without open bookings, with their bookings, waitlist entries
+     * and admin assignments
+     */
+    public DeactivationResult purgeUser(Long userId) {
+        long started = System.nanoTime();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        if (user.isActive()) {
+            throw new IllegalStateException("User " + userId + " must be deactivated before it is purged");
+        }
+        checkNoOpenBookings(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return bookingRepository.countOpenBookingsForUser(userId, now.toLocalDate(), now.toLocalTime());
+        }, "User " + userId);
+
+        int bookings = purgeBookings(page -> bookingRepository.findBookingRowsForUser(userId, page));
+        int[] counts = transactionTemplate.execute(status -> {
+            int waitlistEntries = waitlistEntryRepository.deleteByUserIdInBulk(userId);
+            int assignments = purgeAdminAssignments(boardroomAdminRepository.findRowsByUserId(userId));
+            userRepository.deleteByIdInBulk(userId);
+            clusterChangeLog.record(ChangeEntityType.USER, userId, null);
+            return new int[]{waitlistEntries, assignments};
+        });
+        eventPublisher.publishEvent(new ClusterChangeLog.UserChangedEvent(userId));
+
+        return report(new DeactivationResult("User", userId, true, 0, bookings, 0, 0, counts[0], counts[1],
+                elapsedMillis(started)), "purge");
+    }
+
+    /**
+     * Delete an inactive boardroom without open bookings, with its bookings, slots, block
+     * rules, waitlist entries and admin assignments
+     */
+    public DeactivationResult purgeBoardroom(Long boardroomId) {
+        long started = System.nanoTime();
+        Boardroom boardroom = boardroomRepository.findById(boardroomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Boardroom", boardroomId));
+        if (boardroom.isActive()) {
+            throw new IllegalStateException("Boardroom " + boardroomId + " must be deactivated before it is purged");
+        }
+        checkNoOpenBookings(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return bookingRepository.countOpenBookingsForBoardroom(boardroomId, now.toLocalDate(), now.toLocalTime());
+        }, "Boardroom " + boardroomId);
+
+        int bookings = purgeBookings(page -> bookingRepository.findBookingRowsForBoardroom(boardroomId, page));
+        int slots = purgeSlots(boardroomId);
+        int[] counts = transactionTemplate.execute(status -> {
+            List<Long> ruleIds = blockRuleRepository.findIdsByBoardroomId(boardroomId);
+            blockRuleRepository.deleteByBoardroomIdInBulk(boardroomId);
+            ruleIds.forEach(ruleId -> clusterChangeLog.record(ChangeEntityType.BLOCK_RULE, ruleId, boardroomId));
+            int waitlistEntries = waitlistEntryRepository.deleteByBoardroomIdInBulk(boardroomId);
+            int assignments = purgeAdminAssignments(boardroomAdminRepository.findRowsByBoardroomId(boardroomId));
+            boardroomRepository.deleteByIdInBulk(boardroomId);
+            clusterChangeLog.record(ChangeEntityType.BOARDROOM, boardroomId, boardroomId);
+            roomChangeTracker.markChanged(boardroomId);
+            return new int[]{ruleIds.size(), waitlistEntries, assignments};
+        });
+
+        return report(new DeactivationResult("Boardroom", boardroomId, true, 0, bookings, slots, counts[0],
+                counts[1], counts[2], elapsedMillis(started)), "purge");
+    }
+
+    private int cancelOpenBookings(Long userId, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = bookingRepository.findOpenBookingRowsForUser(userId, now.toLocalDate(),
+                now.toLocalTime(), PageRequest.of(0, CHUNK_SIZE));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<Long> detailsIds = new ArrayList<>(rows.size());
+        Set<Long> roomIds = new LinkedHashSet<>();
+        List<OutboxEvent> notifications = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long bookingId = (Long) row[0];
+            Long roomId = (Long) row[1];
+            LocalDate date = (LocalDate) row[2];
+            LocalTime startTime = (LocalTime) row[3];
+            LocalTime endTime = (LocalTime) row[4];
+            BookingStatus previous = (BookingStatus) row[5];
+            Long detailsId = (Long) row[6];
+            ids.add(bookingId);
+            roomIds.add(roomId);
+
+            auditJournalService.record(AuditRecord.EntityType.BOOKING, AuditRecord.Operation.UPDATE, bookingId,
+                    List.of(new AuditRecord.Change("cancelledAt", null, String.valueOf(now)),
+                            new AuditRecord.Change("status", previous.name(), BookingStatus.CANCELLED.name()),
+                            updatedAt(now)));
+            if (detailsId != null) {
+                detailsIds.add(detailsId);
+                auditJournalService.record(AuditRecord.EntityType.BOOKING_DETAILS, AuditRecord.Operation.UPDATE,
+                        detailsId, List.of(new AuditRecord.Change("cancelledReason", null, reason)));
+            }
+            clusterChangeLog.record(ChangeEntityType.BOOKING, bookingId, roomId);
+            notifications.add(new OutboxEvent(NotificationType.BOOKING_CANCELLED, bookingId, roomId, userId, date,
+                    startTime, endTime));
+            eventPublisher.publishEvent(new WaitlistService.TimeFreedEvent(roomId, date, startTime, endTime));
+            eventPublisher.publishEvent(new BookingTimerService.BookingChangedEvent(bookingId,
+                    BookingStatus.CANCELLED, date, startTime, endTime));
+        }
+        bookingRepository.cancelByIdIn(ids, BookingStatus.CANCELLED, now);
+        if (!detailsIds.isEmpty()) {
+            bookingRepository.updateCancelledReasonByDetailsIdIn(detailsIds, reason);
+        }
+        notificationOutbox.record(notifications);
+        roomIds.forEach(roomChangeTracker::markChanged);
+        return rows.size();
+    }
+
+    /**
+     * Delete the bookings on the first page of the query, one chunk per transaction, until
+     * none are left
+     */
+    private int purgeBookings(Function<Pageable, List<Object[]>> query) {
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Object[]> rows = query.apply(PageRequest.of(0, CHUNK_SIZE));
+                List<Long> ids = new ArrayList<>(rows.size());
+                List<Long> detailsIds = new ArrayList<>(rows.size());
+                Set<Long> roomIds = new LinkedHashSet<>();
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                    roomIds.add((Long) row[1]);
+                    auditDeletedBooking(row);
+                    clusterChangeLog.record(ChangeEntityType.BOOKING, (Long) row[0], (Long) row[1]);
+                    if (row[9] != null) {
+                        detailsIds.add((Long) row[9]);
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                waitlistEntryRepository.clearBookingByBookingIdIn(ids);
+                // Bookings reference their details, so the bookings go first
+                bookingRepository.deleteBookingsByIdIn(ids);
+                if (!detailsIds.isEmpty()) {
+                    bookingRepository.deleteDetailsByIdIn(detailsIds);
+                }
+                roomIds.forEach(roomChangeTracker::markChanged);
+                return ids.size();
+            });
+            deleted += chunk;
+        } while (chunk == CHUNK_SIZE);
+        return deleted;
+    }
+
+    private int purgeSlots(Long boardroomId) {
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Object[]> rows = availabilitySlotRepository.findSlotRowsForBoardroom(boardroomId,
+                        PageRequest.of(0, CHUNK_SIZE));
+                List<Long> ids = new ArrayList<>(rows.size());
+                List<Long> noteIds = new ArrayList<>();
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                    auditDeletedSlot(boardroomId, row);
+                    clusterChangeLog.record(ChangeEntityType.AVAILABILITY_SLOT, (Long) row[0], boardroomId);
+                    if (row[7] != null) {
+                        noteIds.add((Long) row[7]);
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // Slots reference their notes, so the slots go first
+                availabilitySlotRepository.deleteSlotsByIdIn(ids);
+                if (!noteIds.isEmpty()) {
+                    availabilitySlotRepository.deleteSlotNotesByIdIn(noteIds);
+                }
+                roomChangeTracker.markChanged(boardroomId);
+                return ids.size();
+            });
+            deleted += chunk;
+        } while (chunk == CHUNK_SIZE);
+        return deleted;
+    }
+
+    private int purgeAdminAssignments(List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("assignedBy", row[3]);
+            state.put("assignedDate", row[4]);
+            state.put("boardroom", row[2]);
+            state.put("isActive", row[5]);
+            state.put("user", row[1]);
+            auditJournalService.recordDeleted(AuditRecord.EntityType.BOARDROOM_ADMIN, (Long) row[0], state);
+            roomChangeTracker.markChanged((Long) row[2]);
+        }
+        for (List<Long> chunk : chunks(ids)) {
+            boardroomAdminRepository.deleteByIdInBulk(chunk);
+        }
+        return ids.size();
+    }
+
+    private void auditDeletedBooking(Object[] row) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("attendeeCount", row[7]);
+        state.put("boardroom", row[1]);
+        state.put("bookingDate", row[3]);
+        state.put("createdAt", row[8]);
+        state.put("details", row[9]);
+        state.put("endTime", row[5]);
+        state.put("startTime", row[4]);
+        state.put("status", row[6]);
+        state.put("user", row[2]);
+        auditJournalService.recordDeleted(AuditRecord.EntityType.BOOKING, (Long) row[0], state);
+        if (row[9] != null) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("cancelledReason", row[11]);
+            details.put("purpose", row[10]);
+            auditJournalService.recordDeleted(AuditRecord.EntityType.BOOKING_DETAILS, (Long) row[9], details);
+        }
+    }
+
+    private void auditDeletedSlot(Long boardroomId, Object[] row) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("blockedBy", row[5]);
+        state.put("boardroom", boardroomId);
+        state.put("createdAt", row[6]);
+        state.put("date", row[1]);
+        state.put("endTime", row[3]);
+        state.put("isAvailable", row[4]);
+        state.put("notes", row[7]);
+        state.put("startTime", row[2]);
+        auditJournalService.recordDeleted(AuditRecord.EntityType.AVAILABILITY_SLOT, (Long) row[0], state);
+        if (row[7] != null) {
+            Map<String, Object> notes = new LinkedHashMap<>();
+            notes.put("adminNotes", row[8]);
+            notes.put("blockedReason", row[9]);
+            auditJournalService.recordDeleted(AuditRecord.EntityType.AVAILABILITY_SLOT_NOTES, (Long) row[7], notes);
+        }
+    }
+
+    private void checkNoOpenBookings(Supplier<Long> count, String owner) {
+        // A lagging replica could miss a booking made just before the deactivation
+        long open = ReadRouting.onPrimary(count);
+        if (open > 0) {
+            throw new IllegalStateException(owner + " still has " + open + " open bookings");
+        }
+    }
+
+    private DeactivationResult report(DeactivationResult result, String operation) {
+        Timer.builder("booking.deactivation")
+                .description("Time to deactivate or purge a user or boardroom")
+                .tag("entity", result.getEntity().toLowerCase())
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(result.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        Counter.builder("booking.deactivation.rows")
+                .tag("entity", result.getEntity().toLowerCase())
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment(result.getTotalRows());
+        log.info("Completed {} of {} {}: {}", operation, result.getEntity().toLowerCase(), result.getEntityId(), result);
+        return result;
+    }
+
+    private static AuditRecord.Change updatedAt(LocalDateTime now) {
+        return new AuditRecord.Change("updatedAt", null, String.valueOf(now));
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
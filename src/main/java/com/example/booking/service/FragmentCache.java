@@ -0,0 +1,115 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.dto.RenderedFragment;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Output cache for Thymeleaf fragments that depend on a single boardroom.
+ *
+ * Entries are keyed by boardroom, fragment and variant (e.g. the month of a calendar
+ * grid) and stamped with the room's {@link RoomChangeTracker} version at render time. A
+ * fragment is served from the cache as long as the version is unchanged; any change of
+ * the room, its bookings or its slots makes the next request re-render it.
+ *
+ * Fragments are rendered outside of the web request, so they must not use
+ * context-relative link expressions; the {@code contextPath} model variable is provided
+ * for building links instead.
+ */
+@Service
+public class FragmentCache {
+
+    private final ITemplateEngine templateEngine;
+    private final RoomChangeTracker roomChangeTracker;
+    private final String contextPath;
+    private final Map<FragmentKey, CachedFragment> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FragmentCache(ITemplateEngine templateEngine,
+                         RoomChangeTracker roomChangeTracker,
+                         MeterRegistry meterRegistry,
+                         @Value("${server.servlet.context-path:}") String contextPath,
+                         @Value("${app.fragment-cache.max-entries:2000}") int maxEntries) {
+        this.templateEngine = templateEngine;
+        this.roomChangeTracker = roomChangeTracker;
+        this.contextPath = contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FragmentKey, CachedFragment> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        FunctionCounter.builder("booking.fragment.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("booking.fragment.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        Gauge.builder("booking.fragment.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Return the rendered fragment for a boardroom, rendering it only if the room changed
+     * since the cached copy was produced.
+     *
+     * @param boardroomId room whose change version guards the entry
+     * @param template    template name, e.g. {@code fragments/room-card}
+     * @param fragment    fragment selector inside the template
+     * @param variant     additional key part (month of a grid), or {@code null}
+     * @param model       supplies the template variables; only invoked on a miss
+     */
+    public RenderedFragment render(Long boardroomId, String template, String fragment, Object variant,
+                                  Supplier<Map<String, Object>> model) {
+        Locale locale = LocaleContextHolder.getLocale();
+        FragmentKey key = new FragmentKey(boardroomId, template, fragment, variant, locale);
+        // Read the version before the model so a change during rendering is never hidden
+        long version = roomChangeTracker.getVersion(boardroomId);
+
+        CachedFragment cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return cached.fragment();
+        }
+
+        misses.increment();
+        // Cached under the current version, so rendered from the primary rather than a lagging replica
+        String html = ReadRouting.onPrimary(() -> {
+            Map<String, Object> variables = new HashMap<>(model.get());
+            variables.put("contextPath", contextPath);
+            return templateEngine.process(template, Set.of(fragment), new Context(locale, variables));
+        });
+        RenderedFragment rendered = new RenderedFragment(html);
+        entries.put(key, new CachedFragment(version, rendered));
+        return rendered;
+    }
+
+    /**
+     * Drop every cached fragment, e.g. after a template change
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private record FragmentKey(Long boardroomId, String template, String fragment, Object variant, Locale locale) {
+    }
+
+    private record CachedFragment(long version, RenderedFragment fragment) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.StoredResponse;
+import com.example.booking.entity.IdempotencyRecord;
+import com.example.booking.exception.IdempotencyException;
+import com.example.booking.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per idempotency key and replays its response for retries.
+ *
+ * Completed responses are kept in a bounded in-memory LRU map in front of the
+ * {@code idempotency_keys} table, so a retry on the same node is answered from memory
+ * and a retry on another node with one primary key lookup; neither touches the booking
+ * tables. A key is claimed by inserting its row before the request runs: a concurrent
+ * duplicate on any node then fails on the unique constraint and is told to retry later.
+ * If the request throws, the claim is removed so the client can retry. A claim left
+ * unfinished for {@code app.idempotency.claim-timeout-ms}, because its node died, is
+ * taken over by the next retry; the timeout must exceed the slowest request.
+ *
+ * Keys are scoped by caller and operation and expire after {@code app.idempotency.ttl-hours}.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Map<CacheKey, CachedResponse> completed;
+
+    private final Counter executedCounter;
+    private final Counter memoryReplayCounter;
+    private final Counter databaseReplayCounter;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.claim-timeout-ms:60000}") long claimTimeoutMs,
+                              @Value("${app.idempotency.cache.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.executedCounter = Counter.builder("booking.idempotency.requests").tag("result", "executed")
+                .register(meterRegistry);
+        this.memoryReplayCounter = Counter.builder("booking.idempotency.requests").tag("result", "replayed-memory")
+                .register(meterRegistry);
+        this.databaseReplayCounter = Counter.builder("booking.idempotency.requests").tag("result", "replayed-database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the action once for the key, or return the response it produced before.
+     *
+     * @param scope   caller and operation, e.g. {@code alice:cancel}
+     * @param key     client-supplied idempotency key; the action simply runs when null
+     * @param request everything identifying the request, to detect reuse of a key
+     * @param action  the operation; its response body is stored as JSON
+     */
+    public StoredResponse execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return toStored(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        CacheKey cacheKey = new CacheKey(scope, key);
+        String requestHash = hash(request);
+        // Claims are matched by this time when released, so keep it within the column's precision
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        CachedResponse cached = completed.get(cacheKey);
+        if (cached != null && !now.isAfter(cached.expiresAt())) {
+            checkSameRequest(cached.requestHash(), requestHash);
+            memoryReplayCounter.increment();
+            return cached.response().asReplay();
+        }
+
+        Optional<StoredResponse> stored = findCompleted(cacheKey, requestHash, now);
+        if (stored.isPresent()) {
+            databaseReplayCounter.increment();
+            return stored.get();
+        }
+
+        IdempotencyRecord claim;
+        try {
+            claim = claim(cacheKey, requestHash, now);
+        } catch (DataIntegrityViolationException e) {
+            // Claimed concurrently on this or another node: replay it if it has finished
+            StoredResponse replay = findCompleted(cacheKey, requestHash, now)
+                    .orElseThrow(() -> new IdempotencyException(
+                            "A request with this idempotency key is still being processed", true));
+            databaseReplayCounter.increment();
+            return replay;
+        }
+
+        StoredResponse response;
+        try {
+            response = toStored(action.get(), false);
+        } catch (RuntimeException e) {
+            newTransaction.executeWithoutResult(status -> repository.deleteClaim(claim.getId(), claim.getClaimedAt()));
+            throw e;
+        }
+        newTransaction.executeWithoutResult(status -> {
+            IdempotencyRecord record = repository.findById(claim.getId()).orElse(claim);
+            record.setResponseStatus(response.getStatus());
+            record.setResponseBody(response.getBody());
+            repository.save(record);
+        });
+        completed.put(cacheKey, new CachedResponse(requestHash, response, claim.getExpiresAt()));
+        executedCounter.increment();
+        return response;
+    }
+
+    /**
+     * Remove expired keys from the table and the cache
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        completed.values().removeIf(cached -> now.isAfter(cached.expiresAt()));
+        Integer deleted = newTransaction.execute(status -> repository.deleteExpired(now));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Optional<StoredResponse> findCompleted(CacheKey cacheKey, String requestHash, LocalDateTime now) {
+        Optional<IdempotencyRecord> found = repository.findByScopeAndIdempotencyKey(cacheKey.scope(), cacheKey.key());
+        if (found.isEmpty() || found.get().isExpired(now)) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = found.get();
+        checkSameRequest(record.getRequestHash(), requestHash);
+        if (!record.isCompleted()) {
+            if (record.isClaimedBefore(now.minus(claimTimeout))) {
+                // Abandoned by a node that died mid-request: the caller may take the claim over
+                return Optional.empty();
+            }
+            throw new IdempotencyException("A request with this idempotency key is still being processed", true);
+        }
+        StoredResponse response = new StoredResponse(record.getResponseStatus(), record.getResponseBody(), true);
+        completed.put(cacheKey, new CachedResponse(record.getRequestHash(), response, record.getExpiresAt()));
+        return Optional.of(response);
+    }
+
+    private IdempotencyRecord claim(CacheKey cacheKey, String requestHash, LocalDateTime now) {
+        return newTransaction.execute(status -> {
+            Optional<IdempotencyRecord> existing =
+                    repository.findByScopeAndIdempotencyKey(cacheKey.scope(), cacheKey.key());
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (record.isExpired(now)) {
+                    // An expired record may still be in the table until the next purge
+                    repository.delete(record);
+                    repository.flush();
+                } else if (repository.takeOverClaim(record.getId(), now.minus(claimTimeout), now) == 1) {
+                    log.warn("Took over idempotency key {} of {} claimed at {}", cacheKey.key(), cacheKey.scope(),
+                            record.getClaimedAt());
+                    record.setClaimedAt(now);
+                    return record;
+                }
+            }
+            IdempotencyRecord record = new IdempotencyRecord(cacheKey.scope(), cacheKey.key(), requestHash,
+                    now.plus(ttl));
+            record.setClaimedAt(now);
+            return repository.saveAndFlush(record);
+        });
+    }
+
+    private StoredResponse toStored(ResponseEntity<?> entity, boolean replayed) {
+        try {
+            String body = entity.getBody() != null ? objectMapper.writeValueAsString(entity.getBody()) : null;
+            return new StoredResponse(entity.getStatusCode().value(), body, replayed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response", e);
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyException("Idempotency key was already used for a different request", false);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private record CacheKey(String scope, String key) {
+    }
+
+    private record CachedResponse(String requestHash, StoredResponse response, LocalDateTime expiresAt) {
+    }
+}
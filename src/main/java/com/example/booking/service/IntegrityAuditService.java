@@ -0,0 +1,272 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.IntegrityConflict;
+import com.example.booking.dto.IntegrityConflict.ConflictType;
+import com.example.booking.dto.IntegrityReport;
+import com.example.booking.dto.ScheduledInterval;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Finds overlapping bookings, overlapping availability slots and bookings that fall inside
+ * a blocked slot.
+ *
+ * Active bookings and slots are streamed from the database already ordered by
+ * (boardroom, date, start time) and merged into one sequence. A sweep line over that
+ * sequence only has to remember, per (boardroom, date), the row of each kind that ends
+ * latest: a row overlaps something earlier exactly when it starts before that end. The
+ * audit is therefore a single linear pass with constant memory per room-day, instead of
+ * the self-join in {@code AvailabilitySlotRepository.findConflictingSlots}. Each
+ * conflicting row is reported at least once, paired with the earlier row reaching
+ * furthest past its start.
+ *
+ * Incremental runs only re-check the room-days that have rows created or modified since
+ * the given time.
+ *
+ * Each audit streams its rows inside its own read-only transaction, so the scheduled runs
+ * work the same as calls from outside.
+ */
+@Service
+public class IntegrityAuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(IntegrityAuditService.class);
+
+    private static final Comparator<ScheduledInterval> SWEEP_ORDER =
+            Comparator.comparing(ScheduledInterval::getBoardroomId)
+                    .thenComparing(ScheduledInterval::getDate)
+                    .thenComparing(ScheduledInterval::getStartTime);
+
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean scheduleEnabled;
+
+    private volatile LocalDateTime lastIncrementalRun;
+
+    public IntegrityAuditService(BookingRepository bookingRepository,
+                                 AvailabilitySlotRepository availabilitySlotRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.integrity-audit.enabled:true}") boolean scheduleEnabled) {
+        this.bookingRepository = bookingRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.scheduleEnabled = scheduleEnabled;
+    }
+
+    /**
+     * Audit every booking and slot
+     */
+    public IntegrityReport auditAll() {
+        return readOnlyTransaction.execute(status -> sweepAll());
+    }
+
+    /**
+     * Audit only the room-days with a booking or slot created or modified since the
+     * given time
+     */
+    public IntegrityReport auditChangedSince(LocalDateTime since) {
+        return readOnlyTransaction.execute(status -> sweepChangedSince(since));
+    }
+
+    private IntegrityReport sweepAll() {
+        long started = System.nanoTime();
+        try (Stream<ScheduledInterval> bookings = bookingRepository.streamActiveBookingIntervals();
+             Stream<ScheduledInterval> slots = availabilitySlotRepository.streamSlotIntervals()) {
+            Sweep sweep = new Sweep(roomDay -> true);
+            sweep.run(bookings.iterator(), slots.iterator());
+            return sweep.report(null, started);
+        }
+    }
+
+    private IntegrityReport sweepChangedSince(LocalDateTime since) {
+        long started = System.nanoTime();
+        Set<RoomDay> changed = new HashSet<>();
+        bookingRepository.findRoomDaysChangedSince(since).forEach(row -> changed.add(RoomDay.of(row)));
+        availabilitySlotRepository.findRoomDaysChangedSince(since).forEach(row -> changed.add(RoomDay.of(row)));
+        if (changed.isEmpty()) {
+            return new IntegrityReport(since, 0, 0, List.of(), (System.nanoTime() - started) / 1_000_000);
+        }
+
+        Set<Long> roomIds = new HashSet<>();
+        LocalDate startDate = LocalDate.MAX;
+        LocalDate endDate = LocalDate.MIN;
+        for (RoomDay roomDay : changed) {
+            roomIds.add(roomDay.boardroomId());
+            startDate = roomDay.date().isBefore(startDate) ? roomDay.date() : startDate;
+            endDate = roomDay.date().isAfter(endDate) ? roomDay.date() : endDate;
+        }
+
+        try (Stream<ScheduledInterval> bookings =
+                     bookingRepository.streamActiveBookingIntervalsForBoardrooms(roomIds, startDate, endDate);
+             Stream<ScheduledInterval> slots =
+                     availabilitySlotRepository.streamSlotIntervalsForBoardrooms(roomIds, startDate, endDate)) {
+            Sweep sweep = new Sweep(changed::contains);
+            sweep.run(bookings.iterator(), slots.iterator());
+            return sweep.report(since, started);
+        }
+    }
+
+    /**
+     * Nightly full audit
+     */
+    @Scheduled(cron = "${app.integrity-audit.full-cron:0 30 2 * * *}")
+    public void scheduledFullAudit() {
+        if (scheduleEnabled) {
+            logReport(auditAll());
+        }
+    }
+
+    /**
+     * Frequent audit of everything changed since the previous run
+     */
+    @Scheduled(fixedDelayString = "${app.integrity-audit.incremental-interval-ms:300000}",
+            initialDelayString = "${app.integrity-audit.incremental-interval-ms:300000}")
+    public void scheduledIncrementalAudit() {
+        if (!scheduleEnabled) {
+            return;
+        }
+        LocalDateTime runStarted = LocalDateTime.now();
+        LocalDateTime since = lastIncrementalRun != null ? lastIncrementalRun : runStarted.minusDays(1);
+        logReport(auditChangedSince(since));
+        lastIncrementalRun = runStarted;
+    }
+
+    private void logReport(IntegrityReport report) {
+        if (report.isClean()) {
+            log.info("Integrity audit clean: {}", report);
+            return;
+        }
+        log.warn("Integrity audit found {} conflicts: {}", report.getConflicts().size(), report);
+        report.getConflictsByRoomAndDate().forEach((roomId, byDate) ->
+                byDate.forEach((date, conflicts) ->
+                        log.warn("Boardroom {} on {}: {}", roomId, date, conflicts)));
+    }
+
+    /**
+     * One pass over the merged booking and slot sequences
+     */
+    private final class Sweep {
+
+        private final Predicate<RoomDay> included;
+        private final List<IntegrityConflict> conflicts = new ArrayList<>();
+        private long bookingsScanned;
+        private long slotsScanned;
+
+        private RoomDay current;
+        private boolean currentIncluded;
+        private ScheduledInterval latestBooking;
+        private ScheduledInterval latestSlot;
+        private ScheduledInterval latestBlock;
+
+        Sweep(Predicate<RoomDay> included) {
+            this.included = included;
+        }
+
+        void run(Iterator<ScheduledInterval> bookings, Iterator<ScheduledInterval> slots) {
+            ScheduledInterval nextBooking = next(bookings);
+            ScheduledInterval nextSlot = next(slots);
+            while (nextBooking != null || nextSlot != null) {
+                if (nextSlot == null || (nextBooking != null && SWEEP_ORDER.compare(nextBooking, nextSlot) <= 0)) {
+                    bookingsScanned++;
+                    visitBooking(nextBooking);
+                    nextBooking = next(bookings);
+                } else {
+                    slotsScanned++;
+                    visitSlot(nextSlot);
+                    nextSlot = next(slots);
+                }
+            }
+        }
+
+        private void visitBooking(ScheduledInterval booking) {
+            if (!enter(booking)) {
+                return;
+            }
+            if (startsBeforeEndOf(booking, latestBooking)) {
+                conflicts.add(new IntegrityConflict(ConflictType.BOOKING_OVERLAP, latestBooking, booking));
+            }
+            if (startsBeforeEndOf(booking, latestBlock)) {
+                conflicts.add(new IntegrityConflict(ConflictType.BOOKING_IN_BLOCKED_SLOT, latestBlock, booking));
+            }
+            latestBooking = later(latestBooking, booking);
+        }
+
+        private void visitSlot(ScheduledInterval slot) {
+            if (!enter(slot)) {
+                return;
+            }
+            if (startsBeforeEndOf(slot, latestSlot)) {
+                conflicts.add(new IntegrityConflict(ConflictType.SLOT_OVERLAP, latestSlot, slot));
+            }
+            if (slot.isBlocked()) {
+                if (startsBeforeEndOf(slot, latestBooking)) {
+                    conflicts.add(new IntegrityConflict(ConflictType.BOOKING_IN_BLOCKED_SLOT, slot, latestBooking));
+                }
+                latestBlock = later(latestBlock, slot);
+            }
+            latestSlot = later(latestSlot, slot);
+        }
+
+        /**
+         * Reset the sweep state when the row starts a new room-day; false if the room-day
+         * is outside the audited set
+         */
+        private boolean enter(ScheduledInterval interval) {
+            if (current == null || !current.boardroomId().equals(interval.getBoardroomId()) ||
+                    !current.date().equals(interval.getDate())) {
+                current = new RoomDay(interval.getBoardroomId(), interval.getDate());
+                currentIncluded = included.test(current);
+                latestBooking = null;
+                latestSlot = null;
+                latestBlock = null;
+            }
+            return currentIncluded;
+        }
+
+        IntegrityReport report(LocalDateTime since, long started) {
+            return new IntegrityReport(since, bookingsScanned, slotsScanned, conflicts,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private static ScheduledInterval next(Iterator<ScheduledInterval> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static boolean startsBeforeEndOf(ScheduledInterval interval, ScheduledInterval earlier) {
+        return earlier != null && interval.getStartTime().isBefore(earlier.getEndTime());
+    }
+
+    private static ScheduledInterval later(ScheduledInterval latest, ScheduledInterval candidate) {
+        if (latest == null) {
+            return candidate;
+        }
+        return candidate.getEndTime().isAfter(latest.getEndTime()) ? candidate : latest;
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+
+        static RoomDay of(Object[] row) {
+            return new RoomDay((Long) row[0], (LocalDate) row[1]);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.Notification;
+import com.example.booking.dto.NotificationDigest;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.BoardroomAdmin;
+import com.example.booking.entity.OutboxDelivery;
+import com.example.booking.entity.OutboxEvent;
+import com.example.booking.entity.User;
+import com.example.booking.notification.NotificationSender;
+import com.example.booking.repository.BoardroomAdminRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.OutboxDeliveryRepository;
+import com.example.booking.repository.OutboxEventRepository;
+import com.example.booking.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the notification outbox in the background.
+ *
+ * Each run locks a batch of the oldest undispatched events, skipping rows another node is
+ * dispatching, and resolves their recipients with one query each for rooms, users and
+ * room admins. The events are then grouped per recipient, so someone affected by several
+ * changes since the last run gets one digest instead of one message per change. Events
+ * whose digests were all delivered are marked dispatched; the others are retried on the
+ * next run, up to {@code app.notifications.max-attempts} times. For those, the recipients
+ * already notified are recorded as {@link OutboxDelivery} rows and left out of the retry.
+ *
+ * Rooms without an assigned admin notify the global administrators instead.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final BoardroomAdminRepository boardroomAdminRepository;
+    private final UserRepository userRepository;
+    private final NotificationSender sender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final AtomicLong undispatched = new AtomicLong();
+    private final AtomicLong oldestUndispatchedMillis = new AtomicLong();
+    private final Timer lagTimer;
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Counter digestCounter;
+
+    public NotificationDispatcher(OutboxEventRepository outboxEventRepository,
+                                  OutboxDeliveryRepository outboxDeliveryRepository,
+                                  BoardroomRepository boardroomRepository,
+                                  BoardroomAdminRepository boardroomAdminRepository,
+                                  UserRepository userRepository,
+                                  NotificationSender sender,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.batch-size:200}") int batchSize,
+                                  @Value("${app.notifications.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.notifications.retention-days:7}") long retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.boardroomAdminRepository = boardroomAdminRepository;
+        this.userRepository = userRepository;
+        this.sender = sender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofDays(retentionDays);
+
+        this.lagTimer = Timer.builder("booking.notifications.lag")
+                .description("Time from a booking change to the delivery of its notifications")
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("booking.notifications.events").tag("outcome", "dispatched")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.notifications.events").tag("outcome", "failed")
+                .register(meterRegistry);
+        this.digestCounter = Counter.builder("booking.notifications.digests").register(meterRegistry);
+        Gauge.builder("booking.notifications.undispatched", undispatched, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("booking.notifications.oldest-undispatched-age", oldestUndispatchedMillis, AtomicLong::get)
+                .description("Age of the oldest notification waiting in the outbox after the last dispatch run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Dispatch batches until the outbox is drained or a batch fails
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch-interval-ms:5000}")
+    public void dispatchPending() {
+        try {
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize);
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                outboxEventRepository.abandonFailed(maxAttempts, now);
+                undispatched.set(outboxEventRepository.countUndispatched());
+                LocalDateTime oldest = outboxEventRepository.findOldestUndispatchedCreatedAt();
+                oldestUndispatchedMillis.set(oldest != null ? Duration.between(oldest, now).toMillis() : 0);
+            });
+        } catch (RuntimeException e) {
+            log.error("Notification dispatch failed", e);
+        }
+    }
+
+    /**
+     * Delete dispatched events past the retention period
+     */
+    @Scheduled(cron = "${app.notifications.purge-cron:0 15 3 * * *}")
+    public void purgeDispatched() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> {
+            outboxDeliveryRepository.deleteForEventsDispatchedBefore(before);
+            return outboxEventRepository.deleteDispatchedBefore(before);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} dispatched notification events", deleted);
+        }
+    }
+
+    /**
+     * Deliver one batch; returns the number of events marked dispatched
+     */
+    int dispatchBatch() {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.lockUndispatched(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<Long> eventIds = events.stream().map(OutboxEvent::getId).toList();
+            Set<Delivery> previouslyDelivered = new HashSet<>();
+            for (OutboxDelivery delivery : outboxDeliveryRepository.findByEventIds(eventIds)) {
+                previouslyDelivered.add(new Delivery(delivery.getEventId(), delivery.getUserId()));
+            }
+            Map<Long, Recipient> digests = groupByRecipient(events, previouslyDelivered);
+
+            Set<Long> failedEvents = new HashSet<>();
+            List<Delivery> deliveries = new ArrayList<>();
+            String lastError = null;
+            for (Recipient recipient : digests.values()) {
+                try {
+                    sender.send(recipient.toDigest());
+                    digestCounter.increment();
+                    recipient.events.forEach(event -> deliveries.add(new Delivery(event.getId(),
+                            recipient.user.getId())));
+                } catch (Exception e) {
+                    log.warn("Could not notify user {}: {}", recipient.user.getId(), e.getMessage());
+                    recipient.events.forEach(event -> failedEvents.add(event.getId()));
+                    lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> delivered = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                if (!failedEvents.contains(event.getId())) {
+                    delivered.add(event.getId());
+                    lagTimer.record(Duration.between(event.getCreatedAt(), now));
+                }
+            }
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markDispatched(delivered, now);
+                if (!previouslyDelivered.isEmpty()) {
+                    outboxDeliveryRepository.deleteByEventIds(delivered);
+                }
+            }
+            if (!failedEvents.isEmpty()) {
+                outboxEventRepository.markFailed(failedEvents, truncate(lastError));
+                // Recipients of a failed event who got it now are not sent it again on the retry
+                outboxDeliveryRepository.saveAll(deliveries.stream()
+                        .filter(delivery -> failedEvents.contains(delivery.eventId()))
+                        .map(delivery -> new OutboxDelivery(delivery.eventId(), delivery.userId(), now))
+                        .toList());
+            }
+            dispatchedCounter.increment(delivered.size());
+            failedCounter.increment(failedEvents.size());
+            return failedEvents.isEmpty() ? delivered.size() : 0;
+        });
+        return dispatched != null ? dispatched : 0;
+    }
+
+    private Map<Long, Recipient> groupByRecipient(List<OutboxEvent> events, Set<Delivery> previouslyDelivered) {
+        Set<Long> roomIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            roomIds.add(event.getBoardroomId());
+            userIds.add(event.getUserId());
+        }
+
+        Map<Long, Boardroom> rooms = new HashMap<>();
+        boardroomRepository.findAllById(roomIds).forEach(room -> rooms.put(room.getId(), room));
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        Map<Long, List<User>> adminsByRoom = new HashMap<>();
+        for (BoardroomAdmin admin : boardroomAdminRepository.findActiveAdminsForBoardrooms(roomIds)) {
+            adminsByRoom.computeIfAbsent(admin.getBoardroom().getId(), id -> new ArrayList<>()).add(admin.getUser());
+        }
+        List<User> globalAdmins = null;
+
+        Map<Long, Recipient> recipients = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            User booker = users.get(event.getUserId());
+            Boardroom room = rooms.get(event.getBoardroomId());
+            Notification notification = new Notification(event.getType(), event.getBookingId(),
+                    room != null ? room.getName() : "Boardroom " + event.getBoardroomId(),
+                    booker != null ? booker.getFullName() : "User " + event.getUserId(),
+                    event.getBookingDate(), event.getStartTime(), event.getEndTime(), event.getCreatedAt());
+
+            List<User> targets = new ArrayList<>();
+            if (event.getType().notifiesBooker() && booker != null) {
+                targets.add(booker);
+            }
+            if (event.getType().notifiesRoomAdmins()) {
+                List<User> admins = adminsByRoom.get(event.getBoardroomId());
+                if (admins == null) {
+                    if (globalAdmins == null) {
+                        globalAdmins = userRepository.findByRoleAndIsActiveTrue(User.UserRole.GLOBAL_ADMIN);
+                    }
+                    admins = globalAdmins;
+                }
+                targets.addAll(admins);
+            }
+            for (User target : targets) {
+                if (previouslyDelivered.contains(new Delivery(event.getId(), target.getId()))) {
+                    continue;
+                }
+                recipients.computeIfAbsent(target.getId(), id -> new Recipient(target)).add(event, notification);
+            }
+        }
+        return recipients;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private record Delivery(Long eventId, Long userId) {
+    }
+
+    private static final class Recipient {
+        final User user;
+        final List<OutboxEvent> events = new ArrayList<>();
+        final List<Notification> notifications = new ArrayList<>();
+
+        Recipient(User user) {
+            this.user = user;
+        }
+
+        void add(OutboxEvent event, Notification notification) {
+            events.add(event);
+            notifications.add(notification);
+        }
+
+        NotificationDigest toDigest() {
+            return new NotificationDigest(user.getId(), user.getFullName(), user.getEmail(), notifications);
+        }
+    }
+}
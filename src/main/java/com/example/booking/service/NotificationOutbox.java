@@ -0,0 +1,42 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.OutboxEvent;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records booking changes to notify about in the notification outbox. Must be called in
+ * the transaction that makes the change, so the notification is stored if and only if
+ * the change commits; delivery is left to {@link NotificationDispatcher}.
+ */
+@Component
+public class NotificationOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public NotificationOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Record a change of a booking that has already been saved
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(NotificationType type, Booking booking) {
+        outboxEventRepository.save(new OutboxEvent(type, booking));
+    }
+
+    /**
+     * Record changes made by bulk statements, inserted in batches
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<OutboxEvent> events) {
+        outboxEventRepository.saveAll(events);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.booking.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * File of room-day occupancy bitmaps saved by {@link OccupancyState}, memory-mapped while
+ * in use.
+ *
+ * The file starts with a magic number, a format version, the high-water mark in epoch
+ * milliseconds and the record count. Records have a fixed size: boardroom id, epoch day,
+ * a valid flag, then the booked and the blocked bitmap as {@value #WORDS} longs each. A
+ * snapshot is written to a temporary file, forced to disk and moved over the previous
+ * one, so the file is always complete. Afterwards only the valid flags change, cleared in
+ * place through the mapping when a room changes.
+ */
+public class OccupancySnapshot implements AutoCloseable {
+
+    public static final int WORDS = (24 * 60 + 63) / 64;
+
+    private static final int MAGIC = 0x4f434353;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int RECORD_BYTES = 8 + 4 + 4 + 2 * WORDS * 8;
+    private static final int VALID_OFFSET = 8 + 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long highWaterMark;
+    private final int count;
+    private final Map<Long, List<Integer>> recordsByRoom = new HashMap<>();
+
+    private OccupancySnapshot(FileChannel channel, MappedByteBuffer buffer, long highWaterMark, int count) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.highWaterMark = highWaterMark;
+        this.count = count;
+        for (int i = 0; i < count; i++) {
+            recordsByRoom.computeIfAbsent(buffer.getLong(offsetOf(i)), id -> new ArrayList<>()).add(i);
+        }
+    }
+
+    /**
+     * Replace the snapshot file with the given days, then open it
+     */
+    public static OccupancySnapshot write(Path file, long highWaterMark, List<Day> days) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC).putInt(VERSION).putLong(highWaterMark).putInt(days.size());
+                writeFully(out, header.flip());
+                ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+                for (Day day : days) {
+                    record.clear();
+                    record.putLong(day.boardroomId()).putInt((int) day.date().toEpochDay()).putInt(1);
+                    for (long word : day.booked()) {
+                        record.putLong(word);
+                    }
+                    for (long word : day.blocked()) {
+                        record.putLong(word);
+                    }
+                    writeFully(out, record.flip());
+                }
+                out.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return open(file);
+    }
+
+    /**
+     * Map an existing snapshot file
+     */
+    public static OccupancySnapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Occupancy snapshot " + file + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Occupancy snapshot " + file + " has an unknown format");
+            }
+            int count = buffer.getInt(16);
+            if (size != HEADER_BYTES + (long) count * RECORD_BYTES) {
+                throw new IOException("Occupancy snapshot " + file + " is truncated");
+            }
+            return new OccupancySnapshot(channel, buffer, buffer.getLong(8), count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * When the snapshot was taken, in epoch milliseconds
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Pass every day still valid to the consumer
+     */
+    public synchronized void forEach(Consumer<Day> consumer) {
+        for (int i = 0; i < count; i++) {
+            int offset = offsetOf(i);
+            if (buffer.getInt(offset + VALID_OFFSET) == 0) {
+                continue;
+            }
+            long[] booked = new long[WORDS];
+            long[] blocked = new long[WORDS];
+            int position = offset + VALID_OFFSET + 4;
+            for (int word = 0; word < WORDS; word++, position += 8) {
+                booked[word] = buffer.getLong(position);
+            }
+            for (int word = 0; word < WORDS; word++, position += 8) {
+                blocked[word] = buffer.getLong(position);
+            }
+            consumer.accept(new Day(buffer.getLong(offset), LocalDate.ofEpochDay(buffer.getInt(offset + 8)),
+                    booked, blocked));
+        }
+    }
+
+    /**
+     * Mark every day of the room as outdated
+     */
+    public synchronized void invalidate(Long boardroomId) {
+        List<Integer> records = recordsByRoom.remove(boardroomId);
+        if (records != null) {
+            for (int record : records) {
+                buffer.putInt(offsetOf(record) + VALID_OFFSET, 0);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The mapping stays usable until collected; nothing left to release
+        }
+    }
+
+    private static int offsetOf(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            out.write(source);
+        }
+    }
+
+    /**
+     * Occupancy of one room-day, one bit per minute
+     */
+    public record Day(long boardroomId, LocalDate date, long[] booked, long[] blocked) {
+    }
+}
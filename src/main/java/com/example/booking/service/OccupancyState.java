@@ -0,0 +1,448 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.dto.PendingBooking;
+import com.example.booking.dto.ScheduledInterval;
+import com.example.booking.repository.AvailabilityBlockRuleRepository;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.util.TimeInterval;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Minute-resolution occupancy of each (boardroom, date), used by the write-behind
+ * pipeline to admit bookings without a database round trip. Only present, like
+ * {@link WriteBehindBookingService}, when {@code app.booking.write-behind.enabled} is set.
+ *
+ * A room-day is loaded on first use from its pending, confirmed and in-progress bookings,
+ * its blocked slots and its block rules, into two bitmaps of 1440 bits: one for booked and
+ * one for blocked minutes. Bookings admitted afterwards are marked in memory and tracked
+ * as pending writes until the writer has stored them. Any other change of the room drops
+ * its loaded days, so they are rebuilt from the database plus the pending writes.
+ *
+ * Admission is only safe under the {@link RoomDayLocks} lock of the room-day.
+ *
+ * Loaded days without pending writes are saved to an {@link OccupancySnapshot} every
+ * {@code app.occupancy.snapshot.interval-ms} and on shutdown, and mapped back in on
+ * startup. A saved day is dropped, to be rebuilt on first use, when a booking or slot of
+ * that room-day or a block rule of the room was created or modified after the snapshot's
+ * high-water mark, when the cluster change log has the room changed since, or when this
+ * node changed the room after saving it; the latter clears the day in the mapped file
+ * right away, which also covers deletions and crashes. The high-water mark is the time
+ * the snapshot was taken, less {@code app.occupancy.snapshot.replay-margin-ms} for
+ * transactions still open then and for the cluster change log's polling delay.
+ */
+@Component
+@ConditionalOnProperty(name = "app.booking.write-behind.enabled", havingValue = "true")
+public class OccupancyState {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyState.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final AvailabilityBlockRuleRepository blockRuleRepository;
+    private final BlockRuleService blockRuleService;
+    private final ClusterChangeLog clusterChangeLog;
+    private final boolean snapshotEnabled;
+    private final Path snapshotFile;
+    private final Duration replayMargin;
+
+    private final Map<RoomDay, DayOccupancy> days = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Map<Long, Set<PendingBooking>>> pendingByDate = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> epochs = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> ownWrites = ThreadLocal.withInitial(() -> false);
+
+    private final Object snapshotLock = new Object();
+    private OccupancySnapshot snapshot;
+
+    public OccupancyState(BookingRepository bookingRepository,
+                          AvailabilitySlotRepository availabilitySlotRepository,
+                          AvailabilityBlockRuleRepository blockRuleRepository,
+                          BlockRuleService blockRuleService,
+                          ClusterChangeLog clusterChangeLog,
+                          @Value("${app.occupancy.snapshot.enabled:true}") boolean snapshotEnabled,
+                          @Value("${app.occupancy.snapshot.file:data/occupancy.snapshot}") String snapshotFile,
+                          @Value("${app.occupancy.snapshot.replay-margin-ms:300000}") long replayMarginMillis) {
+        this.bookingRepository = bookingRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.blockRuleRepository = blockRuleRepository;
+        this.blockRuleService = blockRuleService;
+        this.clusterChangeLog = clusterChangeLog;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotFile = Path.of(snapshotFile);
+        this.replayMargin = Duration.ofMillis(replayMarginMillis);
+
+        if (snapshotEnabled) {
+            // Replaying against a lagging replica would keep days it has not seen change
+            ReadRouting.onPrimary(this::loadSnapshot);
+        }
+    }
+
+    /**
+     * Mark the booking's range as booked if it is neither booked nor blocked, and track it
+     * as a pending write. The caller must hold the room-day lock.
+     */
+    public boolean tryAdmit(PendingBooking booking) {
+        RoomDay key = new RoomDay(booking.getBoardroomId(), booking.getDate());
+        DayOccupancy day = load(key);
+        int from = minuteOf(booking.getStartTime());
+        int to = endMinuteOf(booking.getEndTime());
+        if (day.booked.intersects(from, to) || day.blocked.intersects(from, to)) {
+            return false;
+        }
+        day.booked.set(from, to);
+        pendingByDate.compute(booking.getDate(), (date, rooms) -> {
+            Map<Long, Set<PendingBooking>> byRoom = rooms != null ? rooms : new ConcurrentHashMap<>();
+            byRoom.computeIfAbsent(booking.getBoardroomId(), id -> ConcurrentHashMap.newKeySet()).add(booking);
+            return byRoom;
+        });
+        return true;
+    }
+
+    /**
+     * The booking's row has been committed
+     */
+    public void persisted(PendingBooking booking) {
+        removePending(booking);
+    }
+
+    /**
+     * The booking could not be stored; free its range
+     */
+    public void failed(PendingBooking booking) {
+        removePending(booking);
+        days.remove(new RoomDay(booking.getBoardroomId(), booking.getDate()));
+    }
+
+    /**
+     * Check if an accepted, not yet stored booking overlaps the time range
+     */
+    public boolean hasPendingWrite(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        Map<Long, Set<PendingBooking>> rooms = pendingByDate.get(date);
+        Set<PendingBooking> pending = rooms != null ? rooms.get(boardroomId) : null;
+        return pending != null && pending.stream().anyMatch(booking -> booking.overlaps(startTime, endTime));
+    }
+
+    /**
+     * IDs of boardrooms with an accepted, not yet stored booking overlapping the time range
+     */
+    public Set<Long> findBoardroomsWithPendingWrites(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        Map<Long, Set<PendingBooking>> rooms = pendingByDate.get(date);
+        if (rooms == null) {
+            return Set.of();
+        }
+        Set<Long> boardroomIds = new HashSet<>();
+        rooms.forEach((boardroomId, pending) -> {
+            if (pending.stream().anyMatch(booking -> booking.overlaps(startTime, endTime))) {
+                boardroomIds.add(boardroomId);
+            }
+        });
+        return boardroomIds;
+    }
+
+    public int getPendingWriteCount() {
+        int count = 0;
+        for (Map<Long, Set<PendingBooking>> rooms : pendingByDate.values()) {
+            for (Set<PendingBooking> pending : rooms.values()) {
+                count += pending.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run the writer's transaction; the room changes it causes are already reflected in
+     * memory and must not drop the loaded days
+     */
+    public <T> T storingOwnWrites(Supplier<T> action) {
+        ownWrites.set(true);
+        try {
+            return action.get();
+        } finally {
+            ownWrites.remove();
+        }
+    }
+
+    @EventListener(RoomChangeTracker.RoomChangedEvent.class)
+    public void onRoomChanged(RoomChangeTracker.RoomChangedEvent event) {
+        if (ownWrites.get() || event.boardroomId() == null) {
+            return;
+        }
+        epochs.computeIfAbsent(event.boardroomId(), id -> new AtomicLong()).incrementAndGet();
+        days.keySet().removeIf(key -> key.boardroomId().equals(event.boardroomId()));
+        synchronized (snapshotLock) {
+            if (snapshot != null) {
+                snapshot.invalidate(event.boardroomId());
+            }
+        }
+    }
+
+    /**
+     * Save the loaded days without pending writes
+     */
+    @Scheduled(fixedDelayString = "${app.occupancy.snapshot.interval-ms:300000}",
+            initialDelayString = "${app.occupancy.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        long taken = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Map<Long, Long> epochsBefore = new HashMap<>();
+        List<OccupancySnapshot.Day> saved = new ArrayList<>();
+        days.forEach((key, day) -> {
+            if (key.date().isBefore(today)) {
+                return;
+            }
+            epochsBefore.computeIfAbsent(key.boardroomId(), this::epochOf);
+            long[] booked = day.booked.copyWords();
+            long[] blocked = day.blocked.copyWords();
+            // Bits of pending or failed admissions may have been copied; such days are skipped
+            if (days.get(key) == day && !hasPendingWrites(key)) {
+                saved.add(new OccupancySnapshot.Day(key.boardroomId(), key.date(), booked, blocked));
+            }
+        });
+
+        synchronized (snapshotLock) {
+            try {
+                OccupancySnapshot written = OccupancySnapshot.write(snapshotFile, taken, saved);
+                if (snapshot != null) {
+                    snapshot.close();
+                }
+                snapshot = written;
+            } catch (IOException e) {
+                log.warn("Cannot write occupancy snapshot {}: {}", snapshotFile, e.getMessage());
+                return;
+            }
+            // Rooms that changed while copying were invalidated in the previous file
+            epochsBefore.forEach((boardroomId, epoch) -> {
+                if (epochOf(boardroomId) != epoch) {
+                    snapshot.invalidate(boardroomId);
+                }
+            });
+        }
+        log.debug("Saved {} room-days to occupancy snapshot", saved.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+        synchronized (snapshotLock) {
+            if (snapshot != null) {
+                snapshot.close();
+                snapshot = null;
+            }
+        }
+    }
+
+    /**
+     * Forget days before the given date
+     */
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(key -> key.date().isBefore(date));
+    }
+
+    private DayOccupancy load(RoomDay key) {
+        DayOccupancy loaded = days.get(key);
+        if (loaded != null) {
+            return loaded;
+        }
+        while (true) {
+            long epoch = epochOf(key.boardroomId());
+            // Admission decisions rest on this state, so it never comes from a lagging replica
+            DayOccupancy day = ReadRouting.onPrimary(() -> build(key));
+            days.put(key, day);
+            // A change committed while we were reading may have been missed
+            if (epochOf(key.boardroomId()) == epoch) {
+                return day;
+            }
+            days.remove(key, day);
+        }
+    }
+
+    private DayOccupancy build(RoomDay key) {
+        DayOccupancy day = new DayOccupancy();
+        for (ScheduledInterval booking : bookingRepository.findOccupyingIntervals(key.boardroomId(), key.date())) {
+            day.booked.set(minuteOf(booking.getStartTime()), endMinuteOf(booking.getEndTime()));
+        }
+        for (ScheduledInterval slot : availabilitySlotRepository.findBlockedIntervals(key.boardroomId(), key.date())) {
+            day.blocked.set(minuteOf(slot.getStartTime()), endMinuteOf(slot.getEndTime()));
+        }
+        for (TimeInterval block : blockRuleService.getBlocks(key.boardroomId(), key.date())) {
+            day.blocked.set(minuteOf(block.start()), endMinuteOf(block.end()));
+        }
+        Map<Long, Set<PendingBooking>> rooms = pendingByDate.get(key.date());
+        Set<PendingBooking> pending = rooms != null ? rooms.get(key.boardroomId()) : null;
+        if (pending != null) {
+            for (PendingBooking booking : pending) {
+                day.booked.set(minuteOf(booking.getStartTime()), endMinuteOf(booking.getEndTime()));
+            }
+        }
+        return day;
+    }
+
+    private void loadSnapshot() {
+        OccupancySnapshot loaded;
+        try {
+            loaded = OccupancySnapshot.open(snapshotFile);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.warn("Ignoring occupancy snapshot {}: {}", snapshotFile, e.getMessage());
+            return;
+        }
+
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(loaded.getHighWaterMark()),
+                ZoneId.systemDefault()).minus(replayMargin);
+        Set<Long> changedElsewhere = clusterChangeLog.findBoardroomsChangedSince(since);
+        if (changedElsewhere == null) {
+            log.info("Ignoring occupancy snapshot {}: the cluster change log no longer covers it", snapshotFile);
+            loaded.close();
+            return;
+        }
+        Set<Long> changedRooms = new HashSet<>(changedElsewhere);
+        changedRooms.addAll(blockRuleRepository.findBoardroomIdsChangedSince(since));
+        Set<RoomDay> changedDays = new HashSet<>();
+        bookingRepository.findRoomDaysChangedSince(since).forEach(row -> changedDays.add(RoomDay.of(row)));
+        availabilitySlotRepository.findRoomDaysChangedSince(since).forEach(row -> changedDays.add(RoomDay.of(row)));
+
+        LocalDate today = LocalDate.now();
+        int[] skipped = new int[1];
+        loaded.forEach(saved -> {
+            RoomDay key = new RoomDay(saved.boardroomId(), saved.date());
+            if (key.date().isBefore(today) || changedRooms.contains(key.boardroomId()) || changedDays.contains(key)) {
+                skipped[0]++;
+                return;
+            }
+            days.put(key, new DayOccupancy(saved.booked(), saved.blocked()));
+        });
+        synchronized (snapshotLock) {
+            snapshot = loaded;
+        }
+        log.info("Loaded {} room-days from occupancy snapshot, {} left to rebuild", days.size(), skipped[0]);
+    }
+
+    private boolean hasPendingWrites(RoomDay key) {
+        Map<Long, Set<PendingBooking>> rooms = pendingByDate.get(key.date());
+        return rooms != null && rooms.containsKey(key.boardroomId());
+    }
+
+    private void removePending(PendingBooking booking) {
+        pendingByDate.computeIfPresent(booking.getDate(), (date, rooms) -> {
+            rooms.computeIfPresent(booking.getBoardroomId(), (id, pending) -> {
+                pending.remove(booking);
+                return pending.isEmpty() ? null : pending;
+            });
+            return rooms.isEmpty() ? null : rooms;
+        });
+    }
+
+    private long epochOf(Long boardroomId) {
+        AtomicLong epoch = epochs.get(boardroomId);
+        return epoch != null ? epoch.get() : 0L;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Exclusive end minute; a range ending part-way through a minute occupies that minute
+     */
+    private static int endMinuteOf(LocalTime time) {
+        int minute = minuteOf(time);
+        return time.getSecond() > 0 || time.getNano() > 0 ? Math.min(minute + 1, MINUTES_PER_DAY) : minute;
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+
+        static RoomDay of(Object[] row) {
+            return new RoomDay((Long) row[0], (LocalDate) row[1]);
+        }
+    }
+
+    private static final class DayOccupancy {
+        final MinuteBitmap booked;
+        final MinuteBitmap blocked;
+
+        DayOccupancy() {
+            this.booked = new MinuteBitmap(new long[OccupancySnapshot.WORDS]);
+            this.blocked = new MinuteBitmap(new long[OccupancySnapshot.WORDS]);
+        }
+
+        DayOccupancy(long[] booked, long[] blocked) {
+            this.booked = new MinuteBitmap(booked);
+            this.blocked = new MinuteBitmap(blocked);
+        }
+    }
+
+    /**
+     * One bit per minute of the day; guarded by the room-day lock
+     */
+    private static final class MinuteBitmap {
+
+        private final long[] words;
+
+        MinuteBitmap(long[] words) {
+            this.words = words;
+        }
+
+        long[] copyWords() {
+            return words.clone();
+        }
+
+        void set(int from, int to) {
+            for (int minute = from; minute < to; ) {
+                int end = Math.min(to, ((minute >>> 6) + 1) << 6);
+                words[minute >>> 6] |= mask(minute, end);
+                minute = end;
+            }
+        }
+
+        boolean intersects(int from, int to) {
+            for (int minute = from; minute < to; ) {
+                int end = Math.min(to, ((minute >>> 6) + 1) << 6);
+                if ((words[minute >>> 6] & mask(minute, end)) != 0) {
+                    return true;
+                }
+                minute = end;
+            }
+            return false;
+        }
+
+        /**
+         * Bits [from, end) of the word containing both; shifts use the low six bits
+         */
+        private static long mask(int from, int end) {
+            return (-1L >>> (64 - (end - from))) << from;
+        }
+    }
+}
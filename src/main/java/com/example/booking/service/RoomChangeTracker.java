@@ -0,0 +1,103 @@
+package com.example.booking.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a change version per boardroom. The version is bumped whenever the room itself,
+ * one of its bookings, availability slots or block rules changes, which lets caches key
+ * their entries by (boardroom, version) instead of tracking individual rows.
+ *
+ * Changes made inside a transaction become visible after commit, so that a reader never
+ * caches pre-commit data under the new version. The bump runs before other after-commit
+ * callbacks, so transactional event listeners already see the new version. Every bump is
+ * also published as a {@link RoomChangedEvent}.
+ */
+@Component
+public class RoomChangeTracker {
+
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoomChangeTracker(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Current change version of a boardroom
+     */
+    public long getVersion(Long boardroomId) {
+        AtomicLong version = versions.get(boardroomId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Version bumped by any room change; lets caches spanning all rooms detect staleness
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * Record a change of a boardroom, effective after the current transaction commits
+     */
+    public void markChanged(Long boardroomId) {
+        if (boardroomId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().add(boardroomId);
+        } else {
+            bump(boardroomId);
+        }
+    }
+
+    private void bump(Long boardroomId) {
+        // Listeners drop their cached reads first, so anyone observing the new version
+        // is guaranteed to load fresh data
+        eventPublisher.publishEvent(new RoomChangedEvent(boardroomId));
+        versions.computeIfAbsent(boardroomId, id -> new AtomicLong()).incrementAndGet();
+        globalVersion.incrementAndGet();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingChanges() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> changes = ConcurrentHashMap.newKeySet();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    changes.forEach(RoomChangeTracker.this::bump);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RoomChangeTracker.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    /**
+     * Published after a boardroom, or one of its bookings or slots, changed
+     */
+    public record RoomChangedEvent(Long boardroomId) {
+    }
+}
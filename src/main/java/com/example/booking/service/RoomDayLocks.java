@@ -0,0 +1,74 @@
+package com.example.booking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks serializing conflict check and write for one (boardroom, date), so that
+ * two requests for the same room and day cannot both pass the check. Requests for
+ * different rooms or days almost never share a stripe.
+ */
+@Component
+public class RoomDayLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public RoomDayLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run the action while holding the lock of the room-day
+     */
+    public <T> T withLock(Long boardroomId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(boardroomId, date)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run the action while holding the locks of every given room on every given date.
+     * Stripes are taken in index order, so two callers can never deadlock.
+     */
+    public <T> T withLocks(Collection<Long> boardroomIds, Collection<LocalDate> dates, Supplier<T> action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long boardroomId : boardroomIds) {
+            for (LocalDate date : dates) {
+                stripes.add(stripe(boardroomId, date));
+            }
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                held.add(locks[stripe]);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private static int stripe(Long boardroomId, LocalDate date) {
+        int hash = Objects.hash(boardroomId, date);
+        return Math.floorMod(hash ^ (hash >>> 16), STRIPES);
+    }
+}
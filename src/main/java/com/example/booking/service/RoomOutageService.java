@@ -0,0 +1,352 @@
+package com.example.booking.service;
+
+import com.example.booking.datasource.ReadRouting;
+import com.example.booking.dto.AuditRecord;
+import com.example.booking.dto.RoomAssignment;
+import com.example.booking.dto.RoomOutageResult;
+import com.example.booking.dto.ScheduledInterval;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.OutboxEvent;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.ChangeEntityType;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.util.TimeInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Takes a boardroom out of service and deals with its bookings in bulk.
+ *
+ * The room is first closed to new bookings, by deactivating it or by blocking the outage
+ * range, so the set of affected bookings can only shrink. Its pending and confirmed
+ * bookings in the outage are then loaded as plain rows and, if asked to, moved to an
+ * equivalent room: active, of the same capacity type and location, seating the attendees
+ * and free at that time. Confirmed bookings are placed first, larger meetings before
+ * smaller ones, each into the smallest room that fits. Bookings that cannot be moved are
+ * cancelled.
+ *
+ * Moves and cancellations are set-based UPDATE statements over chunks of
+ * {@value #CHUNK_SIZE} bookings, run in one transaction under the room-day locks of the
+ * outage room and the candidate rooms on the affected dates. Every booker is notified
+ * through the outbox, inserted in batches and delivered as digests. Bulk statements
+ * bypass the entity listeners, so the changes are reported to the audit journal, the
+ * cluster change log and the room change tracker here.
+ */
+@Service
+public class RoomOutageService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomOutageService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String DEFAULT_REASON = "Boardroom out of service";
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
+    private static final Comparator<AffectedBooking> PLACEMENT_ORDER =
+            Comparator.comparing((AffectedBooking booking) -> booking.status() != BookingStatus.CONFIRMED)
+                    .thenComparing(AffectedBooking::attendeeCount, Comparator.reverseOrder())
+                    .thenComparing(AffectedBooking::date)
+                    .thenComparing(AffectedBooking::startTime)
+                    .thenComparing(AffectedBooking::id);
+
+    private final BoardroomRepository boardroomRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final AvailabilityBlockService availabilityBlockService;
+    private final BlockRuleService blockRuleService;
+    private final BookingHoldService bookingHoldService;
+    // Null unless write-behind booking is enabled
+    private final OccupancyState occupancyState;
+    private final RoomDayLocks roomDayLocks;
+    private final NotificationOutbox notificationOutbox;
+    private final AuditJournalService auditJournalService;
+    private final ClusterChangeLog clusterChangeLog;
+    private final RoomChangeTracker roomChangeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomOutageService(BoardroomRepository boardroomRepository,
+                             BookingRepository bookingRepository,
+                             AvailabilitySlotRepository availabilitySlotRepository,
+                             AvailabilityBlockService availabilityBlockService,
+                             BlockRuleService blockRuleService,
+                             BookingHoldService bookingHoldService,
+                             ObjectProvider<OccupancyState> occupancyState,
+                             RoomDayLocks roomDayLocks,
+                             NotificationOutbox notificationOutbox,
+                             AuditJournalService auditJournalService,
+                             ClusterChangeLog clusterChangeLog,
+                             RoomChangeTracker roomChangeTracker,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.boardroomRepository = boardroomRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilitySlotRepository = availabilitySlotRepository;
+        this.availabilityBlockService = availabilityBlockService;
+        this.blockRuleService = blockRuleService;
+        this.bookingHoldService = bookingHoldService;
+        this.occupancyState = occupancyState.getIfAvailable();
+        this.roomDayLocks = roomDayLocks;
+        this.notificationOutbox = notificationOutbox;
+        this.auditJournalService = auditJournalService;
+        this.clusterChangeLog = clusterChangeLog;
+        this.roomChangeTracker = roomChangeTracker;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Deactivate a boardroom, then move or cancel all of its bookings that have not ended
+     *
+     * @param rehome whether to move bookings to equivalent rooms rather than cancel them all
+     */
+    public RoomOutageResult deactivateRoom(Long boardroomId, boolean rehome, String reason) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Boardroom boardroom = findBoardroom(boardroomId);
+            boardroom.setActive(false);
+            boardroomRepository.save(boardroom);
+        });
+        LocalDate lastDate = ReadRouting.onPrimary(() -> bookingRepository.findLastOpenBookingDate(boardroomId));
+        LocalDate today = LocalDate.now();
+        if (lastDate == null || lastDate.isBefore(today)) {
+            return new RoomOutageResult(boardroomId, List.of(), List.of(), elapsedMillis(started));
+        }
+        return relocate(boardroomId, today, lastDate, LocalTime.MIN, END_OF_DAY, rehome, reason, started);
+    }
+
+    /**
+     * Block a boardroom for an emergency over the time range on every day of the date
+     * range, then move or cancel the bookings the block overlaps
+     *
+     * @param rehome whether to move bookings to equivalent rooms rather than cancel them all
+     */
+    public RoomOutageResult declareOutage(Long boardroomId, LocalDate startDate, LocalDate endDate,
+                                          LocalTime startTime, LocalTime endTime, boolean rehome,
+                                          String blockedBy, String reason) {
+        long started = System.nanoTime();
+        availabilityBlockService.blockRooms(List.of(boardroomId), startDate, endDate, startTime, endTime,
+                blockedBy, reason != null ? reason : DEFAULT_REASON);
+        return relocate(boardroomId, startDate, endDate, startTime, endTime, rehome, reason, started);
+    }
+
+    private RoomOutageResult relocate(Long boardroomId, LocalDate startDate, LocalDate endDate,
+                                      LocalTime startTime, LocalTime endTime, boolean rehome, String reason,
+                                      long started) {
+        Boardroom outageRoom = findBoardroom(boardroomId);
+        List<Boardroom> candidates = rehome ? findEquivalentRooms(outageRoom) : List.of();
+        // Only to know which locks to take; the bookings are read again under them
+        List<AffectedBooking> preview = ReadRouting.onPrimary(
+                () -> findAffected(boardroomId, startDate, endDate, startTime, endTime));
+        if (preview.isEmpty()) {
+            return new RoomOutageResult(boardroomId, List.of(), List.of(), elapsedMillis(started));
+        }
+
+        Set<Long> roomIds = new LinkedHashSet<>();
+        roomIds.add(boardroomId);
+        candidates.forEach(room -> roomIds.add(room.getId()));
+        Set<LocalDate> dates = new TreeSet<>();
+        preview.forEach(booking -> dates.add(booking.date()));
+        String cancellationReason = reason != null ? reason : DEFAULT_REASON;
+
+        RoomOutageResult result = roomDayLocks.withLocks(roomIds, dates, () -> transactionTemplate.execute(status -> {
+            List<AffectedBooking> affected = findAffected(boardroomId, startDate, endDate, startTime, endTime);
+            Map<Boardroom, List<AffectedBooking>> moves = new LinkedHashMap<>();
+            List<AffectedBooking> cancellations = new ArrayList<>();
+            place(affected, candidates, moves, cancellations);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> notifications = new ArrayList<>(affected.size());
+            List<RoomAssignment> rehomed = new ArrayList<>();
+            moves.forEach((room, bookings) -> {
+                Boardroom target = boardroomRepository.getReferenceById(room.getId());
+                for (List<Long> chunk : chunks(bookings)) {
+                    bookingRepository.moveByIdIn(chunk, target, now);
+                }
+                for (AffectedBooking booking : bookings) {
+                    notifications.add(booking.toOutboxEvent(NotificationType.BOOKING_MOVED, room.getId()));
+                    rehomed.add(new RoomAssignment(booking.id(), booking.date(), booking.startTime(), booking.endTime(),
+                            booking.attendeeCount(), boardroomId, outageRoom.getCapacity(), room.getId(),
+                            room.getCapacity()));
+                    auditJournalService.record(AuditRecord.EntityType.BOOKING, AuditRecord.Operation.UPDATE,
+                            booking.id(), List.of(new AuditRecord.Change("boardroom", String.valueOf(boardroomId),
+                                    String.valueOf(room.getId())), updatedAt(now)));
+                    clusterChangeLog.record(ChangeEntityType.BOOKING, booking.id(), boardroomId);
+                    clusterChangeLog.record(ChangeEntityType.BOOKING, booking.id(), room.getId());
+                }
+                roomChangeTracker.markChanged(room.getId());
+            });
+
+            for (List<Long> chunk : chunks(cancellations)) {
+                bookingRepository.cancelByIdIn(chunk, BookingStatus.CANCELLED, now);
+            }
+            List<Long> detailsIds = cancellations.stream()
+                    .map(AffectedBooking::detailsId)
+                    .filter(id -> id != null)
+                    .toList();
+            for (int from = 0; from < detailsIds.size(); from += CHUNK_SIZE) {
+                bookingRepository.updateCancelledReasonByDetailsIdIn(
+                        detailsIds.subList(from, Math.min(from + CHUNK_SIZE, detailsIds.size())), cancellationReason);
+            }
+            for (AffectedBooking booking : cancellations) {
+                notifications.add(booking.toOutboxEvent(NotificationType.BOOKING_CANCELLED, boardroomId));
+                auditJournalService.record(AuditRecord.EntityType.BOOKING, AuditRecord.Operation.UPDATE,
+                        booking.id(), List.of(
+                                new AuditRecord.Change("cancelledAt", null, String.valueOf(now)),
+                                new AuditRecord.Change("status", booking.status().name(), BookingStatus.CANCELLED.name()),
+                                updatedAt(now)));
+                if (booking.detailsId() != null) {
+                    auditJournalService.record(AuditRecord.EntityType.BOOKING_DETAILS, AuditRecord.Operation.UPDATE,
+                            booking.detailsId(), List.of(new AuditRecord.Change("cancelledReason", null,
+                                    cancellationReason)));
+                }
+                clusterChangeLog.record(ChangeEntityType.BOOKING, booking.id(), boardroomId);
+                eventPublisher.publishEvent(new BookingTimerService.BookingChangedEvent(booking.id(),
+                        BookingStatus.CANCELLED, booking.date(), booking.startTime(), booking.endTime()));
+            }
+            roomChangeTracker.markChanged(boardroomId);
+            notificationOutbox.record(notifications);
+
+            return new RoomOutageResult(boardroomId, rehomed,
+                    cancellations.stream().map(AffectedBooking::id).toList(), elapsedMillis(started));
+        }));
+        log.info("Took boardroom {} out of service from {} to {}: {}", boardroomId, startDate, endDate, result);
+        return result;
+    }
+
+    private List<AffectedBooking> findAffected(Long boardroomId, LocalDate startDate, LocalDate endDate,
+                                               LocalTime startTime, LocalTime endTime) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AffectedBooking> affected = new ArrayList<>();
+        for (Object[] row : bookingRepository.findBookingsAffectedByOutage(boardroomId, startDate, endDate,
+                startTime, endTime)) {
+            AffectedBooking booking = new AffectedBooking((Long) row[0], (Long) row[1], (LocalDate) row[2],
+                    (LocalTime) row[3], (LocalTime) row[4], (Integer) row[5], (BookingStatus) row[6], (Long) row[7]);
+            // Bookings that are over are left as they are
+            if (LocalDateTime.of(booking.date(), booking.endTime()).isAfter(now)) {
+                affected.add(booking);
+            }
+        }
+        return affected;
+    }
+
+    private List<Boardroom> findEquivalentRooms(Boardroom outageRoom) {
+        List<Boardroom> rooms = outageRoom.getLocation() != null
+                ? boardroomRepository.findByCapacityTypeAndLocationIgnoreCaseAndIsActiveTrueOrderByCapacityAsc(
+                        outageRoom.getCapacityType(), outageRoom.getLocation())
+                : boardroomRepository.findByCapacityTypeAndIsActiveTrueOrderByCapacityAsc(outageRoom.getCapacityType());
+        return rooms.stream().filter(room -> !room.getId().equals(outageRoom.getId())).toList();
+    }
+
+    private void place(List<AffectedBooking> affected, List<Boardroom> candidates,
+                       Map<Boardroom, List<AffectedBooking>> moves, List<AffectedBooking> cancellations) {
+        if (candidates.isEmpty() || affected.isEmpty()) {
+            cancellations.addAll(affected);
+            return;
+        }
+        List<AffectedBooking> ordered = new ArrayList<>(affected);
+        ordered.sort(PLACEMENT_ORDER);
+        Map<RoomDay, List<TimeInterval>> occupied = loadOccupied(candidates, ordered);
+        for (AffectedBooking booking : ordered) {
+            TimeInterval wanted = new TimeInterval(booking.startTime(), booking.endTime());
+            Boardroom target = null;
+            for (Boardroom room : candidates) {
+                if (room.getCapacity() >= booking.attendeeCount() && isFree(room.getId(), booking, wanted, occupied)) {
+                    target = room;
+                    break;
+                }
+            }
+            if (target == null) {
+                cancellations.add(booking);
+                continue;
+            }
+            occupied.computeIfAbsent(new RoomDay(target.getId(), booking.date()), key -> new ArrayList<>()).add(wanted);
+            moves.computeIfAbsent(target, room -> new ArrayList<>()).add(booking);
+        }
+    }
+
+    private boolean isFree(Long roomId, AffectedBooking booking, TimeInterval wanted,
+                           Map<RoomDay, List<TimeInterval>> occupied) {
+        List<TimeInterval> taken = occupied.get(new RoomDay(roomId, booking.date()));
+        if (taken != null && taken.stream().anyMatch(interval -> interval.overlaps(wanted))) {
+            return false;
+        }
+        return !blockRuleService.isBlockedByRule(roomId, booking.date(), wanted.start(), wanted.end()) &&
+                !bookingHoldService.isHeldByOthers(roomId, booking.date(), wanted.start(), wanted.end(),
+                        booking.userId()) &&
+                !(occupancyState != null &&
+                        occupancyState.hasPendingWrite(roomId, booking.date(), wanted.start(), wanted.end()));
+    }
+
+    private Map<RoomDay, List<TimeInterval>> loadOccupied(List<Boardroom> rooms, List<AffectedBooking> bookings) {
+        List<Long> roomIds = rooms.stream().map(Boardroom::getId).toList();
+        LocalDate first = bookings.stream().map(AffectedBooking::date).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate last = bookings.stream().map(AffectedBooking::date).max(Comparator.naturalOrder()).orElseThrow();
+        Map<RoomDay, List<TimeInterval>> occupied = new HashMap<>();
+        try (Stream<ScheduledInterval> active =
+                     bookingRepository.streamActiveBookingIntervalsForBoardrooms(roomIds, first, last);
+             Stream<ScheduledInterval> slots =
+                     availabilitySlotRepository.streamSlotIntervalsForBoardrooms(roomIds, first, last)) {
+            Stream.concat(active, slots.filter(ScheduledInterval::isBlocked)).forEach(interval -> occupied
+                    .computeIfAbsent(new RoomDay(interval.getBoardroomId(), interval.getDate()), key -> new ArrayList<>())
+                    .add(new TimeInterval(interval.getStartTime(), interval.getEndTime())));
+        }
+        return occupied;
+    }
+
+    private Boardroom findBoardroom(Long boardroomId) {
+        return boardroomRepository.findById(boardroomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Boardroom", boardroomId));
+    }
+
+    private static AuditRecord.Change updatedAt(LocalDateTime now) {
+        return new AuditRecord.Change("updatedAt", null, String.valueOf(now));
+    }
+
+    private static List<List<Long>> chunks(List<AffectedBooking> bookings) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < bookings.size(); from += CHUNK_SIZE) {
+            chunks.add(bookings.subList(from, Math.min(from + CHUNK_SIZE, bookings.size())).stream()
+                    .map(AffectedBooking::id)
+                    .toList());
+        }
+        return chunks;
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+    }
+
+    private record AffectedBooking(Long id, Long userId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                   Integer attendeeCount, BookingStatus status, Long detailsId) {
+
+        OutboxEvent toOutboxEvent(NotificationType type, Long boardroomId) {
+            return new OutboxEvent(type, id, boardroomId, userId, date, startTime, endTime);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.entity.WaitlistEntry;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import com.example.booking.util.TimeInterval;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waitlist for time ranges that are taken, with automatic promotion when time frees up.
+ *
+ * Waiting entries are kept in memory in one priority queue per (boardroom, date), ordered
+ * by priority and then by order of joining. Cancelling a booking, unblocking a slot,
+ * skipping a block rule occurrence and releasing or expiring a hold publish a
+ * {@link TimeFreedEvent}; after commit, the entries of that room-day overlapping the
+ * freed range are matched in one pass against the room-day's occupied intervals, and
+ * each one that fits becomes a booking through {@link BookingService}. Matching runs on
+ * a single background thread, so promotions never race each other. An entry is claimed
+ * ({@code WAITING -> PROMOTING}) in the same transaction that books it, so a withdrawal
+ * or a promotion on another node that got there first makes it skip the entry.
+ *
+ * The queues are loaded from the database at startup. Entries joined on another node
+ * are picked up on restart; promotions are safe regardless, because every booking is
+ * still checked against the database under the room-day lock.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    public static final String PROMOTED_BY = "waitlist";
+
+    private static final Comparator<Waiter> SERVICE_ORDER =
+            Comparator.comparingInt(Waiter::priority).reversed().thenComparing(Waiter::entryId);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final UserRepository userRepository;
+    private final AvailabilityService availabilityService;
+    private final BookingService bookingService;
+    private final RoomDayLocks roomDayLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService matcher;
+    private final Map<RoomDay, NavigableSet<Waiter>> queues = new ConcurrentHashMap<>();
+    private final boolean autoConfirm;
+    private final int maxEntriesPerUser;
+
+    private final Counter joinedCounter;
+    private final Counter promotedCounter;
+    private final Counter expiredCounter;
+
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           BookingRepository bookingRepository,
+                           BoardroomRepository boardroomRepository,
+                           UserRepository userRepository,
+                           AvailabilityService availabilityService,
+                           BookingService bookingService,
+                           RoomDayLocks roomDayLocks,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.waitlist.auto-confirm:false}") boolean autoConfirm,
+                           @Value("${app.waitlist.max-per-user:5}") int maxEntriesPerUser) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.userRepository = userRepository;
+        this.availabilityService = availabilityService;
+        this.bookingService = bookingService;
+        this.roomDayLocks = roomDayLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.autoConfirm = autoConfirm;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.matcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-matcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.joinedCounter = Counter.builder("booking.waitlist").tag("outcome", "joined").register(meterRegistry);
+        this.promotedCounter = Counter.builder("booking.waitlist").tag("outcome", "promoted").register(meterRegistry);
+        this.expiredCounter = Counter.builder("booking.waitlist").tag("outcome", "expired").register(meterRegistry);
+        Gauge.builder("booking.waitlist.waiting", queues, WaitlistService::countWaiting).register(meterRegistry);
+
+        for (WaitlistEntry entry : waitlistEntryRepository.findWaitingFrom(LocalDate.now())) {
+            enqueue(Waiter.of(entry));
+        }
+    }
+
+    /**
+     * Wait for a time range that is currently taken. Users with the global admin role are
+     * served before regular users.
+     *
+     * @throws IllegalStateException if the range is free, so it can be booked directly
+     */
+    public WaitlistEntry join(Long userId, Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                              String purpose, Integer attendeeCount) {
+        if (date == null || startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (LocalDateTime.of(date, startTime).isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot wait for a time in the past");
+        }
+        if (waitlistEntryRepository.countWaitingByUserId(userId) >= maxEntriesPerUser) {
+            throw new IllegalStateException("A user may wait for at most " + maxEntriesPerUser + " time ranges");
+        }
+        if (availabilityService.isTimeSlotAvailable(boardroomId, date, startTime, endTime, userId)) {
+            throw new IllegalStateException("The boardroom is available for " + startTime + " - " + endTime +
+                    "; book it directly");
+        }
+
+        WaitlistEntry saved = transactionTemplate.execute(status -> {
+            Boardroom boardroom = boardroomRepository.findById(boardroomId)
+                    .filter(Boardroom::isActive)
+                    .orElseThrow(() -> new ResourceNotFoundException("Boardroom", boardroomId));
+            User user = userRepository.findById(userId)
+                    .filter(User::isActive)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            if (attendeeCount == null || attendeeCount < 1 || attendeeCount > boardroom.getCapacity()) {
+                throw new IllegalArgumentException("Attendee count must be between 1 and " + boardroom.getCapacity());
+            }
+            int priority = user.getRole() == User.UserRole.GLOBAL_ADMIN ? 1 : 0;
+            return waitlistEntryRepository.save(new WaitlistEntry(boardroom, user, date, startTime, endTime,
+                    purpose, attendeeCount, priority));
+        });
+        enqueue(Waiter.of(saved));
+        joinedCounter.increment();
+
+        // The range may have been freed between the availability check and the insert
+        matcher.execute(() -> match(new TimeFreedEvent(boardroomId, date, startTime, endTime)));
+        return saved;
+    }
+
+    /**
+     * Leave the waitlist
+     */
+    public void withdraw(Long entryId, Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                    .filter(found -> found.getUser().getId().equals(userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", entryId));
+            if (!entry.isWaiting()) {
+                throw new IllegalStateException("Waitlist entry " + entryId + " is " + entry.getStatus());
+            }
+            dequeue(Waiter.of(entry));
+            entry.withdraw();
+        });
+    }
+
+    /**
+     * Waiting entries of a boardroom on a date, in the order they will be served
+     */
+    public List<WaitlistEntry> findWaiting(Long boardroomId, LocalDate date) {
+        return waitlistEntryRepository.findWaitingForBoardroomAndDate(boardroomId, date);
+    }
+
+    /**
+     * Match the freed range against the waitlist once the freeing change has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeFreed(TimeFreedEvent event) {
+        RoomDay roomDay = new RoomDay(event.boardroomId(), event.date());
+        if (queues.containsKey(roomDay)) {
+            matcher.execute(() -> match(event));
+        }
+    }
+
+    /**
+     * Expire entries for past dates
+     */
+    @Scheduled(cron = "${app.waitlist.expiry-cron:0 5 0 * * *}")
+    public void expirePastEntries() {
+        LocalDate today = LocalDate.now();
+        Integer expired = transactionTemplate.execute(status -> waitlistEntryRepository.expireBefore(today));
+        queues.keySet().removeIf(roomDay -> roomDay.date().isBefore(today));
+        if (expired != null && expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Expired {} waitlist entries for dates before {}", expired, today);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdownNow();
+    }
+
+    private void match(TimeFreedEvent event) {
+        NavigableSet<Waiter> queue = queues.get(new RoomDay(event.boardroomId(), event.date()));
+        if (queue == null) {
+            return;
+        }
+        TimeInterval freed = new TimeInterval(event.startTime(), event.endTime());
+        List<TimeInterval> taken = null;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Waiter waiter : queue) {
+            if (!waiter.interval().overlaps(freed)) {
+                continue;
+            }
+            if (LocalDateTime.of(waiter.date(), waiter.interval().start()).isBefore(now)) {
+                expire(waiter, "start time has passed");
+                continue;
+            }
+            if (taken == null) {
+                taken = new ArrayList<>();
+                for (var interval : bookingRepository.findOccupyingIntervals(event.boardroomId(), event.date())) {
+                    taken.add(new TimeInterval(interval.getStartTime(), interval.getEndTime()));
+                }
+            }
+            if (overlapsAny(taken, waiter.interval())) {
+                continue;
+            }
+            if (promote(waiter)) {
+                taken.add(waiter.interval());
+            }
+        }
+    }
+
+    private boolean promote(Waiter waiter) {
+        Booking booking;
+        try {
+            // The entry is claimed in the booking's transaction: if it was withdrawn or promoted
+            // meanwhile nothing is booked, and if the booking fails the entry is still waiting
+            booking = roomDayLocks.withLock(waiter.boardroomId(), waiter.date(),
+                    () -> transactionTemplate.execute(status -> {
+                        if (waitlistEntryRepository.claimForPromotion(waiter.entryId(), LocalDateTime.now()) != 1) {
+                            return null;
+                        }
+                        Booking created = bookingService.createBooking(waiter.userId(), waiter.boardroomId(),
+                                waiter.date(), waiter.interval().start(), waiter.interval().end(), waiter.purpose(),
+                                waiter.attendeeCount(), reference(waiter));
+                        waitlistEntryRepository.findById(waiter.entryId()).orElseThrow().promote(created);
+                        return created;
+                    }));
+        } catch (BookingConflictException e) {
+            // Still covered by a block, a rule or someone else's hold
+            return false;
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            expire(waiter, e.getMessage());
+            return false;
+        }
+        if (booking == null) {
+            dequeue(waiter);
+            log.info("Waitlist entry {} is no longer waiting", waiter.entryId());
+            return false;
+        }
+
+        if (autoConfirm) {
+            try {
+                booking = bookingService.approveBooking(booking.getId(), PROMOTED_BY);
+            } catch (BookingConflictException | IllegalStateException e) {
+                log.warn("Promoted waitlist entry {} stays pending: {}", waiter.entryId(), e.getMessage());
+            }
+        }
+
+        Long bookingId = booking.getId();
+        dequeue(waiter);
+        promotedCounter.increment();
+        log.info("Promoted waitlist entry {} to booking {} ({} {})", waiter.entryId(), bookingId, waiter.date(),
+                waiter.interval());
+        return true;
+    }
+
+    private void expire(Waiter waiter, String reason) {
+        transactionTemplate.executeWithoutResult(status -> waitlistEntryRepository.findById(waiter.entryId())
+                .filter(WaitlistEntry::isWaiting)
+                .ifPresent(WaitlistEntry::expire));
+        dequeue(waiter);
+        expiredCounter.increment();
+        log.info("Expired waitlist entry {}: {}", waiter.entryId(), reason);
+    }
+
+    private void enqueue(Waiter waiter) {
+        queues.computeIfAbsent(new RoomDay(waiter.boardroomId(), waiter.date()),
+                key -> new ConcurrentSkipListSet<>(SERVICE_ORDER)).add(waiter);
+    }
+
+    private void dequeue(Waiter waiter) {
+        queues.computeIfPresent(new RoomDay(waiter.boardroomId(), waiter.date()), (key, queue) -> {
+            queue.remove(waiter);
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    /**
+     * Derived from the entry, so a promotion retried after a failure finds the booking
+     * it created instead of booking twice
+     */
+    private static String reference(Waiter waiter) {
+        return UUID.nameUUIDFromBytes(("waitlist:" + waiter.entryId()).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static boolean overlapsAny(List<TimeInterval> intervals, TimeInterval interval) {
+        for (TimeInterval other : intervals) {
+            if (other.overlaps(interval)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countWaiting(Map<RoomDay, NavigableSet<Waiter>> queues) {
+        int count = 0;
+        for (NavigableSet<Waiter> queue : queues.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Published when a time range of a boardroom stops being booked, blocked or held
+     */
+    public record TimeFreedEvent(Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+    }
+
+    private record RoomDay(Long boardroomId, LocalDate date) {
+    }
+
+    private record Waiter(Long entryId, Long userId, Long boardroomId, LocalDate date, TimeInterval interval,
+                          String purpose, Integer attendeeCount, int priority) {
+
+        static Waiter of(WaitlistEntry entry) {
+            return new Waiter(entry.getId(), entry.getUser().getId(), entry.getBoardroom().getId(),
+                    entry.getBookingDate(), new TimeInterval(entry.getStartTime(), entry.getEndTime()),
+                    entry.getPurpose(), entry.getAttendeeCount(), entry.getPriority());
+        }
+    }
+}
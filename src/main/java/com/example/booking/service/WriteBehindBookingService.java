@@ -0,0 +1,411 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.PendingBooking;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind booking admission, enabled with {@code app.booking.write-behind.enabled}.
+ *
+ * A booking is admitted against {@link OccupancyState} under the room-day lock, appended
+ * to the {@link BookingWriteAheadLog} and acknowledged with its reference as soon as the
+ * log record is durable. A background writer inserts admitted bookings in batched
+ * transactions. After a crash, the log is replayed once the application is ready, so the
+ * rows pass through the Hibernate listeners like any other insert; references already in
+ * the database are skipped, so a batch committed just before the crash is not inserted
+ * twice. Submissions are refused until the replay is done.
+ *
+ * Admitted bookings start out PENDING, like bookings created through
+ * {@link BookingService}. The occupancy state, however, treats pending bookings as taken,
+ * so two bookings for the same time are never both acknowledged.
+ */
+@Service
+@ConditionalOnProperty(name = "app.booking.write-behind.enabled", havingValue = "true")
+public class WriteBehindBookingService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBookingService.class);
+
+    private final BookingRepository bookingRepository;
+    private final BoardroomRepository boardroomRepository;
+    private final UserRepository userRepository;
+    private final BookingHoldService bookingHoldService;
+    private final OccupancyState occupancyState;
+    private final RoomDayLocks roomDayLocks;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingWriteAheadLog writeAheadLog;
+    private final int batchSize;
+    private final long maxBatchDelayMillis;
+
+    private final BlockingQueue<QueuedBooking> queue = new LinkedBlockingQueue<>();
+    private final Map<Long, RoomInfo> rooms = new ConcurrentHashMap<>();
+    private final Set<Long> knownUsers = ConcurrentHashMap.newKeySet();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean replayed;
+
+    private final Timer admissionTimer;
+    private final Counter rejectedCounter;
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+
+    public WriteBehindBookingService(BookingRepository bookingRepository,
+                                     BoardroomRepository boardroomRepository,
+                                     UserRepository userRepository,
+                                     BookingHoldService bookingHoldService,
+                                     OccupancyState occupancyState,
+                                     RoomDayLocks roomDayLocks,
+                                     NotificationOutbox notificationOutbox,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.booking.write-behind.wal-dir:data/wal}") String walDirectory,
+                                     @Value("${app.booking.write-behind.wal-segment-bytes:67108864}") long segmentBytes,
+                                     @Value("${app.booking.write-behind.fsync:true}") boolean fsync,
+                                     @Value("${app.booking.write-behind.batch-size:50}") int batchSize,
+                                     @Value("${app.booking.write-behind.max-batch-delay-ms:20}") long maxBatchDelayMillis) {
+        this.bookingRepository = bookingRepository;
+        this.boardroomRepository = boardroomRepository;
+        this.userRepository = userRepository;
+        this.bookingHoldService = bookingHoldService;
+        this.occupancyState = occupancyState;
+        this.roomDayLocks = roomDayLocks;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeAheadLog = new BookingWriteAheadLog(Path.of(walDirectory), segmentBytes, fsync);
+        this.batchSize = batchSize;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+
+        this.admissionTimer = Timer.builder("booking.write-behind.admission")
+                .description("Time to admit and durably log a booking").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.write-behind.bookings").tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.persistedCounter = Counter.builder("booking.write-behind.bookings").tag("outcome", "persisted")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.write-behind.bookings").tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("booking.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "booking-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Admit a booking and return once it is durably logged; the database row follows
+     * shortly after
+     */
+    public PendingBooking submit(Long userId, Long boardroomId, LocalDate date, LocalTime startTime,
+                                 LocalTime endTime, String purpose, Integer attendeeCount) {
+        long started = System.nanoTime();
+        if (!running) {
+            throw new IllegalStateException("Write-behind booking is shutting down");
+        }
+        if (!replayed) {
+            throw new IllegalStateException("Write-behind booking is replaying its write-ahead log");
+        }
+        validate(userId, boardroomId, date, startTime, endTime, purpose, attendeeCount);
+
+        PendingBooking booking = new PendingBooking(UUID.randomUUID().toString(), userId, boardroomId, date,
+                startTime, endTime, purpose, attendeeCount, LocalDateTime.now());
+        BookingWriteAheadLog.Appended appended = roomDayLocks.withLock(boardroomId, date, () -> {
+            if (bookingHoldService.isHeldByOthers(boardroomId, date, startTime, endTime, userId) ||
+                    !occupancyState.tryAdmit(booking)) {
+                rejectedCounter.increment();
+                throw new BookingConflictException("The boardroom is not available for " + booking.getTimeSlot());
+            }
+            try {
+                return writeAheadLog.append(booking);
+            } catch (RuntimeException e) {
+                occupancyState.failed(booking);
+                throw e;
+            }
+        });
+
+        try {
+            writeAheadLog.sync(appended.position());
+        } catch (RuntimeException e) {
+            // Not acknowledged; the record may still be replayed after a restart
+            log.error("Could not sync write-ahead log for {}", booking, e);
+            occupancyState.failed(booking);
+            throw e;
+        }
+        queue.add(new QueuedBooking(booking, appended.segment()));
+        admissionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return booking;
+    }
+
+    /**
+     * Accepted bookings not yet written to the database
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @EventListener(RoomChangeTracker.RoomChangedEvent.class)
+    public void onRoomChanged(RoomChangeTracker.RoomChangedEvent event) {
+        if (event.boardroomId() != null) {
+            rooms.remove(event.boardroomId());
+        }
+    }
+
+    @EventListener(ClusterChangeLog.UserChangedEvent.class)
+    public void onUserChanged(ClusterChangeLog.UserChangedEvent event) {
+        knownUsers.remove(event.userId());
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        occupancyState.evictBefore(LocalDate.now());
+    }
+
+    /**
+     * Stop admitting, write what is queued and close the log
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<QueuedBooking> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            persist(remaining);
+        }
+        writeAheadLog.close();
+    }
+
+    private void validate(Long userId, Long boardroomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                          String purpose, Integer attendeeCount) {
+        if (date == null) {
+            throw new IllegalArgumentException("Booking date is required");
+        }
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (purpose == null || purpose.isBlank()) {
+            throw new IllegalArgumentException("Purpose is required");
+        }
+        RoomInfo room = rooms.computeIfAbsent(boardroomId, id -> boardroomRepository.findById(id)
+                .map(boardroom -> new RoomInfo(boardroom.isActive(), boardroom.getCapacity()))
+                .orElseThrow(() -> new ResourceNotFoundException("Boardroom", id)));
+        if (!room.active()) {
+            throw new IllegalArgumentException("Boardroom " + boardroomId + " is not active");
+        }
+        if (attendeeCount == null || attendeeCount < 1 || attendeeCount > room.capacity()) {
+            throw new IllegalArgumentException("Attendee count must be between 1 and " + room.capacity());
+        }
+        if (!knownUsers.contains(userId)) {
+            if (!userRepository.existsByIdAndIsActiveTrue(userId)) {
+                throw new ResourceNotFoundException("User", userId);
+            }
+            knownUsers.add(userId);
+        }
+    }
+
+    private void writeLoop() {
+        List<QueuedBooking> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                QueuedBooking first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+                while (batch.size() < batchSize) {
+                    QueuedBooking next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: persist what was collected, the rest is drained by shutdown().
+                // The interrupt is not restored, it would abort the connection checkout.
+            }
+            if (!batch.isEmpty()) {
+                persist(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert the batch, retrying with backoff while the database is unavailable. A batch
+     * rejected by a constraint is retried row by row, each row with the same backoff, and
+     * only the offending rows are dropped. Rows still unstored at shutdown stay in the log
+     * for the next start.
+     */
+    private void persist(List<QueuedBooking> batch) {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                insert(batch.stream().map(QueuedBooking::booking).toList());
+                batch.forEach(this::completed);
+                return;
+            } catch (RuntimeException e) {
+                if (isPermanent(e)) {
+                    if (batch.size() == 1) {
+                        dropped(batch.get(0), e);
+                    } else {
+                        batch.forEach(queued -> persist(List.of(queued)));
+                    }
+                    return;
+                }
+                if (!running) {
+                    log.error("Leaving {} accepted bookings in the write-ahead log for replay", batch.size(), e);
+                    return;
+                }
+                log.warn("Write-behind batch of {} failed, retrying in {} ms", batch.size(), backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    // Shutdown; the next attempt is the last one
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 5000);
+            }
+        }
+    }
+
+    private void dropped(QueuedBooking queued, RuntimeException failure) {
+        log.error("Dropping accepted booking {} that cannot be stored", queued.booking(), failure);
+        failedCounter.increment();
+        occupancyState.failed(queued.booking());
+        writeAheadLog.markPersisted(queued.segment());
+    }
+
+    private void completed(QueuedBooking queued) {
+        occupancyState.persisted(queued.booking());
+        writeAheadLog.markPersisted(queued.segment());
+        persistedCounter.increment();
+    }
+
+    private void insert(List<PendingBooking> bookings) {
+        occupancyState.storingOwnWrites(() -> transactionTemplate.execute(status -> {
+            List<Booking> entities = new ArrayList<>(bookings.size());
+            for (PendingBooking pending : bookings) {
+                Boardroom boardroom = boardroomRepository.getReferenceById(pending.getBoardroomId());
+                Booking booking = new Booking(boardroom, userRepository.getReferenceById(pending.getUserId()),
+                        pending.getDate(), pending.getStartTime(), pending.getEndTime(),
+                        pending.getPurpose(), pending.getAttendeeCount());
+                booking.setReference(pending.getReference());
+                booking.setCreatedAt(pending.getAcceptedAt());
+                entities.add(booking);
+            }
+            List<Booking> saved = bookingRepository.saveAll(entities);
+            saved.forEach(booking -> notificationOutbox.record(NotificationType.APPROVAL_REQUESTED, booking));
+            return saved;
+        }));
+    }
+
+    /**
+     * Store the bookings logged by a previous run that did not reach the database. Runs
+     * once the context is ready, after the Hibernate listeners that journal and publish
+     * the inserts are registered; a failure fails startup rather than lose bookings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        List<PendingBooking> logged = writeAheadLog.recover();
+        if (logged.isEmpty()) {
+            replayed = true;
+            return;
+        }
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < logged.size(); from += 1000) {
+            List<String> references = logged.subList(from, Math.min(from + 1000, logged.size())).stream()
+                    .map(PendingBooking::getReference).toList();
+            existing.addAll(bookingRepository.findExistingReferences(references));
+        }
+        List<PendingBooking> missing = logged.stream()
+                .filter(booking -> !existing.contains(booking.getReference()))
+                .toList();
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<PendingBooking> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            try {
+                insert(batch);
+            } catch (RuntimeException batchFailure) {
+                if (!isPermanent(batchFailure)) {
+                    // Keep the log for the next start
+                    throw batchFailure;
+                }
+                for (PendingBooking booking : batch) {
+                    try {
+                        insert(List.of(booking));
+                    } catch (RuntimeException e) {
+                        if (!isPermanent(e)) {
+                            throw e;
+                        }
+                        log.error("Dropping logged booking {} that cannot be stored", booking, e);
+                        failedCounter.increment();
+                    }
+                }
+            }
+        }
+        writeAheadLog.recovered();
+        replayed = true;
+        log.info("Replayed write-ahead log: {} records, {} already stored, {} inserted",
+                logged.size(), existing.size(), missing.size());
+    }
+
+    /**
+     * Whether retrying cannot help: the row violates a constraint or fails validation
+     */
+    private static boolean isPermanent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ValidationException ||
+                    cause instanceof EntityNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record QueuedBooking(PendingBooking booking, BookingWriteAheadLog.Segment segment) {
+    }
+
+    private record RoomInfo(boolean active, int capacity) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.booking.tool;
+
+import com.example.booking.service.AuditJournal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Prints the records of an audit journal directory as JSON, one record per line. Runs
+ * without the application context, also against a journal the application is writing:
+ *
+ * <pre>
+ * java -cp booking.jar -Dloader.main=com.example.booking.tool.AuditJournalDump \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher data/audit [from] [to]
+ * </pre>
+ *
+ * The optional bounds are ISO-8601 instants, e.g. {@code 2024-05-01T00:00:00Z}.
+ */
+public final class AuditJournalDump {
+
+    private AuditJournalDump() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: AuditJournalDump <journal-dir> [from] [to]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Instant from = args.length > 1 ? Instant.parse(args[1]) : null;
+        Instant to = args.length > 2 ? Instant.parse(args[2]) : null;
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        PrintStream out = System.out;
+        AuditJournal.read(directory, from, to, record -> {
+            try {
+                out.println(mapper.writeValueAsString(record));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+}
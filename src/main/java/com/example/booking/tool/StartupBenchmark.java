@@ -0,0 +1,117 @@
+package com.example.booking.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts the application with the given command and measures how long it takes until it
+ * accepts a booking: the time to the first HTTP response of any kind, and the time to the
+ * first {@code 201 Created} from {@code POST /api/bookings}. The application is stopped
+ * afterwards. Compare a plain start with the {@code fast-startup} build:
+ *
+ * <pre>
+ * java -cp target/classes -Dbenchmark.boardroom-id=1 -Dbenchmark.user-id=1 \
+ *     com.example.booking.tool.StartupBenchmark \
+ *     java -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true \
+ *     -Dspring.profiles.active=fast-startup -jar target/boardroom-booking-0.0.1-SNAPSHOT.jar
+ * </pre>
+ *
+ * Settings, as system properties: {@code benchmark.url} (default
+ * {@code http://localhost:8000}), {@code benchmark.username} and {@code benchmark.password}
+ * (the {@code spring.security.user} defaults), {@code benchmark.boardroom-id},
+ * {@code benchmark.user-id} and {@code benchmark.timeout-seconds} (120). Every attempt books
+ * a random hour in the coming year, so repeated runs rarely conflict; a conflict is
+ * retried with another hour.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: StartupBenchmark <command to start the application...>");
+            System.exit(2);
+        }
+        String url = System.getProperty("benchmark.url", "http://localhost:8000");
+        String credentials = System.getProperty("benchmark.username", "admin") + ":" +
+                System.getProperty("benchmark.password", "admin123");
+        long boardroomId = Long.getLong("benchmark.boardroom-id", 1L);
+        long userId = Long.getLong("benchmark.user-id", 1L);
+        Duration timeout = Duration.ofSeconds(Long.getLong("benchmark.timeout-seconds", 120L));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+        long started = System.nanoTime();
+        Process application = new ProcessBuilder(List.of(args))
+                .redirectErrorStream(true)
+                .redirectOutput(new File("startup-benchmark.log"))
+                .start();
+        try {
+            long firstResponse = -1;
+            while (System.nanoTime() - started < timeout.toNanos()) {
+                if (!application.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + application.exitValue() +
+                            ", see startup-benchmark.log");
+                }
+                int status = tryBooking(client, url, authorization, boardroomId, userId);
+                long elapsed = System.nanoTime() - started;
+                if (status > 0 && firstResponse < 0) {
+                    firstResponse = elapsed;
+                }
+                if (status == 201) {
+                    System.out.printf("First HTTP response:         %6d ms%n", firstResponse / 1_000_000);
+                    System.out.printf("First successful booking:    %6d ms%n", elapsed / 1_000_000);
+                    return;
+                }
+                if (status >= 400 && status != 409) {
+                    throw new IllegalStateException("Booking rejected with HTTP " + status +
+                            "; check benchmark.boardroom-id, benchmark.user-id and the credentials");
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No successful booking within " + timeout.toSeconds() + " s");
+        } finally {
+            application.destroy();
+            application.waitFor();
+        }
+    }
+
+    /**
+     * Status of one booking attempt, or 0 if the application is not listening yet
+     */
+    private static int tryBooking(HttpClient client, String url, String authorization, long boardroomId,
+                                  long userId) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(365));
+        int hour = 8 + random.nextInt(10);
+        String body = String.format("{\"boardroomId\":%d,\"userId\":%d,\"bookingDate\":\"%s\"," +
+                        "\"startTime\":\"%02d:00\",\"endTime\":\"%02d:00\",\"purpose\":\"Startup benchmark\"," +
+                        "\"attendeeCount\":1}", boardroomId, userId, date, hour, hour + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/bookings"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
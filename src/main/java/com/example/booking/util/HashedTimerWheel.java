@@ -0,0 +1,187 @@
+package com.example.booking.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashed timer wheel for large numbers of short, mostly cancelled timeouts.
+ *
+ * Time is divided into ticks; a timeout lands in the bucket of the tick it expires in,
+ * modulo the wheel size, together with the number of full rotations still to wait.
+ * Scheduling and cancelling are O(1) and lock-free; a single daemon thread advances the
+ * wheel once per tick and runs the expired tasks, so tasks must be short and must not
+ * block. Expiry is accurate to one tick.
+ */
+public class HashedTimerWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    private final long tickNanos;
+    private final List<List<Timeout>> buckets;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final LongAdder expiredCount = new LongAdder();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Thread worker;
+    private final long startNanos;
+
+    private long tick;
+
+    public HashedTimerWheel(String name, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Run the task once the delay has passed, unless the returned timeout is cancelled first
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped.get()) {
+            throw new IllegalStateException("Timer wheel has been stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(task, deadline);
+        activeCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Timeouts scheduled and neither expired nor cancelled yet
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * Stop the worker; timeouts not yet expired are dropped
+     */
+    @Override
+    public void close() {
+        if (stopped.compareAndSet(false, true)) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!stopped.get()) {
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            transferPending();
+            expire(buckets.get((int) (tick % buckets.size())), tickDeadline);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // Never place a timeout behind the current tick
+            long expiryTick = Math.max(timeout.deadlineNanos / tickNanos, tick);
+            timeout.remainingRounds = (expiryTick - tick) / buckets.size();
+            buckets.get((int) (expiryTick % buckets.size())).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long tickDeadline) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadlineNanos <= tickDeadline) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Prevent the task from running; false if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                activeCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) {
+                return;
+            }
+            activeCount.decrementAndGet();
+            expiredCount.increment();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Timer task failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.booking.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing for expensive reads.
+ *
+ * Concurrent calls with an equal key share a single invocation of the loader: the first
+ * caller runs it, all others wait for and receive the same result (or the same exception).
+ * A completed result keeps being served for the freshness window, after which the next
+ * caller loads again. A freshness window of zero only coalesces calls that overlap in time.
+ *
+ * Shared results are handed to several threads, so they must be treated as read-only.
+ */
+public class SingleFlight<K, V> {
+
+    private static final int PURGE_INTERVAL = 256;
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long freshnessNanos;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlight(long freshnessMillis) {
+        if (freshnessMillis < 0) {
+            throw new IllegalArgumentException("Freshness window cannot be negative");
+        }
+        this.freshnessNanos = freshnessMillis * 1_000_000;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> existing = flights.get(key);
+            if (existing != null && !existing.isStale(System.nanoTime(), freshnessNanos)) {
+                shared.increment();
+                return existing.await();
+            }
+
+            Flight<V> flight = new Flight<>();
+            boolean leader = existing == null
+                    ? flights.putIfAbsent(key, flight) == null
+                    : flights.replace(key, existing, flight);
+            if (!leader) {
+                continue;
+            }
+            return load(key, flight, loader);
+        }
+    }
+
+    /**
+     * Forget the result for one key; calls already waiting on it still receive it.
+     */
+    public void invalidate(K key) {
+        flights.remove(key);
+    }
+
+    /**
+     * Forget all results; calls already waiting on them still receive them.
+     */
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    /**
+     * Number of calls that ran the loader.
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Number of calls that received the result of another call.
+     */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    /**
+     * Fraction of calls answered without running the loader.
+     */
+    public double getCoalescingRatio() {
+        long loaded = loads.sum();
+        long coalesced = shared.sum();
+        long total = loaded + coalesced;
+        return total == 0 ? 0.0 : (double) coalesced / total;
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    private V load(K key, Flight<V> flight, Supplier<V> loader) {
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value, System.nanoTime());
+            if (freshnessNanos == 0) {
+                flights.remove(key, flight);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.fail(e);
+            throw e;
+        } finally {
+            if (loads.sum() % PURGE_INTERVAL == 0) {
+                purgeStale();
+            }
+        }
+    }
+
+    private void purgeStale() {
+        long now = System.nanoTime();
+        flights.entrySet().removeIf(entry -> entry.getValue().isStale(now, freshnessNanos));
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        void complete(V value, long now) {
+            completedAt = now;
+            result.complete(value);
+        }
+
+        void fail(Throwable failure) {
+            result.completeExceptionally(failure);
+        }
+
+        boolean isStale(long now, long freshnessNanos) {
+            return result.isDone() && now - completedAt > freshnessNanos;
+        }
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
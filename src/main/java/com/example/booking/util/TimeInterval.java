@@ -0,0 +1,95 @@
+package com.example.booking.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Half-open time range [start, end) within a single day.
+ */
+public record TimeInterval(LocalTime start, LocalTime end) {
+
+    public static final Comparator<TimeInterval> BY_START =
+            Comparator.comparing(TimeInterval::start).thenComparing(TimeInterval::end);
+
+    public TimeInterval {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time: " + start + " - " + end);
+        }
+    }
+
+    public boolean overlaps(TimeInterval other) {
+        return start.isBefore(other.end) && end.isAfter(other.start);
+    }
+
+    public boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+
+    /**
+     * Overlapping or directly adjacent (one ends where the other starts)
+     */
+    public boolean touches(TimeInterval other) {
+        return !start.isAfter(other.end) && !end.isBefore(other.start);
+    }
+
+    public boolean contains(TimeInterval other) {
+        return !start.isAfter(other.start) && !end.isBefore(other.end);
+    }
+
+    public long getDurationInMinutes() {
+        return java.time.Duration.between(start, end).toMinutes();
+    }
+
+    /**
+     * Coalesce intervals into the minimal sorted list of non-overlapping, non-adjacent
+     * intervals covering the same times.
+     */
+    public static List<TimeInterval> merge(Collection<TimeInterval> intervals) {
+        List<TimeInterval> sorted = new ArrayList<>(intervals);
+        sorted.sort(BY_START);
+
+        List<TimeInterval> merged = new ArrayList<>();
+        TimeInterval current = null;
+        for (TimeInterval interval : sorted) {
+            if (current == null) {
+                current = interval;
+            } else if (current.touches(interval)) {
+                if (interval.end.isAfter(current.end)) {
+                    current = new TimeInterval(current.start, interval.end);
+                }
+            } else {
+                merged.add(current);
+                current = interval;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+
+    /**
+     * The parts of this interval not covered by {@code removed}: zero, one or two intervals.
+     */
+    public List<TimeInterval> subtract(TimeInterval removed) {
+        if (!overlaps(removed)) {
+            return List.of(this);
+        }
+        List<TimeInterval> remaining = new ArrayList<>(2);
+        if (start.isBefore(removed.start)) {
+            remaining.add(new TimeInterval(start, removed.start));
+        }
+        if (end.isAfter(removed.end)) {
+            remaining.add(new TimeInterval(removed.end, end));
+        }
+        return remaining;
+    }
+
+    @Override
+    public String toString() {
+        return start + " - " + end;
+    }
+}
@@ -0,0 +1,25 @@
+-- One-off migration for databases created before booking_details and availability_slot_notes existed.
+-- Start the application once (ddl-auto=update creates the new tables and the details_id / notes_id
+-- columns), then run this script before accepting new bookings. The detail rows reuse the parent ids,
+-- which is safe because both detail tables are still empty at that point.
+
+INSERT INTO booking_details (id, purpose, special_requirements, cancelled_reason)
+SELECT id, purpose, special_requirements, cancelled_reason FROM bookings WHERE details_id IS NULL;
+
+UPDATE bookings SET details_id = id WHERE details_id IS NULL;
+
+ALTER TABLE bookings
+    DROP COLUMN purpose,
+    DROP COLUMN special_requirements,
+    DROP COLUMN cancelled_reason;
+
+INSERT INTO availability_slot_notes (id, admin_notes, blocked_reason)
+SELECT id, admin_notes, blocked_reason FROM availability_slots
+WHERE notes_id IS NULL AND (admin_notes IS NOT NULL OR blocked_reason IS NOT NULL);
+
+UPDATE availability_slots SET notes_id = id
+WHERE notes_id IS NULL AND (admin_notes IS NOT NULL OR blocked_reason IS NOT NULL);
+
+ALTER TABLE availability_slots
+    DROP COLUMN admin_notes,
+    DROP COLUMN blocked_reason;
@@ -0,0 +1,38 @@
+package com.example.booking.config;
+
+import com.example.booking.id.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorConfigTest {
+
+    private final IdGeneratorConfig config = new IdGeneratorConfig();
+
+    @Test
+    void singleNodeDefaultsToNodeZero() {
+        Map<String, Object> properties = new HashMap<>();
+        config.idGeneratorPropertiesCustomizer(new MockEnvironment(), 0).customize(properties);
+
+        assertThat(properties).containsEntry(TimeOrderedIdGenerator.NODE_ID_SETTING, 0);
+    }
+
+    @Test
+    void clusterFeaturesRequireAnExplicitNodeId() {
+        MockEnvironment changeLog = new MockEnvironment().withProperty("app.cluster.change-log.enabled", "true");
+        assertThatThrownBy(() -> config.idGeneratorPropertiesCustomizer(changeLog, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(TimeOrderedIdGenerator.NODE_ID_SETTING);
+        MockEnvironment replica = new MockEnvironment().withProperty("app.datasource.replica.enabled", "true");
+        assertThatThrownBy(() -> config.idGeneratorPropertiesCustomizer(replica, 0))
+                .isInstanceOf(IllegalStateException.class);
+
+        changeLog.setProperty(TimeOrderedIdGenerator.NODE_ID_SETTING, "0");
+        assertThat(config.idGeneratorPropertiesCustomizer(changeLog, 0)).isNotNull();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.booking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fast-startup profile on top of the test database: only background work is created
+ * eagerly, everything else on first use.
+ */
+@SpringBootTest(properties = "app.audit-journal.dir=target/test-data/fast-startup/audit")
+@ActiveProfiles({"test", "fast-startup"})
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void backgroundWorkStartsEagerlyAndTheRestLazily() {
+        // Scheduled jobs and listener registrars would otherwise never run
+        assertThat(created("notificationDispatcher")).isTrue();
+        assertThat(created("bookingTimerService")).isTrue();
+        assertThat(created("hibernateListenerConfig")).isTrue();
+
+        assertThat(created("bookingAllocationService")).isFalse();
+        context.getBean("bookingAllocationService");
+        assertThat(created("bookingAllocationService")).isTrue();
+    }
+
+    private boolean created(String beanName) {
+        return context.getBeanFactory().containsSingleton(beanName);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.booking.controller;
+
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Boardroom boardroom;
+
+    private User booker;
+
+    private User other;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        long unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Api Room " + unique, "Floor 14", 10, null));
+        booker = userRepository.save(new User("booker" + unique, "secret1", "booker" + unique + "@example.com",
+                "Booker", "Legal"));
+        other = userRepository.save(new User("bystander" + unique, "secret1", "bystander" + unique + "@example.com",
+                "Bystander", "Legal"));
+        date = LocalDate.now().plusDays(40);
+    }
+
+    @Test
+    void bookingIsMadeForTheCaller() throws Exception {
+        mockMvc.perform(post("/api/bookings").with(user(booker.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(null, "09:00", "10:00")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").value(booker.getId().toString()));
+
+        mockMvc.perform(post("/api/bookings").with(user(booker.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(other.getId(), "11:00", "12:00")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/bookings").with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(other.getId(), "13:00", "14:00")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").value(other.getId().toString()));
+    }
+
+    @Test
+    void onlyTheBookerOrAnAdminCanCancel() throws Exception {
+        Booking first = book(LocalTime.of(9, 0));
+        Booking second = book(LocalTime.of(11, 0));
+
+        mockMvc.perform(post("/api/bookings/{id}/cancel", first.getId()).with(user(other.getUsername())))
+                .andExpect(status().isForbidden());
+        assertThat(bookingRepository.findById(first.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.PENDING);
+
+        mockMvc.perform(post("/api/bookings/{id}/cancel", first.getId()).with(user(booker.getUsername())))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/bookings/{id}/cancel", second.getId()).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        assertThat(bookingRepository.findById(second.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELLED);
+    }
+
+    @Test
+    void onlyAdminsCanApprove() throws Exception {
+        Booking booking = book(LocalTime.of(15, 0));
+
+        mockMvc.perform(post("/api/bookings/{id}/approve", booking.getId()).with(user(booker.getUsername())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/bookings/{id}/approve", booking.getId())
+                        .with(user("facilities").roles("GLOBAL_ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    void onlyTheBookerOrAnAdminCanCheckIn() throws Exception {
+        // The check-in window opens shortly before the start, so the booking starts in a few minutes today
+        LocalTime start = LocalTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MINUTES);
+        assumeTrue(start.isAfter(LocalTime.of(0, 5)) && start.isBefore(LocalTime.of(23, 0)));
+        Booking booking = bookingService.createBooking(booker.getId(), boardroom.getId(), LocalDate.now(), start,
+                start.plusMinutes(30), "Stand-up", 3);
+        bookingService.approveBooking(booking.getId(), "admin");
+
+        mockMvc.perform(post("/api/bookings/{id}/check-in", booking.getId()).with(user(other.getUsername())))
+                .andExpect(status().isForbidden());
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CONFIRMED);
+
+        mockMvc.perform(post("/api/bookings/{id}/check-in", booking.getId()).with(user(booker.getUsername())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+    }
+
+    private Booking book(LocalTime start) {
+        return bookingService.createBooking(booker.getId(), boardroom.getId(), date, start, start.plusHours(1),
+                "Contract review", 3);
+    }
+
+    private String body(Long userId, String start, String end) {
+        return "{\"boardroomId\":" + boardroom.getId() +
+                (userId != null ? ",\"userId\":\"" + userId + "\"" : "") +
+                ",\"bookingDate\":\"" + date + "\",\"startTime\":\"" + start + "\",\"endTime\":\"" + end + "\"" +
+                ",\"purpose\":\"Board meeting\",\"attendeeCount\":4}";
+    }
+}
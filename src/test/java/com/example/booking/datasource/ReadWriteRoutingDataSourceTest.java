@@ -0,0 +1,144 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two in-memory databases standing in for the primary and the replica.
+ * Nothing replicates between them, so each test copies the primary's heartbeat row to
+ * the replica to play the part of replication.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MILLIS = 200;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void databases() {
+        long unique = System.nanoTime();
+        DataSource primaryDataSource = database("primary" + unique);
+        DataSource replicaDataSource = database("replica" + unique);
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.execute("CREATE TABLE replica_heartbeat (node_id VARCHAR(64) PRIMARY KEY, beat_millis BIGINT)");
+            database.execute("CREATE TABLE probe (name VARCHAR(20))");
+        }
+        primary.update("INSERT INTO probe (name) VALUES ('primary')");
+        replica.update("INSERT INTO probe (name) VALUES ('replica')");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, "node-1", MAX_LAG_MILLIS,
+                meterRegistry);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource,
+                lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaIsKnownToKeepUp() {
+        assertThat(readOnlyTarget()).isEqualTo("primary");
+
+        // Reachable, but it never replayed a heartbeat
+        lagMonitor.heartbeat();
+        assertThat(readOnlyTarget()).isEqualTo("primary");
+
+        replicate();
+        lagMonitor.heartbeat();
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+        String written = readWrite.execute(status -> probe());
+        assertThat(written).isEqualTo("primary");
+        String onPrimary = ReadRouting.onPrimary(() -> readOnlyTarget());
+        assertThat(onPrimary).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaGetsNoReads() throws InterruptedException {
+        lagMonitor.heartbeat();
+        replicate();
+        lagMonitor.heartbeat();
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+
+        Thread.sleep(MAX_LAG_MILLIS + 50);
+        lagMonitor.heartbeat();
+        assertThat(readOnlyTarget()).isEqualTo("primary");
+    }
+
+    @Test
+    void writerReadsFromThePrimaryUntilTheReplicaReplayedTheWrite() throws InterruptedException {
+        lagMonitor.heartbeat();
+        replicate();
+        lagMonitor.heartbeat();
+
+        actAs("alice");
+        readWrite.executeWithoutResult(status -> routed.update("INSERT INTO probe (name) VALUES ('written')"));
+        assertThat(readOnlyTarget()).isEqualTo("primary");
+        actAs("bob");
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+
+        // A heartbeat written after alice's write reaches the replica
+        Thread.sleep(5);
+        lagMonitor.heartbeat();
+        replicate();
+        lagMonitor.heartbeat();
+        actAs("alice");
+        assertThat(readOnlyTarget()).isEqualTo("replica");
+    }
+
+    private String readOnlyTarget() {
+        return readOnly.execute(status -> probe());
+    }
+
+    private String probe() {
+        return routed.queryForObject("SELECT name FROM probe ORDER BY name LIMIT 1", String.class);
+    }
+
+    /**
+     * Copy the primary's heartbeat to the replica, as replication would
+     */
+    private void replicate() {
+        Long beat = primary.queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE node_id = 'node-1'",
+                Long.class);
+        replica.update("MERGE INTO replica_heartbeat (node_id, beat_millis) KEY (node_id) VALUES ('node-1', ?)", beat);
+    }
+
+    private static void actAs(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
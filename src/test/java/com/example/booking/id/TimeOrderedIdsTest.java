@@ -0,0 +1,81 @@
+package com.example.booking.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdsTest {
+
+    @Test
+    void idsCarryTheirNodeAndCreationTime() {
+        Instant before = Instant.now().minusMillis(1);
+        long id = new TimeOrderedIds(1023).next();
+
+        assertThat(id).isPositive();
+        assertThat(TimeOrderedIds.nodeIdOf(id)).isEqualTo(1023);
+        assertThat(TimeOrderedIds.timestampOf(id)).isBetween(before, Instant.now().plusMillis(1));
+    }
+
+    @Test
+    void burstBeyondOneMillisecondsSequenceStaysIncreasing() {
+        TimeOrderedIds ids = new TimeOrderedIds(7);
+        Instant start = Instant.now();
+        long previous = ids.next();
+        // Far more than 4096 ids, most of them within the same millisecond
+        for (int i = 0; i < 50_000; i++) {
+            long id = ids.next();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(TimeOrderedIds.nodeIdOf(id)).isEqualTo(7);
+            previous = id;
+        }
+        // Borrowed milliseconds are paid back, not accumulated
+        assertThat(Duration.between(Instant.now(), TimeOrderedIds.timestampOf(previous)))
+                .isLessThan(Duration.ofSeconds(1));
+        assertThat(TimeOrderedIds.timestampOf(previous)).isAfterOrEqualTo(start.minusMillis(1));
+    }
+
+    @Test
+    void concurrentCallersAndOtherNodesNeverShareAnId() throws Exception {
+        TimeOrderedIds first = new TimeOrderedIds(1);
+        TimeOrderedIds second = new TimeOrderedIds(2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Long>>> batches = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                TimeOrderedIds ids = thread % 2 == 0 ? first : second;
+                batches.add(executor.submit(() -> {
+                    List<Long> generated = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        generated.add(ids.next());
+                    }
+                    return generated;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<List<Long>> batch : batches) {
+                unique.addAll(batch.get());
+            }
+            assertThat(unique).hasSize(80_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodeIdMustFitItsBits() {
+        assertThatThrownBy(() -> new TimeOrderedIds(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeOrderedIds(TimeOrderedIds.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
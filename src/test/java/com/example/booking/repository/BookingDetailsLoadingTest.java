@@ -0,0 +1,103 @@
+package com.example.booking.repository;
+
+import com.example.booking.config.QueryMonitoringConfig;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.monitoring.QueryCountScope;
+import com.example.booking.monitoring.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The free-text columns of bookings and slots live in their own tables and are only read
+ * when a caller asks for them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryMonitoringConfig.class)
+@ActiveProfiles("test")
+class BookingDetailsLoadingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository slotRepository;
+
+    @Test
+    void bookingDetailsAreLoadedOnlyWhenRead() {
+        Boardroom boardroom = entityManager.persist(new Boardroom("Details Room", "Floor 1", 8, null));
+        User user = entityManager.persist(new User("details", "secret1", "details@example.com", "Details User", "Legal"));
+        Booking booking = new Booking(boardroom, user, LocalDate.now().plusDays(1), LocalTime.of(9, 0),
+                LocalTime.of(10, 0), "Quarterly planning", 3);
+        booking.setSpecialRequirements("Projector");
+        entityManager.persist(booking);
+        entityManager.flush();
+        entityManager.clear();
+
+        try (QueryCountScope scope = QueryCounter.open()) {
+            Booking loaded = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertThat(loaded.getStatus()).isNotNull();
+            scope.assertMaxQueries(1);
+            scope.assertMaxEntityLoads(1);
+
+            assertThat(loaded.getPurpose()).isEqualTo("Quarterly planning");
+            assertThat(loaded.getSpecialRequirements()).isEqualTo("Projector");
+            scope.assertMaxQueries(2);
+        }
+    }
+
+    @Test
+    void cancelledReasonIsStoredWithTheDetails() {
+        Boardroom boardroom = entityManager.persist(new Boardroom("Cancel Room", "Floor 2", 8, null));
+        User user = entityManager.persist(new User("cancelled", "secret1", "cancelled@example.com", "Cancel User", "Legal"));
+        Booking booking = entityManager.persist(new Booking(boardroom, user, LocalDate.now().plusDays(2),
+                LocalTime.of(11, 0), LocalTime.of(12, 0), "Interview", 2));
+        entityManager.flush();
+        entityManager.clear();
+
+        bookingRepository.findById(booking.getId()).orElseThrow().cancel("Room closed");
+        entityManager.flush();
+        entityManager.clear();
+
+        Booking reloaded = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertThat(reloaded.getCancelledReason()).isEqualTo("Room closed");
+        assertThat(reloaded.getPurpose()).isEqualTo("Interview");
+    }
+
+    @Test
+    void slotNotesAreLoadedOnlyWhenRead() {
+        Boardroom boardroom = entityManager.persist(new Boardroom("Notes Room", "Floor 3", 8, null));
+        AvailabilitySlot slot = new AvailabilitySlot(boardroom, LocalDate.now().plusDays(3), LocalTime.of(9, 0),
+                LocalTime.of(12, 0));
+        slot.block("admin", "Carpet cleaning");
+        slot.setAdminNotes("Call facilities first");
+        entityManager.persist(slot);
+        entityManager.flush();
+        entityManager.clear();
+
+        try (QueryCountScope scope = QueryCounter.open()) {
+            AvailabilitySlot loaded = slotRepository.findById(slot.getId()).orElseThrow();
+            assertThat(loaded.isAvailable()).isFalse();
+            scope.assertMaxEntityLoads(1);
+
+            assertThat(loaded.getBlockedReason()).isEqualTo("Carpet cleaning");
+            assertThat(loaded.getAdminNotes()).isEqualTo("Call facilities first");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.booking.repository;
+
+import com.example.booking.config.QueryMonitoringConfig;
+import com.example.booking.dto.BlockedSlotSummary;
+import com.example.booking.dto.BookingSummary;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.monitoring.QueryCountScope;
+import com.example.booking.monitoring.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets of the list view queries: a page of bookings or blocked slots, with the
+ * boardroom and user each row displays, costs one query however many rows it has.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryMonitoringConfig.class)
+@ActiveProfiles("test")
+class ListViewQueryBudgetTest {
+
+    private static final int ROWS = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository slotRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    private User firstUser;
+
+    private Boardroom firstBoardroom;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            Boardroom boardroom = entityManager.persist(new Boardroom("Budget Room " + i, "Floor " + i, 10, null));
+            User user = entityManager.persist(new User("budget" + i, "secret1", "budget" + i + "@example.com",
+                    "Budget User " + i, "Finance"));
+            LocalTime start = LocalTime.of(8 + i, 0);
+
+            Booking confirmed = new Booking(boardroom, user, today, start, start.plusMinutes(30), "Planning", 4);
+            confirmed.setStatus(BookingStatus.CONFIRMED);
+            entityManager.persist(confirmed);
+            entityManager.persist(new Booking(boardroom, user, today.plusDays(1), start, start.plusMinutes(30),
+                    "Review", 4));
+
+            AvailabilitySlot slot = new AvailabilitySlot(boardroom, today, start.plusHours(1), start.plusHours(2));
+            slot.block("admin", "Maintenance");
+            entityManager.persist(slot);
+
+            if (i == 0) {
+                firstUser = user;
+                firstBoardroom = boardroom;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingListsLoadBoardroomAndUserInOneQuery() {
+        assertBookingPage(() -> bookingRepository.findWithDetailsByBookingDate(today), ROWS);
+        assertBookingPage(() -> bookingRepository.findTodaysBookingsWithDetails(today), ROWS);
+        assertBookingPage(() -> bookingRepository.findPendingBookingsWithDetails(today), ROWS);
+        assertBookingPage(() -> bookingRepository.findUpcomingBookingsByUserIdWithDetails(firstUser.getId(), today), 1);
+        assertBookingPage(() -> bookingRepository.findBookingsByBoardroomInDateRangeWithDetails(
+                firstBoardroom.getId(), today, today.plusDays(7)), 2);
+    }
+
+    @Test
+    void bookingSummariesCostOneQuery() {
+        assertSummaryPage(() -> bookingRepository.findSummariesByBookingDate(today), ROWS);
+        assertSummaryPage(() -> bookingRepository.findTodaysBookingSummaries(today), ROWS);
+        assertSummaryPage(() -> bookingRepository.findPendingBookingSummaries(today), ROWS);
+        assertSummaryPage(() -> bookingRepository.findUpcomingBookingSummariesByUserId(firstUser.getId(), today), 1);
+    }
+
+    @Test
+    void blockedSlotListsLoadBoardroomInOneQuery() {
+        try (QueryCountScope scope = QueryCounter.open()) {
+            List<AvailabilitySlot> slots = slotRepository.findTodaysBlockedSlotsWithBoardroom(today);
+            slots.forEach(slot -> slot.getBoardroom().getName());
+            assertThat(slots).hasSize(ROWS);
+            scope.assertMaxQueries(1);
+        }
+        try (QueryCountScope scope = QueryCounter.open()) {
+            List<AvailabilitySlot> slots = slotRepository.findFutureBlockedSlotsWithBoardroom(today);
+            slots.forEach(slot -> slot.getBoardroom().getLocation());
+            assertThat(slots).hasSize(ROWS);
+            scope.assertMaxQueries(1);
+        }
+        try (QueryCountScope scope = QueryCounter.open()) {
+            List<BlockedSlotSummary> summaries = slotRepository.findTodaysBlockedSlotSummaries(today);
+            assertThat(summaries).hasSize(ROWS);
+            scope.assertMaxQueries(1);
+            scope.assertMaxEntityLoads(0);
+        }
+    }
+
+    private void assertBookingPage(ListQuery<Booking> query, int expectedRows) {
+        entityManager.clear();
+        try (QueryCountScope scope = QueryCounter.open()) {
+            List<Booking> bookings = query.run();
+            bookings.forEach(booking -> {
+                booking.getBoardroom().getName();
+                booking.getUser().getFullName();
+            });
+            assertThat(bookings).hasSize(expectedRows);
+            scope.assertMaxQueries(1);
+        }
+    }
+
+    private void assertSummaryPage(ListQuery<BookingSummary> query, int expectedRows) {
+        try (QueryCountScope scope = QueryCounter.open()) {
+            assertThat(query.run()).hasSize(expectedRows);
+            scope.assertMaxQueries(1);
+            scope.assertMaxEntityLoads(0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ListQuery<T> {
+        List<T> run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AuditRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AuditJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreReadBackAndRestartsContinueTheNumbering() {
+        try (AuditJournal journal = new AuditJournal(directory, SEGMENT_BYTES)) {
+            append(journal, 1L, "CONFIRMED");
+            append(journal, 2L, "CANCELLED");
+            assertThat(read(journal)).extracting(AuditRecord::getSequence, AuditRecord::getEntityId)
+                    .containsExactly(tuple(1L, 1L), tuple(2L, 2L));
+        }
+
+        try (AuditJournal restarted = new AuditJournal(directory, SEGMENT_BYTES)) {
+            AuditRecord third = append(restarted, 3L, "PENDING");
+            assertThat(third.getSequence()).isEqualTo(3);
+            assertThat(segments()).hasSize(2);
+            assertThat(read(restarted)).extracting(AuditRecord::getSequence).containsExactly(1L, 2L, 3L);
+            assertThat(read(restarted).get(1).getChanges())
+                    .containsExactly(new AuditRecord.Change("status", "PENDING", "CANCELLED"));
+        }
+    }
+
+    @Test
+    void corruptTailIsSkippedAndOverwrittenByTheNextSegment() throws IOException {
+        long thirdOffset;
+        try (AuditJournal journal = new AuditJournal(directory, SEGMENT_BYTES)) {
+            append(journal, 1L, "CONFIRMED");
+            append(journal, 2L, "CONFIRMED");
+            thirdOffset = endOfRecords(segments().get(0), 2);
+            append(journal, 3L, "CONFIRMED");
+        }
+        // A torn page: the third record's length made it to disk, part of its payload did not
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(thirdOffset + 20);
+            file.write(new byte[8]);
+        }
+
+        try (AuditJournal restarted = new AuditJournal(directory, SEGMENT_BYTES)) {
+            assertThat(read(restarted)).extracting(AuditRecord::getSequence).containsExactly(1L, 2L);
+            AuditRecord replacement = append(restarted, 30L, "CANCELLED");
+            assertThat(replacement.getSequence()).isEqualTo(3);
+            assertThat(read(restarted)).extracting(AuditRecord::getEntityId).containsExactly(1L, 2L, 30L);
+        }
+    }
+
+    @Test
+    void truncatedTailIsSkipped() throws IOException {
+        long secondOffset;
+        try (AuditJournal journal = new AuditJournal(directory, SEGMENT_BYTES)) {
+            append(journal, 1L, "CONFIRMED");
+            secondOffset = endOfRecords(segments().get(0), 1);
+            append(journal, 2L, "CONFIRMED");
+        }
+        // The file ends in the middle of the second record
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.setLength(secondOffset + 12);
+        }
+
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournal.read(directory, null, null, records::add);
+        assertThat(records).extracting(AuditRecord::getSequence).containsExactly(1L);
+        try (AuditJournal restarted = new AuditJournal(directory, SEGMENT_BYTES)) {
+            assertThat(append(restarted, 3L, "PENDING").getSequence()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void readSkipsSegmentsBeforeTheRange() throws InterruptedException {
+        try (AuditJournal journal = new AuditJournal(directory, 256)) {
+            for (long id = 1; id <= 5; id++) {
+                append(journal, id, "CONFIRMED");
+                Thread.sleep(5);
+            }
+            Instant from = read(journal).get(3).getTimestamp();
+            List<AuditRecord> recent = new ArrayList<>();
+            journal.read(from, null, recent::add);
+            assertThat(segments().size()).isGreaterThan(1);
+            assertThat(recent).extracting(AuditRecord::getEntityId).containsExactly(4L, 5L);
+        }
+    }
+
+    private static AuditRecord append(AuditJournal journal, Long bookingId, String status) {
+        return journal.append(AuditRecord.EntityType.BOOKING, AuditRecord.Operation.UPDATE, bookingId, "tester",
+                List.of(new AuditRecord.Change("status", "PENDING", status)));
+    }
+
+    private static List<AuditRecord> read(AuditJournal journal) {
+        List<AuditRecord> records = new ArrayList<>();
+        journal.read(null, null, records::add);
+        return records;
+    }
+
+    /**
+     * Offset just past the first {@code count} records of a segment
+     */
+    private static long endOfRecords(Path segment, int count) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            long offset = 0;
+            for (int i = 0; i < count; i++) {
+                file.seek(offset);
+                offset += 8 + file.readInt();
+            }
+            return offset;
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
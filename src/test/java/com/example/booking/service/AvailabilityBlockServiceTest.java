@@ -0,0 +1,84 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BulkBlockResult;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.monitoring.QueryCountScope;
+import com.example.booking.monitoring.QueryCounter;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvailabilityBlockServiceTest {
+
+    // Room lookup, slot and notes query, and one batched statement per kind of change
+    private static final int STATEMENT_BUDGET = 6;
+
+    @Autowired
+    private AvailabilityBlockService blockService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository slotRepository;
+
+    @Test
+    void blocksAreMergedAndSplitPerRoomDay() {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Merge Room", "Floor 8", 10, null));
+        List<Long> rooms = List.of(boardroom.getId());
+        LocalDate date = LocalDate.now().plusDays(100);
+
+        blockService.blockRooms(rooms, date, date, LocalTime.of(9, 0), LocalTime.of(10, 0), "facilities", "Cleaning");
+        blockService.blockRooms(rooms, date, date, LocalTime.of(11, 0), LocalTime.of(12, 0), "facilities", "Cleaning");
+        BulkBlockResult bridge = blockService.blockRooms(rooms, date, date, LocalTime.of(10, 0), LocalTime.of(11, 0),
+                "security", "Inspection");
+
+        assertThat(bridge.getDeletedSlots()).isEqualTo(1);
+        assertThat(timeSlots(boardroom, date)).containsExactly("09:00 - 12:00 Inspection");
+
+        blockService.unblockRooms(rooms, date, date, LocalTime.of(10, 0), LocalTime.of(10, 30));
+        assertThat(timeSlots(boardroom, date)).containsExactly("09:00 - 10:00 Inspection", "10:30 - 12:00 Inspection");
+    }
+
+    @Test
+    void bulkChangesDoNotLoadSlotNotesOneByOne() {
+        Boardroom first = boardroomRepository.save(new Boardroom("Bulk Room A", "Floor 9", 10, null));
+        Boardroom second = boardroomRepository.save(new Boardroom("Bulk Room B", "Floor 9", 10, null));
+        List<Long> rooms = List.of(first.getId(), second.getId());
+        LocalDate start = LocalDate.now().plusDays(120);
+        LocalDate end = start.plusDays(19);
+        blockService.blockRooms(rooms, start, end, LocalTime.of(9, 0), LocalTime.of(10, 0), "facilities", "Cleaning");
+
+        try (QueryCountScope scope = QueryCounter.open()) {
+            BulkBlockResult relabelled = blockService.blockRooms(rooms, start, end, LocalTime.of(9, 0),
+                    LocalTime.of(10, 0), "security", "Inspection");
+            assertThat(relabelled.getUpdatedSlots()).isEqualTo(40);
+            scope.assertMaxQueries(STATEMENT_BUDGET);
+        }
+        try (QueryCountScope scope = QueryCounter.open()) {
+            BulkBlockResult released = blockService.unblockRooms(rooms, start, end, LocalTime.of(8, 0), LocalTime.of(12, 0));
+            assertThat(released.getDeletedSlots()).isEqualTo(40);
+            scope.assertMaxQueries(STATEMENT_BUDGET);
+        }
+        assertThat(slotRepository.findByBoardroomIdOrderByDateAscStartTimeAsc(first.getId())).isEmpty();
+    }
+
+    private List<String> timeSlots(Boardroom boardroom, LocalDate date) {
+        return slotRepository.findCalendarSlotsByBoardroomInDateRange(boardroom.getId(), date, date)
+                .stream()
+                .map(slot -> slot.getTimeSlot() + " " + slot.getBlockedReason())
+                .toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.CalendarSlot;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvailabilityServiceTest {
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository slotRepository;
+
+    @Test
+    void calendarSlotsAreSharedAsDetachedProjections() {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Calendar Room", "Floor 4", 12, null));
+        YearMonth month = YearMonth.now().plusMonths(2);
+        AvailabilitySlot slot = new AvailabilitySlot(boardroom, month.atDay(10), LocalTime.of(9, 0), LocalTime.of(11, 0));
+        slot.block("admin", "Board meeting setup");
+        slotRepository.save(slot);
+        availabilityService.invalidateAll();
+
+        List<CalendarSlot> first = availabilityService.findCalendarSlots(boardroom.getId(), month);
+        List<CalendarSlot> second = availabilityService.findCalendarSlots(boardroom.getId(), month);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).singleElement().satisfies(calendarSlot -> {
+            assertThat(calendarSlot.isAvailable()).isFalse();
+            assertThat(calendarSlot.getBlockedReason()).isEqualTo("Board meeting setup");
+            assertThat(calendarSlot.getTimeSlot()).isEqualTo("09:00 - 11:00");
+        });
+    }
+
+    @Test
+    void roomSearchesShareIdsButNotEntities() {
+        LocalDate date = LocalDate.now().plusDays(45);
+        Boardroom second = boardroomRepository.save(new Boardroom("Shared Search Room B " + System.nanoTime(),
+                "Floor 6", 8, null));
+        Boardroom first = boardroomRepository.save(new Boardroom("Shared Search Room A " + System.nanoTime(),
+                "Floor 6", 8, null));
+        availabilityService.invalidateAll();
+
+        List<Boardroom> one = availabilityService.findAvailableBoardrooms(date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0));
+        List<Boardroom> other = availabilityService.findAvailableBoardrooms(date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0));
+
+        assertThat(other).extracting(Boardroom::getId).containsExactlyElementsOf(
+                one.stream().map(Boardroom::getId).toList());
+        // Query order, by name, survives the shared result
+        assertThat(one).extracting(Boardroom::getId).containsSubsequence(first.getId(), second.getId());
+        Boardroom mine = one.stream().filter(room -> room.getId().equals(first.getId())).findFirst().orElseThrow();
+        Boardroom theirs = other.stream().filter(room -> room.getId().equals(first.getId())).findFirst().orElseThrow();
+        assertThat(mine).isNotSameAs(theirs);
+    }
+
+    @Test
+    void blockedRoomIsNotOffered() {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Blocked Room", "Floor 5", 6, null));
+        LocalDate date = LocalDate.now().plusDays(40);
+        AvailabilitySlot slot = new AvailabilitySlot(boardroom, date, LocalTime.of(13, 0), LocalTime.of(15, 0));
+        slot.block("admin", "Painting");
+        slotRepository.save(slot);
+        availabilityService.invalidateAll();
+
+        assertThat(availabilityService.isTimeSlotAvailable(boardroom.getId(), date, LocalTime.of(14, 0),
+                LocalTime.of(16, 0))).isFalse();
+        assertThat(availabilityService.isTimeSlotAvailable(boardroom.getId(), date, LocalTime.of(15, 0),
+                LocalTime.of(16, 0))).isTrue();
+        assertThat(availabilityService.findAvailableBoardrooms(date, LocalTime.of(14, 0), LocalTime.of(16, 0)))
+                .extracting(Boardroom::getId)
+                .doesNotContain(boardroom.getId());
+    }
+}
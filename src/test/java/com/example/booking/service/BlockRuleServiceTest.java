@@ -0,0 +1,100 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.AvailabilityBlockRule;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.User;
+import com.example.booking.entity.WaitlistEntry;
+import com.example.booking.enums.RecurrenceFrequency;
+import com.example.booking.enums.WaitlistStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import com.example.booking.util.TimeInterval;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BlockRuleServiceTest {
+
+    @Autowired
+    private BlockRuleService blockRuleService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Test
+    void weeklyRuleIsExpandedPerMonthWithoutExceptionDates() {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Rule Room", "Floor 11", 10, null));
+        YearMonth month = YearMonth.now().plusMonths(4);
+        LocalDate firstFriday = month.atDay(1).with(TemporalAdjusters.firstInMonth(DayOfWeek.FRIDAY));
+        AvailabilityBlockRule rule = blockRuleService.createRule(boardroom.getId(), RecurrenceFrequency.WEEKLY, 1,
+                EnumSet.of(DayOfWeek.FRIDAY), month.atDay(1), null, LocalTime.of(14, 0), LocalTime.of(17, 0),
+                "facilities", "Deep cleaning");
+
+        Map<LocalDate, List<TimeInterval>> blocks = blockRuleService.getMonthBlocks(boardroom.getId(), month);
+        assertThat(blocks).containsKey(firstFriday).allSatisfy((date, intervals) -> {
+            assertThat(date.getDayOfWeek()).isEqualTo(DayOfWeek.FRIDAY);
+            assertThat(intervals).containsExactly(new TimeInterval(LocalTime.of(14, 0), LocalTime.of(17, 0)));
+        });
+        assertThat(blockRuleService.isBlockedByRule(boardroom.getId(), firstFriday, LocalTime.of(16, 0),
+                LocalTime.of(18, 0))).isTrue();
+        assertThat(blockRuleService.isBlockedByRule(boardroom.getId(), firstFriday.plusDays(1), LocalTime.of(16, 0),
+                LocalTime.of(18, 0))).isFalse();
+
+        blockRuleService.addException(rule.getId(), firstFriday);
+        assertThat(blockRuleService.getMonthBlocks(boardroom.getId(), month)).doesNotContainKey(firstFriday);
+        assertThat(blockRuleService.getMonthBlocks(boardroom.getId(), month)).hasSize(blocks.size() - 1);
+    }
+
+    @Test
+    void deactivatingRuleOffersItsOccurrencesToTheWaitlist() throws InterruptedException {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Rule Waitlist Room", "Floor 11", 10, null));
+        User user = userRepository.save(new User("rulewait", "secret1", "rulewait@example.com", "Rule Waiter", "HR"));
+        LocalDate date = LocalDate.now().plusDays(60);
+        AvailabilityBlockRule rule = blockRuleService.createRule(boardroom.getId(), RecurrenceFrequency.DAILY, 1,
+                null, LocalDate.now(), null, LocalTime.of(9, 0), LocalTime.of(12, 0), "facilities", "Renovation");
+
+        WaitlistEntry entry = waitlistService.join(user.getId(), boardroom.getId(), date, LocalTime.of(10, 0),
+                LocalTime.of(11, 0), "Offsite prep", 4);
+        assertThat(entry.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+
+        blockRuleService.deactivateRule(rule.getId());
+
+        assertThat(awaitStatus(entry.getId(), WaitlistStatus.PROMOTED)).isEqualTo(WaitlistStatus.PROMOTED);
+    }
+
+    private WaitlistStatus awaitStatus(Long entryId, WaitlistStatus expected) throws InterruptedException {
+        WaitlistStatus status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            status = waitlistEntryRepository.findById(entryId).orElseThrow().getStatus();
+            if (status == expected) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return status;
+    }
+}
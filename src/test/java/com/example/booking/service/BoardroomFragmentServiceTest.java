@@ -0,0 +1,60 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.RenderedFragment;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BoardroomFragmentServiceTest {
+
+    @Autowired
+    private BoardroomFragmentService fragmentService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void renderedFragmentsAreReusedUntilTheRoomChanges() {
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Fragment Room", "Floor 6", 14, null));
+        User user = userRepository.save(new User("fragment", "secret1", "fragment@example.com", "Fragment User", "IT"));
+        YearMonth month = YearMonth.now().plusMonths(3);
+
+        RenderedFragment card = fragmentService.roomCard(boardroom);
+        assertThat(card.getHtml()).contains("Fragment Room");
+        assertThat(fragmentService.roomCard(boardroom)).isSameAs(card);
+
+        RenderedFragment emptyGrid = fragmentService.roomMonthGrid(boardroom.getId(), month);
+        assertThat(fragmentService.roomMonthGrid(boardroom.getId(), month)).isSameAs(emptyGrid);
+        assertThat(emptyGrid.getHtml()).doesNotContain("09:00 - 10:00");
+
+        Booking booking = new Booking(boardroom, user, month.atDay(15), LocalTime.of(9, 0), LocalTime.of(10, 0),
+                "Design review", 5);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        bookingRepository.save(booking);
+
+        RenderedFragment bookedGrid = fragmentService.roomMonthGrid(boardroom.getId(), month);
+        assertThat(bookedGrid).isNotSameAs(emptyGrid);
+        assertThat(bookedGrid.getHtml()).contains("09:00 - 10:00");
+    }
+}
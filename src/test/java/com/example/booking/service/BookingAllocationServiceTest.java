@@ -0,0 +1,95 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AllocationPlan;
+import com.example.booking.dto.RoomAssignment;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAllocationServiceTest {
+
+    @Autowired
+    private BookingAllocationService allocationService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void largestMeetingsTakeTheSmallestRoomsThatSeatThem() {
+        // Sizes no other test uses, so rooms of other tests never fit these meetings
+        long unique = System.nanoTime();
+        Boardroom hall = boardroomRepository.save(new Boardroom("Hall " + unique, "Floor 1", 61, null));
+        Boardroom large = boardroomRepository.save(new Boardroom("Large " + unique, "Floor 2", 43, null));
+        Boardroom firstMedium = boardroomRepository.save(new Boardroom("Medium A " + unique, "Floor 3", 37, null));
+        Boardroom secondMedium = boardroomRepository.save(new Boardroom("Medium B " + unique, "Floor 3", 37, null));
+        User user = userRepository.save(new User("allocator" + unique, "secret1", "allocator" + unique + "@example.com",
+                "Allocator", "Operations"));
+        LocalDate date = LocalDate.now().plusDays(400);
+
+        // Everyone asks for the hall at overlapping times, one of them for the second medium room
+        Booking thirtySix = book(user, hall, date, LocalTime.of(9, 0), 36);
+        Booking sixty = book(user, hall, date, LocalTime.of(9, 0), 60);
+        Booking forty = book(user, hall, date, LocalTime.of(9, 30), 40);
+        Booking wantsSecond = book(user, secondMedium, date, LocalTime.of(9, 0), 36);
+        Booking leftOver = book(user, hall, date, LocalTime.of(9, 0), 36);
+        Booking later = book(user, hall, date, LocalTime.of(14, 0), 36);
+
+        AllocationPlan plan = allocationService.planAllocation(date, date);
+        Map<Long, Long> assigned = plan.getAssignments().stream()
+                .collect(Collectors.toMap(RoomAssignment::getBookingId, RoomAssignment::getAssignedBoardroomId));
+
+        assertThat(plan.isApproved()).isFalse();
+        assertThat(assigned).containsEntry(sixty.getId(), hall.getId())
+                .containsEntry(forty.getId(), large.getId())
+                .containsEntry(wantsSecond.getId(), secondMedium.getId())
+                .containsEntry(thirtySix.getId(), firstMedium.getId())
+                .containsEntry(later.getId(), firstMedium.getId());
+        assertThat(plan.getUnplacedBookingIds()).containsExactly(leftOver.getId());
+        assertThat(bookingRepository.findById(forty.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.PENDING);
+
+        AllocationPlan approved = allocationService.approveAllocation(date, date, "facilities");
+        assertThat(approved.isApproved()).isTrue();
+        assertThat(approved.getPlacedCount()).isEqualTo(5);
+        Booking moved = bookingRepository.findById(forty.getId()).orElseThrow();
+        assertThat(moved.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(moved.getBoardroom().getId()).isEqualTo(large.getId());
+        assertThat(bookingRepository.findById(leftOver.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.PENDING);
+
+        // Confirmed bookings now occupy the rooms, so the left-over request still fits nowhere
+        assertThat(allocationService.planAllocation(date, date).getUnplacedBookingIds())
+                .containsExactly(leftOver.getId());
+    }
+
+    private Booking book(User user, Boardroom room, LocalDate date, LocalTime start, int attendees) {
+        return bookingService.createBooking(user.getId(), room.getId(), date, start, start.plusHours(1),
+                "All hands " + attendees, attendees);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHistoryRow;
+import com.example.booking.enums.BookingStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingHistoryStoreTest {
+
+    private static final Set<BookingStatus> HELD = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void scansApplyEveryFilterAndClipToTheBookableDay() throws IOException {
+        BookingHistoryStore store = BookingHistoryStore.write(directory.resolve("history"), Stream.of(
+                row(1L, MONDAY, "09:00", "10:00", BookingStatus.CONFIRMED, 4),
+                row(2L, MONDAY, "07:00", "09:30", BookingStatus.COMPLETED, 6),
+                // Ends at midnight
+                row(1L, MONDAY.plusDays(1), "17:00", "00:00", BookingStatus.CONFIRMED, 2),
+                row(1L, MONDAY.plusDays(1), "11:00", "12:00", BookingStatus.CANCELLED, 10),
+                row(3L, MONDAY.plusDays(5), "10:00", "11:00", BookingStatus.CONFIRMED, 3),
+                row(1L, MONDAY.plusDays(7), "09:00", "10:00", BookingStatus.CONFIRMED, 5)));
+        assertThat(store.getRows()).isEqualTo(6);
+        LocalDate sunday = MONDAY.plusDays(6);
+
+        assertThat(store.aggregate(scan(MONDAY, sunday, null, null, "08:00", "18:00"), executor))
+                .isEqualTo(new BookingHistoryStore.Totals(4, 60 + 90 + 60 + 60, 4 + 6 + 2 + 3));
+        assertThat(store.aggregate(scan(MONDAY, sunday, null, null, "00:00", "00:00"), executor))
+                .isEqualTo(new BookingHistoryStore.Totals(4, 60 + 150 + 420 + 60, 15));
+
+        Set<DayOfWeek> weekdays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+        assertThat(store.aggregate(scan(MONDAY, sunday, Set.of(1L), weekdays, "08:00", "18:00"), executor))
+                .isEqualTo(new BookingHistoryStore.Totals(2, 120, 6));
+        assertThat(store.aggregate(scan(MONDAY, sunday, null, EnumSet.of(DayOfWeek.SATURDAY), "08:00", "18:00"),
+                executor)).isEqualTo(new BookingHistoryStore.Totals(1, 60, 3));
+
+        BookingHistoryStore.Scan cancelled = new BookingHistoryStore.Scan(MONDAY, sunday, null, null,
+                EnumSet.of(BookingStatus.CANCELLED), LocalTime.of(8, 0), LocalTime.of(18, 0));
+        assertThat(store.aggregate(cancelled, executor)).isEqualTo(new BookingHistoryStore.Totals(1, 60, 10));
+    }
+
+    @Test
+    void chunksOutsideTheDateRangeAreSkippedWithoutLosingRows() throws IOException {
+        // A thousand one-hour bookings a day for 70 days: more rows than one chunk holds
+        int rows = 70_000;
+        BookingHistoryStore store = BookingHistoryStore.write(directory.resolve("history"),
+                IntStream.range(0, rows).mapToObj(i -> row((long) (i % 3), MONDAY.plusDays(i / 1000),
+                        "09:00", "10:00", BookingStatus.CONFIRMED, 1)));
+        assertThat(store.getRows()).isEqualTo(rows);
+
+        assertThat(store.aggregate(scan(MONDAY, MONDAY.plusDays(69), null, null, "00:00", "00:00"), executor))
+                .isEqualTo(new BookingHistoryStore.Totals(rows, rows * 60L, rows));
+        // Days 66 to 69 lie in the second chunk only
+        assertThat(store.aggregate(scan(MONDAY.plusDays(66), MONDAY.plusDays(69), Set.of(0L), null,
+                "00:00", "00:00"), executor)).isEqualTo(new BookingHistoryStore.Totals(1334, 1334 * 60L, 1334));
+        assertThat(store.aggregate(scan(MONDAY.plusDays(70), MONDAY.plusDays(80), null, null, "00:00", "00:00"),
+                executor)).isEqualTo(new BookingHistoryStore.Totals(0, 0, 0));
+    }
+
+    @Test
+    void columnsOfDifferentLengthsAreRejected() throws IOException {
+        Path history = directory.resolve("history");
+        BookingHistoryStore.write(history, Stream.of(
+                row(1L, MONDAY, "09:00", "10:00", BookingStatus.CONFIRMED, 4),
+                row(2L, MONDAY, "10:00", "11:00", BookingStatus.CONFIRMED, 4)));
+        try (FileChannel status = FileChannel.open(history.resolve("status"), StandardOpenOption.WRITE)) {
+            status.truncate(1);
+        }
+
+        assertThatThrownBy(() -> BookingHistoryStore.open(history)).isInstanceOf(IOException.class)
+                .hasMessageContaining("differ in length");
+    }
+
+    private static BookingHistoryStore.Scan scan(LocalDate from, LocalDate to, Set<Long> boardroomIds,
+                                                 Set<DayOfWeek> daysOfWeek, String dayStart, String dayEnd) {
+        return new BookingHistoryStore.Scan(from, to, boardroomIds, daysOfWeek, HELD, LocalTime.parse(dayStart),
+                LocalTime.parse(dayEnd));
+    }
+
+    private static BookingHistoryRow row(Long boardroomId, LocalDate date, String start, String end,
+                                         BookingStatus status, int attendees) {
+        return new BookingHistoryRow(boardroomId, date, LocalTime.parse(start), LocalTime.parse(end), status,
+                attendees);
+    }
+}
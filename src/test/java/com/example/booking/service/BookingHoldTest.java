@@ -0,0 +1,124 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingHold;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingHoldTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Boardroom boardroom;
+
+    private User holder;
+
+    private User other;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        long unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Hold Room " + unique, "Floor 12", 10, null));
+        holder = userRepository.save(new User("holder" + unique, "secret1", "holder" + unique + "@example.com",
+                "Holder", "Sales"));
+        other = userRepository.save(new User("other" + unique, "secret1", "other" + unique + "@example.com",
+                "Other", "Sales"));
+        date = LocalDate.now().plusDays(30);
+    }
+
+    @Test
+    void holdBlocksOtherUsersUntilConfirmed() {
+        BookingHold hold = bookingService.placeHold(holder.getId(), boardroom.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0), null);
+
+        assertThatThrownBy(() -> bookingService.placeHold(other.getId(), boardroom.getId(), date,
+                LocalTime.of(9, 30), LocalTime.of(10, 30), null)).isInstanceOf(BookingConflictException.class);
+        assertThat(availabilityService.isTimeSlotAvailable(boardroom.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0))).isFalse();
+        assertThat(availabilityService.isTimeSlotAvailable(boardroom.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0), holder.getId())).isTrue();
+
+        Booking booking = bookingService.confirmHold(hold.getId(), holder.getId(), "Pipeline review", 4);
+        assertThat(booking.getStartTime()).isEqualTo(LocalTime.of(9, 0));
+        assertThat(bookingHoldService.findHold(hold.getId())).isEmpty();
+    }
+
+    @Test
+    void expiredHoldFreesTheRange() throws InterruptedException {
+        BookingHold hold = bookingService.placeHold(holder.getId(), boardroom.getId(), date, LocalTime.of(11, 0),
+                LocalTime.of(12, 0), Duration.ofMillis(200));
+
+        for (int attempt = 0; attempt < 50 && bookingHoldService.findHold(hold.getId()).isPresent(); attempt++) {
+            Thread.sleep(50);
+        }
+        assertThat(bookingHoldService.findHold(hold.getId())).isEmpty();
+        assertThat(bookingService.placeHold(other.getId(), boardroom.getId(), date, LocalTime.of(11, 0),
+                LocalTime.of(12, 0), null)).isNotNull();
+    }
+
+    @Test
+    void replacingHoldAtTheLimitKeepsTheOldHoldsIfRejected() {
+        int max = bookingHoldService.getMaxHoldsPerUser();
+        BookingHold first = null;
+        for (int i = 0; i < max; i++) {
+            BookingHold hold = bookingService.placeHold(holder.getId(), boardroom.getId(), date,
+                    LocalTime.of(8 + i, 0), LocalTime.of(8 + i, 30), null);
+            first = first == null ? hold : first;
+        }
+
+        // Replacing one hold at the limit is allowed and releases the replaced hold
+        BookingHold replacement = bookingService.placeHold(holder.getId(), boardroom.getId(), date,
+                LocalTime.of(8, 0), LocalTime.of(8, 45), null);
+        assertThat(bookingHoldService.findHold(first.getId())).isEmpty();
+        assertThat(bookingHoldService.findHold(replacement.getId())).isPresent();
+        assertThat(bookingHoldService.countHoldsByUser(holder.getId())).isEqualTo(max);
+
+        // A new range over the limit is rejected; the holds it does not overlap stay
+        assertThatThrownBy(() -> bookingService.placeHold(holder.getId(), boardroom.getId(), date,
+                LocalTime.of(15, 0), LocalTime.of(16, 0), null)).isInstanceOf(BookingConflictException.class);
+        assertThat(bookingHoldService.findHold(replacement.getId())).isPresent();
+        assertThat(bookingHoldService.countHoldsByUser(holder.getId())).isEqualTo(max);
+    }
+
+    @Test
+    void rejectedReplacementDoesNotReleaseTheOldHold() {
+        BookingHold hold = bookingService.placeHold(holder.getId(), boardroom.getId(), date, LocalTime.of(13, 0),
+                LocalTime.of(14, 0), null);
+
+        assertThatThrownBy(() -> bookingService.placeHold(holder.getId(), boardroom.getId(), date,
+                LocalTime.of(13, 30), LocalTime.of(14, 30), Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bookingHoldService.findHold(hold.getId())).isPresent();
+    }
+}
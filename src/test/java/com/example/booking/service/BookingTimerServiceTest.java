@@ -0,0 +1,182 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.entity.WaitlistEntry;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.enums.WaitlistStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.OutboxEventRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Timers of bookings starting seconds from now. Without a grace period the check-in
+ * deadline is the start, and a fast tick fires each timer within a few milliseconds of it.
+ */
+@SpringBootTest(properties = {
+        "app.booking.timers.tick-ms=50",
+        "app.booking.timers.horizon-hours=1",
+        "app.booking.check-in.grace-minutes=0",
+        "app.audit-journal.dir=target/test-data/timers/audit"
+})
+@ActiveProfiles("test")
+class BookingTimerServiceTest {
+
+    @Autowired
+    private BookingTimerService bookingTimerService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Boardroom boardroom;
+
+    private User booker;
+
+    private LocalDate today;
+
+    private long unique;
+
+    @BeforeEach
+    void seed() {
+        unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Timer Room " + unique, "Floor 16", 10, null));
+        booker = user("booker");
+        today = LocalDate.now();
+    }
+
+    @Test
+    void noShowIsReleasedToTheWaitlistAtItsDeadline() throws InterruptedException {
+        LocalTime start = secondsFromNow(2);
+        LocalTime end = start.plusMinutes(5);
+        Booking booking = confirmedBooking(start, end);
+        // Released at its start, so only a wait for a later part of the range can still be booked
+        WaitlistEntry waiting = waitlistService.join(user("waiting").getId(), boardroom.getId(), today,
+                start.plusMinutes(1), end, "Interview", 2);
+
+        assertThat(awaitStatus(booking.getId(), BookingStatus.CANCELLED)).isEqualTo(BookingStatus.CANCELLED);
+        assertThat(awaitPromoted(waiting.getId())).isEqualTo(WaitlistStatus.PROMOTED);
+    }
+
+    @Test
+    void checkedInBookingIsCompletedAtItsEnd() throws InterruptedException {
+        LocalTime start = secondsFromNow(2);
+        Booking booking = confirmedBooking(start, start.plusSeconds(2));
+        bookingService.checkIn(booking.getId(), booker.getUsername(), false);
+
+        assertThat(awaitStatus(booking.getId(), BookingStatus.COMPLETED)).isEqualTo(BookingStatus.COMPLETED);
+    }
+
+    @Test
+    void reminderIsRecordedOnce() throws InterruptedException {
+        // Starts within the reminder lead, so the reminder is due as soon as the booking is confirmed
+        LocalTime start = secondsFromNow(300);
+        LocalTime end = start.plusMinutes(30);
+        Booking booking = confirmedBooking(start, end);
+
+        assertThat(awaitReminders(booking.getId())).isEqualTo(1);
+
+        // Moving the end reschedules every timer, including the reminder that already went out
+        bookingTimerService.onBookingChanged(new BookingTimerService.BookingChangedEvent(booking.getId(),
+                BookingStatus.CONFIRMED, today, start, end.plusMinutes(15)));
+        bookingTimerService.refill();
+        Thread.sleep(500);
+        assertThat(reminders(booking.getId())).isEqualTo(1);
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    /**
+     * A time on today's date; skips the test when it would run into tomorrow
+     */
+    private LocalTime secondsFromNow(long seconds) {
+        LocalTime now = LocalTime.now();
+        assumeTrue(now.isBefore(LocalTime.of(23, 0)));
+        return now.plusSeconds(seconds).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private Booking confirmedBooking(LocalTime start, LocalTime end) {
+        Booking booking = bookingService.createBooking(booker.getId(), boardroom.getId(), today, start, end,
+                "Stand-up", 3);
+        return bookingService.approveBooking(booking.getId(), "admin");
+    }
+
+    private User user(String name) {
+        return userRepository.save(new User(name + unique, "secret1", name + unique + "@example.com", name, "HR"));
+    }
+
+    private long reminders(Long bookingId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getType() == NotificationType.BOOKING_REMINDER)
+                .filter(event -> bookingId.equals(event.getBookingId()))
+                .count();
+    }
+
+    private long awaitReminders(Long bookingId) throws InterruptedException {
+        long count = 0;
+        for (int attempt = 0; attempt < 100 && count == 0; attempt++) {
+            count = reminders(bookingId);
+            if (count == 0) {
+                Thread.sleep(50);
+            }
+        }
+        return count;
+    }
+
+    private BookingStatus awaitStatus(Long bookingId, BookingStatus expected) throws InterruptedException {
+        BookingStatus status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            status = bookingRepository.findById(bookingId).orElseThrow().getStatus();
+            if (status == expected) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return status;
+    }
+
+    private WaitlistStatus awaitPromoted(Long entryId) throws InterruptedException {
+        WaitlistStatus status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            status = waitlistEntryRepository.findById(entryId).orElseThrow().getStatus();
+            if (status == WaitlistStatus.PROMOTED) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.PendingBooking;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BookingWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void unpersistedRecordsAreRecoveredInOrder() {
+        BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1 << 20, true);
+        assertThat(log.recover()).isEmpty();
+        List<PendingBooking> bookings = List.of(booking(9), booking(10), booking(11));
+        bookings.forEach(booking -> log.sync(log.append(booking).position()));
+        // Crash: the log is never closed and nothing is marked persisted
+
+        BookingWriteAheadLog restarted = new BookingWriteAheadLog(directory, 1 << 20, true);
+        assertThat(restarted.recover())
+                .extracting(PendingBooking::getReference, PendingBooking::getStartTime, PendingBooking::getPurpose)
+                .containsExactly(fieldsOf(bookings.get(0)), fieldsOf(bookings.get(1)), fieldsOf(bookings.get(2)));
+
+        restarted.recovered();
+        assertThat(segments()).isEmpty();
+    }
+
+    @Test
+    void tornTailEndsTheSegment() throws IOException {
+        BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1 << 20, false);
+        log.recover();
+        PendingBooking first = booking(9);
+        log.append(first);
+        long intact = log.append(booking(10)).position();
+        log.append(booking(11));
+
+        // Cut the last record in half, as an interrupted append would
+        Path segment = segments().get(0);
+        long fullLength = Files.size(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(intact + (fullLength - intact) / 2);
+        }
+
+        assertThat(new BookingWriteAheadLog(directory, 1 << 20, false).recover())
+                .extracting(PendingBooking::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    @Test
+    void corruptRecordEndsTheSegment() throws IOException {
+        BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1 << 20, false);
+        log.recover();
+        long firstEnd = log.append(booking(9)).position();
+        log.append(booking(10));
+
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Flip a payload byte of the second record, past its length and checksum
+            file.seek(firstEnd + 12);
+            int value = file.read();
+            file.seek(firstEnd + 12);
+            file.write(value ^ 0xFF);
+        }
+
+        assertThat(new BookingWriteAheadLog(directory, 1 << 20, false).recover())
+                .extracting(PendingBooking::getStartTime)
+                .containsExactly(LocalTime.of(9, 0));
+    }
+
+    @Test
+    void sealedSegmentIsDeletedOncePersisted() {
+        // Tiny segments: every append after the first rolls to a new segment
+        BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1, false);
+        log.recover();
+        BookingWriteAheadLog.Appended first = log.append(booking(9));
+        BookingWriteAheadLog.Appended second = log.append(booking(10));
+        assertThat(segments()).hasSize(2);
+
+        log.markPersisted(first.segment());
+        assertThat(segments()).hasSize(1);
+
+        log.markPersisted(second.segment());
+        log.close();
+        assertThat(segments()).isEmpty();
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Tuple fieldsOf(PendingBooking booking) {
+        return tuple(booking.getReference(), booking.getStartTime(), booking.getPurpose());
+    }
+
+    private static PendingBooking booking(int hour) {
+        return new PendingBooking(UUID.randomUUID().toString(), 1L, 2L, LocalDate.now().plusDays(1),
+                LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0), "Meeting at " + hour, 3, LocalDateTime.now());
+    }
+}
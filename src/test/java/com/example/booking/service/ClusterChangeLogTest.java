@@ -0,0 +1,137 @@
+package com.example.booking.service;
+
+import com.example.booking.BoardroomBookingApplication;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.User;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes on one database: this test's context is node A, and a second application
+ * context started against the same in-memory database is node B.
+ */
+@SpringBootTest(properties = {
+        "app.cluster.change-log.enabled=true",
+        "app.id.node-id=1",
+        "app.cluster.change-log.batch-size=5",
+        "app.cluster.change-log.poll-interval-ms=3600000",
+        "app.audit-journal.dir=target/test-data/cluster-a/audit"
+})
+@ActiveProfiles("test")
+class ClusterChangeLogTest {
+
+    @Autowired
+    private ClusterChangeLog clusterChangeLog;
+
+    @Autowired
+    private RoomChangeTracker roomChangeTracker;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void bookingOnOneNodeInvalidatesTheOtherNodesRoom() {
+        long unique = System.nanoTime();
+        Boardroom room = boardroomRepository.save(new Boardroom("Cluster Room " + unique, "Floor 17", 10, null));
+        User user = userRepository.save(new User("cluster" + unique, "secret1", "cluster" + unique + "@example.com",
+                "Cluster User", "IT"));
+        clusterChangeLog.poll();
+        long versionOnA = roomChangeTracker.getVersion(room.getId());
+
+        try (ConfigurableApplicationContext nodeB = startNodeB()) {
+            nodeB.getBean(BookingService.class).createBooking(user.getId(), room.getId(),
+                    LocalDate.now().plusDays(70), LocalTime.of(9, 0), LocalTime.of(10, 0), "Sprint review", 4);
+            RoomChangeTracker trackerOnB = nodeB.getBean(RoomChangeTracker.class);
+            long versionOnB = trackerOnB.getVersion(room.getId());
+            assertThat(versionOnB).isPositive();
+
+            clusterChangeLog.poll();
+            assertThat(roomChangeTracker.getVersion(room.getId())).isGreaterThan(versionOnA);
+
+            // Node B's own rows are skipped: it invalidated its caches when it committed
+            nodeB.getBean(ClusterChangeLog.class).poll();
+            assertThat(trackerOnB.getVersion(room.getId())).isEqualTo(versionOnB);
+        }
+    }
+
+    @Test
+    void everyRowOfALateCommitIsAppliedOnceVisible() throws SQLException {
+        clusterChangeLog.poll();
+        long firstRoom = System.nanoTime();
+        // More rows than a poll batch, so the gap is wider than a batch
+        List<Long> lateRooms = new ArrayList<>();
+        for (long i = 0; i < 8; i++) {
+            lateRooms.add(firstRoom + i);
+        }
+        Long earlyRoom = firstRoom + 100;
+
+        try (Connection late = dataSource.getConnection(); Connection early = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            for (Long roomId : lateRooms) {
+                insertChange(late, roomId);
+            }
+            early.setAutoCommit(false);
+            insertChange(early, earlyRoom);
+            early.commit();
+
+            clusterChangeLog.poll();
+            assertThat(roomChangeTracker.getVersion(earlyRoom)).isEqualTo(1);
+            assertThat(lateRooms).allSatisfy(roomId -> assertThat(roomChangeTracker.getVersion(roomId)).isZero());
+
+            late.commit();
+        }
+
+        clusterChangeLog.poll();
+        assertThat(lateRooms).allSatisfy(roomId -> assertThat(roomChangeTracker.getVersion(roomId)).isEqualTo(1));
+        assertThat(roomChangeTracker.getVersion(earlyRoom)).isEqualTo(1);
+    }
+
+    private static ConfigurableApplicationContext startNodeB() {
+        // Arguments, so they override the test profile's properties
+        return new SpringApplicationBuilder(BoardroomBookingApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--app.cluster.change-log.enabled=true",
+                        "--app.id.node-id=2",
+                        "--app.cluster.change-log.poll-interval-ms=3600000",
+                        // Node A owns the schema
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--app.audit-journal.dir=target/test-data/cluster-b/audit",
+                        "--app.analytics.dir=target/test-data/cluster-b/analytics");
+    }
+
+    private static void insertChange(Connection connection, Long boardroomId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO change_log " +
+                "(node_id, entity_type, entity_id, boardroom_id, created_at) VALUES ('node-c', 'BOOKING', ?, ?, ?)")) {
+            statement.setLong(1, boardroomId);
+            statement.setLong(2, boardroomId);
+            statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+        }
+    }
+}
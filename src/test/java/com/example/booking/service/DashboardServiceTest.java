@@ -0,0 +1,62 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.DashboardSnapshot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void snapshotCountsAndListsAreSharedUntilInvalidated() {
+        DashboardSnapshot before = dashboardService.getSnapshot();
+        assertThat(dashboardService.getSnapshot()).isSameAs(before);
+
+        Boardroom boardroom = boardroomRepository.save(new Boardroom("Dashboard Room", "Floor 7", 10, null));
+        User user = userRepository.save(new User("dashboard", "secret1", "dashboard@example.com", "Dash User", "Ops"));
+        Booking booking = new Booking(boardroom, user, LocalDate.now().plusDays(9), LocalTime.of(10, 0),
+                LocalTime.of(11, 0), "Retrospective", 6);
+        bookingRepository.save(booking);
+
+        dashboardService.invalidate();
+        DashboardSnapshot after = dashboardService.getSnapshot();
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getTotalActiveBoardrooms()).isEqualTo(before.getTotalActiveBoardrooms() + 1);
+        assertThat(after.getTotalActiveUsers()).isEqualTo(before.getTotalActiveUsers() + 1);
+        assertThat(after.getBookingCount(BookingStatus.PENDING))
+                .isEqualTo(before.getBookingCount(BookingStatus.PENDING) + 1);
+        assertThat(after.getPendingBookings()).anySatisfy(summary -> {
+            assertThat(summary.getId()).isEqualTo(booking.getId());
+            assertThat(summary.getBoardroomName()).isEqualTo("Dashboard Room");
+            assertThat(summary.getUserFullName()).isEqualTo("Dash User");
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.DeactivationResult;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.BoardroomAdmin;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.entity.WaitlistEntry;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.enums.WaitlistStatus;
+import com.example.booking.repository.BoardroomAdminRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeactivationServiceTest {
+
+    @Autowired
+    private DeactivationService deactivationService;
+
+    @Autowired
+    private RoomOutageService roomOutageService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AvailabilityBlockService availabilityBlockService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private BoardroomAdminRepository boardroomAdminRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Boardroom boardroom;
+
+    private LocalDate date;
+
+    private long unique;
+
+    @BeforeEach
+    void seed() {
+        unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Deactivation Room " + unique, "Floor 19", 10, null));
+        date = LocalDate.now().plusDays(250);
+    }
+
+    @Test
+    void deactivatedUserLosesOpenWorkAndCanThenBePurged() {
+        User leaver = user("leaver");
+        Booking pending = book(leaver, LocalTime.of(9, 0));
+        Booking confirmed = bookingService.approveBooking(book(leaver, LocalTime.of(10, 0)).getId(), "admin");
+        bookingService.approveBooking(book(user("holder"), LocalTime.of(14, 0)).getId(), "admin");
+        WaitlistEntry waiting = waitlistService.join(leaver.getId(), boardroom.getId(), date, LocalTime.of(14, 0),
+                LocalTime.of(15, 0), "Retro", 3);
+        BoardroomAdmin assignment = boardroomAdminRepository.save(new BoardroomAdmin(leaver, boardroom, "admin"));
+
+        assertThatThrownBy(() -> deactivationService.purgeUser(leaver.getId()))
+                .isInstanceOf(IllegalStateException.class);
+
+        DeactivationResult deactivated = deactivationService.deactivateUser(leaver.getId(), "Left the company");
+        assertThat(deactivated.getCancelledBookings()).isEqualTo(2);
+        assertThat(deactivated.getWaitlistEntries()).isEqualTo(1);
+        assertThat(deactivated.getAdminAssignments()).isEqualTo(1);
+        assertThat(userRepository.findById(leaver.getId()).orElseThrow().isActive()).isFalse();
+        assertThat(List.of(pending, confirmed)).allSatisfy(booking -> assertThat(
+                bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELLED));
+        assertThat(waitlistEntryRepository.findById(waiting.getId()).orElseThrow().getStatus())
+                .isEqualTo(WaitlistStatus.WITHDRAWN);
+        assertThat(boardroomAdminRepository.findById(assignment.getId()).orElseThrow().isActive()).isFalse();
+        assertThatThrownBy(() -> book(leaver, LocalTime.of(16, 0))).isInstanceOf(IllegalArgumentException.class);
+
+        DeactivationResult purged = deactivationService.purgeUser(leaver.getId());
+        assertThat(purged.isPurged()).isTrue();
+        assertThat(purged.getDeletedBookings()).isEqualTo(2);
+        assertThat(purged.getWaitlistEntries()).isEqualTo(1);
+        assertThat(purged.getAdminAssignments()).isEqualTo(1);
+        assertThat(userRepository.findById(leaver.getId())).isEmpty();
+        assertThat(bookingRepository.findById(confirmed.getId())).isEmpty();
+        assertThat(boardroomAdminRepository.findById(assignment.getId())).isEmpty();
+    }
+
+    @Test
+    void boardroomIsPurgedWithItsBookingsAndSlots() {
+        Booking booking = book(user("booker"), LocalTime.of(9, 0));
+        availabilityBlockService.blockRooms(List.of(boardroom.getId()), date, date.plusDays(1), LocalTime.of(12, 0),
+                LocalTime.of(13, 0), "facilities", "Maintenance");
+
+        assertThatThrownBy(() -> deactivationService.purgeBoardroom(boardroom.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        roomOutageService.deactivateRoom(boardroom.getId(), false, "Closed");
+
+        DeactivationResult purged = deactivationService.purgeBoardroom(boardroom.getId());
+        assertThat(purged.getDeletedBookings()).isEqualTo(1);
+        assertThat(purged.getDeletedSlots()).isEqualTo(2);
+        assertThat(boardroomRepository.findById(boardroom.getId())).isEmpty();
+        assertThat(bookingRepository.findById(booking.getId())).isEmpty();
+    }
+
+    private Booking book(User user, LocalTime start) {
+        return bookingService.createBooking(user.getId(), boardroom.getId(), date, start, start.plusHours(1),
+                "Handover", 3);
+    }
+
+    private User user(String name) {
+        return userRepository.save(new User(name + unique, "secret1", name + unique + "@example.com", name, "Sales"));
+    }
+}
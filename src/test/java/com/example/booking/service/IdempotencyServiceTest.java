@@ -0,0 +1,92 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.StoredResponse;
+import com.example.booking.entity.IdempotencyRecord;
+import com.example.booking.exception.IdempotencyException;
+import com.example.booking.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private String scope;
+
+    @BeforeEach
+    void scope() {
+        scope = "tester" + System.nanoTime() + ":create";
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        StoredResponse first = idempotencyService.execute(scope, "key-1", "request", this::run);
+        StoredResponse retry = idempotencyService.execute(scope, "key-1", "request", this::run);
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(retry.isReplayed()).isTrue();
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThatThrownBy(() -> idempotencyService.execute(scope, "key-1", "other request", this::run))
+                .isInstanceOf(IdempotencyException.class)
+                .satisfies(e -> assertThat(((IdempotencyException) e).isInProgress()).isFalse());
+    }
+
+    @Test
+    void failedRequestReleasesItsClaim() {
+        assertThatThrownBy(() -> idempotencyService.execute(scope, "key-2", "request", () -> {
+            throw new IllegalStateException("Room closed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(idempotencyService.execute(scope, "key-2", "request", this::run).isReplayed()).isFalse();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void runningClaimIsRefusedUntilItsLeaseLapses() {
+        StoredResponse fresh = idempotencyService.execute(scope, "key-3", "request", this::run);
+        String hash = repository.findByScopeAndIdempotencyKey(scope, "key-3").orElseThrow().getRequestHash();
+
+        // Claims left behind by a node that died mid-request: one recent, one past the lease
+        IdempotencyRecord running = new IdempotencyRecord(scope, "key-4", hash, LocalDateTime.now().plusHours(1));
+        running.setClaimedAt(LocalDateTime.now().minusSeconds(5));
+        repository.save(running);
+        IdempotencyRecord abandoned = new IdempotencyRecord(scope, "key-5", hash, LocalDateTime.now().plusHours(1));
+        abandoned.setClaimedAt(LocalDateTime.now().minusMinutes(5));
+        repository.save(abandoned);
+
+        assertThatThrownBy(() -> idempotencyService.execute(scope, "key-4", "request", this::run))
+                .isInstanceOf(IdempotencyException.class)
+                .satisfies(e -> assertThat(((IdempotencyException) e).isInProgress()).isTrue());
+
+        StoredResponse takenOver = idempotencyService.execute(scope, "key-5", "request", this::run);
+        assertThat(takenOver.isReplayed()).isFalse();
+        assertThat(takenOver.getStatus()).isEqualTo(fresh.getStatus());
+        assertThat(repository.findByScopeAndIdempotencyKey(scope, "key-5").orElseThrow().isCompleted()).isTrue();
+        assertThat(idempotencyService.execute(scope, "key-5", "request", this::run).isReplayed()).isTrue();
+        assertThat(runs).hasValue(2);
+    }
+
+    private ResponseEntity<?> run() {
+        return ResponseEntity.ok(Map.of("run", runs.incrementAndGet()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.IntegrityConflict;
+import com.example.booking.dto.IntegrityConflict.ConflictType;
+import com.example.booking.dto.IntegrityReport;
+import com.example.booking.entity.AvailabilitySlot;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IntegrityAuditServiceTest {
+
+    @Autowired
+    private IntegrityAuditService auditService;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository slotRepository;
+
+    private Boardroom overlapping;
+
+    private Boardroom blocked;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        overlapping = boardroomRepository.save(new Boardroom("Audit Room A", "Floor 10", 10, null));
+        blocked = boardroomRepository.save(new Boardroom("Audit Room B", "Floor 10", 10, null));
+        User user = userRepository.save(new User("audit" + System.nanoTime(), "secret1",
+                "audit" + System.nanoTime() + "@example.com", "Audit User", "Risk"));
+        date = LocalDate.now().plusDays(200);
+
+        confirmed(overlapping, user, date, 9, 12);
+        confirmed(overlapping, user, date, 10, 11);
+        confirmed(overlapping, user, date, 11, 13);
+        confirmed(overlapping, user, date, 13, 14);
+        confirmed(blocked, user, date, 9, 10);
+        confirmed(blocked, user, date, 10, 11);
+        confirmed(blocked, user, date.plusDays(1), 15, 16);
+
+        AvailabilitySlot block = new AvailabilitySlot(blocked, date.plusDays(1), LocalTime.of(14, 0), LocalTime.of(16, 0));
+        block.block("facilities", "Wiring");
+        slotRepository.save(block);
+        slotRepository.save(new AvailabilitySlot(blocked, date.plusDays(1), LocalTime.of(8, 0), LocalTime.of(9, 0)));
+        slotRepository.save(new AvailabilitySlot(blocked, date.plusDays(1), LocalTime.of(8, 30), LocalTime.of(9, 30)));
+    }
+
+    @Test
+    void fullAuditFindsOverlapsButNotAdjacentIntervals() {
+        assertConflicts(auditService.auditAll());
+    }
+
+    @Test
+    void incrementalAuditCoversRecentlyChangedRoomDays() {
+        IntegrityReport report = auditService.auditChangedSince(LocalDateTime.now().minusMinutes(1));
+        assertThat(report.isIncremental()).isTrue();
+        assertConflicts(report);
+
+        assertThat(auditService.auditChangedSince(LocalDateTime.now().plusMinutes(1)).isClean()).isTrue();
+    }
+
+    @Test
+    void scheduledAuditsRunOutsideACallersTransaction() {
+        // Called on the service itself, as the scheduler does, the streams still get a transaction
+        assertThatCode(() -> auditService.scheduledFullAudit()).doesNotThrowAnyException();
+        assertThatCode(() -> auditService.scheduledIncrementalAudit()).doesNotThrowAnyException();
+        assertThatCode(() -> auditService.scheduledIncrementalAudit()).doesNotThrowAnyException();
+    }
+
+    private void assertConflicts(IntegrityReport report) {
+        List<IntegrityConflict> ours = report.getConflicts().stream()
+                .filter(conflict -> Set.of(overlapping.getId(), blocked.getId()).contains(conflict.getBoardroomId()))
+                .toList();
+
+        assertThat(ours)
+                .extracting(IntegrityConflict::getType, IntegrityConflict::getBoardroomId, IntegrityConflict::getDate,
+                        IntegrityConflict::getFirstTimeSlot, IntegrityConflict::getSecondTimeSlot)
+                .containsExactlyInAnyOrder(
+                        tuple(ConflictType.BOOKING_OVERLAP, overlapping.getId(), date, "09:00 - 12:00", "10:00 - 11:00"),
+                        tuple(ConflictType.BOOKING_OVERLAP, overlapping.getId(), date, "09:00 - 12:00", "11:00 - 13:00"),
+                        tuple(ConflictType.SLOT_OVERLAP, blocked.getId(), date.plusDays(1), "08:00 - 09:00", "08:30 - 09:30"),
+                        tuple(ConflictType.BOOKING_IN_BLOCKED_SLOT, blocked.getId(), date.plusDays(1),
+                                "14:00 - 16:00", "15:00 - 16:00"));
+    }
+
+    private void confirmed(Boardroom boardroom, User user, LocalDate day, int startHour, int endHour) {
+        Booking booking = new Booking(boardroom, user, day, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0),
+                "Audit", 2);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.NotificationDigest;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.BoardroomAdmin;
+import com.example.booking.entity.OutboxEvent;
+import com.example.booking.entity.User;
+import com.example.booking.enums.NotificationType;
+import com.example.booking.notification.NotificationSender;
+import com.example.booking.repository.BoardroomAdminRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.OutboxDeliveryRepository;
+import com.example.booking.repository.OutboxEventRepository;
+import com.example.booking.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationDispatcherTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private BoardroomAdminRepository boardroomAdminRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void retryOnlyNotifiesRecipientsWhoseDeliveryFailed() {
+        long unique = System.nanoTime();
+        Boardroom room = boardroomRepository.save(new Boardroom("Outbox Room " + unique, "Floor 16", 10, null));
+        User booker = userRepository.save(new User("notified" + unique, "secret1", "notified" + unique + "@example.com",
+                "Notified", "Sales"));
+        User admin = userRepository.save(new User("roomadmin" + unique, "secret1",
+                "roomadmin" + unique + "@example.com", "Room Admin", "Facilities"));
+        boardroomAdminRepository.save(new BoardroomAdmin(admin, room, "facilities"));
+        OutboxEvent event = outboxEventRepository.save(new OutboxEvent(NotificationType.BOOKING_CANCELLED, unique,
+                room.getId(), booker.getId(), LocalDate.now().plusDays(3), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+        RecordingSender sender = new RecordingSender(admin.getId());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outboxEventRepository,
+                outboxDeliveryRepository, boardroomRepository, boardroomAdminRepository, userRepository, sender,
+                transactionManager, new SimpleMeterRegistry(), 1000, 5, 7);
+
+        dispatcher.dispatchBatch();
+        assertThat(sender.received(booker.getId(), unique)).isEqualTo(1);
+        assertThat(sender.received(admin.getId(), unique)).isZero();
+        assertThat(outboxEventRepository.findById(event.getId()).orElseThrow().getDispatchedAt()).isNull();
+        assertThat(outboxDeliveryRepository.findByEventIds(List.of(event.getId())))
+                .singleElement()
+                .satisfies(delivery -> assertThat(delivery.getUserId()).isEqualTo(booker.getId()));
+
+        dispatcher.dispatchBatch();
+        assertThat(sender.received(booker.getId(), unique)).isEqualTo(1);
+        assertThat(sender.received(admin.getId(), unique)).isEqualTo(1);
+        assertThat(outboxEventRepository.findById(event.getId()).orElseThrow().getDispatchedAt()).isNotNull();
+        assertThat(outboxDeliveryRepository.findByEventIds(List.of(event.getId()))).isEmpty();
+    }
+
+    /**
+     * Records the digests it is sent; the first one to a given user fails
+     */
+    private static final class RecordingSender implements NotificationSender {
+
+        private final Set<Long> failOnce = new HashSet<>();
+        private final List<NotificationDigest> sent = new ArrayList<>();
+
+        RecordingSender(Long failingUserId) {
+            failOnce.add(failingUserId);
+        }
+
+        @Override
+        public void send(NotificationDigest digest) {
+            if (failOnce.remove(digest.getRecipientId())) {
+                throw new IllegalStateException("Mailbox unavailable");
+            }
+            sent.add(digest);
+        }
+
+        long received(Long userId, Long bookingId) {
+            return sent.stream()
+                    .filter(digest -> digest.getRecipientId().equals(userId))
+                    .flatMap(digest -> digest.getNotifications().stream())
+                    .filter(notification -> notification.getBookingId().equals(bookingId))
+                    .count();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OccupancySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void savedDaysAreReadBackUntilTheirRoomIsInvalidated() throws IOException {
+        Path file = directory.resolve("occupancy.snapshot");
+        LocalDate date = LocalDate.of(2030, 5, 17);
+        OccupancySnapshot.Day first = day(1L, date, 3L, 0L);
+        OccupancySnapshot.Day second = day(2L, date, 0L, -1L);
+        OccupancySnapshot.Day later = day(1L, date.plusDays(1), 1L << 63, 5L);
+
+        try (OccupancySnapshot written = OccupancySnapshot.write(file, 1234L, List.of(first, second, later))) {
+            assertThat(written.getHighWaterMark()).isEqualTo(1234L);
+            assertThat(days(written)).hasSize(3);
+            written.invalidate(1L);
+        }
+
+        // Invalidation went through the mapping into the file
+        try (OccupancySnapshot reopened = OccupancySnapshot.open(file)) {
+            List<OccupancySnapshot.Day> days = days(reopened);
+            assertThat(days).hasSize(1);
+            OccupancySnapshot.Day day = days.get(0);
+            assertThat(day.boardroomId()).isEqualTo(2L);
+            assertThat(day.date()).isEqualTo(date);
+            assertThat(day.booked()).isEqualTo(second.booked());
+            assertThat(day.blocked()).isEqualTo(second.blocked());
+        }
+    }
+
+    @Test
+    void damagedFilesAreRejected() throws IOException {
+        Path file = directory.resolve("occupancy.snapshot");
+        OccupancySnapshot.write(file, 1L, List.of(day(1L, LocalDate.of(2030, 5, 17), 1L, 1L))).close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> OccupancySnapshot.open(file)).isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+
+        bytes[0] ^= 1;
+        Files.write(file, bytes);
+        assertThatThrownBy(() -> OccupancySnapshot.open(file)).isInstanceOf(IOException.class)
+                .hasMessageContaining("unknown format");
+    }
+
+    private static List<OccupancySnapshot.Day> days(OccupancySnapshot snapshot) {
+        List<OccupancySnapshot.Day> days = new ArrayList<>();
+        snapshot.forEach(days::add);
+        return days;
+    }
+
+    /**
+     * A day whose first booked and blocked words are given and whose last words are all set
+     */
+    private static OccupancySnapshot.Day day(long boardroomId, LocalDate date, long booked, long blocked) {
+        long[] bookedWords = new long[OccupancySnapshot.WORDS];
+        long[] blockedWords = new long[OccupancySnapshot.WORDS];
+        bookedWords[0] = booked;
+        blockedWords[0] = blocked;
+        bookedWords[OccupancySnapshot.WORDS - 1] = -1L;
+        return new OccupancySnapshot.Day(boardroomId, date, bookedWords, blockedWords);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.PendingBooking;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.repository.AvailabilityBlockRuleRepository;
+import com.example.booking.repository.AvailabilitySlotRepository;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Same properties as WriteBehindBookingServiceTest, so the two share a context
+@SpringBootTest(properties = {
+        "app.booking.write-behind.enabled=true",
+        "app.booking.write-behind.wal-dir=target/test-data/write-behind/wal",
+        "app.booking.write-behind.fsync=false",
+        "app.audit-journal.dir=target/test-data/write-behind/audit"
+})
+@ActiveProfiles("test")
+class OccupancyStateTest {
+
+    @Autowired
+    private OccupancyState occupancyState;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private AvailabilityBlockRuleRepository blockRuleRepository;
+
+    @Autowired
+    private BlockRuleService blockRuleService;
+
+    @Autowired
+    private ClusterChangeLog clusterChangeLog;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @TempDir
+    Path directory;
+
+    private Boardroom boardroom;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        boardroom = boardroomRepository.save(new Boardroom("Occupancy Room " + System.nanoTime(), "Floor 18", 8, null));
+        date = LocalDate.now().plusDays(90);
+    }
+
+    @Test
+    void admissionIsExactToTheMinute() {
+        PendingBooking morning = booking(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        assertThat(occupancyState.tryAdmit(morning)).isTrue();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(9, 59), LocalTime.of(10, 30)))).isFalse();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(8, 0), LocalTime.of(9, 1)))).isFalse();
+        // Adjacent ranges do not overlap
+        PendingBooking next = booking(LocalTime.of(10, 0), LocalTime.of(10, 30));
+        assertThat(occupancyState.tryAdmit(next)).isTrue();
+
+        // Minutes 60 to 70 straddle two words of the bitmap
+        PendingBooking early = booking(LocalTime.of(1, 0), LocalTime.of(1, 10));
+        assertThat(occupancyState.tryAdmit(early)).isTrue();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(1, 4), LocalTime.of(1, 5)))).isFalse();
+
+        // A range ending part-way through a minute occupies that minute
+        PendingBooking late = booking(LocalTime.of(23, 0), LocalTime.of(23, 58, 30));
+        assertThat(occupancyState.tryAdmit(late)).isTrue();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(23, 58), LocalTime.of(23, 59)))).isFalse();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(23, 59), LocalTime.MAX))).isTrue();
+
+        assertThat(occupancyState.hasPendingWrite(boardroom.getId(), date, LocalTime.of(9, 30), LocalTime.of(9, 45)))
+                .isTrue();
+        assertThat(occupancyState.findBoardroomsWithPendingWrites(date, LocalTime.of(1, 5), LocalTime.of(1, 6)))
+                .contains(boardroom.getId());
+
+        // A failed write frees its range once the day is rebuilt from the database
+        occupancyState.failed(morning);
+        assertThat(occupancyState.hasPendingWrite(boardroom.getId(), date, LocalTime.of(9, 30), LocalTime.of(9, 45)))
+                .isFalse();
+        assertThat(occupancyState.tryAdmit(booking(LocalTime.of(9, 0), LocalTime.of(9, 30)))).isTrue();
+    }
+
+    @Test
+    void snapshotRestoresLoadedDaysUntilTheRoomChanges() {
+        Path file = directory.resolve("occupancy.snapshot");
+        OccupancyState first = newState(file);
+        PendingBooking booking = booking(LocalTime.of(14, 0), LocalTime.of(15, 0));
+        assertThat(first.tryAdmit(booking)).isTrue();
+        // Never stored in the database: only the snapshot knows about it
+        first.persisted(booking);
+        first.shutdown();
+
+        OccupancyState restarted = newState(file);
+        assertThat(restarted.tryAdmit(booking(LocalTime.of(14, 30), LocalTime.of(15, 30)))).isFalse();
+        restarted.onRoomChanged(new RoomChangeTracker.RoomChangedEvent(boardroom.getId()));
+        restarted.shutdown();
+
+        OccupancyState rebuilt = newState(file);
+        assertThat(rebuilt.tryAdmit(booking(LocalTime.of(14, 30), LocalTime.of(15, 30)))).isTrue();
+        rebuilt.shutdown();
+    }
+
+    private OccupancyState newState(Path file) {
+        return new OccupancyState(bookingRepository, availabilitySlotRepository, blockRuleRepository,
+                blockRuleService, clusterChangeLog, true, file.toString(), 300000);
+    }
+
+    private PendingBooking booking(LocalTime start, LocalTime end) {
+        return new PendingBooking(UUID.randomUUID().toString(), 1L, boardroom.getId(), date, start, end,
+                "Planning", 4, LocalDateTime.now());
+    }
+}
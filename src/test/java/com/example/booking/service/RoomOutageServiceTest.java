@@ -0,0 +1,130 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.RoomAssignment;
+import com.example.booking.dto.RoomOutageResult;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomOutageServiceTest {
+
+    @Autowired
+    private RoomOutageService roomOutageService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String location;
+
+    private User user;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        long unique = System.nanoTime();
+        // Rooms of other tests are never in this location, so they are never equivalent rooms
+        location = "Outage Wing " + unique;
+        user = userRepository.save(new User("outage" + unique, "secret1", "outage" + unique + "@example.com",
+                "Outage User", "Facilities"));
+        date = LocalDate.now().plusDays(300);
+    }
+
+    @Test
+    void outageMovesBookingsToTheSmallestEquivalentRoomAndCancelsTheRest() {
+        Boardroom broken = room("Broken", location, 14);
+        Boardroom larger = room("Larger", location.toUpperCase(), 12);
+        Boardroom smaller = room("Smaller", location, 8);
+        Boardroom elsewhere = room("Elsewhere", "Another Wing", 12);
+        Boardroom tiny = room("Tiny", location, 6);
+
+        Booking eleven = confirmed(broken, LocalTime.of(9, 0), 11);
+        Booking five = confirmed(broken, LocalTime.of(10, 0), 5);
+        // Both equivalent rooms are taken at eleven
+        confirmed(larger, LocalTime.of(11, 0), 2);
+        confirmed(smaller, LocalTime.of(11, 0), 2);
+        Booking pending = bookingService.createBooking(user.getId(), broken.getId(), date, LocalTime.of(11, 0),
+                LocalTime.of(12, 0), "Pending meeting", 4);
+        Booking afternoon = confirmed(broken, LocalTime.of(14, 0), 3);
+
+        RoomOutageResult result = roomOutageService.declareOutage(broken.getId(), date, date, LocalTime.of(9, 0),
+                LocalTime.of(12, 0), true, "facilities", "Burst pipe");
+
+        Map<Long, Long> moved = result.getRehomed().stream()
+                .collect(Collectors.toMap(RoomAssignment::getBookingId, RoomAssignment::getAssignedBoardroomId));
+        assertThat(moved).containsOnly(Map.entry(eleven.getId(), larger.getId()),
+                Map.entry(five.getId(), smaller.getId()));
+        assertThat(result.getCancelledBookingIds()).containsExactly(pending.getId());
+
+        Booking movedEleven = bookingRepository.findById(eleven.getId()).orElseThrow();
+        assertThat(movedEleven.getBoardroom().getId()).isEqualTo(larger.getId());
+        assertThat(movedEleven.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(bookingRepository.findById(pending.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELLED);
+        assertThat(bookingRepository.findById(afternoon.getId()).orElseThrow().getBoardroom().getId())
+                .isEqualTo(broken.getId());
+        assertThat(availabilityService.isTimeSlotAvailable(broken.getId(), date, LocalTime.of(11, 0),
+                LocalTime.of(11, 30))).isFalse();
+        assertThat(availabilityService.isTimeSlotAvailable(elsewhere.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0))).isTrue();
+        assertThat(availabilityService.isTimeSlotAvailable(tiny.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0))).isTrue();
+    }
+
+    @Test
+    void deactivationWithoutRehomingCancelsEveryOpenBooking() {
+        Boardroom retired = room("Retired", location, 10);
+        room("Spare", location, 10);
+        Booking first = confirmed(retired, LocalTime.of(9, 0), 4);
+        Booking later = bookingService.createBooking(user.getId(), retired.getId(), date.plusDays(30),
+                LocalTime.of(15, 0), LocalTime.of(16, 0), "Quarterly review", 6);
+
+        RoomOutageResult result = roomOutageService.deactivateRoom(retired.getId(), false, "Renovation");
+
+        assertThat(result.getRehomed()).isEmpty();
+        assertThat(result.getCancelledBookingIds()).containsExactlyInAnyOrder(first.getId(), later.getId());
+        assertThat(boardroomRepository.findById(retired.getId()).orElseThrow().isActive()).isFalse();
+        assertThat(bookingRepository.findById(later.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELLED);
+    }
+
+    private Boardroom room(String name, String roomLocation, int capacity) {
+        return boardroomRepository.save(new Boardroom(name + " " + System.nanoTime(), roomLocation, capacity, null));
+    }
+
+    private Booking confirmed(Boardroom room, LocalTime start, int attendees) {
+        Booking booking = bookingService.createBooking(user.getId(), room.getId(), date, start, start.plusHours(1),
+                "Meeting of " + attendees, attendees);
+        return bookingService.approveBooking(booking.getId(), "admin");
+    }
+}
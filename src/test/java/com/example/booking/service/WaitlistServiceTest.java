@@ -0,0 +1,124 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.User;
+import com.example.booking.entity.WaitlistEntry;
+import com.example.booking.enums.WaitlistStatus;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import com.example.booking.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Boardroom boardroom;
+
+    private LocalDate date;
+
+    private long unique;
+
+    @BeforeEach
+    void seed() {
+        unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Waitlist Room " + unique, "Floor 15", 10, null));
+        date = LocalDate.now().plusDays(50);
+    }
+
+    @Test
+    void cancellationPromotesAdminsBeforeEarlierUsers() throws InterruptedException {
+        Booking taken = confirmedBooking(user("holder"));
+        WaitlistEntry regular = join(user("regular"));
+        User admin = user("admin");
+        admin.setRole(User.UserRole.GLOBAL_ADMIN);
+        userRepository.save(admin);
+        WaitlistEntry privileged = join(admin);
+
+        bookingService.cancelBooking(taken.getId(), "Plans changed");
+
+        assertThat(awaitStatus(privileged.getId(), WaitlistStatus.PROMOTED)).isEqualTo(WaitlistStatus.PROMOTED);
+        WaitlistEntry promoted = waitlistEntryRepository.findById(privileged.getId()).orElseThrow();
+        Booking booking = bookingRepository.findById(promoted.getBooking().getId()).orElseThrow();
+        assertThat(booking.getUser().getId()).isEqualTo(admin.getId());
+        assertThat(waitlistEntryRepository.findById(regular.getId()).orElseThrow().getStatus())
+                .isEqualTo(WaitlistStatus.WAITING);
+    }
+
+    @Test
+    void entryNoLongerWaitingIsNotBooked() throws InterruptedException {
+        Booking taken = confirmedBooking(user("holder"));
+        User gone = user("gone");
+        WaitlistEntry withdrawn = join(gone);
+        WaitlistEntry next = join(user("next"));
+
+        // Withdrawn on another node: this node's queue still holds the entry
+        WaitlistEntry entry = waitlistEntryRepository.findById(withdrawn.getId()).orElseThrow();
+        entry.withdraw();
+        waitlistEntryRepository.save(entry);
+
+        bookingService.cancelBooking(taken.getId(), "Plans changed");
+
+        // Entries are matched in order, so the withdrawn one has been skipped by now
+        assertThat(awaitStatus(next.getId(), WaitlistStatus.PROMOTED)).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(waitlistEntryRepository.findById(withdrawn.getId()).orElseThrow().getStatus())
+                .isEqualTo(WaitlistStatus.WITHDRAWN);
+        assertThat(bookingRepository.findByUserIdOrderByBookingDateDescStartTimeDesc(gone.getId())).isEmpty();
+    }
+
+    private Booking confirmedBooking(User user) {
+        Booking booking = bookingService.createBooking(user.getId(), boardroom.getId(), date, LocalTime.of(9, 0),
+                LocalTime.of(10, 0), "Standup", 3);
+        return bookingService.approveBooking(booking.getId(), "admin");
+    }
+
+    private WaitlistEntry join(User user) {
+        return waitlistService.join(user.getId(), boardroom.getId(), date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                "Interview", 2);
+    }
+
+    private User user(String name) {
+        return userRepository.save(new User(name + unique, "secret1", name + unique + "@example.com", name, "HR"));
+    }
+
+    private WaitlistStatus awaitStatus(Long entryId, WaitlistStatus expected) throws InterruptedException {
+        WaitlistStatus status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            status = waitlistEntryRepository.findById(entryId).orElseThrow().getStatus();
+            if (status == expected) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.PendingBooking;
+import com.example.booking.entity.Boardroom;
+import com.example.booking.entity.User;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.repository.BoardroomRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "app.booking.write-behind.enabled=true",
+        "app.booking.write-behind.wal-dir=target/test-data/write-behind/wal",
+        "app.booking.write-behind.fsync=false",
+        "app.audit-journal.dir=target/test-data/write-behind/audit"
+})
+@ActiveProfiles("test")
+class WriteBehindBookingServiceTest {
+
+    @Autowired
+    private WriteBehindBookingService writeBehindBookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BoardroomRepository boardroomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private OccupancyState occupancyState;
+
+    @Autowired
+    private RoomDayLocks roomDayLocks;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path walDirectory;
+
+    private Boardroom boardroom;
+
+    private User user;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        long unique = System.nanoTime();
+        boardroom = boardroomRepository.save(new Boardroom("Write Behind Room " + unique, "Floor 13", 10, null));
+        user = userRepository.save(new User("writer" + unique, "secret1", "writer" + unique + "@example.com",
+                "Writer", "Ops"));
+        date = LocalDate.now().plusDays(15);
+    }
+
+    @Test
+    void admittedBookingIsExclusiveAndReachesTheDatabase() {
+        PendingBooking accepted = writeBehindBookingService.submit(user.getId(), boardroom.getId(), date,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), "Standup", 3);
+
+        assertThatThrownBy(() -> writeBehindBookingService.submit(user.getId(), boardroom.getId(), date,
+                LocalTime.of(9, 30), LocalTime.of(10, 30), "Clash", 3)).isInstanceOf(BookingConflictException.class);
+
+        awaitTrue(() -> bookingRepository.findByReference(accepted.getReference()).isPresent());
+    }
+
+    @Test
+    void rowRetriedAfterPermanentBatchFailureIsRetriedUntilStored() {
+        FlakyTransactionManager flaky = new FlakyTransactionManager(transactionManager);
+        WriteBehindBookingService service = newService(flaky, walDirectory);
+        try {
+            service.replay();
+            // The batch fails on a constraint, then the first row fails transiently once
+            flaky.failures.add(new DataIntegrityViolationException("constraint"));
+            flaky.failures.add(new CannotCreateTransactionException("connection refused"));
+
+            PendingBooking first = service.submit(user.getId(), boardroom.getId(), date, LocalTime.of(13, 0),
+                    LocalTime.of(14, 0), "First", 2);
+            PendingBooking second = service.submit(user.getId(), boardroom.getId(), date, LocalTime.of(14, 0),
+                    LocalTime.of(15, 0), "Second", 2);
+
+            awaitTrue(() -> bookingRepository.findByReference(first.getReference()).isPresent() &&
+                    bookingRepository.findByReference(second.getReference()).isPresent());
+            assertThat(flaky.failures).isEmpty();
+            awaitTrue(() -> !occupancyState.hasPendingWrite(boardroom.getId(), date, LocalTime.of(13, 0),
+                    LocalTime.of(15, 0)));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void loggedBookingsAreReplayedOnceReady() {
+        PendingBooking logged = new PendingBooking(UUID.randomUUID().toString(), user.getId(), boardroom.getId(),
+                date, LocalTime.of(16, 0), LocalTime.of(17, 0), "Logged before crash", 4, LocalDateTime.now());
+        BookingWriteAheadLog previousRun = new BookingWriteAheadLog(walDirectory, 1 << 20, false);
+        previousRun.recover();
+        previousRun.append(logged);
+
+        WriteBehindBookingService service = newService(transactionManager, walDirectory);
+        try {
+            assertThatThrownBy(() -> service.submit(user.getId(), boardroom.getId(), date, LocalTime.of(8, 0),
+                    LocalTime.of(9, 0), "Too early", 2)).isInstanceOf(IllegalStateException.class);
+
+            service.replay();
+
+            assertThat(bookingRepository.findByReference(logged.getReference())).isPresent();
+            assertThat(service.submit(user.getId(), boardroom.getId(), date, LocalTime.of(8, 0),
+                    LocalTime.of(9, 0), "After replay", 2)).isNotNull();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private WriteBehindBookingService newService(PlatformTransactionManager manager, Path directory) {
+        return new WriteBehindBookingService(bookingRepository, boardroomRepository, userRepository,
+                bookingHoldService, occupancyState, roomDayLocks, notificationOutbox, manager,
+                new SimpleMeterRegistry(), directory.toString(), 1 << 20, false, 2, 500);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        for (int attempt = 0; attempt < 100 && !condition.getAsBoolean(); attempt++) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Fails the next transactions with the queued exceptions, then delegates
+     */
+    private static final class FlakyTransactionManager implements PlatformTransactionManager {
+
+        final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+
+        private final PlatformTransactionManager delegate;
+
+        FlakyTransactionManager(PlatformTransactionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            RuntimeException failure = failures.poll();
+            if (failure != null) {
+                throw failure;
+            }
+            return delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            delegate.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            delegate.rollback(status);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.booking.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimerWheelTest {
+
+    // Four buckets of 10 ms, so most timeouts below wait for more than one rotation
+    private final HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 10, 4);
+
+    @AfterEach
+    void close() {
+        wheel.close();
+    }
+
+    @Test
+    void timeoutsExpireInDeadlineOrderAcrossRotations() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long scheduledAt = System.nanoTime();
+
+        wheel.schedule(() -> { fired.add(250); done.countDown(); }, 250, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(30); done.countDown(); }, 30, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(120); done.countDown(); }, 120, TimeUnit.MILLISECONDS);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly(30, 120, 250);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt)).isGreaterThanOrEqualTo(250);
+        assertThat(wheel.getExpiredCount()).isEqualTo(3);
+        assertThat(wheel.getActiveCount()).isZero();
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws InterruptedException {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+
+        HashedTimerWheel.Timeout cancelled = wheel.schedule(cancelledRan::countDown, 50, TimeUnit.MILLISECONDS);
+        HashedTimerWheel.Timeout later = wheel.schedule(laterRan::countDown, 100, TimeUnit.MILLISECONDS);
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.getActiveCount()).isEqualTo(1);
+
+        assertThat(laterRan.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.getCount()).isEqualTo(1);
+        assertThat(later.isExpired()).isTrue();
+        assertThat(later.cancel()).isFalse();
+    }
+
+    @Test
+    void closedWheelRejectsNewTimeouts() {
+        wheel.close();
+        assertThatThrownBy(() -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = executor.submit(() -> flight.get("key", () -> {
+                loading.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> flight.get("key", loads::incrementAndGet)));
+            }
+            while (flight.getSharedCount() < followers.size()) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            for (Future<Integer> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(flight.getLoadCount()).isEqualTo(1);
+        assertThat(flight.size()).isZero();
+    }
+
+    @Test
+    void resultIsReusedWithinFreshnessWindowUntilInvalidated() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(flight.get("key", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.get("key", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.get("other", loads::incrementAndGet)).isEqualTo(2);
+
+        flight.invalidate("key");
+        assertThat(flight.get("key", loads::incrementAndGet)).isEqualTo(3);
+        assertThat(flight.getCoalescingRatio()).isEqualTo(0.25);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+
+        assertThatThrownBy(() -> flight.get("key", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+
+        assertThat(flight.get("key", () -> 7)).isEqualTo(7);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}